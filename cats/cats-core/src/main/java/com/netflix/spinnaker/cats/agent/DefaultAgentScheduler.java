@@ -16,14 +16,23 @@
 
 package com.netflix.spinnaker.cats.agent;
 
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spinnaker.cats.module.CatsModuleAware;
+import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An AgentScheduler that executes on a fixed interval.
@@ -33,8 +42,13 @@ import java.util.concurrent.TimeUnit;
  *
  * <p>An exception thrown while reporting executionFailure will abort the schedule for the
  * CachingAgent.
+ *
+ * <p>By default agents run on the scheduling threads themselves. When an agent execution pool is
+ * supplied, the scheduling threads only dispatch due agents to that pool, with the number of agents
+ * of each provider that run at once bounded separately.
  */
 public class DefaultAgentScheduler extends CatsModuleAware implements AgentScheduler<AgentLock> {
+  private static final Logger log = LoggerFactory.getLogger(DefaultAgentScheduler.class);
   private static final long DEFAULT_INTERVAL = 60000;
 
   private final ScheduledExecutorService scheduledExecutorService;
@@ -42,6 +56,11 @@ public class DefaultAgentScheduler extends CatsModuleAware implements AgentSched
   private final TimeUnit timeUnit;
   private final Map<Agent, Future> agentFutures = new ConcurrentHashMap<Agent, Future>();
 
+  private final ExecutorService agentExecutionPool;
+  private final Map<String, Integer> providerConcurrency;
+  private final int defaultProviderConcurrency;
+  private final Map<String, ProviderExecutor> providerExecutors = new ConcurrentHashMap<>();
+
   public DefaultAgentScheduler() {
     this(DEFAULT_INTERVAL);
   }
@@ -63,9 +82,34 @@ public class DefaultAgentScheduler extends CatsModuleAware implements AgentSched
 
   public DefaultAgentScheduler(
       ScheduledExecutorService scheduledExecutorService, long interval, TimeUnit timeUnit) {
+    this(scheduledExecutorService, null, interval, timeUnit, Collections.emptyMap(), 0);
+  }
+
+  /**
+   * @param scheduledExecutorService decides when agents are due, and does no other work
+   * @param agentExecutionPool runs agents; since caching agents mostly wait on cloud provider APIs
+   *     it may be sized well beyond the number of available processors
+   * @param providerConcurrency the maximum number of agents of a provider that may run at once,
+   *     keyed by provider name or its simple name
+   * @param defaultProviderConcurrency the limit for providers not in providerConcurrency
+   */
+  public DefaultAgentScheduler(
+      ScheduledExecutorService scheduledExecutorService,
+      ExecutorService agentExecutionPool,
+      long interval,
+      TimeUnit timeUnit,
+      Map<String, Integer> providerConcurrency,
+      int defaultProviderConcurrency) {
+    if (agentExecutionPool != null && defaultProviderConcurrency < 1) {
+      throw new IllegalArgumentException(
+          "defaultProviderConcurrency must be positive, got " + defaultProviderConcurrency);
+    }
     this.scheduledExecutorService = scheduledExecutorService;
+    this.agentExecutionPool = agentExecutionPool;
     this.interval = interval;
     this.timeUnit = timeUnit;
+    this.providerConcurrency = providerConcurrency;
+    this.defaultProviderConcurrency = defaultProviderConcurrency;
   }
 
   @Override
@@ -80,12 +124,18 @@ public class DefaultAgentScheduler extends CatsModuleAware implements AgentSched
       agentTimeUnit = TimeUnit.MILLISECONDS;
     }
 
+    Runnable agentExecutionRunnable =
+        new AgentExecutionRunnable(agent, agentExecution, executionInstrumentation);
+    if (agentExecutionPool != null) {
+      agentExecutionRunnable =
+          new AgentDispatchRunnable(
+              providerExecutors.computeIfAbsent(agent.getProviderName(), this::providerExecutor),
+              agentExecutionRunnable);
+    }
+
     Future agentFuture =
         scheduledExecutorService.scheduleAtFixedRate(
-            new AgentExecutionRunnable(agent, agentExecution, executionInstrumentation),
-            0,
-            agentInterval,
-            agentTimeUnit);
+            agentExecutionRunnable, 0, agentInterval, agentTimeUnit);
 
     agentFutures.put(agent, agentFuture);
   }
@@ -98,6 +148,15 @@ public class DefaultAgentScheduler extends CatsModuleAware implements AgentSched
     }
   }
 
+  private ProviderExecutor providerExecutor(String providerName) {
+    Integer limit = providerConcurrency.get(providerName);
+    if (limit == null && providerName != null) {
+      limit = providerConcurrency.get(providerName.substring(providerName.lastIndexOf('.') + 1));
+    }
+    return new ProviderExecutor(
+        agentExecutionPool, limit != null ? limit : defaultProviderConcurrency);
+  }
+
   @Override
   public AgentLock tryLock(Agent agent) {
     return null;
@@ -113,6 +172,111 @@ public class DefaultAgentScheduler extends CatsModuleAware implements AgentSched
     return false;
   }
 
+  /**
+   * Hands an agent to its provider's executor when it is due, unless its previous execution is still
+   * queued or running, matching the no-overlap behaviour of running directly on the scheduler.
+   *
+   * <p>An exception escaping an execution on the pool is rethrown by the next dispatch, so that it
+   * aborts the schedule just as it would when running directly on the scheduler.
+   */
+  private static class AgentDispatchRunnable implements Runnable {
+    private final ProviderExecutor executor;
+    private final Runnable execution;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private volatile Throwable failure;
+
+    AgentDispatchRunnable(ProviderExecutor executor, Runnable execution) {
+      this.executor = executor;
+      this.execution = execution;
+    }
+
+    @Override
+    public void run() {
+      if (failure != null) {
+        Throwables.throwIfUnchecked(failure);
+        throw new RuntimeException(failure);
+      }
+      if (!pending.compareAndSet(false, true)) {
+        return;
+      }
+      executor.execute(
+          () -> {
+            try {
+              execution.run();
+              pending.set(false);
+            } catch (Throwable t) {
+              // stays pending, since the schedule ends on its next dispatch
+              failure = t;
+            }
+          },
+          () -> pending.set(false));
+    }
+  }
+
+  /**
+   * Runs at most limit tasks at once on a shared pool, queueing the rest rather than blocking pool
+   * threads so that one saturated provider cannot hold threads other providers could use.
+   *
+   * <p>A task the pool rejects gives up its slot and is dropped, after its onRejected callback runs.
+   */
+  private static class ProviderExecutor {
+    private final Executor delegate;
+    private final int limit;
+    private final Queue<QueuedTask> queued = new ArrayDeque<>();
+    private int running;
+
+    ProviderExecutor(Executor delegate, int limit) {
+      this.delegate = delegate;
+      this.limit = limit;
+    }
+
+    synchronized void execute(Runnable task, Runnable onRejected) {
+      QueuedTask queuedTask = new QueuedTask(task, onRejected);
+      if (running < limit) {
+        running++;
+        submit(queuedTask);
+      } else {
+        queued.add(queuedTask);
+      }
+    }
+
+    private void submit(QueuedTask queuedTask) {
+      try {
+        delegate.execute(
+            () -> {
+              try {
+                queuedTask.task.run();
+              } finally {
+                completed();
+              }
+            });
+      } catch (RuntimeException e) {
+        running--;
+        log.warn("Agent execution pool rejected an agent", e);
+        queuedTask.onRejected.run();
+      }
+    }
+
+    private synchronized void completed() {
+      running--;
+      QueuedTask next;
+      while (running < limit && (next = queued.poll()) != null) {
+        running++;
+        submit(next);
+      }
+    }
+  }
+
+  private static class QueuedTask {
+    private final Runnable task;
+    private final Runnable onRejected;
+
+    QueuedTask(Runnable task, Runnable onRejected) {
+      this.task = task;
+      this.onRejected = onRejected;
+    }
+  }
+
   private static class AgentExecutionRunnable implements Runnable {
     private final Agent agent;
     private final AgentExecution execution;
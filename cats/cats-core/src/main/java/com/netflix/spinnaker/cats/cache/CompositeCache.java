@@ -122,6 +122,18 @@ public class CompositeCache implements Cache {
     return getAll(type, Arrays.asList(identifiers));
   }
 
+  @Override
+  public void streamAll(
+      String type, CacheFilter cacheFilter, int pageSize, CacheDataPageConsumer consumer) {
+    if (caches.size() == 1) {
+      caches.iterator().next().streamAll(type, cacheFilter, pageSize, consumer);
+      return;
+    }
+
+    // items must be merged across caches so there is nothing to gain from streaming each one
+    Cache.super.streamAll(type, cacheFilter, pageSize, consumer);
+  }
+
   @Override
   public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
     Map<String, Collection<CacheData>> allItems = new HashMap<>();
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.cache;
+
+import java.util.Map;
+
+/**
+ * A Cache that publishes an immutable, point-in-time snapshot of each type on write.
+ *
+ * <p>Snapshot entries are shared between all readers and must not be modified. Relationships in a
+ * snapshot are already merged across sources, i.e. a relationship stored as {@code
+ * serverGroups:SomeCachingAgent} is exposed as {@code serverGroups}.
+ */
+public interface SnapshotCache {
+
+  /** @return true if snapshots are being published for this cache */
+  boolean isSnapshotEnabled();
+
+  /**
+   * @param type the type to snapshot
+   * @return an unmodifiable map of id to CacheData reflecting the last completed write of type,
+   *     never null
+   */
+  Map<String, CacheData> getSnapshot(String type);
+}
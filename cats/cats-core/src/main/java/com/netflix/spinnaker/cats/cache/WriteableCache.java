@@ -27,4 +27,12 @@ public interface WriteableCache extends Cache {
   void evict(String type, String id);
 
   void evictAll(String type, Collection<String> ids);
+
+  /**
+   * @return true if this cache is only ever written through this process, so that what has been
+   *     written to it can be tracked in memory instead of read back
+   */
+  default boolean isProcessLocal() {
+    return false;
+  }
 }
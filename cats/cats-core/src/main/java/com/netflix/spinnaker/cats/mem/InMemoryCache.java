@@ -19,6 +19,7 @@ package com.netflix.spinnaker.cats.mem;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.cache.CacheFilter;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.cats.cache.SnapshotCache;
 import com.netflix.spinnaker.cats.cache.WriteableCache;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,26 +35,48 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
-/** A WriteableCache that stores objects in an in-memory map. */
-public class InMemoryCache implements WriteableCache {
+/**
+ * A WriteableCache that stores objects in an in-memory map.
+ *
+ * <p>When snapshots are enabled, every write also publishes a new snapshot of the affected type
+ * (see {@link SnapshotCache}). Readers of a snapshot share the same immutable entries. Snapshots
+ * share structure with the previous one, so a write costs time in proportion to the entries it
+ * changes rather than to the size of the type.
+ */
+public class InMemoryCache implements WriteableCache, SnapshotCache {
   private ConcurrentMap<String, ConcurrentMap<String, CacheData>> typeMap =
       new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, TypeSnapshot> snapshots = new ConcurrentHashMap<>();
+  private final boolean snapshotEnabled;
+
+  public InMemoryCache() {
+    this(false);
+  }
+
+  public InMemoryCache(boolean snapshotEnabled) {
+    this.snapshotEnabled = snapshotEnabled;
+  }
 
   @Override
   public void merge(String type, CacheData cacheData) {
     merge(getOrCreate(type, cacheData.getId()), cacheData);
+    publish(type, Collections.singletonList(cacheData.getId()));
   }
 
   @Override
   public void mergeAll(String type, Collection<CacheData> items) {
+    Collection<String> ids = new ArrayList<>(items.size());
     for (CacheData item : items) {
-      merge(type, item);
+      merge(getOrCreate(type, item.getId()), item);
+      ids.add(item.getId());
     }
+    publish(type, ids);
   }
 
   @Override
   public void evict(String type, String id) {
     getTypeMap(type).remove(id);
+    publish(type, Collections.singletonList(id));
   }
 
   @Override
@@ -62,6 +85,29 @@ public class InMemoryCache implements WriteableCache {
     for (String id : ids) {
       map.remove(id);
     }
+    publish(type, ids);
+  }
+
+  @Override
+  public boolean isProcessLocal() {
+    return true;
+  }
+
+  @Override
+  public boolean isSnapshotEnabled() {
+    return snapshotEnabled;
+  }
+
+  @Override
+  public Map<String, CacheData> getSnapshot(String type) {
+    if (!snapshotEnabled) {
+      throw new IllegalStateException("Snapshots are not enabled for this cache");
+    }
+    TypeSnapshot snapshot = snapshots.get(type);
+    if (snapshot == null) {
+      return Collections.emptyMap();
+    }
+    return snapshot.entries;
   }
 
   @Override
@@ -183,6 +229,34 @@ public class InMemoryCache implements WriteableCache {
     return existing;
   }
 
+  /**
+   * Publishes a new snapshot of type in which the entries for ids reflect the current backing data.
+   *
+   * <p>Publishing is serialized per type and re-reads the backing data while holding the lock, so
+   * concurrent writers converge on the latest state; readers never block.
+   */
+  private void publish(String type, Collection<String> ids) {
+    if (!snapshotEnabled || ids.isEmpty()) {
+      return;
+    }
+
+    TypeSnapshot snapshot = snapshots.computeIfAbsent(type, t -> new TypeSnapshot());
+    ConcurrentMap<String, CacheData> map = getTypeMap(type);
+    synchronized (snapshot) {
+      Collection<CacheData> updated = new ArrayList<>(ids.size());
+      Collection<String> removed = new ArrayList<>();
+      for (String id : ids) {
+        CacheData data = map.get(id);
+        if (data == null || data.getAttributes().isEmpty()) {
+          removed.add(id);
+        } else {
+          updated.add(new SnapshotData(data));
+        }
+      }
+      snapshot.entries = snapshot.entries.update(updated, removed);
+    }
+  }
+
   private void merge(CacheData existing, CacheData update) {
     MapMutation<String, Object> attributes = new MapMutation<>(update.getAttributes());
     MapMutation<String, Collection<String>> relationships =
@@ -226,6 +300,71 @@ public class InMemoryCache implements WriteableCache {
     }
   }
 
+  private static class TypeSnapshot {
+    private volatile SnapshotEntries entries = SnapshotEntries.EMPTY;
+  }
+
+  /**
+   * An immutable copy of a BackingData with relationships from all sources merged on the portion
+   * of the relationship key preceding the first ':'.
+   *
+   * <p>Relationships are merged the first time they are read, so entries that are never read (like
+   * the large bookkeeping entries that record the ids owned by each agent) are never merged.
+   */
+  private static class SnapshotData implements CacheData {
+    private final String id;
+    private final Map<String, Object> attributes;
+    private final Map<String, Collection<String>> sourceRelationships;
+    private volatile Map<String, Collection<String>> relationships;
+
+    SnapshotData(CacheData source) {
+      this.id = source.getId();
+      this.attributes = Collections.unmodifiableMap(new HashMap<>(source.getAttributes()));
+      // the cache replaces relationship values rather than modifying them, so they can be shared
+      this.sourceRelationships = new HashMap<>(source.getRelationships());
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public int getTtlSeconds() {
+      return -1;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public Map<String, Collection<String>> getRelationships() {
+      Map<String, Collection<String>> merged = relationships;
+      if (merged == null) {
+        merged = mergeRelationships(sourceRelationships);
+        relationships = merged;
+      }
+      return merged;
+    }
+
+    private static Map<String, Collection<String>> mergeRelationships(
+        Map<String, Collection<String>> source) {
+      Map<String, Set<String>> merged = new HashMap<>();
+      for (Map.Entry<String, Collection<String>> entry : source.entrySet()) {
+        int idx = entry.getKey().indexOf(':');
+        String relationship = idx == -1 ? entry.getKey() : entry.getKey().substring(0, idx);
+        merged.computeIfAbsent(relationship, r -> new HashSet<>()).addAll(entry.getValue());
+      }
+      Map<String, Collection<String>> relationships = new HashMap<>(merged.size());
+      for (Map.Entry<String, Set<String>> entry : merged.entrySet()) {
+        relationships.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(relationships);
+    }
+  }
+
   private static class BackingData implements CacheData {
     private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Collection<String>> relationships =
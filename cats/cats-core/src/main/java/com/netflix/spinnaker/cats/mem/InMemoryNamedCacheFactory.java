@@ -24,10 +24,20 @@ import java.util.concurrent.ConcurrentMap;
 /** Produces InMemoryCaches. */
 public class InMemoryNamedCacheFactory implements NamedCacheFactory {
   private final ConcurrentMap<String, WriteableCache> caches = new ConcurrentHashMap<>();
+  private final boolean snapshotEnabled;
+
+  public InMemoryNamedCacheFactory() {
+    this(false);
+  }
+
+  /** @param snapshotEnabled whether produced caches publish copy-on-write snapshots for reads */
+  public InMemoryNamedCacheFactory(boolean snapshotEnabled) {
+    this.snapshotEnabled = snapshotEnabled;
+  }
 
   @Override
   public WriteableCache getCache(String name) {
-    WriteableCache cache = new InMemoryCache();
+    WriteableCache cache = new InMemoryCache(snapshotEnabled);
     WriteableCache existing = caches.putIfAbsent(name, cache);
     if (existing == null) {
       return cache;
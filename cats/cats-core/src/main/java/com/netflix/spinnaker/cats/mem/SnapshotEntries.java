@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.mem;
+
+import com.netflix.spinnaker.cats.cache.CacheData;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The immutable entries of a snapshot, by id.
+ *
+ * <p>Backed by a persistent hash trie: an update returns new entries that share all unchanged
+ * nodes with these, so it costs time in proportion to the number of changed ids.
+ */
+final class SnapshotEntries extends AbstractMap<String, CacheData> {
+  static final SnapshotEntries EMPTY = new SnapshotEntries(HashMap.empty());
+
+  private final HashMap<String, CacheData> entries;
+
+  private SnapshotEntries(HashMap<String, CacheData> entries) {
+    this.entries = entries;
+  }
+
+  /** @return these entries with updated put by id and the removed ids taken out */
+  SnapshotEntries update(Collection<CacheData> updated, Collection<String> removed) {
+    HashMap<String, CacheData> next = entries;
+    for (CacheData data : updated) {
+      next = next.put(data.getId(), data);
+    }
+    for (String id : removed) {
+      next = next.remove(id);
+    }
+    return next == entries ? this : new SnapshotEntries(next);
+  }
+
+  @Override
+  public CacheData get(Object key) {
+    return key instanceof String ? entries.get((String) key).getOrNull() : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && entries.containsKey((String) key);
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public Set<Entry<String, CacheData>> entrySet() {
+    return new AbstractSet<Entry<String, CacheData>>() {
+      @Override
+      public Iterator<Entry<String, CacheData>> iterator() {
+        Iterator<Tuple2<String, CacheData>> tuples = entries.iterator();
+        return new Iterator<Entry<String, CacheData>>() {
+          @Override
+          public boolean hasNext() {
+            return tuples.hasNext();
+          }
+
+          @Override
+          public Entry<String, CacheData> next() {
+            Tuple2<String, CacheData> tuple = tuples.next();
+            return new SimpleImmutableEntry<>(tuple._1, tuple._2);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return entries.size();
+      }
+    };
+  }
+
+  @Override
+  public Collection<CacheData> values() {
+    return new AbstractCollection<CacheData>() {
+      @Override
+      public Iterator<CacheData> iterator() {
+        return entries.values().iterator();
+      }
+
+      @Override
+      public int size() {
+        return entries.size();
+      }
+    };
+  }
+}
@@ -21,14 +21,18 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.cache.CacheFilter;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
 import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter;
+import com.netflix.spinnaker.cats.cache.SnapshotCache;
 import com.netflix.spinnaker.cats.cache.WriteableCache;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -36,6 +40,9 @@ import java.util.Set;
  *
  * <p>This implementation will handle aggregating results from multiple sources, and the view
  * methods will merge relationships from all sources into a single relationship.
+ *
+ * <p>If the backing store is a {@link SnapshotCache} with snapshots enabled, reads are served from
+ * its published snapshots (which already have relationships merged) without copying each item.
  */
 public class DefaultProviderCache implements ProviderCache {
 
@@ -49,9 +56,28 @@ public class DefaultProviderCache implements ProviderCache {
           });
 
   private final WriteableCache backingStore;
+  private final SnapshotCache snapshotCache;
+  private final SourceOwnershipIndex ownershipIndex;
 
   public DefaultProviderCache(WriteableCache backingStore) {
+    this(backingStore, backingStore.isProcessLocal());
+  }
+
+  /**
+   * @param exclusiveWriter true if this is the only writer of backingStore, in which case the
+   *     identifiers owned by each agent are tracked incrementally in memory instead of being read
+   *     back from the {@code _ALL_} entry of each type on every agent run. Both modes store and
+   *     evict the same data.
+   */
+  public DefaultProviderCache(WriteableCache backingStore, boolean exclusiveWriter) {
     this.backingStore = backingStore;
+    this.ownershipIndex = exclusiveWriter ? new SourceOwnershipIndex() : null;
+    if (backingStore instanceof SnapshotCache
+        && ((SnapshotCache) backingStore).isSnapshotEnabled()) {
+      this.snapshotCache = (SnapshotCache) backingStore;
+    } else {
+      this.snapshotCache = null;
+    }
   }
 
   @Override
@@ -65,6 +91,9 @@ public class DefaultProviderCache implements ProviderCache {
     if (ALL_ID.equals(id)) {
       return null;
     }
+    if (snapshotCache != null) {
+      return filterRelationships(snapshotCache.getSnapshot(type).get(id), cacheFilter);
+    }
     CacheData item = backingStore.get(type, id, cacheFilter);
     if (item == null) {
       return null;
@@ -81,6 +110,17 @@ public class DefaultProviderCache implements ProviderCache {
   @Override
   public Collection<CacheData> getAll(String type, CacheFilter cacheFilter) {
     validateTypes(type);
+    if (snapshotCache != null) {
+      Map<String, CacheData> snapshot = snapshotCache.getSnapshot(type);
+      if (cacheFilter == null) {
+        return new SnapshotView(snapshot);
+      }
+      Collection<CacheData> response = new ArrayList<>(snapshot.size());
+      for (CacheData item : new SnapshotView(snapshot)) {
+        response.add(filterRelationships(item, cacheFilter));
+      }
+      return Collections.unmodifiableCollection(response);
+    }
     Collection<CacheData> all = backingStore.getAll(type, cacheFilter);
     return buildResponse(all);
   }
@@ -94,6 +134,17 @@ public class DefaultProviderCache implements ProviderCache {
   public Collection<CacheData> getAll(
       String type, Collection<String> identifiers, CacheFilter cacheFilter) {
     validateTypes(type);
+    if (snapshotCache != null) {
+      Map<String, CacheData> snapshot = snapshotCache.getSnapshot(type);
+      Collection<CacheData> response = new ArrayList<>(identifiers.size());
+      for (String id : identifiers) {
+        CacheData item = ALL_ID.equals(id) ? null : snapshot.get(id);
+        if (item != null) {
+          response.add(filterRelationships(item, cacheFilter));
+        }
+      }
+      return Collections.unmodifiableCollection(response);
+    }
     Collection<CacheData> byId = backingStore.getAll(type, identifiers, cacheFilter);
     return buildResponse(byId);
   }
@@ -139,15 +190,28 @@ public class DefaultProviderCache implements ProviderCache {
 
     for (String type : allTypes) {
       final Collection<String> previousSet;
-      if (authoritativeTypes.contains(type)) {
-        previousSet = getExistingSourceIdentifiers(type, sourceAgentType);
-      } else {
+      if (ownershipIndex != null) {
         previousSet = new HashSet<>();
-      }
-      if (cacheResult.getCacheResults().containsKey(type)) {
-        cacheDataType(type, sourceAgentType, cacheResult.getCacheResults().get(type));
-        for (CacheData data : cacheResult.getCacheResults().get(type)) {
-          previousSet.remove(data.getId());
+        Collection<CacheData> items = cacheResult.getCacheResults().get(type);
+        if (items != null || authoritativeTypes.contains(type)) {
+          SourceOwnershipIndex.Delta delta =
+              cacheDataType(
+                  type, sourceAgentType, items == null ? Collections.emptyList() : items);
+          if (authoritativeTypes.contains(type)) {
+            previousSet.addAll(delta.getRemoved());
+          }
+        }
+      } else {
+        if (authoritativeTypes.contains(type)) {
+          previousSet = getExistingSourceIdentifiers(type, sourceAgentType);
+        } else {
+          previousSet = new HashSet<>();
+        }
+        if (cacheResult.getCacheResults().containsKey(type)) {
+          cacheDataType(type, sourceAgentType, cacheResult.getCacheResults().get(type));
+          for (CacheData data : cacheResult.getCacheResults().get(type)) {
+            previousSet.remove(data.getId());
+          }
         }
       }
       if (cacheResult.getEvictions().containsKey(type)) {
@@ -210,6 +274,10 @@ public class DefaultProviderCache implements ProviderCache {
     return Collections.unmodifiableCollection(response);
   }
 
+  private Collection<String> readSourceIdentifiers(String type, String sourceAgentType) {
+    return new HashSet<>(getExistingSourceIdentifiers(type, sourceAgentType));
+  }
+
   private Collection<String> getExistingSourceIdentifiers(String type, String sourceAgentType) {
     CacheData all =
         backingStore.get(type, ALL_ID, RelationshipCacheFilter.include(sourceAgentType));
@@ -223,8 +291,15 @@ public class DefaultProviderCache implements ProviderCache {
     return relationship;
   }
 
-  private void cacheDataType(String type, String sourceAgentType, Collection<CacheData> items) {
-    Collection<String> idSet = new HashSet<>();
+  /**
+   * Stores items and records their ids as the ids owned by sourceAgentType, replacing the ids it
+   * owned before.
+   *
+   * @return the change in owned ids, or null if ownership is not tracked incrementally
+   */
+  private SourceOwnershipIndex.Delta cacheDataType(
+      String type, String sourceAgentType, Collection<CacheData> items) {
+    Set<String> idSet = new HashSet<>();
 
     int ttlSeconds = -1;
     Collection<CacheData> toStore = new ArrayList<>(items.size() + 1);
@@ -236,11 +311,26 @@ public class DefaultProviderCache implements ProviderCache {
         ttlSeconds = item.getTtlSeconds();
       }
     }
-    Map<String, Collection<String>> allRelationship = new HashMap<>();
-    allRelationship.put(sourceAgentType, idSet);
 
-    toStore.add(new DefaultCacheData(ALL_ID, ttlSeconds, ALL_ATTRIBUTE, allRelationship));
-    backingStore.mergeAll(type, toStore);
+    SourceOwnershipIndex.Delta delta = null;
+    Collection<String> allIds = idSet;
+    if (ownershipIndex != null) {
+      delta =
+          ownershipIndex.replace(
+              type, sourceAgentType, idSet, () -> readSourceIdentifiers(type, sourceAgentType));
+      allIds = delta.hasChanges() ? ownershipIndex.getIdentifiers(type, sourceAgentType) : null;
+    }
+
+    // an unchanged set of owned ids does not need to be written back
+    if (allIds != null) {
+      Map<String, Collection<String>> allRelationship = new HashMap<>();
+      allRelationship.put(sourceAgentType, allIds);
+      toStore.add(new DefaultCacheData(ALL_ID, ttlSeconds, ALL_ATTRIBUTE, allRelationship));
+    }
+    if (!toStore.isEmpty()) {
+      backingStore.mergeAll(type, toStore);
+    }
+    return delta;
   }
 
   private CacheData uniqueifyRelationships(CacheData source, String sourceAgentType) {
@@ -270,8 +360,77 @@ public class DefaultProviderCache implements ProviderCache {
     return new DefaultCacheData(source.getId(), source.getAttributes(), relationships);
   }
 
+  /**
+   * Applies cacheFilter to an already merged snapshot entry, returning the shared entry itself if
+   * no relationships need to be removed.
+   */
+  private CacheData filterRelationships(CacheData item, CacheFilter cacheFilter) {
+    if (item == null || cacheFilter == null) {
+      return item;
+    }
+    Collection<String> retained =
+        cacheFilter.filter(CacheFilter.Type.RELATIONSHIP, item.getRelationships().keySet());
+    if (retained.size() == item.getRelationships().size()) {
+      return item;
+    }
+    Map<String, Collection<String>> relationships = new HashMap<>(retained.size());
+    for (String relationship : retained) {
+      relationships.put(relationship, item.getRelationships().get(relationship));
+    }
+    return new DefaultCacheData(item.getId(), item.getAttributes(), relationships);
+  }
+
   @Override
   public void evictDeletedItems(String type, Collection<String> ids) {
     backingStore.evictAll(type, ids);
   }
+
+  /** A read-only view over a snapshot that hides the {@code _ALL_} bookkeeping entry. */
+  private static class SnapshotView extends AbstractCollection<CacheData> {
+    private final Map<String, CacheData> snapshot;
+    private final int size;
+
+    SnapshotView(Map<String, CacheData> snapshot) {
+      this.snapshot = snapshot;
+      this.size = snapshot.containsKey(ALL_ID) ? snapshot.size() - 1 : snapshot.size();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<CacheData> iterator() {
+      Iterator<CacheData> values = snapshot.values().iterator();
+      return new Iterator<CacheData>() {
+        private CacheData next = advance();
+
+        private CacheData advance() {
+          while (values.hasNext()) {
+            CacheData candidate = values.next();
+            if (!ALL_ID.equals(candidate.getId())) {
+              return candidate;
+            }
+          }
+          return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public CacheData next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+          CacheData current = next;
+          next = advance();
+          return current;
+        }
+      };
+    }
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.provider;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the identifiers each source (caching agent) owns for a type, updated from the delta
+ * between consecutive agent runs rather than by re-reading and diffing the full owned set.
+ *
+ * <p>The index is only accurate while its owner is the sole writer of the underlying ownership
+ * records, i.e. for caches that are not shared with other clouddriver instances.
+ */
+public class SourceOwnershipIndex {
+  private final ConcurrentMap<String, ConcurrentMap<String, Set<String>>> owned =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Makes ids the complete set of identifiers owned by source for type.
+   *
+   * @param loader supplies the previously persisted identifiers the first time a type and source
+   *     are seen
+   * @return the identifiers added and removed relative to the previous run
+   */
+  public Delta replace(
+      String type, String source, Set<String> ids, Supplier<Collection<String>> loader) {
+    Set<String> current = getOrLoad(type, source, loader);
+    synchronized (current) {
+      Set<String> added = new HashSet<>();
+      for (String id : ids) {
+        if (!current.contains(id)) {
+          added.add(id);
+        }
+      }
+
+      // every retained id was found above, so nothing was removed unless current holds more
+      Set<String> removed = new HashSet<>();
+      if (current.size() > ids.size() - added.size()) {
+        for (String id : current) {
+          if (!ids.contains(id)) {
+            removed.add(id);
+          }
+        }
+        current.removeAll(removed);
+      }
+      current.addAll(added);
+
+      return new Delta(added, removed);
+    }
+  }
+
+  /** @return an immutable copy of the identifiers owned by source for type */
+  public Set<String> getIdentifiers(String type, String source) {
+    ConcurrentMap<String, Set<String>> sources = owned.get(type);
+    Set<String> current = sources == null ? null : sources.get(source);
+    if (current == null) {
+      return Collections.emptySet();
+    }
+    synchronized (current) {
+      return Collections.unmodifiableSet(new HashSet<>(current));
+    }
+  }
+
+  private Set<String> getOrLoad(String type, String source, Supplier<Collection<String>> loader) {
+    return owned
+        .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+        .computeIfAbsent(source, s -> new HashSet<>(loader.get()));
+  }
+
+  /** The change in owned identifiers produced by a single agent run. */
+  public static class Delta {
+    private final Set<String> added;
+    private final Set<String> removed;
+
+    Delta(Set<String> added, Set<String> removed) {
+      this.added = Collections.unmodifiableSet(added);
+      this.removed = Collections.unmodifiableSet(removed);
+    }
+
+    public Set<String> getAdded() {
+      return added;
+    }
+
+    public Set<String> getRemoved() {
+      return removed;
+    }
+
+    /** @return false if the owned identifiers are exactly those of the previous run */
+    public boolean hasChanges() {
+      return !added.isEmpty() || !removed.isEmpty();
+    }
+  }
+}
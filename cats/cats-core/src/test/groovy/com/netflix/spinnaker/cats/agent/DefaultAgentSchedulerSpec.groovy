@@ -20,6 +20,8 @@ import com.netflix.spinnaker.cats.test.ManualRunnableScheduler
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.TimeUnit
 
 class DefaultAgentSchedulerSpec extends Specification {
@@ -67,4 +69,172 @@ class DefaultAgentSchedulerSpec extends Specification {
         0 * _
     }
 
+    def 'agents run on the execution pool rather than the scheduler when one is supplied'() {
+        setup:
+        def agent = Stub(CachingAgent)
+        def instr = Mock(ExecutionInstrumentation)
+        def exec = Mock(AgentExecution)
+        def executionPool = new ManualRunnableScheduler()
+        runnableScheduler = new ManualRunnableScheduler()
+        scheduler = new DefaultAgentScheduler(runnableScheduler, executionPool, 1, TimeUnit.SECONDS, [:], 1)
+        scheduler.schedule(agent, exec, instr)
+
+        when:
+        runnableScheduler.runAll()
+
+        then:
+        0 * _
+
+        when:
+        executionPool.runAll()
+
+        then:
+        1 * instr.executionStarted(agent)
+        1 * exec.executeAgent(agent)
+        1 * instr.executionCompleted(agent, _ )
+        0 * _
+    }
+
+    def 'an agent is not dispatched again while its previous execution is pending'() {
+        setup:
+        def agent = Stub(CachingAgent)
+        def exec = Mock(AgentExecution)
+        def executionPool = new ManualRunnableScheduler()
+        runnableScheduler = new ManualRunnableScheduler()
+        scheduler = new DefaultAgentScheduler(runnableScheduler, executionPool, 1, TimeUnit.SECONDS, [:], 5)
+
+        when:
+        scheduler.schedule(agent, exec, Stub(ExecutionInstrumentation))
+        runnableScheduler.runAll()
+        runnableScheduler.runAll()
+        executionPool.runAll()
+
+        then:
+        1 * exec.executeAgent(agent)
+    }
+
+    def 'an exception reporting a failure on the execution pool aborts the schedule of the agent'() {
+        setup:
+        def agent = Stub(CachingAgent)
+        def reportingFailure = new IllegalStateException('instrumentation')
+        def instr = Stub(ExecutionInstrumentation) {
+            executionFailed(_, _) >> { throw reportingFailure }
+        }
+        def exec = Stub(AgentExecution) {
+            executeAgent(_) >> { throw new RuntimeException('failboat') }
+        }
+        def tasks = []
+        def executionPool = [execute: { Runnable task -> tasks << task }] as ExecutorService
+        runnableScheduler = new ManualRunnableScheduler()
+        scheduler = new DefaultAgentScheduler(runnableScheduler, executionPool, 1, TimeUnit.SECONDS, [:], 1)
+        scheduler.schedule(agent, exec, instr)
+
+        when:
+        runnableScheduler.runAll()
+        tasks.remove(0).run()
+
+        then:
+        notThrown(Throwable)
+
+        when: 'the next dispatch throws, which ends a fixed rate schedule'
+        runnableScheduler.runAll()
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.is(reportingFailure)
+        tasks.isEmpty()
+    }
+
+    def 'agents of a provider beyond its concurrency limit wait for a running agent to complete'() {
+        setup:
+        def agents = (1..3).collect { i ->
+            Stub(CachingAgent) {
+                getProviderName() >> 'com.netflix.spinnaker.TestProvider'
+                getAgentType() >> "agent-$i"
+            }
+        }
+        def executed = []
+        def exec = Stub(AgentExecution) {
+            executeAgent(_) >> { Agent agent -> executed << agent.agentType }
+        }
+        def tasks = []
+        def executionPool = [execute: { Runnable task -> tasks << task }] as ExecutorService
+        runnableScheduler = new ManualRunnableScheduler()
+        scheduler = new DefaultAgentScheduler(
+            runnableScheduler, executionPool, 1, TimeUnit.SECONDS, [TestProvider: 2], 1)
+
+        when:
+        agents.each { scheduler.schedule(it, exec, Stub(ExecutionInstrumentation)) }
+        runnableScheduler.runAll()
+
+        then:
+        tasks.size() == 2
+
+        when:
+        tasks.remove(0).run()
+
+        then:
+        executed == ['agent-1']
+        tasks.size() == 2
+
+        when:
+        tasks.remove(0).run()
+        tasks.remove(0).run()
+
+        then:
+        executed == ['agent-1', 'agent-2', 'agent-3']
+        tasks.isEmpty()
+    }
+
+    def 'agents rejected by the execution pool give up their slot and are dispatched again'() {
+        setup:
+        def agents = (1..2).collect { i ->
+            Stub(CachingAgent) {
+                getProviderName() >> 'com.netflix.spinnaker.TestProvider'
+                getAgentType() >> "agent-$i"
+            }
+        }
+        def executed = []
+        def exec = Stub(AgentExecution) {
+            executeAgent(_) >> { Agent agent -> executed << agent.agentType }
+        }
+        def tasks = []
+        boolean rejecting = false
+        def executionPool = [execute: { Runnable task ->
+            if (rejecting) {
+                throw new RejectedExecutionException('full')
+            }
+            tasks << task
+        }] as ExecutorService
+        runnableScheduler = new ManualRunnableScheduler()
+        scheduler = new DefaultAgentScheduler(
+            runnableScheduler, executionPool, 1, TimeUnit.SECONDS, [TestProvider: 1], 1)
+
+        when: 'the second agent is queued and then rejected once the first completes'
+        agents.each { scheduler.schedule(it, exec, Stub(ExecutionInstrumentation)) }
+        runnableScheduler.runAll()
+        rejecting = true
+        tasks.remove(0).run()
+
+        then:
+        executed == ['agent-1']
+        tasks.isEmpty()
+
+        when: 'agents rejected on dispatch are not left pending either'
+        runnableScheduler.runAll()
+        rejecting = false
+        runnableScheduler.runAll()
+
+        then:
+        tasks.size() == 1
+
+        when:
+        tasks.remove(0).run()
+        tasks.remove(0).run()
+
+        then:
+        executed == ['agent-1', 'agent-1', 'agent-2']
+        tasks.isEmpty()
+    }
+
 }
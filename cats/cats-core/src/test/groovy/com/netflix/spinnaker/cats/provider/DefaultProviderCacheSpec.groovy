@@ -16,5 +16,42 @@
 
 package com.netflix.spinnaker.cats.provider
 
+import com.netflix.spinnaker.cats.agent.DefaultCacheResult
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+import spock.lang.Unroll
+
 class DefaultProvierCacheSpec extends ProviderCacheSpec {
+
+  @Unroll
+  def 'added results replace the owned ids in the same way whether exclusiveWriter is #exclusiveWriter'() {
+    given:
+    def cache = new DefaultProviderCache(new InMemoryCache(), exclusiveWriter)
+    cache.putCacheResult('agent', ['test'], result('a', 'b'))
+
+    when:
+    cache.addCacheResult('agent', ['test'], result('c'))
+
+    then:
+    cache.getIdentifiers('test') == ['a', 'b', 'c'] as Set
+
+    when:
+    cache.putCacheResult('agent', ['test'], result('c', 'd'))
+
+    then: 'only the ids of the last added result were owned, so a and b are not evicted'
+    cache.getIdentifiers('test') == ['a', 'b', 'c', 'd'] as Set
+
+    when:
+    cache.putCacheResult('agent', ['test'], result('d'))
+
+    then:
+    cache.getIdentifiers('test') == ['a', 'b', 'd'] as Set
+
+    where:
+    exclusiveWriter << [false, true]
+  }
+
+  private static DefaultCacheResult result(String... ids) {
+    new DefaultCacheResult(test: ids.collect { new DefaultCacheData(it, [id: it], [:]) })
+  }
 }
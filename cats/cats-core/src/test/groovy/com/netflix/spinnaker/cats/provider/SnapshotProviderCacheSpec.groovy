@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.provider
+
+import com.netflix.spinnaker.cats.agent.DefaultCacheResult
+import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+
+class SnapshotProviderCacheSpec extends ProviderCacheSpec {
+
+  @Override
+  Cache getSubject() {
+    backingStore = new InMemoryCache(true)
+    new DefaultProviderCache(backingStore)
+  }
+
+  def 'readers share the published snapshot until the next write'() {
+    given:
+    defaultProviderCache.putCacheResult('agent', ['foo'], new DefaultCacheResult(
+      foo: [new DefaultCacheData('bar', [id: 'bar'], [baz: ['baz1']])]
+    ))
+
+    when:
+    def first = defaultProviderCache.get('foo', 'bar')
+    def second = defaultProviderCache.getAll('foo').first()
+
+    then:
+    first.is(second)
+    first.relationships == [baz: ['baz1'] as Set]
+    defaultProviderCache.getAll('foo')*.id == ['bar']
+
+    when:
+    defaultProviderCache.putCacheResult('agent', ['foo'], new DefaultCacheResult(
+      foo: [new DefaultCacheData('bar', [id: 'bar', updated: true], [baz: ['baz2']])]
+    ))
+    def third = defaultProviderCache.get('foo', 'bar')
+
+    then:
+    !third.is(first)
+    first.attributes == [id: 'bar']
+    third.attributes == [id: 'bar', updated: true]
+    third.relationships == [baz: ['baz2'] as Set]
+  }
+
+  def 'a write republishes only the entries it changes'() {
+    given:
+    defaultProviderCache.putCacheResult('agent1', ['foo'], new DefaultCacheResult(
+      foo: [new DefaultCacheData('bar', [id: 'bar'], [:])]
+    ))
+    def bar = defaultProviderCache.get('foo', 'bar')
+
+    when:
+    defaultProviderCache.putCacheResult('agent2', ['foo'], new DefaultCacheResult(
+      foo: [new DefaultCacheData('baz', [id: 'baz'], [:])]
+    ))
+
+    then:
+    defaultProviderCache.get('foo', 'bar').is(bar)
+    defaultProviderCache.getAll('foo')*.id.sort() == ['bar', 'baz']
+
+    when:
+    defaultProviderCache.evictDeletedItems('foo', ['bar'])
+
+    then:
+    defaultProviderCache.get('foo', 'bar') == null
+    defaultProviderCache.getAll('foo')*.id == ['baz']
+  }
+
+  def 'snapshot entries are immutable'() {
+    given:
+    populateOne('foo', 'bar')
+
+    when:
+    defaultProviderCache.get('foo', 'bar').attributes.put('id', 'changed')
+
+    then:
+    thrown(UnsupportedOperationException)
+  }
+
+  def 'relationship filters apply to merged snapshot entries'() {
+    given:
+    defaultProviderCache.putCacheResult('agent', ['foo'], new DefaultCacheResult(
+      foo: [new DefaultCacheData('bar', [id: 'bar'], [baz: ['baz1'], qux: ['qux1']])]
+    ))
+
+    expect:
+    defaultProviderCache.get('foo', 'bar', RelationshipCacheFilter.include('baz')).relationships.keySet() == ['baz'] as Set
+    defaultProviderCache.getAll('foo', RelationshipCacheFilter.none()).first().relationships.isEmpty()
+  }
+}
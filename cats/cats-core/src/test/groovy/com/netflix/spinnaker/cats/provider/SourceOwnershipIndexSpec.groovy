@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.provider
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+class SourceOwnershipIndexSpec extends Specification {
+
+  @Subject
+  SourceOwnershipIndex index = new SourceOwnershipIndex()
+
+  def 'loads persisted identifiers only on first use'() {
+    given:
+    def loader = Mock(java.util.function.Supplier)
+
+    when:
+    def first = index.replace('instances', 'agent', ['a', 'b'] as Set, loader)
+
+    then:
+    1 * loader.get() >> ['a', 'c']
+    first.added == ['b'] as Set
+    first.removed == ['c'] as Set
+
+    when:
+    def second = index.replace('instances', 'agent', ['a', 'b'] as Set, loader)
+
+    then:
+    0 * loader.get()
+    !second.hasChanges()
+    index.getIdentifiers('instances', 'agent') == ['a', 'b'] as Set
+  }
+
+  def 'sources are tracked independently'() {
+    given:
+    index.replace('instances', 'agent1', ['a'] as Set, { [] })
+    index.replace('instances', 'agent2', ['b'] as Set, { [] })
+
+    when:
+    def delta = index.replace('instances', 'agent1', [] as Set, { [] })
+
+    then:
+    delta.removed == ['a'] as Set
+    index.getIdentifiers('instances', 'agent1').isEmpty()
+    index.getIdentifiers('instances', 'agent2') == ['b'] as Set
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.cats.redis.cluster;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spinnaker.cats.agent.Agent;
 import com.netflix.spinnaker.cats.agent.AgentExecution;
@@ -29,12 +30,15 @@ import com.netflix.spinnaker.cats.cluster.NodeStatusProvider;
 import com.netflix.spinnaker.cats.module.CatsModuleAware;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
@@ -43,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
 
 /*
  * The idea behind this scheduler is simple. Every agent it owns is always in one of two sorted sets,
@@ -84,9 +89,14 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
   private static final String SWAP_SET_SCRIPT = "swapSetScript";
   private static final String REMOVE_AGENT_SCRIPT = "removeAgentScript";
   private static final String CONDITIONAL_SWAP_SET_SCRIPT = "conditionalSwapSetScript";
+  private static final String BATCH_SWAP_SET_SCRIPT = "batchSwapSetScript";
+  private static final String BATCH_CONDITIONAL_SWAP_SET_SCRIPT = "batchConditionalSwapSetScript";
 
   private ConcurrentHashMap<String, String> scriptShas;
 
+  // Agents that completed and are waiting to be released, see flushReleases().
+  private final Queue<PendingRelease> pendingReleases = new ConcurrentLinkedQueue<>();
+
   public ClusteredSortAgentScheduler(
       JedisPool jedisPool,
       NodeStatusProvider nodeStatusProvider,
@@ -151,6 +161,41 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
                   + "  return score\n"
                   + "else return nil end\n"));
 
+      // Batched form of the swap above, used to acquire due agents and to release timed out ones
+      // in a single round trip. Each agent in ARGV[2], ARGV[4], ... is moved from KEYS[1] to
+      // KEYS[2] with the score that follows it, provided its score in KEYS[1] is at most ARGV[1].
+      // Returns the agents that were moved, the rest having been swapped by another node first.
+      scriptShas.put(
+          BATCH_SWAP_SET_SCRIPT,
+          jedis.scriptLoad(
+              "local moved = {}\n"
+                  + "for i = 2, #ARGV, 2 do\n"
+                  + "  local score = redis.call('zscore', KEYS[1], ARGV[i])\n"
+                  + "  if score and tonumber(score) <= tonumber(ARGV[1]) then\n"
+                  + "    redis.call('zrem', KEYS[1], ARGV[i])\n"
+                  + "    redis.call('zadd', KEYS[2], ARGV[i + 1], ARGV[i])\n"
+                  + "    moved[#moved + 1] = ARGV[i]\n"
+                  + "  end\n"
+                  + "end\n"
+                  + "return moved\n"));
+
+      // Batched form of the conditional swap above, used to release agents once they complete.
+      // Each agent in ARGV[1], ARGV[4], ... is moved from KEYS[1] to KEYS[2] with the score that
+      // follows it, provided its score in KEYS[1] is still the acquire score after that.
+      // Returns the positions in the batch, counting from 1, of the agents that were moved.
+      scriptShas.put(
+          BATCH_CONDITIONAL_SWAP_SET_SCRIPT,
+          jedis.scriptLoad(
+              "local moved = {}\n"
+                  + "for i = 1, #ARGV, 3 do\n"
+                  + "  if redis.call('zscore', KEYS[1], ARGV[i]) == ARGV[i + 2] then\n"
+                  + "    redis.call('zrem', KEYS[1], ARGV[i])\n"
+                  + "    redis.call('zadd', KEYS[2], ARGV[i + 1], ARGV[i])\n"
+                  + "    moved[#moved + 1] = (i + 2) / 3\n"
+                  + "  end\n"
+                  + "end\n"
+                  + "return moved\n"));
+
       scriptShas.put(
           VALID_SCORE_SCRIPT,
           jedis.scriptLoad(
@@ -288,12 +333,16 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
   }
 
   private static String score(Jedis jedis, long offset) {
+    return String.format("%d", time(jedis) + offset);
+  }
+
+  /** @return the current Redis server time in seconds */
+  private static long time(Jedis jedis) {
     List<String> times = jedis.time();
     if (times == null || times.size() != 2) {
       throw new IllegalStateException("Error retrieving time from Redis");
     }
-    int time = Integer.parseInt(jedis.time().get(0));
-    return String.format("%d", time + offset);
+    return Long.parseLong(times.get(0));
   }
 
   private String agentScore(Agent agent) {
@@ -325,20 +374,65 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
     }
   }
 
-  private ScoreTuple conditionalReleaseAgent(Agent agent, String acquireScore, Status status) {
+  /**
+   * Releases an agent that completed, provided it still holds the acquire score it was run with.
+   *
+   * @return whether the agent was released, and so whether its result may be stored
+   */
+  private boolean releaseCompletedAgent(Agent agent, String acquireScore, Status status) {
+    PendingRelease release = new PendingRelease(agent, acquireScore, status);
+    pendingReleases.add(release);
+    flushReleases();
+
+    // drained either by the flush above or by one that held the lock before it
+    return release.released.join();
+  }
+
+  /**
+   * Releases the agents that completed since the last flush with {@link
+   * #BATCH_CONDITIONAL_SWAP_SET_SCRIPT}. Agents completing while a flush is in flight queue up
+   * behind it, and are all released by the next one in a single round trip.
+   */
+  @SuppressWarnings("unchecked")
+  private synchronized void flushReleases() {
+    List<PendingRelease> batch = new ArrayList<>();
+    PendingRelease pending;
+    while ((pending = pendingReleases.poll()) != null) {
+      batch.add(pending);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
     try (Jedis jedis = jedisPool.getResource()) {
-      long newInterval =
-          status == Status.SUCCESS
-              ? intervalProvider.getInterval(agent).getInterval()
-              : intervalProvider.getInterval(agent).getErrorInterval();
-      String newAcquireScore = score(jedis, newInterval);
-      Object releaseScore =
+      long now = time(jedis);
+      List<String> args = new ArrayList<>(batch.size() * 3);
+      for (PendingRelease release : batch) {
+        AgentIntervalProvider.Interval interval = intervalProvider.getInterval(release.agent);
+        long newInterval =
+            release.status == Status.SUCCESS ? interval.getInterval() : interval.getErrorInterval();
+        args.add(release.agent.getAgentType());
+        args.add(Long.toString(now + newInterval));
+        args.add(release.acquireScore);
+      }
+
+      Object moved =
           jedis.evalsha(
-              getScriptSha(CONDITIONAL_SWAP_SET_SCRIPT, jedis),
+              getScriptSha(BATCH_CONDITIONAL_SWAP_SET_SCRIPT, jedis),
               Arrays.asList(WORKING_SET, WAITING_SET),
-              Arrays.asList(agent.getAgentType(), newAcquireScore, acquireScore));
+              args);
 
-      return releaseScore != null ? new ScoreTuple(newAcquireScore, releaseScore.toString()) : null;
+      boolean[] released = new boolean[batch.size()];
+      if (moved != null) {
+        for (Long position : (List<Long>) moved) {
+          released[position.intValue() - 1] = true;
+        }
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).released.complete(released[i]);
+      }
+    } catch (RuntimeException e) {
+      batch.forEach(release -> release.released.completeExceptionally(e));
     }
   }
 
@@ -357,76 +451,113 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
     }
   }
 
-  private ScoreTuple releaseAgent(Agent agent) {
+  @VisibleForTesting
+  void saturatePool() {
     try (Jedis jedis = jedisPool.getResource()) {
-      String acquireScore = score(jedis, intervalProvider.getInterval(agent).getInterval());
-      Object releaseScore =
-          jedis
-              .evalsha(
-                  getScriptSha(SWAP_SET_SCRIPT, jedis),
-                  Arrays.asList(WORKING_SET, WAITING_SET),
-                  Arrays.asList(agent.getAgentType(), acquireScore))
-              .toString();
+      long now = time(jedis);
 
-      return releaseScore != null ? new ScoreTuple(acquireScore, releaseScore.toString()) : null;
-    }
-  }
-
-  private void saturatePool() {
-    try (Jedis jedis = jedisPool.getResource()) {
       // Occasionally repopulate the agents in case redis went down. If they already exist, this is
       // a NOOP
-      if (runCount % REDIS_REFRESH_PERIOD == 0) {
+      if (runCount % REDIS_REFRESH_PERIOD == 0 && !agents.isEmpty()) {
+        String addAgentScript = getScriptSha(ADD_AGENT_SCRIPT, jedis);
+        Pipeline pipeline = jedis.pipelined();
         for (String agent : agents.keySet()) {
-          jedis.evalsha(
-              getScriptSha(ADD_AGENT_SCRIPT, jedis),
-              2,
-              WAITING_SET,
-              WORKING_SET,
-              agent,
-              score(jedis, NOW));
+          pipeline.evalsha(addAgentScript, 2, WAITING_SET, WORKING_SET, agent, Long.toString(now));
         }
+        pipeline.sync();
       }
 
-      // First cull threads in the WORKING set that have been there too long (TIMEOUT time).
-      Set<String> oldKeys = jedis.zrangeByScore(WORKING_SET, "-inf", score(jedis, NOW));
-      for (String key : oldKeys) {
-        // Ignore result, since if this agent was released between now and the above jedis call, our
-        // work was done
-        // for us.
+      // First cull threads in the WORKING set that have been there too long (TIMEOUT time). Agents
+      // released between now and the batch swap are skipped, since our work was done for us.
+      List<String> timedOut = new ArrayList<>();
+      for (String key : jedis.zrangeByScore(WORKING_SET, "-inf", Long.toString(now))) {
         AgentWorker worker = agents.get(key);
         if (worker != null) {
-          releaseAgent(worker.agent);
+          long interval = intervalProvider.getInterval(worker.agent).getInterval();
+          timedOut.add(key);
+          timedOut.add(Long.toString(now + interval));
         }
       }
+      batchSwap(jedis, WORKING_SET, WAITING_SET, now, timedOut);
 
-      // Now look for agents that have been in the queue for at least INTERVAL time.
-      List<String> keys = new ArrayList<>();
-      keys.addAll(jedis.zrangeByScore(WAITING_SET, "-inf", score(jedis, NOW)));
-      Set<AgentWorker> workers = new HashSet<>();
-
-      // Loop until we either run out of threads to use, or agents (which are keys) to run.
-      while (!keys.isEmpty() && runningAgents.map(Semaphore::tryAcquire).orElse(true)) {
-        String agent = keys.remove(0);
-
-        AgentWorker worker = agents.get(agent);
-        ScoreTuple score;
-        if (worker != null && (score = acquireAgent(worker.agent)) != null) {
-          // This score is used to determine if the worker thread running the agent is allowed to
-          // store its results.
-          // If on release of this agent, the scores don't match, this agent was rescheduled by a
-          // separate thread.
-          worker.setScore(score.acquireScore);
-          workers.add(worker);
+      // Now look for agents that have been in the queue for at least INTERVAL time, in the order
+      // they became due.
+      List<AgentWorker> due = new ArrayList<>();
+      for (String key : jedis.zrangeByScore(WAITING_SET, "-inf", Long.toString(now))) {
+        AgentWorker worker = agents.get(key);
+        if (worker != null) {
+          due.add(worker);
         }
       }
 
-      for (AgentWorker worker : workers) {
+      // Take as many agents as there are threads to run them, in a single round trip.
+      int permits = runningAgents.map(s -> drainPermits(s, due.size())).orElse(due.size());
+      if (permits == 0) {
+        return;
+      }
+
+      Map<String, String> acquireScores = new HashMap<>();
+      List<String> toAcquire = new ArrayList<>(permits * 2);
+      for (AgentWorker worker : due.subList(0, permits)) {
+        String acquireScore =
+            Long.toString(now + intervalProvider.getInterval(worker.agent).getTimeout());
+        acquireScores.put(worker.agent.getAgentType(), acquireScore);
+        toAcquire.add(worker.agent.getAgentType());
+        toAcquire.add(acquireScore);
+      }
+
+      List<String> acquired = batchSwap(jedis, WAITING_SET, WORKING_SET, now, toAcquire);
+      runningAgents.ifPresent(s -> s.release(permits - acquired.size()));
+
+      for (String agentType : acquired) {
+        // This score is used to determine if the worker thread running the agent is allowed to
+        // store its results.
+        // If on release of this agent, the scores don't match, this agent was rescheduled by a
+        // separate thread.
+        AgentWorker worker = agents.get(agentType);
+        if (worker == null) {
+          // unscheduled since it was found due, it will be culled from the WORKING set on timeout
+          runningAgents.ifPresent(Semaphore::release);
+          continue;
+        }
+        worker.setScore(acquireScores.get(agentType));
         agentWorkPool.submit(worker);
       }
     }
   }
 
+  /**
+   * Moves agents between sets with {@link #BATCH_SWAP_SET_SCRIPT}.
+   *
+   * @param agentScores alternating agent types and the scores they should have in the target set
+   * @return the agent types that were moved
+   */
+  @SuppressWarnings("unchecked")
+  @VisibleForTesting
+  List<String> batchSwap(
+      Jedis jedis, String fromSet, String toSet, long now, List<String> agentScores) {
+    if (agentScores.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<String> args = new ArrayList<>(agentScores.size() + 1);
+    args.add(Long.toString(now));
+    args.addAll(agentScores);
+    Object moved =
+        jedis.evalsha(
+            getScriptSha(BATCH_SWAP_SET_SCRIPT, jedis), Arrays.asList(fromSet, toSet), args);
+
+    return moved != null ? (List<String>) moved : Collections.emptyList();
+  }
+
+  /** Acquires up to wanted permits without blocking, returning how many were acquired. */
+  private static int drainPermits(Semaphore semaphore, int wanted) {
+    int available = semaphore.drainPermits();
+    int taken = Math.min(available, wanted);
+    semaphore.release(available - taken);
+    return taken;
+  }
+
   private static class AgentWorker implements Runnable {
     private final Agent agent;
     private final CachingAgent.CacheExecution agentExecution;
@@ -468,14 +599,26 @@ public class ClusteredSortAgentScheduler extends CatsModuleAware
         // is successful (we
         // own this agent), and a result was created, we can store it.
         scheduler.runningAgents.ifPresent(Semaphore::release);
-        if (scheduler.conditionalReleaseAgent(agent, acquireScore, status) != null
-            && result != null) {
+        if (scheduler.releaseCompletedAgent(agent, acquireScore, status) && result != null) {
           agentExecution.storeAgentResult(agent, result);
         }
       }
     }
   }
 
+  private static class PendingRelease {
+    private final Agent agent;
+    private final String acquireScore;
+    private final Status status;
+    private final CompletableFuture<Boolean> released = new CompletableFuture<>();
+
+    PendingRelease(Agent agent, String acquireScore, Status status) {
+      this.agent = agent;
+      this.acquireScore = acquireScore;
+      this.status = status;
+    }
+  }
+
   private static class ScoreTuple {
     private final String acquireScore;
     private final String releaseScore;
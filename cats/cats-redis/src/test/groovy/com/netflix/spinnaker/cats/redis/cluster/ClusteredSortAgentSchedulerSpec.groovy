@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.redis.cluster
+
+import com.netflix.spinnaker.cats.agent.Agent
+import com.netflix.spinnaker.cats.agent.CacheResult
+import com.netflix.spinnaker.cats.agent.CachingAgent
+import com.netflix.spinnaker.cats.agent.DefaultCacheResult
+import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation
+import com.netflix.spinnaker.cats.cluster.DefaultAgentIntervalProvider
+import com.netflix.spinnaker.cats.cluster.NodeStatusProvider
+import com.netflix.spinnaker.cats.test.TestAgent
+import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
+import redis.clients.jedis.Jedis
+import redis.clients.jedis.JedisPool
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class ClusteredSortAgentSchedulerSpec extends Specification {
+  static final long INTERVAL = 60
+  static final long ERROR_INTERVAL = 30
+  static final long TIMEOUT = 120
+
+  @Shared
+  @AutoCleanup("destroy")
+  EmbeddedRedis embeddedRedis = EmbeddedRedis.embed()
+
+  ExecutionInstrumentation instrumentation = Stub()
+  JedisPool pool
+  Jedis jedis
+
+  def setup() {
+    pool = embeddedRedis.pool as JedisPool
+    jedis = pool.resource
+    jedis.flushAll()
+  }
+
+  def cleanup() {
+    jedis?.close()
+  }
+
+  def 'acquires as many due agents as there are permits in a single batch'() {
+    given:
+    def subject = scheduler(2)
+    def execution = new BlockingExecution(2)
+    def agents = (1..3).collect { new TestAgent() }
+    agents.each { subject.schedule(it, execution, instrumentation) }
+    long now = now()
+
+    when:
+    subject.saturatePool()
+    execution.started.await(30, TimeUnit.SECONDS)
+
+    then:
+    jedis.zrange('WORKZ', 0, -1) == execution.runs as Set
+    jedis.zcard('WAITZ') == 1
+    execution.runs.every { scoreBetween('WORKZ', it, now + TIMEOUT) }
+    subject.runningAgents.get().availablePermits() == 0
+
+    when: 'the pool is saturated again while both permits are taken'
+    subject.saturatePool()
+
+    then:
+    execution.runs.size() == 2
+    jedis.zcard('WAITZ') == 1
+
+    when:
+    complete(subject, execution)
+
+    then:
+    jedis.zcard('WORKZ') == 0
+    jedis.zcard('WAITZ') == 3
+    execution.runs.every { scoreBetween('WAITZ', it, now + INTERVAL) }
+    execution.stored as Set == execution.runs as Set
+    subject.runningAgents.get().availablePermits() == 2
+  }
+
+  def 'the batch swap skips agents that are not due or were swapped by another node first'() {
+    given:
+    def subject = scheduler(-1)
+    long now = now()
+    jedis.zadd('WAITZ', now - 1, 'due')
+    jedis.zadd('WAITZ', now + 100, 'later')
+    jedis.zadd('WORKZ', now + 5, 'taken')
+
+    when:
+    def agentScores = ['due', '1000', 'later', '1000', 'taken', '1000', 'gone', '1000']
+    def moved = subject.batchSwap(jedis, 'WAITZ', 'WORKZ', now, agentScores)
+
+    then:
+    moved == ['due']
+    jedis.zscore('WORKZ', 'due') == 1000
+    jedis.zscore('WAITZ', 'later') == now + 100
+    jedis.zscore('WORKZ', 'taken') == now + 5
+    jedis.zscore('WORKZ', 'gone') == null
+  }
+
+  def 'nodes contending for the same agents run each of them once and keep their permits'() {
+    given:
+    def nodes = [scheduler(4), scheduler(4)]
+    def execution = new BlockingExecution(4)
+    def agents = (1..4).collect { new TestAgent() }
+    nodes.each { node -> agents.each { node.schedule(it, execution, instrumentation) } }
+
+    and:
+    def start = new CountDownLatch(1)
+    def threads = nodes.collect { node -> Thread.start { start.await(); node.saturatePool() } }
+
+    when:
+    start.countDown()
+    threads*.join()
+    execution.started.await(30, TimeUnit.SECONDS)
+
+    then:
+    execution.runs.sort() == agents*.agentType.sort()
+    jedis.zcard('WORKZ') == 4
+    nodes.sum { 4 - it.runningAgents.get().availablePermits() } == 4
+
+    when:
+    nodes.each { complete(it, execution) }
+
+    then:
+    execution.stored.sort() == agents*.agentType.sort()
+    nodes.every { it.runningAgents.get().availablePermits() == 4 }
+  }
+
+  def 'completed agents are released together and only store results for runs they still own'() {
+    given:
+    def subject = scheduler(-1)
+    def execution = new BlockingExecution(4)
+    def (succeeded, alsoSucceeded, failed, stolen) = (1..4).collect { new TestAgent() }
+    [succeeded, alsoSucceeded, failed, stolen].each {
+      subject.schedule(it, execution, instrumentation)
+    }
+    execution.failing << failed.agentType
+    long now = now()
+
+    and:
+    subject.saturatePool()
+    execution.started.await(30, TimeUnit.SECONDS)
+
+    and: 'another node reacquired an agent after it timed out'
+    jedis.zadd('WORKZ', now + 1000, stolen.agentType)
+
+    when:
+    complete(subject, execution)
+
+    then:
+    execution.stored.sort() == [succeeded, alsoSucceeded]*.agentType.sort()
+    scoreBetween('WAITZ', succeeded.agentType, now + INTERVAL)
+    scoreBetween('WAITZ', alsoSucceeded.agentType, now + INTERVAL)
+    scoreBetween('WAITZ', failed.agentType, now + ERROR_INTERVAL)
+    jedis.zscore('WORKZ', stolen.agentType) == now + 1000
+    jedis.zscore('WAITZ', stolen.agentType) == null
+  }
+
+  private ClusteredSortAgentScheduler scheduler(int parallelism) {
+    // disabled, so that only the feature drives the pool
+    NodeStatusProvider disabled = { false } as NodeStatusProvider
+    def intervals = new DefaultAgentIntervalProvider(INTERVAL, ERROR_INTERVAL, TIMEOUT)
+    return new ClusteredSortAgentScheduler(pool, disabled, intervals, parallelism)
+  }
+
+  private long now() {
+    return jedis.time()[0] as long
+  }
+
+  private boolean scoreBetween(String set, String agentType, long expected) {
+    Double score = jedis.zscore(set, agentType)
+    return score != null && score >= expected && score <= expected + 2
+  }
+
+  /** Lets the running agents complete and waits for them to be released. */
+  private static void complete(ClusteredSortAgentScheduler scheduler, BlockingExecution execution) {
+    execution.finish.countDown()
+    scheduler.agentWorkPool.shutdown()
+    assert scheduler.agentWorkPool.awaitTermination(30, TimeUnit.SECONDS)
+  }
+
+  static class BlockingExecution extends CachingAgent.CacheExecution {
+    final CountDownLatch started
+    final CountDownLatch finish = new CountDownLatch(1)
+    final Queue<String> runs = new ConcurrentLinkedQueue<>()
+    final Queue<String> stored = new ConcurrentLinkedQueue<>()
+    final Set<String> failing = ConcurrentHashMap.newKeySet()
+
+    BlockingExecution(int agents) {
+      super(null)
+      started = new CountDownLatch(agents)
+    }
+
+    @Override
+    CacheResult executeAgentWithoutStore(Agent agent) {
+      runs << agent.agentType
+      started.countDown()
+      finish.await()
+      if (failing.contains(agent.agentType)) {
+        throw new IllegalStateException("${agent.agentType} failed")
+      }
+      return new DefaultCacheResult([:])
+    }
+
+    @Override
+    void storeAgentResult(Agent agent, CacheResult result) {
+      stored << agent.agentType
+    }
+  }
+}
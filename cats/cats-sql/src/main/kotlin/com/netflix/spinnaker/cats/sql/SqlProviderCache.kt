@@ -2,6 +2,7 @@ package com.netflix.spinnaker.cats.sql
 
 import com.netflix.spinnaker.cats.agent.CacheResult
 import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.CacheDataPageConsumer
 import com.netflix.spinnaker.cats.cache.CacheFilter
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
 import com.netflix.spinnaker.cats.cache.WriteableCache
@@ -70,6 +71,11 @@ class SqlProviderCache(private val backingStore: WriteableCache) : ProviderCache
     return backingStore.getAll(type, cacheFilter)
   }
 
+  override fun streamAll(type: String, cacheFilter: CacheFilter?, pageSize: Int, consumer: CacheDataPageConsumer) {
+    validateTypes(type)
+    backingStore.streamAll(type, cacheFilter, pageSize, consumer)
+  }
+
   override fun getAll(
     type: String,
     identifiers: MutableCollection<String>?,
@@ -74,6 +74,27 @@ class SpectatorSqlCacheMetrics(
     registry.counter(id("cats.sqlCache.get", "selectOperations", tags)).increment(selectOperations.toLong())
   }
 
+  override fun nearCacheGet(
+    prefix: String,
+    type: String,
+    hits: Int,
+    misses: Int,
+    stale: Int
+  ) {
+    val tags = listOf(BasicTag("prefix", prefix), BasicTag("type", type))
+    registry.counter(id("cats.sqlCache.nearCache", "hits", tags)).increment(hits.toLong())
+    registry.counter(id("cats.sqlCache.nearCache", "misses", tags)).increment(misses.toLong())
+    registry.counter(id("cats.sqlCache.nearCache", "stale", tags)).increment(stale.toLong())
+  }
+
+  override fun nearCacheInvalidate(
+    type: String,
+    remote: Boolean
+  ) {
+    val tags = listOf(BasicTag("type", type), BasicTag("remote", remote.toString()))
+    registry.counter(id("cats.sqlCache.nearCache", "invalidations", tags)).increment()
+  }
+
   private fun id(metricGroup: String, metric: String, tags: Iterable<Tag>) =
     registry.createId("$metricGroup.$metric", tags)
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultJsonCacheData
+import com.netflix.spinnaker.cats.compression.CompressionStrategy
+import com.netflix.spinnaker.cats.compression.GZipCompression
+import java.util.Base64
+
+/**
+ * Encodes and decodes the `body` column of the `cats_v*_resource` tables.
+ */
+interface SqlBodyCodec {
+  /**
+   * Identifies rows written by this codec, must not contain ':'.
+   */
+  val format: String
+
+  fun encode(cacheData: CacheData): String
+
+  fun decode(payload: String): CacheData
+}
+
+/**
+ * The original format, bodies are stored as JSON text.
+ */
+class JsonSqlBodyCodec(
+  private val mapper: ObjectMapper
+) : SqlBodyCodec {
+  override val format = "json"
+
+  override fun encode(cacheData: CacheData): String = mapper.writeValueAsString(cacheData)
+
+  override fun decode(payload: String): CacheData = mapper.readValue(payload, DefaultJsonCacheData::class.java)
+}
+
+/**
+ * JSON compressed with a [CompressionStrategy]. Bodies below the strategy's threshold are left as
+ * plain JSON.
+ */
+class CompressedJsonSqlBodyCodec(
+  private val mapper: ObjectMapper,
+  private val compression: CompressionStrategy,
+  override val format: String
+) : SqlBodyCodec {
+
+  override fun encode(cacheData: CacheData): String = compression.compress(mapper.writeValueAsString(cacheData))
+
+  override fun decode(payload: String): CacheData =
+    mapper.readValue(compression.decompress(payload), DefaultJsonCacheData::class.java)
+}
+
+/**
+ * Base64 encoded Smile, Jackson's binary JSON format.
+ *
+ * The `body` column is `longtext`, so the binary payload has to be stored as base64, which is a third
+ * larger. That gives back most of what Smile saves over JSON, so this format mostly saves the cost of
+ * parsing JSON text rather than storage. Use `json+gzip` to make bodies smaller.
+ */
+class SmileSqlBodyCodec : SqlBodyCodec {
+  override val format = "smile"
+
+  private val smileMapper = ObjectMapper(SmileFactory())
+
+  override fun encode(cacheData: CacheData): String =
+    Base64.getEncoder().encodeToString(smileMapper.writeValueAsBytes(cacheData))
+
+  override fun decode(payload: String): CacheData =
+    smileMapper.readValue(Base64.getDecoder().decode(payload), DefaultJsonCacheData::class.java)
+}
+
+/**
+ * Writes bodies with the configured codec and reads bodies written with any known codec.
+ *
+ * Every row records the format it was written in: JSON bodies are stored as-is, as they always
+ * have been, and anything else is stored as `<format>:<payload>`. Since a JSON body always starts
+ * with `{`, a table can hold a mix of formats while rows migrate to the configured one as they are
+ * rewritten, and switching back to `json` leaves every row readable.
+ */
+class SqlBodyCodecs(
+  private val writeCodec: SqlBodyCodec,
+  codecs: Collection<SqlBodyCodec>
+) {
+
+  companion object {
+    const val DEFAULT_FORMAT = "json"
+
+    /**
+     * @param format one of `json`, `json+gzip` or `smile`
+     * @param compressionThresholdBytes the minimum body size compressed by `json+gzip`
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun create(mapper: ObjectMapper, format: String = DEFAULT_FORMAT, compressionThresholdBytes: Long = 1024): SqlBodyCodecs {
+      val codecs = listOf(
+        JsonSqlBodyCodec(mapper),
+        CompressedJsonSqlBodyCodec(mapper, GZipCompression(compressionThresholdBytes, true), "json+gzip"),
+        SmileSqlBodyCodec()
+      )
+      val writeCodec = codecs.find { it.format == format }
+        ?: throw IllegalArgumentException("Unsupported sql.cache.body-format '$format', expected one of ${codecs.map { it.format }}")
+      return SqlBodyCodecs(writeCodec, codecs)
+    }
+  }
+
+  private val codecsByFormat = codecs.associateBy { it.format }
+  private val jsonCodec = codecsByFormat[DEFAULT_FORMAT]
+    ?: throw IllegalArgumentException("A $DEFAULT_FORMAT codec is required to read existing rows")
+
+  val format: String
+    get() = writeCodec.format
+
+  fun encode(cacheData: CacheData): String {
+    val payload = writeCodec.encode(cacheData)
+    return if (isJson(payload)) payload else "${writeCodec.format}:$payload"
+  }
+
+  fun decode(body: String): CacheData {
+    if (isJson(body)) {
+      return jsonCodec.decode(body)
+    }
+
+    val separator = body.indexOf(':')
+    val codec = if (separator > 0) codecsByFormat[body.substring(0, separator)] else null
+    if (codec == null) {
+      throw IllegalStateException("Unrecognized body format: ${body.take(32)}")
+    }
+    return codec.decode(body.substring(separator + 1))
+  }
+
+  private fun isJson(body: String) = body.startsWith("{")
+}
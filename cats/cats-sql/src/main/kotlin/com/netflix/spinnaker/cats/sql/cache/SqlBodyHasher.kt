@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import java.io.OutputStream
+import java.security.MessageDigest
+
+/**
+ * Computes the `body_hash` of a resource by streaming its JSON serialization straight into a
+ * SHA-256 digest, so that unchanged bodies never have to be materialized as a String.
+ *
+ * Hashes are identical to the hex-encoded SHA-256 of `mapper.writeValueAsString(value)` encoded
+ * as UTF-8, which is how they have always been stored.
+ */
+class SqlBodyHasher(
+  private val mapper: ObjectMapper
+) {
+
+  companion object {
+    private val HEX = "0123456789abcdef".toCharArray()
+
+    private val digests = ThreadLocal.withInitial { MessageDigest.getInstance("SHA-256") }
+
+    fun toHex(bytes: ByteArray): String {
+      val chars = CharArray(bytes.size * 2)
+      bytes.forEachIndexed { i, b ->
+        val v = b.toInt() and 0xff
+        chars[i * 2] = HEX[v ushr 4]
+        chars[i * 2 + 1] = HEX[v and 0x0f]
+      }
+      return String(chars)
+    }
+  }
+
+  fun hash(value: Any): String {
+    val digest = digests.get()
+    digest.reset()
+    mapper.writeValue(DigestOutputStream(digest), value)
+    return toHex(digest.digest())
+  }
+
+  private class DigestOutputStream(
+    private val digest: MessageDigest
+  ) : OutputStream() {
+    override fun write(b: Int) {
+      digest.update(b.toByte())
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+      digest.update(b, off, len)
+    }
+  }
+}
@@ -2,8 +2,8 @@ package com.netflix.spinnaker.cats.sql.cache
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.CacheDataPageConsumer
 import com.netflix.spinnaker.cats.cache.CacheFilter
-import com.netflix.spinnaker.cats.cache.DefaultJsonCacheData
 import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
 import com.netflix.spinnaker.cats.cache.WriteableCache
 import com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.ON_DEMAND
@@ -15,7 +15,6 @@ import de.huxhorn.sulky.ulid.ULID
 import io.github.resilience4j.retry.Retry
 import io.github.resilience4j.retry.RetryConfig
 import io.vavr.control.Try
-import java.security.MessageDigest
 import java.sql.ResultSet
 import java.sql.SQLException
 import java.sql.SQLSyntaxErrorException
@@ -56,7 +55,9 @@ class SqlCache(
   tableNamespace: String?,
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
-  private val sqlConstraints: SqlConstraints
+  private val sqlConstraints: SqlConstraints,
+  private val bodyCodecs: SqlBodyCodecs,
+  private val nearCache: SqlNearCache?
 ) : WriteableCache {
 
   companion object {
@@ -72,6 +73,7 @@ class SqlCache(
   }
 
   private val sqlNames = SqlNames(tableNamespace, sqlConstraints)
+  private val bodyHasher = SqlBodyHasher(mapper)
 
   private var createdTables = ConcurrentSkipListSet<String>()
 
@@ -105,6 +107,8 @@ class SqlCache(
       log.error("error evicting records", e)
     }
 
+    nearCache?.invalidate(type)
+
     cacheMetrics.evict(
       prefix = name,
       type = type,
@@ -153,6 +157,15 @@ class SqlCache(
       storeInformative(type, items, cleanup)
     }
 
+    if (nearCache != null && storeResult.hasWrites()) {
+      nearCache.invalidate(type)
+      items
+        .flatMap { it.relationships.keys }
+        .map { it.substringBefore(":") }
+        .toSet()
+        .forEach { nearCache.invalidate(it) }
+    }
+
     cacheMetrics.merge(
       prefix = name,
       type = type,
@@ -204,6 +217,46 @@ class SqlCache(
     return mergeDataAndRelationships(result.data, result.relPointers, relationshipPrefixes)
   }
 
+  /**
+   * Streams all the items for the specified type in pages ordered by id, using keyset pagination so
+   * that each page is a bounded index range scan and only one page is held in memory at a time.
+   *
+   * Pages bypass the near cache; a full scan would otherwise evict the hot items it exists for.
+   */
+  override fun streamAll(type: String, cacheFilter: CacheFilter?, pageSize: Int, consumer: CacheDataPageConsumer) {
+    require(pageSize > 0) { "pageSize must be positive, got $pageSize" }
+
+    val relationshipPrefixes = getRelationshipFilterPrefixes(cacheFilter)
+    var lastId: String? = null
+
+    do {
+      val ids = try {
+        withRetry(RetryCategory.READ) {
+          jooq.select(field("id", String::class.java))
+            .from(table(sqlNames.resourceTableName(type)))
+            .where(if (lastId == null) noCondition() else field("id", String::class.java).gt(lastId))
+            .orderBy(field("id"))
+            .limit(pageSize)
+            .fetch(field("id", String::class.java))
+        }
+      } catch (e: BadSqlGrammarException) {
+        suppressedLog("Failed streaming ids for type $type", e)
+        return
+      }
+
+      if (ids.isEmpty()) {
+        return
+      }
+
+      // items evicted since their id was read are simply absent from the page
+      val page = getAllFromDatabase(type, ids, relationshipPrefixes)
+      if (page.isNotEmpty() && !consumer.accept(page)) {
+        return
+      }
+      lastId = ids.last()
+    } while (ids.size == pageSize)
+  }
+
   /**
    * Retrieves the items for the specified type matching the provided ids
    *
@@ -234,6 +287,28 @@ class SqlCache(
 
     val relationshipPrefixes = getRelationshipFilterPrefixes(cacheFilter)
 
+    if (nearCache != null && nearCache.isEnabled(type)) {
+      // the version must be read before the database so that concurrent writes invalidate what we load
+      val version = nearCache.version(type)
+      val lookup = nearCache.getAll(name, type, relationshipPrefixes, ids)
+      if (lookup.misses.isEmpty()) {
+        return lookup.hits
+      }
+
+      val loaded = getAllFromDatabase(type, lookup.misses, relationshipPrefixes)
+      nearCache.putAll(type, relationshipPrefixes, version, loaded)
+      lookup.hits.addAll(loaded)
+      return lookup.hits
+    }
+
+    return getAllFromDatabase(type, ids, relationshipPrefixes)
+  }
+
+  private fun getAllFromDatabase(
+    type: String,
+    ids: Collection<String>,
+    relationshipPrefixes: List<String>
+  ): MutableCollection<CacheData> {
     val result = if (relationshipPrefixes.isEmpty()) {
       getDataWithoutRelationships(type, ids)
     } else {
@@ -555,12 +630,12 @@ class SqlCache(
           it.relationships.putAll(normalized)
         }
 
-        val body: String? = mapper.writeValueAsString(it)
-        val bodyHash = getHash(body)
+        // only bodies whose hash changed are serialized to a String
+        val bodyHash = getHash(it)
 
-        if (body != null && bodyHash != null && !existingHashes.contains(bodyHash)) {
+        if (bodyHash != null && !existingHashes.contains(bodyHash)) {
           toStore.add(it.id)
-          bodies[it.id] = body
+          bodies[it.id] = bodyCodecs.encode(it)
           hashes[it.id] = bodyHash
         }
       }
@@ -903,18 +978,11 @@ class SqlCache(
     }
   }
 
-  private fun getHash(body: String?): String? {
-    if (body.isNullOrBlank()) {
-      return null
-    }
+  private fun getHash(cacheData: CacheData): String? {
     return try {
-      val digest = MessageDigest.getInstance("SHA-256")
-        .digest(body.toByteArray())
-      digest.fold("") { str, it ->
-        str + "%02x".format(it)
-      }
+      bodyHasher.hash(cacheData)
     } catch (e: Exception) {
-      log.error("error calculating hash for body: $body", e)
+      log.error("error calculating hash for body: ${cacheData.id}", e)
       null
     }
   }
@@ -980,7 +1048,7 @@ class SqlCache(
               .fetch()
               .getValues(0)
               .asSequence()
-              .map { mapper.readValue(it as String, DefaultJsonCacheData::class.java) }
+              .map { bodyCodecs.decode(it as String) }
               .toList()
           )
         }
@@ -1043,7 +1111,7 @@ class SqlCache(
             .fetch()
             .getValues(0)
             .asSequence()
-            .map { mapper.readValue(it as String, DefaultJsonCacheData::class.java) }
+            .map { bodyCodecs.decode(it as String) }
             .toList()
         )
       }
@@ -1257,7 +1325,7 @@ class SqlCache(
         .where(field("ID").`in`(*ids.toTypedArray()))
         .fetch()
         .getValues(0)
-        .map { mapper.readValue(it as String, DefaultJsonCacheData::class.java) }
+        .map { bodyCodecs.decode(it as String) }
         .toList()
     }
   }
@@ -1315,7 +1383,7 @@ class SqlCache(
     while (resultSet.next()) {
       if (!resultSet.getString(1).isNullOrBlank()) {
         try {
-          cacheData.add(mapper.readValue(resultSet.getString(1), DefaultJsonCacheData::class.java))
+          cacheData.add(bodyCodecs.decode(resultSet.getString(1)))
         } catch (e: Exception) {
           log.error("Failed to deserialize cached value: type $type, body ${resultSet.getString(1)}", e)
         }
@@ -1565,6 +1633,8 @@ class SqlCache(
     val selectQueries = AtomicInteger(0)
     val writeQueries = AtomicInteger(0)
     val deleteQueries = AtomicInteger(0)
+
+    fun hasWrites() = writeQueries.get() > 0 || deleteQueries.get() > 0
   }
 }
 
@@ -45,6 +45,19 @@ interface SqlCacheMetrics {
     selectOperations: Int,
     async: Boolean = false
   ) {}
+
+  fun nearCacheGet(
+    prefix: String,
+    type: String,
+    hits: Int,
+    misses: Int,
+    stale: Int
+  ) {}
+
+  fun nearCacheInvalidate(
+    type: String,
+    remote: Boolean
+  ) {}
 }
 
 class NoopCacheMetrics : SqlCacheMetrics
@@ -20,7 +20,9 @@ class SqlNamedCacheFactory(
   private val prefix: String?,
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
-  private val sqlConstraints: SqlConstraints
+  private val sqlConstraints: SqlConstraints,
+  private val bodyCodecs: SqlBodyCodecs,
+  private val nearCache: SqlNearCache?
 ) : NamedCacheFactory {
 
   @ExperimentalContracts
@@ -35,7 +37,9 @@ class SqlNamedCacheFactory(
       prefix,
       cacheMetrics,
       dynamicConfigService,
-      sqlConstraints
+      sqlConstraints,
+      bodyCodecs,
+      nearCache
     )
   }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.config.SqlNearCacheProperties
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import javax.annotation.PreDestroy
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.count
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.max
+import org.jooq.impl.DSL.table
+import org.slf4j.LoggerFactory
+
+/**
+ * A bounded, in-process cache of [CacheData] that sits in front of the resource and relationship
+ * tables for a configured set of types, shared by every [SqlCache] in the process.
+ *
+ * Each type has a version that is bumped whenever the type is written locally, or when polling
+ * its tables shows a change in row count or `last_updated` made by another clouddriver instance.
+ * Items are tagged with the version that was current before they were read from the database and
+ * items with an older version are never served, so a read racing a write can at worst cause an
+ * extra miss. Items are stored and returned as shallow copies since callers are free to modify them.
+ */
+class SqlNearCache(
+  private val jooq: DSLContext,
+  private val sqlNames: SqlNames,
+  private val properties: SqlNearCacheProperties,
+  private val cacheMetrics: SqlCacheMetrics,
+  private val poller: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+    ThreadFactoryBuilder()
+      .setNameFormat(SqlNearCache::class.java.simpleName + "-%d")
+      .setDaemon(true)
+      .build()
+  )
+) {
+
+  companion object {
+    private val log = LoggerFactory.getLogger(SqlNearCache::class.java)
+  }
+
+  private val types = properties.types.toSet()
+  private val versions = ConcurrentHashMap<String, AtomicLong>()
+  private val fingerprints = ConcurrentHashMap<String, TableFingerprint>()
+
+  private val cache: Cache<Key, Entry> = Caffeine.newBuilder()
+    .maximumWeight(properties.maximumWeight)
+    .weigher { _: Key, entry: Entry -> entry.weight }
+    .expireAfterWrite(Duration.ofSeconds(properties.expireAfterWriteSeconds))
+    .build()
+
+  init {
+    if (types.isNotEmpty()) {
+      poller.scheduleWithFixedDelay(
+        { pollForChanges() },
+        properties.pollIntervalSeconds,
+        properties.pollIntervalSeconds,
+        TimeUnit.SECONDS
+      )
+    }
+  }
+
+  fun isEnabled(type: String): Boolean = types.contains(type)
+
+  /**
+   * @return the current version of type, to be passed to [putAll] for items subsequently read
+   *     from the database
+   */
+  fun version(type: String): Long = versionOf(type).get()
+
+  fun getAll(prefix: String, type: String, relationshipPrefixes: List<String>, ids: Collection<String>): Lookup {
+    val version = version(type)
+    val hits = mutableListOf<CacheData>()
+    val misses = mutableListOf<String>()
+    var stale = 0
+
+    ids.forEach { id ->
+      val entry = cache.getIfPresent(Key(type, relationshipPrefixes, id))
+      when {
+        entry == null -> misses.add(id)
+        entry.version != version -> {
+          stale++
+          misses.add(id)
+        }
+        else -> hits.add(copyOf(entry.data))
+      }
+    }
+
+    cacheMetrics.nearCacheGet(prefix, type, hits.size, misses.size, stale)
+    return Lookup(hits, misses)
+  }
+
+  fun putAll(type: String, relationshipPrefixes: List<String>, version: Long, items: Collection<CacheData>) {
+    items.forEach {
+      cache.put(Key(type, relationshipPrefixes, it.id), Entry(version, copyOf(it)))
+    }
+  }
+
+  /**
+   * Stops serving any currently cached items of type, called after local writes have completed.
+   */
+  fun invalidate(type: String) {
+    if (isEnabled(type)) {
+      versionOf(type).incrementAndGet()
+      cacheMetrics.nearCacheInvalidate(type, remote = false)
+    }
+  }
+
+  @PreDestroy
+  fun shutdown() {
+    poller.shutdownNow()
+  }
+
+  internal fun pollForChanges() {
+    types.forEach { type ->
+      try {
+        val current = fingerprint(type)
+        val previous = fingerprints.put(type, current)
+        if (previous != null && previous != current) {
+          versionOf(type).incrementAndGet()
+          cacheMetrics.nearCacheInvalidate(type, remote = true)
+        }
+      } catch (e: Exception) {
+        // tables for a type are only created once it is first written
+        log.debug("Unable to poll for changes to $type", e)
+      }
+    }
+  }
+
+  private fun fingerprint(type: String): TableFingerprint {
+    val lastUpdated = field("last_updated", Long::class.javaObjectType)
+    val resources = jooq.select(count(), max(lastUpdated))
+      .from(table(sqlNames.resourceTableName(type)))
+      .fetchOne()
+    val relationships = jooq.select(count(), max(lastUpdated))
+      .from(table(sqlNames.relTableName(type)))
+      .fetchOne()
+
+    return TableFingerprint(
+      resources.value1(),
+      resources.value2(),
+      relationships.value1(),
+      relationships.value2()
+    )
+  }
+
+  private fun copyOf(data: CacheData): CacheData =
+    DefaultCacheData(data.id, data.attributes, HashMap(data.relationships))
+
+  private fun versionOf(type: String): AtomicLong = versions.computeIfAbsent(type) { AtomicLong() }
+
+  class Lookup(
+    val hits: MutableList<CacheData>,
+    val misses: MutableList<String>
+  )
+
+  private data class Key(
+    val type: String,
+    val relationshipPrefixes: List<String>,
+    val id: String
+  )
+
+  private class Entry(
+    val version: Long,
+    val data: CacheData
+  ) {
+    val weight: Int = 1 + data.attributes.size + data.relationships.values.sumBy { it.size }
+  }
+
+  /**
+   * Row counts catch deletions, which `last_updated` alone would miss.
+   */
+  private data class TableFingerprint(
+    val resourceCount: Int,
+    val resourceLastUpdated: Long?,
+    val relationshipCount: Int,
+    val relationshipLastUpdated: Long?
+  )
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cluster
+
+import com.netflix.spinnaker.config.ConnectionPools
+import com.netflix.spinnaker.config.SqlCostAwareSchedulingProperties
+import com.netflix.spinnaker.kork.sql.routing.withPool
+import java.time.Clock
+import java.util.concurrent.ConcurrentHashMap
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
+import org.slf4j.LoggerFactory
+
+/**
+ * Tracks the expected runtime of each agent as an exponentially weighted moving average of its
+ * successful runs. Expected runtimes are shared between clouddriver instances through the
+ * `cats_agent_costs` table, so every node knows an agent is expensive before it first runs it.
+ */
+class SqlAgentCostModel(
+  private val jooq: DSLContext,
+  val properties: SqlCostAwareSchedulingProperties,
+  tableNamespace: String? = null,
+  private val clock: Clock = Clock.systemDefaultZone()
+) {
+
+  private val log = LoggerFactory.getLogger(javaClass)
+
+  private val expectedRuntimes: MutableMap<String, Long> = ConcurrentHashMap()
+
+  @Volatile
+  private var lastRefresh = 0L
+
+  private val referenceTable = "cats_agent_costs"
+  private val costTable = if (tableNamespace.isNullOrBlank()) {
+    referenceTable
+  } else {
+    "${referenceTable}_$tableNamespace"
+  }
+
+  init {
+    if (!tableNamespace.isNullOrBlank()) {
+      withPool(POOL_NAME) {
+        jooq.execute("CREATE TABLE IF NOT EXISTS $costTable LIKE $referenceTable")
+      }
+    }
+  }
+
+  /**
+   * @return the expected runtime of agentType in milliseconds, or null if it has never completed
+   */
+  fun expectedRuntimeMs(agentType: String): Long? = expectedRuntimes[agentType]
+
+  fun isHeavy(agentType: String): Boolean =
+    (expectedRuntimeMs(agentType) ?: 0L) >= properties.heavyAgentThresholdSeconds * 1000
+
+  /**
+   * Reloads the expected runtimes recorded by every node, at most once per refresh interval.
+   */
+  fun refreshIfStale() {
+    val now = clock.millis()
+    if (now - lastRefresh < properties.refreshIntervalSeconds * 1000) {
+      return
+    }
+    lastRefresh = now
+
+    try {
+      withPool(POOL_NAME) {
+        jooq.select(field("agent_name"), field("runtime_ms"))
+          .from(table(costTable))
+          .fetch()
+          .forEach {
+            expectedRuntimes[it.get("agent_name", String::class.java)] = it.get("runtime_ms", Long::class.javaObjectType)
+          }
+      }
+    } catch (e: Exception) {
+      log.warn("Failed refreshing expected agent runtimes", e)
+    }
+  }
+
+  fun recordRuntime(agentType: String, runtimeMs: Long) {
+    val alpha = properties.runtimeSmoothingFactor
+    val expected = expectedRuntimes.merge(agentType, runtimeMs) { previous, latest ->
+      (alpha * latest + (1 - alpha) * previous).toLong()
+    }!!
+
+    try {
+      withPool(POOL_NAME) {
+        jooq.insertInto(table(costTable))
+          .columns(field("agent_name"), field("runtime_ms"), field("last_updated"))
+          .values(agentType, expected, clock.millis())
+          .onDuplicateKeyUpdate()
+          .set(field("runtime_ms"), expected)
+          .set(field("last_updated"), clock.millis())
+          .execute()
+      }
+    } catch (e: Exception) {
+      log.warn("Failed recording expected runtime for agent: $agentType", e)
+    }
+  }
+
+  companion object {
+    private val POOL_NAME = ConnectionPools.CACHE_WRITER.value
+  }
+}
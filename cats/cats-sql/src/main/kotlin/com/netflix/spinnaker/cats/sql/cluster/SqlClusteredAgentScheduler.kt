@@ -16,6 +16,8 @@
 package com.netflix.spinnaker.cats.sql.cluster
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.agent.Agent
 import com.netflix.spinnaker.cats.agent.AgentExecution
 import com.netflix.spinnaker.cats.agent.AgentLock
@@ -35,6 +37,7 @@ import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeUnit.MILLISECONDS
 import java.util.regex.Pattern
 import java.util.regex.Pattern.CASE_INSENSITIVE
 import org.jooq.DSLContext
@@ -49,6 +52,8 @@ import org.springframework.dao.DataIntegrityViolationException
  * recommended for real workloads. Instead, use the Redis scheduler (`redis.scheduler.enabled=true` and
  * `sql.scheduler.enabled=false`) or implement a scheduler based on ZooKeeper, etcd, consul, and so-on.
  *
+ * When a [SqlAgentCostModel] is supplied, candidate agents are ordered by expected runtime so that short agents
+ * are not starved by long ones, and the number of heavy agents run at once by each node is capped.
  */
 class SqlClusteredAgentScheduler(
   private val jooq: DSLContext,
@@ -65,15 +70,21 @@ class SqlClusteredAgentScheduler(
   ),
   lockPollingScheduler: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
     ThreadFactoryBuilder().setNameFormat(SqlClusteredAgentScheduler::class.java.simpleName + "-%d").build()
-  )
+  ),
+  private val costModel: SqlAgentCostModel? = null,
+  private val registry: Registry = NoopRegistry()
 ) : CatsModuleAware(), AgentScheduler<AgentLock>, Runnable {
 
   private val log = LoggerFactory.getLogger(javaClass)
 
   private val agents: MutableMap<String, AgentExecutionAction> = ConcurrentHashMap()
   private val activeAgents: MutableMap<String, NextAttempt> = ConcurrentHashMap()
+  private val dueTimes: MutableMap<String, Long> = ConcurrentHashMap()
   private val enabledAgents: Pattern
 
+  private val queueWaitId = registry.createId("cats.sqlAgentScheduler.queueWait")
+  private val latenessId = registry.createId("cats.sqlAgentScheduler.lateness")
+
   private val referenceTable = "cats_agent_locks"
   private val lockTable = if (tableNamespace.isNullOrBlank()) {
     referenceTable
@@ -107,6 +118,7 @@ class SqlClusteredAgentScheduler(
   override fun unschedule(agent: Agent) {
     releaseLock(agent.agentType, 0) // Release the lock immediately
     agents.remove(agent.agentType)
+    dueTimes.remove(agent.agentType)
   }
 
   override fun run() {
@@ -139,6 +151,9 @@ class SqlClusteredAgentScheduler(
 
         val currentTime = System.currentTimeMillis()
         if (tryAcquireSingle(agentType, currentTime, interval.timeout)) {
+          registry.timer(latenessId.withTag("agent", agentName(agentExecution.agent)))
+            .record(lateness(agentType, currentTime), MILLISECONDS)
+          dueTimes.remove(agentType)
           Pair(agentType, NextAttempt(currentTime, interval.interval, interval.errorInterval))
         } else {
           null
@@ -168,6 +183,8 @@ class SqlClusteredAgentScheduler(
       disabledAgentsConfig.joinToString(",")
     ).split(",").map { it.trim() }
 
+    costModel?.refreshIfStale()
+
     val candidateAgentLocks = agents
       .filter { !activeAgents.containsKey(it.key) }
       .filter { enabledAgents.matcher(it.key).matches() }
@@ -183,6 +200,11 @@ class SqlClusteredAgentScheduler(
       val now = System.currentTimeMillis()
       while (existingLocks.next()) {
         if (now > existingLocks.getLong("lock_expiry")) {
+          // an expired lock marks when its agent became due, whichever node last ran it
+          if (agents.containsKey(existingLocks.getString("agent_name"))) {
+            dueTimes[existingLocks.getString("agent_name")] = existingLocks.getLong("lock_expiry")
+          }
+
           try {
             jooq.deleteFrom(table(lockTable))
               .where(
@@ -205,9 +227,15 @@ class SqlClusteredAgentScheduler(
       }
     }
 
+    val orderedCandidates = if (costModel == null) {
+      candidateAgentLocks.entries
+    } else {
+      prioritize(candidateAgentLocks, costModel)
+    }
+
     val trimmedCandidates = mutableMapOf<String, AgentExecutionAction>()
-    candidateAgentLocks
-      .forEach { k, v ->
+    orderedCandidates
+      .forEach { (k, v) ->
         if (trimmedCandidates.size >= availableAgents) {
           return@forEach
         }
@@ -217,6 +245,37 @@ class SqlClusteredAgentScheduler(
     return trimmedCandidates
   }
 
+  /**
+   * Orders candidates by expected runtime, less however long each is overdue so that long running agents still get
+   * their turn, and drops heavy agents beyond what this node may run at once so that other nodes pick them up.
+   */
+  private fun prioritize(
+    candidates: Map<String, AgentExecutionAction>,
+    costModel: SqlAgentCostModel
+  ): List<Map.Entry<String, AgentExecutionAction>> {
+    val now = System.currentTimeMillis()
+    var heavySlots = costModel.properties.maxConcurrentHeavyAgents -
+      activeAgents.keys.count { costModel.isHeavy(it) }
+
+    return candidates.entries
+      .sortedBy { (costModel.expectedRuntimeMs(it.key) ?: 0L) - lateness(it.key, now) }
+      .filter {
+        when {
+          !costModel.isHeavy(it.key) -> true
+          heavySlots > 0 -> {
+            heavySlots--
+            true
+          }
+          else -> false
+        }
+      }
+  }
+
+  private fun lateness(agentType: String, now: Long): Long {
+    val dueTime = dueTimes[agentType] ?: return 0
+    return maxOf(0L, now - dueTime)
+  }
+
   private fun tryAcquireSingle(agentType: String, now: Long, timeout: Long): Boolean {
     try {
       withPool(POOL_NAME) {
@@ -268,16 +327,25 @@ class SqlClusteredAgentScheduler(
     }
   }
 
-  private fun agentCompleted(agentType: String, nextExecutionTime: Long) {
+  private fun agentCompleted(run: AgentRun, nextExecutionTime: Long) {
+    val agentType = run.agent.agentType
     try {
+      registry.timer(queueWaitId.withTag("agent", agentName(run.agent))).record(run.queueWaitMs, MILLISECONDS)
+      if (run.status == Status.SUCCESS) {
+        costModel?.recordRuntime(agentType, run.runtimeMs)
+      }
       releaseLock(agentType, nextExecutionTime)
     } finally {
+      dueTimes[agentType] = nextExecutionTime
       activeAgents.remove(agentType)
     }
   }
 
   companion object {
     private val POOL_NAME = ConnectionPools.CACHE_WRITER.value
+
+    private fun agentName(agent: Agent): String =
+      "${agent.providerName.substringAfterLast('.')}/${agent.agentType}"
   }
 }
 
@@ -308,19 +376,33 @@ private class AgentExecutionAction(
 private class AgentJob(
   private val lockReleaseTime: NextAttempt,
   private val action: AgentExecutionAction,
-  private val schedulerCallback: (agentType: String, nextExecutionTime: Long) -> Unit
+  private val schedulerCallback: (run: AgentRun, nextExecutionTime: Long) -> Unit
 ) : Runnable {
 
   override fun run() {
+    val startTime = System.currentTimeMillis()
     var status = Status.FAILURE
     try {
       status = action.execute()
     } finally {
-      schedulerCallback(action.agent.agentType, lockReleaseTime.getNextTime(status))
+      val run = AgentRun(
+        action.agent,
+        status,
+        queueWaitMs = startTime - lockReleaseTime.currentTime,
+        runtimeMs = System.currentTimeMillis() - startTime
+      )
+      schedulerCallback(run, lockReleaseTime.getNextTime(status))
     }
   }
 }
 
+private class AgentRun(
+  val agent: Agent,
+  val status: Status,
+  val queueWaitMs: Long,
+  val runtimeMs: Long
+)
+
 private data class NextAttempt(
   val currentTime: Long,
   val successInterval: Long,
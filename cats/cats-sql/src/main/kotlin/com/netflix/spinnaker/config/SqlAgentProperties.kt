@@ -29,6 +29,7 @@ class SqlAgentProperties {
   var maxConcurrentAgents: Int = 100
   var agentLockAcquisitionIntervalSeconds: Long = 1
   var poll: SqlPollProperties = SqlPollProperties()
+  var costAware: SqlCostAwareSchedulingProperties = SqlCostAwareSchedulingProperties()
 }
 
 class SqlPollProperties {
@@ -36,3 +37,31 @@ class SqlPollProperties {
   var errorIntervalSeconds: Long = 30
   var timeoutSeconds: Long = 300
 }
+
+class SqlCostAwareSchedulingProperties {
+  /**
+   * Orders agents by their expected runtime rather than running them in no particular order
+   */
+  var enabled: Boolean = false
+
+  /**
+   * Weight given to the latest runtime of an agent when updating its expected runtime
+   */
+  var runtimeSmoothingFactor: Double = 0.3
+
+  /**
+   * How often expected runtimes recorded by other clouddriver instances are reloaded
+   */
+  var refreshIntervalSeconds: Long = 60
+
+  /**
+   * Agents expected to run for at least this long are considered heavy
+   */
+  var heavyAgentThresholdSeconds: Long = 60
+
+  /**
+   * Upper bound on the number of heavy agents a single node runs at once, so that they are spread
+   * across the cluster
+   */
+  var maxConcurrentHeavyAgents: Int = 2
+}
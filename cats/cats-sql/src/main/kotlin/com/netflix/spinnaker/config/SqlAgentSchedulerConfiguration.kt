@@ -15,10 +15,12 @@
  */
 package com.netflix.spinnaker.config
 
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.agent.AgentScheduler
 import com.netflix.spinnaker.cats.cluster.AgentIntervalProvider
 import com.netflix.spinnaker.cats.cluster.DefaultNodeIdentity
 import com.netflix.spinnaker.cats.cluster.NodeStatusProvider
+import com.netflix.spinnaker.cats.sql.cluster.SqlAgentCostModel
 import com.netflix.spinnaker.cats.sql.cluster.SqlClusteredAgentScheduler
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import org.jooq.DSLContext
@@ -44,8 +46,15 @@ class SqlAgentSchedulerConfiguration {
     nodeStatusProvider: NodeStatusProvider,
     dynamicConfigService: DynamicConfigService,
     @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?,
-    sqlAgentProperties: SqlAgentProperties
+    sqlAgentProperties: SqlAgentProperties,
+    registry: Registry
   ): AgentScheduler<*> {
+    val costModel = if (sqlAgentProperties.costAware.enabled) {
+      SqlAgentCostModel(jooq, sqlAgentProperties.costAware, tableNamespace)
+    } else {
+      null
+    }
+
     return SqlClusteredAgentScheduler(
       jooq = jooq,
       nodeIdentity = DefaultNodeIdentity(),
@@ -55,7 +64,9 @@ class SqlAgentSchedulerConfiguration {
       enabledAgentPattern = sqlAgentProperties.enabledPattern,
       disabledAgentsConfig = sqlAgentProperties.disabledAgents,
       tableNamespace = tableNamespace,
-      agentLockAcquisitionIntervalSeconds = sqlAgentProperties.agentLockAcquisitionIntervalSeconds
+      agentLockAcquisitionIntervalSeconds = sqlAgentProperties.agentLockAcquisitionIntervalSeconds,
+      costModel = costModel,
+      registry = registry
     )
   }
 }
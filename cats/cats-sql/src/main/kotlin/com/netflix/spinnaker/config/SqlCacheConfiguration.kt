@@ -11,10 +11,12 @@ import com.netflix.spinnaker.cats.module.CatsModule
 import com.netflix.spinnaker.cats.provider.Provider
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.cats.sql.SqlProviderRegistry
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodecs
 import com.netflix.spinnaker.cats.sql.cache.SpectatorSqlCacheMetrics
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
 import com.netflix.spinnaker.cats.sql.cache.SqlCleanupStaleOnDemandCachesAgent
 import com.netflix.spinnaker.cats.sql.cache.SqlNamedCacheFactory
+import com.netflix.spinnaker.cats.sql.cache.SqlNearCache
 import com.netflix.spinnaker.cats.sql.cache.SqlNames
 import com.netflix.spinnaker.cats.sql.cache.SqlTableMetricsAgent
 import com.netflix.spinnaker.cats.sql.cache.SqlUnknownAgentCleanupAgent
@@ -51,7 +53,7 @@ const val coroutineThreadPrefix = "catsSql"
 @Configuration
 @ConditionalOnProperty("sql.cache.enabled")
 @Import(DefaultSqlConfiguration::class)
-@EnableConfigurationProperties(SqlAgentProperties::class, SqlConstraints::class)
+@EnableConfigurationProperties(SqlAgentProperties::class, SqlConstraints::class, SqlNearCacheProperties::class)
 @ComponentScan("com.netflix.spinnaker.cats.sql.controllers")
 class SqlCacheConfiguration {
 
@@ -85,6 +87,12 @@ class SqlCacheConfiguration {
    * sql queries to fetch > 2 * sql.cache.readBatchSize cache keys will be made asynchronously in batches of
    * maxQueryConcurrency size.
    *
+   * sql.cache.bodyFormat: The format resource bodies are written in, one of `json` (default), `json+gzip`
+   * or `smile`. Rows written in any of these formats remain readable, so the format can be changed at any time
+   * and existing rows migrate as they are rewritten. `json+gzip` only compresses bodies of at least
+   * sql.cache.bodyCompressionThresholdBytes. Bodies are stored as text, so `smile` is base64 encoded and ends up
+   * close to the size of the JSON it replaces; only `json+gzip` makes them meaningfully smaller.
+   *
    * sql.tableNamespace: Name spaces data tables, as well as the agent lock table if using the SqlAgentScheduler.
    * Table namespacing allows flipping to new/empty data tables within the same master if necessary to rebuild
    * the cache from scratch, such as after disabling caching agents for an account/region.
@@ -99,8 +107,11 @@ class SqlCacheConfiguration {
     dynamicConfigService: DynamicConfigService,
     sqlConstraints: SqlConstraints,
     mapper: ObjectMapper,
+    nearCache: ObjectProvider<SqlNearCache>,
     @Value("\${sql.cache.async-pool-size:0}") poolSize: Int,
-    @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?
+    @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?,
+    @Value("\${sql.cache.body-format:json}") bodyFormat: String,
+    @Value("\${sql.cache.body-compression-threshold-bytes:1024}") bodyCompressionThresholdBytes: Long
   ): NamedCacheFactory {
     if (tableNamespace != null && !tableNamespace.matches("""^\w+$""".toRegex())) {
       throw IllegalArgumentException("tableNamespace can only contain characters [a-z, A-Z, 0-9, _]")
@@ -132,10 +143,27 @@ class SqlCacheConfiguration {
       tableNamespace,
       cacheMetrics,
       dynamicConfigService,
-      sqlConstraints
+      sqlConstraints,
+      SqlBodyCodecs.create(mapper, bodyFormat, bodyCompressionThresholdBytes),
+      nearCache.ifAvailable
     )
   }
 
+  /**
+   * sql.cache.nearCache.enabled: Serves reads of sql.cache.nearCache.types from a bounded in-process cache,
+   * invalidated by local writes and by polling the tables of each type for writes made by other instances.
+   */
+  @Bean
+  @ConditionalOnProperty("sql.cache.near-cache.enabled")
+  fun sqlNearCache(
+    jooq: DSLContext,
+    sqlConstraints: SqlConstraints,
+    cacheMetrics: SqlCacheMetrics,
+    properties: SqlNearCacheProperties,
+    @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?
+  ): SqlNearCache =
+    SqlNearCache(jooq, SqlNames(tableNamespace, sqlConstraints), properties, cacheMetrics)
+
   @Bean
   fun agentIntervalProvider(sqlAgentProperties: SqlAgentProperties): AgentIntervalProvider {
     return CustomSchedulableAgentIntervalProvider(
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+@ConfigurationProperties("sql.cache.near-cache")
+class SqlNearCacheProperties {
+  var enabled: Boolean = false
+
+  /**
+   * Types served from the near cache, best suited to small, frequently read types
+   */
+  var types: List<String> = listOf("applications", "clusters")
+
+  /**
+   * Upper bound on the combined weight of cached items, an item weighs one plus its number of
+   * attributes and relationship ids
+   */
+  var maximumWeight: Long = 500_000
+
+  /**
+   * Upper bound on how long an item may be served, regardless of invalidations
+   */
+  var expireAfterWriteSeconds: Long = 300
+
+  /**
+   * How often the resource and relationship tables of each type are polled for changes made by
+   * other clouddriver instances
+   */
+  var pollIntervalSeconds: Long = 5
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
 import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodecs
 import com.netflix.spinnaker.cats.sql.cache.SqlCache
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
 import com.netflix.spinnaker.config.SqlConstraints
@@ -80,6 +81,52 @@ class SqlCacheSpec extends WriteableCacheSpec {
     retrieved.findAll { it.id == "fnord-5" }.size() == 1
   }
 
+  def 'streams all items in pages ordered by id'() {
+    given:
+    def data = (1..5).collect { createData("fnord-$it") }
+    ((SqlCache) cache).mergeAll('foo', data)
+    def pages = []
+
+    when:
+    cache.streamAll('foo', null, 2) { page ->
+      pages << page*.id.sort()
+      true
+    }
+
+    then:
+    pages == [['fnord-1', 'fnord-2'], ['fnord-3', 'fnord-4'], ['fnord-5']]
+  }
+
+  def 'stops streaming when the consumer returns false'() {
+    given:
+    def data = (1..5).collect { createData("fnord-$it") }
+    ((SqlCache) cache).mergeAll('foo', data)
+    def pages = []
+
+    when:
+    cache.streamAll('foo', null, 2) { page ->
+      pages << page*.id.sort()
+      false
+    }
+
+    then:
+    pages == [['fnord-1', 'fnord-2']]
+  }
+
+  def 'streams nothing for a type that has never been written'() {
+    given:
+    def pages = []
+
+    when:
+    cache.streamAll('foo', null, 2) { page ->
+      pages << page
+      true
+    }
+
+    then:
+    pages.isEmpty()
+  }
+
   @Unroll
   def 'generates where clause based on cacheFilters'() {
     when:
@@ -122,7 +169,9 @@ class SqlCacheSpec extends WriteableCacheSpec {
       "test",
       Mock(SqlCacheMetrics),
       dynamicConfigService,
-      new SqlConstraints()
+      new SqlConstraints(),
+      SqlBodyCodecs.create(mapper),
+      null
     )
   }
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.api.expectThrows
+import strikt.assertions.isEqualTo
+import strikt.assertions.startsWith
+
+class SqlBodyCodecsTest : JUnit5Minutests {
+
+  private val mapper = ObjectMapper()
+
+  private val cacheData = DefaultCacheData(
+    "aws:instances:test:us-east-1:i-1234",
+    mapOf("name" to "i-1234", "padding" to "x".repeat(2048)),
+    mapOf("serverGroups" to listOf("aws:serverGroups:app-v001:test:us-east-1"))
+  )
+
+  private fun CacheData.summary() = Triple(id, attributes, relationships)
+
+  fun tests() = rootContext<SqlBodyCodecs> {
+    listOf("json", "json+gzip", "smile").forEach { format ->
+      context("writing $format") {
+        fixture {
+          SqlBodyCodecs.create(mapper, format)
+        }
+
+        test("bodies round trip") {
+          expectThat(decode(encode(cacheData)).summary()).isEqualTo(cacheData.summary())
+        }
+
+        test("bodies written in every other format remain readable") {
+          listOf("json", "json+gzip", "smile").forEach { other ->
+            val body = SqlBodyCodecs.create(mapper, other).encode(cacheData)
+            expectThat(decode(body).summary()).isEqualTo(cacheData.summary())
+          }
+        }
+      }
+    }
+
+    context("recording formats") {
+      fixture {
+        SqlBodyCodecs.create(mapper, "smile")
+      }
+
+      test("legacy json rows carry no prefix") {
+        expectThat(SqlBodyCodecs.create(mapper).encode(cacheData)).startsWith("{")
+      }
+
+      test("other formats are prefixed") {
+        expectThat(encode(cacheData)).startsWith("smile:")
+      }
+
+      test("unknown formats are rejected") {
+        expectThrows<IllegalStateException> {
+          decode("cbor:AAAA")
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import java.security.MessageDigest
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+
+class SqlBodyHasherTest : JUnit5Minutests {
+
+  fun tests() = rootContext<SqlBodyHasher> {
+    fixture {
+      SqlBodyHasher(ObjectMapper())
+    }
+
+    test("streamed hash matches the hash of the serialized body") {
+      val mapper = ObjectMapper()
+      val data = DefaultCacheData(
+        "aws:instances:test:us-east-1:i-1234",
+        mapOf("name" to "i-1234", "tags" to listOf("ünïcødé", "plain")),
+        mapOf("serverGroups" to listOf("aws:serverGroups:app-v001:test:us-east-1"))
+      )
+
+      val legacy = MessageDigest.getInstance("SHA-256")
+        .digest(mapper.writeValueAsString(data).toByteArray())
+        .fold("") { str, it -> str + "%02x".format(it) }
+
+      expectThat(hash(data)).isEqualTo(legacy)
+    }
+
+    test("hex encoding handles negative bytes") {
+      expectThat(SqlBodyHasher.toHex(byteArrayOf(0, 15, -1, -128)))
+        .isEqualTo("000fff80")
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.config.SqlConstraints
+import com.netflix.spinnaker.config.SqlNearCacheProperties
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import org.jooq.SQLDialect
+import org.jooq.impl.DSL
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.hasSize
+import strikt.assertions.isEmpty
+import strikt.assertions.isEqualTo
+
+class SqlNearCacheTest : JUnit5Minutests {
+
+  fun tests() = rootContext<SqlNearCache> {
+    fixture {
+      SqlNearCache(
+        DSL.using(SQLDialect.MYSQL),
+        SqlNames(null, SqlConstraints()),
+        SqlNearCacheProperties().apply { pollIntervalSeconds = 3600 },
+        NoopCacheMetrics()
+      )
+    }
+
+    after {
+      shutdown()
+    }
+
+    val prefixes = listOf("ALL")
+    val application = DefaultCacheData("app", mapOf("name" to "app"), mapOf("clusters" to listOf("cluster")))
+
+    test("only configured types are cached") {
+      expectThat(isEnabled("applications")).isEqualTo(true)
+      expectThat(isEnabled("instances")).isEqualTo(false)
+    }
+
+    test("items are served until their type is invalidated") {
+      putAll("applications", prefixes, version("applications"), listOf(application))
+
+      val hit = getAll("test", "applications", prefixes, listOf("app", "other"))
+      expectThat(hit.hits.map { it.id }).containsExactly("app")
+      expectThat(hit.misses).containsExactly("other")
+
+      invalidate("applications")
+
+      val miss = getAll("test", "applications", prefixes, listOf("app"))
+      expectThat(miss.hits).isEmpty()
+      expectThat(miss.misses).containsExactly("app")
+    }
+
+    test("items read before an invalidation are never served") {
+      val version = version("applications")
+      invalidate("applications")
+      putAll("applications", prefixes, version, listOf(application))
+
+      expectThat(getAll("test", "applications", prefixes, listOf("app")).hits).isEmpty()
+    }
+
+    test("relationship filters are cached independently") {
+      putAll("applications", prefixes, version("applications"), listOf(application))
+
+      expectThat(getAll("test", "applications", listOf("clusters"), listOf("app")).misses).hasSize(1)
+    }
+
+    test("callers cannot modify cached items") {
+      putAll("applications", prefixes, version("applications"), listOf(application))
+
+      getAll("test", "applications", prefixes, listOf("app")).hits.first().attributes["name"] = "changed"
+
+      expectThat(getAll("test", "applications", prefixes, listOf("app")).hits.first().attributes["name"])
+        .isEqualTo("app")
+    }
+  }
+}
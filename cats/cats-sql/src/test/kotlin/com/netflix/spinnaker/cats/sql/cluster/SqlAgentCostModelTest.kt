@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cluster
+
+import com.netflix.spinnaker.config.SqlCostAwareSchedulingProperties
+import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isNull
+import strikt.assertions.isTrue
+
+class SqlAgentCostModelTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture { Fixture() }
+
+    after {
+      SqlTestUtil.cleanupDb(dslContext)
+      dslContext.close()
+    }
+
+    test("an agent that has never completed has no expected runtime") {
+      expectThat(subject.expectedRuntimeMs("AwsProvider:test/us-east-1/ClusterCachingAgent")).isNull()
+      expectThat(subject.isHeavy("AwsProvider:test/us-east-1/ClusterCachingAgent")).isFalse()
+    }
+
+    test("the first runtime of an agent is its expected runtime") {
+      subject.recordRuntime("agent", 1_000)
+
+      expectThat(subject.expectedRuntimeMs("agent")).isEqualTo(1_000)
+    }
+
+    test("later runtimes are smoothed into the expected runtime") {
+      subject.recordRuntime("agent", 1_000)
+      subject.recordRuntime("agent", 3_000)
+
+      expectThat(subject.expectedRuntimeMs("agent")).isEqualTo(1_500)
+    }
+
+    test("agents expected to run for at least the threshold are heavy") {
+      subject.recordRuntime("light", 59_999)
+      subject.recordRuntime("heavy", 60_000)
+
+      expectThat(subject.isHeavy("light")).isFalse()
+      expectThat(subject.isHeavy("heavy")).isTrue()
+    }
+
+    test("expected runtimes are shared with other nodes") {
+      subject.recordRuntime("agent", 1_000)
+      subject.recordRuntime("agent", 3_000)
+
+      val otherNode = SqlAgentCostModel(dslContext, properties)
+      otherNode.refreshIfStale()
+
+      expectThat(otherNode.expectedRuntimeMs("agent")).isEqualTo(1_500)
+    }
+  }
+
+  private inner class Fixture {
+    val testDatabase = SqlTestUtil.initTcMysqlDatabase()
+    val dslContext = testDatabase.context
+
+    val properties = SqlCostAwareSchedulingProperties().apply {
+      enabled = true
+      runtimeSmoothingFactor = 0.25
+      refreshIntervalSeconds = 0
+    }
+
+    val subject = SqlAgentCostModel(dslContext, properties)
+  }
+}
@@ -17,9 +17,11 @@
 package com.netflix.spinnaker.cats.cache;
 
 import com.netflix.spinnaker.kork.annotations.Beta;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /** Cache provides view access to data keyed by type and identifier. */
@@ -98,6 +100,39 @@ public interface Cache {
 
   Collection<CacheData> getAll(String type, CacheFilter cacheFilter);
 
+  /**
+   * Streams all the items for the specified type to consumer one page at a time.
+   *
+   * <p>The default implementation pages over {@link #getAll(String, CacheFilter)} and so still
+   * loads the whole type; implementations backed by an external store should override it to read
+   * incrementally.
+   *
+   * @param type the type for which to retrieve items
+   * @param cacheFilter the cacheFilter to govern which relationships to fetch
+   * @param pageSize the maximum number of items passed to consumer at a time
+   * @param consumer receives each page of items
+   */
+  default void streamAll(
+      String type, CacheFilter cacheFilter, int pageSize, CacheDataPageConsumer consumer) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be positive, got " + pageSize);
+    }
+
+    List<CacheData> page = new ArrayList<>(pageSize);
+    for (CacheData item : getAll(type, cacheFilter)) {
+      page.add(item);
+      if (page.size() == pageSize) {
+        if (!consumer.accept(page)) {
+          return;
+        }
+        page = new ArrayList<>(pageSize);
+      }
+    }
+    if (!page.isEmpty()) {
+      consumer.accept(page);
+    }
+  }
+
   /**
    * Retrieves the items for the specified type matching the provided identifiers
    *
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.cache;
+
+import com.netflix.spinnaker.kork.annotations.Beta;
+import java.util.Collection;
+
+/**
+ * Receives the items of a type one page at a time from {@link Cache#streamAll}.
+ *
+ * <p>A page must not be retained once {@code accept} returns, so that only a single page needs to
+ * be held in memory at any point.
+ */
+@Beta
+@FunctionalInterface
+public interface CacheDataPageConsumer {
+
+  /**
+   * @param page the next page of items, never empty
+   * @return true to continue with the next page, false to stop streaming
+   */
+  boolean accept(Collection<CacheData> page);
+}
@@ -72,6 +72,19 @@ public abstract class BaseHttpArtifactCredentials<T extends ArtifactAccount> {
     return fetchUrl(parseUrl(url));
   }
 
+  /**
+   * Fetches url with requestHeaders in addition to the account's credentials. Unlike {@link
+   * #fetchUrl(String)}, the response is returned whatever its status, and must be closed by the
+   * caller.
+   */
+  protected Response fetchUrl(String url, Headers requestHeaders) throws IOException {
+    Request.Builder request = new Request.Builder().headers(headers).url(parseUrl(url));
+    for (String name : requestHeaders.names()) {
+      request.header(name, requestHeaders.get(name));
+    }
+    return okHttpClient.newCall(request.build()).execute();
+  }
+
   protected ResponseBody fetchUrl(HttpUrl url) throws IOException {
     Request request = new Request.Builder().headers(headers).url(url).build();
 
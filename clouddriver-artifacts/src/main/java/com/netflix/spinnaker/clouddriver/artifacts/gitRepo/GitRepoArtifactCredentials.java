@@ -24,23 +24,20 @@ import com.jcraft.jsch.Session;
 import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactCredentials;
 import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.ArchiveCommand;
-import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.TransportCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.archive.TgzFormat;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
 import org.eclipse.jgit.transport.OpenSshConfig;
 import org.eclipse.jgit.transport.SshSessionFactory;
@@ -63,6 +60,7 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
   private final String sshKnownHostsFilePath;
   private final boolean sshTrustUnknownHosts;
   private final AuthType authType;
+  private final GitRepoMirrorCache mirrorCache;
 
   private enum AuthType {
     HTTP,
@@ -71,7 +69,8 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     NONE
   }
 
-  public GitRepoArtifactCredentials(GitRepoArtifactAccount account) {
+  public GitRepoArtifactCredentials(
+      GitRepoArtifactAccount account, GitRepoMirrorCache mirrorCache) {
     this.name = account.getName();
     this.username = account.getUsername();
     this.password = account.getPassword();
@@ -80,6 +79,7 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     this.sshPrivateKeyPassphrase = account.getSshPrivateKeyPassphrase();
     this.sshKnownHostsFilePath = account.getSshKnownHostsFilePath();
     this.sshTrustUnknownHosts = account.isSshTrustUnknownHosts();
+    this.mirrorCache = mirrorCache;
 
     if (!username.isEmpty() && !password.isEmpty()) {
       authType = AuthType.HTTP;
@@ -99,8 +99,6 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     String repoReference = artifact.getReference();
     String subPath = artifactSubPath(artifact);
     String remoteRef = artifactVersion(artifact);
-    Path stagingPath =
-        Paths.get(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
 
     if (!isValidReference(repoReference)) {
       throw new IOException(
@@ -110,39 +108,43 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
               + authType);
     }
 
-    try (Closeable ignored = () -> FileUtils.deleteDirectory(stagingPath.toFile())) {
-      log.info("Cloning git/repo {} into {}", repoReference, stagingPath.toString());
-      Git localRepository = clone(artifact, stagingPath, remoteRef);
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      log.info("Creating archive for git/repo {}", repoReference);
-      archiveToOutputStream(localRepository, outputStream, remoteRef, subPath);
-      return new ByteArrayInputStream(outputStream.toByteArray());
+    // The archive is written to disk and streamed from there, so that neither the archive nor the
+    // mirror it is read from are held while the caller consumes it
+    Path archivePath = Files.createTempFile("gitrepo-", ".tgz");
+    try {
+      mirrorCache.read(
+          name,
+          repoReference,
+          this::addAuthentication,
+          mirror -> {
+            log.info("Creating archive for git/repo {}", repoReference);
+            try (OutputStream outputStream = Files.newOutputStream(archivePath)) {
+              archiveToOutputStream(mirror, outputStream, remoteRef, subPath);
+            }
+            return null;
+          });
+      return Files.newInputStream(archivePath, StandardOpenOption.DELETE_ON_CLOSE);
     } catch (GitAPIException e) {
+      Files.deleteIfExists(archivePath);
       throw new IOException(
           "Failed to clone or archive git/repo " + repoReference + ": " + e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(archivePath);
+      throw e;
     }
   }
 
-  private Git clone(Artifact artifact, Path stagingPath, String remoteRef) throws GitAPIException {
-    // TODO(ethanfrogers): add support for clone history depth once jgit supports it
-
-    return addAuthentication(Git.cloneRepository())
-        .setURI(artifact.getReference())
-        .setDirectory(stagingPath.toFile())
-        .setBranch(remoteRef)
-        .call();
-  }
-
   private void archiveToOutputStream(
       Git repository, OutputStream outputStream, String remoteRef, String subPath)
       throws GitAPIException, IOException {
+    ObjectId tree = repository.getRepository().resolve(remoteRef);
+    if (tree == null) {
+      throw new IOException(
+          "Ref " + remoteRef + " not found in git/repo " + repository.getRepository());
+    }
 
     ArchiveCommand archiveCommand =
-        repository
-            .archive()
-            .setTree(repository.getRepository().resolve(remoteRef))
-            .setFormat("tgz")
-            .setOutputStream(outputStream);
+        repository.archive().setTree(tree).setFormat("tgz").setOutputStream(outputStream);
 
     if (!subPath.isEmpty()) {
       archiveCommand.setPaths(subPath);
@@ -162,22 +164,23 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     return !Strings.isNullOrEmpty(artifact.getVersion()) ? artifact.getVersion() : "master";
   }
 
-  private CloneCommand addAuthentication(CloneCommand cloneCommand) {
+  private void addAuthentication(TransportCommand<?, ?> command) {
     switch (authType) {
       case HTTP:
-        return cloneCommand.setCredentialsProvider(
-            new UsernamePasswordCredentialsProvider(username, password));
+        command.setCredentialsProvider(new UsernamePasswordCredentialsProvider(username, password));
+        break;
       case TOKEN:
-        return cloneCommand.setCredentialsProvider(
-            new UsernamePasswordCredentialsProvider(token, ""));
+        command.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
+        break;
       case SSH:
-        return configureSshAuth(cloneCommand);
+        configureSshAuth(command);
+        break;
       default:
-        return cloneCommand;
+        break;
     }
   }
 
-  private CloneCommand configureSshAuth(CloneCommand cloneCommand) {
+  private void configureSshAuth(TransportCommand<?, ?> command) {
     SshSessionFactory sshSessionFactory =
         new JschConfigSessionFactory() {
           @Override
@@ -209,7 +212,7 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
           }
         };
 
-    return cloneCommand.setTransportConfigCallback(
+    command.setTransportConfigCallback(
         (Transport transport) -> {
           SshTransport sshTransport = (SshTransport) transport;
           sshTransport.setSshSessionFactory(sshSessionFactory);
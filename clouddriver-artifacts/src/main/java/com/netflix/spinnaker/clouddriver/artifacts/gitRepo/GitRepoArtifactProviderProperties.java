@@ -17,6 +17,7 @@
 package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
 
 import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactProvider;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
@@ -27,4 +28,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 final class GitRepoArtifactProviderProperties implements ArtifactProvider<GitRepoArtifactAccount> {
   private boolean enabled;
   private List<GitRepoArtifactAccount> accounts = new ArrayList<>();
+  // Where the repositories artifacts are downloaded from are mirrored between downloads
+  private String mirrorCachePath =
+      Paths.get(System.getProperty("java.io.tmpdir"), "gitrepo-mirrors").toString();
+  // The least recently used mirrors are deleted when the mirrors take more disk space than this
+  private long mirrorCacheMaxSizeMb = 2048;
 }
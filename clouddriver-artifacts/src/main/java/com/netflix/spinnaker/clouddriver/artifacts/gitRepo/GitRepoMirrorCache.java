@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
+
+import com.google.common.hash.Hashing;
+import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.TransportCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.util.FS;
+
+/**
+ * Bare mirrors of the repositories git/repo artifacts are downloaded from, kept on disk between
+ * downloads.
+ *
+ * <p>A repository is cloned the first time it is requested and is brought up to date with an
+ * incremental fetch on every later request. Requests for a repository that arrive while it is
+ * being fetched wait for that fetch rather than starting another one. When the mirrors take more
+ * than the configured disk space after a request, the least recently used ones are deleted, other
+ * than the one that request read and any that are still being read.
+ */
+@NonnullByDefault
+@Slf4j
+final class GitRepoMirrorCache {
+  private static final RefSpec HEADS = new RefSpec("+refs/heads/*:refs/heads/*");
+  private static final RefSpec TAGS = new RefSpec("+refs/tags/*:refs/tags/*");
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final Map<Path, Mirror> mirrors = new ConcurrentHashMap<>();
+
+  GitRepoMirrorCache(Path directory, long maxSizeBytes) {
+    this.directory = directory;
+    this.maxSizeBytes = maxSizeBytes;
+
+    try {
+      Files.createDirectories(directory);
+      // Mirrors left by a previous run are reused, and count towards the limit
+      try (Stream<Path> existing = Files.list(directory)) {
+        existing
+            .filter(Files::isDirectory)
+            .forEach(
+                path -> {
+                  Mirror mirror = new Mirror(path);
+                  mirror.size = FileUtils.sizeOfDirectory(path.toFile());
+                  mirror.lastUsed = path.toFile().lastModified();
+                  mirrors.put(path, mirror);
+                });
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to initialize git/repo mirrors in " + directory, e);
+    }
+    evict(null);
+  }
+
+  /**
+   * Brings the mirror of url for account up to date, then hands it to reader. The mirror is not
+   * evicted while reader runs.
+   *
+   * @param authentication configures the credentials of the clone or fetch of url
+   */
+  <T> T read(
+      String account,
+      String url,
+      Consumer<TransportCommand<?, ?>> authentication,
+      MirrorReader<T> reader)
+      throws IOException, GitAPIException {
+    Path path =
+        directory.resolve(
+            Hashing.sha256()
+                .hashString(account + "\n" + url, StandardCharsets.UTF_8)
+                .toString());
+
+    T result;
+    Mirror mirror;
+    while (true) {
+      mirror = mirrors.computeIfAbsent(path, Mirror::new);
+      mirror.lock.readLock().lock();
+      try {
+        if (mirror.evicted) {
+          continue;
+        }
+        mirror.lastUsed = System.currentTimeMillis();
+        update(mirror, url, authentication);
+        try (Git git = Git.open(path.toFile())) {
+          result = reader.read(git);
+        }
+        break;
+      } finally {
+        mirror.lock.readLock().unlock();
+      }
+    }
+
+    evict(mirror);
+    return result;
+  }
+
+  private void update(Mirror mirror, String url, Consumer<TransportCommand<?, ?>> authentication)
+      throws IOException, GitAPIException {
+    CompletableFuture<Void> update;
+    boolean fetching = false;
+    synchronized (mirror) {
+      if (mirror.update == null) {
+        mirror.update = new CompletableFuture<>();
+        fetching = true;
+      }
+      update = mirror.update;
+    }
+
+    if (fetching) {
+      try {
+        cloneOrFetch(mirror.path, url, authentication);
+        mirror.size = FileUtils.sizeOfDirectory(mirror.path.toFile());
+        update.complete(null);
+      } catch (IOException | GitAPIException | RuntimeException e) {
+        update.completeExceptionally(e);
+      } finally {
+        synchronized (mirror) {
+          mirror.update = null;
+        }
+      }
+    }
+
+    try {
+      update.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof GitAPIException) {
+        throw (GitAPIException) e.getCause();
+      }
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static void cloneOrFetch(
+      Path path, String url, Consumer<TransportCommand<?, ?>> authentication)
+      throws IOException, GitAPIException {
+    File gitDir = path.toFile();
+    if (RepositoryCache.FileKey.isGitRepository(gitDir, FS.DETECTED)) {
+      try (Git git = Git.open(gitDir)) {
+        log.info("Fetching git/repo {} into mirror {}", url, path);
+        FetchCommand fetch =
+            git.fetch().setRemote(url).setRefSpecs(HEADS, TAGS).setRemoveDeletedRefs(true);
+        authentication.accept(fetch);
+        fetch.call();
+        return;
+      }
+    }
+
+    // Whatever is left of a clone that did not complete is replaced
+    FileUtils.deleteDirectory(gitDir);
+    log.info("Cloning git/repo {} into mirror {}", url, path);
+    try {
+      CloneCommand clone =
+          Git.cloneRepository()
+              .setURI(url)
+              .setDirectory(gitDir)
+              .setBare(true)
+              .setCloneAllBranches(true);
+      authentication.accept(clone);
+      clone.call().close();
+    } catch (GitAPIException | RuntimeException e) {
+      FileUtils.deleteDirectory(gitDir);
+      throw e;
+    }
+  }
+
+  /** Deletes the least recently used mirrors other than keep until they fit in the limit. */
+  private void evict(@Nullable Mirror keep) {
+    long totalSize = mirrors.values().stream().mapToLong(m -> m.size).sum();
+    if (totalSize <= maxSizeBytes) {
+      return;
+    }
+
+    List<Mirror> leastRecentlyUsed =
+        mirrors.values().stream()
+            .sorted(Comparator.comparingLong(m -> m.lastUsed))
+            .collect(Collectors.toList());
+    for (Mirror mirror : leastRecentlyUsed) {
+      if (totalSize <= maxSizeBytes) {
+        return;
+      }
+      if (mirror == keep || !mirror.lock.writeLock().tryLock()) {
+        continue;
+      }
+      try {
+        log.info("Evicting git/repo mirror {} ({} bytes)", mirror.path, mirror.size);
+        mirror.evicted = true;
+        mirrors.remove(mirror.path, mirror);
+        totalSize -= mirror.size;
+        FileUtils.deleteDirectory(mirror.path.toFile());
+      } catch (IOException e) {
+        log.warn("Failed to delete git/repo mirror {}", mirror.path, e);
+      } finally {
+        mirror.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @FunctionalInterface
+  interface MirrorReader<T> {
+    T read(Git mirror) throws IOException, GitAPIException;
+  }
+
+  private static final class Mirror {
+    private final Path path;
+    // Readers share the mirror; eviction needs it to itself
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long size;
+    private volatile long lastUsed = System.currentTimeMillis();
+    private volatile boolean evicted;
+    @Nullable private CompletableFuture<Void> update;
+
+    Mirror(Path path) {
+      this.path = path;
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package com.netflix.spinnaker.clouddriver.artifacts.helm;
 
 import com.squareup.okhttp.OkHttpClient;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -43,7 +44,10 @@ class HelmArtifactConfiguration {
         .map(
             a -> {
               try {
-                return new HelmArtifactCredentials(a, okHttpClient);
+                return new HelmArtifactCredentials(
+                    a,
+                    okHttpClient,
+                    Duration.ofSeconds(helmArtifactProviderProperties.getIndexCacheTtlSeconds()));
               } catch (Exception e) {
                 log.warn("Failure instantiating Helm artifact account {}: ", a, e);
                 return null;
@@ -25,11 +25,16 @@ import com.netflix.spinnaker.clouddriver.artifacts.exceptions.FailedDownloadExce
 import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
 import com.netflix.spinnaker.kork.web.exceptions.NotFoundException;
+import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
 import com.squareup.okhttp.ResponseBody;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.util.List;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,6 +46,9 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
   @Getter private final ImmutableList<String> types = ImmutableList.of("helm/chart", "helm/index");
 
   @JsonIgnore private final IndexParser indexParser;
+  @JsonIgnore private final Duration indexCacheTtl;
+  @JsonIgnore private final Object indexLock = new Object();
+  @JsonIgnore @Nullable private volatile CachedIndex cachedIndex;
 
   @Override
   public boolean handlesType(String type) {
@@ -48,20 +56,28 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
   }
 
   HelmArtifactCredentials(HelmArtifactAccount account, OkHttpClient okHttpClient) {
+    this(account, okHttpClient, Duration.ofSeconds(60));
+  }
+
+  /**
+   * @param indexCacheTtl how long the parsed index.yaml of the repository is used before it is
+   *     revalidated
+   */
+  HelmArtifactCredentials(
+      HelmArtifactAccount account, OkHttpClient okHttpClient, Duration indexCacheTtl) {
     super(okHttpClient, account);
     this.name = account.getName();
     this.indexParser = new IndexParser(account.getRepository());
+    this.indexCacheTtl = indexCacheTtl;
   }
 
   @Override
   public InputStream download(Artifact artifact) throws IOException {
-    InputStream index = downloadIndex();
-
     if ("helm/index".equals(artifact.getType())) {
-      return index;
+      return downloadIndex();
     }
 
-    List<String> urls = indexParser.findUrls(index, artifact.getName(), artifact.getVersion());
+    List<String> urls = index().findUrls(artifact.getName(), artifact.getVersion());
     ResponseBody downloadResponse;
     for (String url : urls) {
       try {
@@ -75,11 +91,9 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
   }
 
   public List<String> getArtifactNames() {
-    InputStream index;
     List<String> names;
     try {
-      index = downloadIndex();
-      names = indexParser.findNames(index);
+      names = index().findNames();
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart names for '" + name + "' account");
     }
@@ -87,11 +101,9 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
   }
 
   public List<String> getArtifactVersions(String artifactName) {
-    InputStream index;
     List<String> versions;
     try {
-      index = downloadIndex();
-      versions = indexParser.findVersions(index, artifactName);
+      versions = index().findVersions(artifactName);
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart versions for '" + name + "' account");
     }
@@ -107,4 +119,77 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
           "Failed to download index.yaml file in '" + indexParser.getRepository() + "' repository");
     }
   }
+
+  /**
+   * @return the parsed index.yaml of the repository. Once it is older than indexCacheTtl it is
+   *     revalidated with a conditional request, and only parsed again if it changed
+   */
+  private IndexParser.Index index() throws IOException {
+    CachedIndex cached = cachedIndex;
+    if (cached != null && System.nanoTime() - cached.validatedAt < indexCacheTtl.toNanos()) {
+      return cached.index;
+    }
+
+    // Callers that find the index stale while it is being revalidated wait for that revalidation
+    synchronized (indexLock) {
+      cached = cachedIndex;
+      if (cached == null || System.nanoTime() - cached.validatedAt >= indexCacheTtl.toNanos()) {
+        cached = revalidateIndex(cached);
+        cachedIndex = cached;
+      }
+      return cached.index;
+    }
+  }
+
+  private CachedIndex revalidateIndex(@Nullable CachedIndex cached) throws IOException {
+    Headers.Builder conditions = new Headers.Builder();
+    if (cached != null && cached.etag != null) {
+      conditions.set("If-None-Match", cached.etag);
+    }
+    if (cached != null && cached.lastModified != null) {
+      conditions.set("If-Modified-Since", cached.lastModified);
+    }
+
+    String failure =
+        "Failed to download index.yaml file in '" + indexParser.getRepository() + "' repository";
+    Response response;
+    try {
+      response = fetchUrl(indexParser.indexPath(), conditions.build());
+    } catch (IOException e) {
+      throw new FailedDownloadException(failure, e);
+    }
+
+    long validatedAt = System.nanoTime();
+    try (ResponseBody body = response.body()) {
+      if (cached != null && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        return new CachedIndex(cached.index, cached.etag, cached.lastModified, validatedAt);
+      }
+      if (!response.isSuccessful()) {
+        throw new FailedDownloadException(failure);
+      }
+      return new CachedIndex(
+          indexParser.parse(body.byteStream()),
+          response.header("ETag"),
+          response.header("Last-Modified"),
+          validatedAt);
+    }
+  }
+
+  private static final class CachedIndex {
+    private final IndexParser.Index index;
+    @Nullable private final String etag;
+    @Nullable private final String lastModified;
+    private final long validatedAt;
+
+    CachedIndex(
+        IndexParser.Index index,
+        @Nullable String etag,
+        @Nullable String lastModified,
+        long validatedAt) {
+      this.index = index;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.validatedAt = validatedAt;
+    }
+  }
 }
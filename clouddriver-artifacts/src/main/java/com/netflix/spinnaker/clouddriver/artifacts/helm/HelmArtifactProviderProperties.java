@@ -28,4 +28,6 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 final class HelmArtifactProviderProperties implements ArtifactProvider<HelmArtifactAccount> {
   private boolean enabled;
   private List<HelmArtifactAccount> accounts = new ArrayList<>();
+  // How long the parsed index.yaml of a repository is used before it is revalidated
+  private long indexCacheTtlSeconds = 60;
 }
@@ -44,27 +44,82 @@ public class IndexParser {
   }
 
   public List<String> findNames(InputStream in) throws IOException {
-    IndexConfig indexConfig = buildIndexConfig(in);
-    return new ArrayList<>(indexConfig.getEntries().keySet());
+    return parse(in).findNames();
   }
 
   public List<String> findVersions(InputStream in, String name) throws IOException {
-    if (name == null || name.isEmpty()) {
-      throw new IllegalArgumentException("Artifact name field should not be empty");
-    }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    List<String> versions = new ArrayList<>();
-    configs.forEach(e -> versions.add(e.getVersion()));
-    return versions;
+    return parse(in).findVersions(name);
   }
 
   public List<String> findUrls(InputStream in, String name, String version) throws IOException {
-    if (name == null || name.isEmpty()) {
-      throw new IllegalArgumentException("Artifact name field should not be empty");
+    return parse(in).findUrls(name, version);
+  }
+
+  /** Parses an index.yaml file, indexing its entries for repeated lookups. */
+  public Index parse(InputStream in) throws IOException {
+    return new Index(buildIndexConfig(in));
+  }
+
+  /** The entries of an index.yaml file, by chart name and version. */
+  public class Index {
+    private final List<String> names;
+    private final Map<String, List<String>> versionsByName = new HashMap<>();
+    private final Map<String, Map<String, List<String>>> urlsByNameAndVersion = new HashMap<>();
+
+    private Index(IndexConfig indexConfig) {
+      Map<String, List<EntryConfig>> entries =
+          Optional.ofNullable(indexConfig.getEntries()).orElse(Collections.emptyMap());
+      this.names = new ArrayList<>(entries.keySet());
+      entries.forEach(
+          (name, configs) -> {
+            if (configs == null || configs.isEmpty()) {
+              return;
+            }
+            List<String> versions = new ArrayList<>();
+            Map<String, List<String>> urlsByVersion = new HashMap<>();
+            configs.forEach(
+                e -> {
+                  versions.add(e.getVersion());
+                  urlsByVersion
+                      .computeIfAbsent(e.getVersion(), v -> new ArrayList<>())
+                      .addAll(Optional.ofNullable(e.getUrls()).orElse(Collections.emptyList()));
+                });
+            versionsByName.put(name, versions);
+            urlsByNameAndVersion.put(name, urlsByVersion);
+          });
+    }
+
+    public List<String> findNames() {
+      return new ArrayList<>(names);
+    }
+
+    public List<String> findVersions(String name) {
+      return new ArrayList<>(versionsOf(name));
+    }
+
+    public List<String> findUrls(String name, String version) {
+      List<String> versions = versionsOf(name);
+      String validVersion = StringUtils.isBlank(version) ? findLatestVersion(versions) : version;
+      List<String> urls =
+          urlsByNameAndVersion.get(name).getOrDefault(validVersion, Collections.emptyList());
+      if (urls.isEmpty()) {
+        throw new IllegalArgumentException(
+            "Could not find correct entry with artifact version " + validVersion);
+      }
+      return resolveReferenceUrls(urls);
+    }
+
+    private List<String> versionsOf(String name) {
+      if (name == null || name.isEmpty()) {
+        throw new IllegalArgumentException("Artifact name field should not be empty");
+      }
+      List<String> versions = versionsByName.get(name);
+      if (versions == null) {
+        throw new IllegalArgumentException(
+            "Could not find correct entry with artifact name " + name);
+      }
+      return versions;
     }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    String validVersion = StringUtils.isBlank(version) ? findLatestVersion(configs) : version;
-    return resolveReferenceUrls(findUrlsByVersion(configs, validVersion));
   }
 
   private List<String> resolveReferenceUrls(List<String> urls) {
@@ -87,24 +142,9 @@ public class IndexParser {
     return resolvedRef;
   }
 
-  private List<String> findUrlsByVersion(List<EntryConfig> configs, String version) {
-    List<String> urls = new ArrayList<>();
-    configs.forEach(
-        e -> {
-          if (e.getVersion().equals(version)) {
-            urls.addAll(e.getUrls());
-          }
-        });
-    if (urls.isEmpty()) {
-      throw new IllegalArgumentException(
-          "Could not find correct entry with artifact version " + version);
-    }
-    return urls;
-  }
-
-  private String findLatestVersion(List<EntryConfig> configs) {
-    return configs.stream()
-        .map(c -> new ComparableVersion(c.getVersion()))
+  private String findLatestVersion(List<String> versions) {
+    return versions.stream()
+        .map(ComparableVersion::new)
         .max(ComparableVersion::compareTo)
         .orElseGet(() -> new ComparableVersion(""))
         .toString();
@@ -120,14 +160,6 @@ public class IndexParser {
     }
     return indexConfig;
   }
-
-  private List<EntryConfig> buildEntryConfigsByName(IndexConfig indexConfig, String name) {
-    List<EntryConfig> configs = indexConfig.getEntries().get(name);
-    if (configs == null || configs.isEmpty()) {
-      throw new IllegalArgumentException("Could not find correct entry with artifact name " + name);
-    }
-    return configs;
-  }
 }
 
 @Data
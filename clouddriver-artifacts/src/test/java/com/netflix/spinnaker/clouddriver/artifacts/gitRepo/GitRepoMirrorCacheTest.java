@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GitRepoMirrorCacheTest {
+  @TempDir Path tempDir;
+
+  @Test
+  void fetchesNewCommitsIntoTheExistingMirror() throws Exception {
+    Path origin = tempDir.resolve("origin");
+    Path mirrors = tempDir.resolve("mirrors");
+    GitRepoMirrorCache cache = new GitRepoMirrorCache(mirrors, Long.MAX_VALUE);
+
+    try (Git git = Git.init().setDirectory(origin.toFile()).call()) {
+      RevCommit first = commit(git, "first");
+      assertThat(resolveMaster(cache, origin)).isEqualTo(first.getId());
+
+      RevCommit second = commit(git, "second");
+      assertThat(resolveMaster(cache, origin)).isEqualTo(second.getId());
+    }
+
+    try (Stream<Path> mirrorDirectories = Files.list(mirrors)) {
+      assertThat(mirrorDirectories).hasSize(1);
+    }
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedMirrorsOverTheLimit() throws Exception {
+    Path mirrors = tempDir.resolve("mirrors");
+    GitRepoMirrorCache cache = new GitRepoMirrorCache(mirrors, 1);
+
+    Path first = tempDir.resolve("first");
+    Path second = tempDir.resolve("second");
+    try (Git firstGit = Git.init().setDirectory(first.toFile()).call();
+        Git secondGit = Git.init().setDirectory(second.toFile()).call()) {
+      commit(firstGit, "first");
+      commit(secondGit, "second");
+
+      resolveMaster(cache, first);
+      resolveMaster(cache, second);
+    }
+
+    // Each mirror is over the limit by itself, so only the one that was just read is kept
+    try (Stream<Path> mirrorDirectories = Files.list(mirrors)) {
+      assertThat(mirrorDirectories).hasSize(1);
+    }
+  }
+
+  private static ObjectId resolveMaster(GitRepoMirrorCache cache, Path origin) throws Exception {
+    return cache.read(
+        "account",
+        origin.toUri().toString(),
+        command -> {},
+        mirror -> mirror.getRepository().resolve("master"));
+  }
+
+  private static RevCommit commit(Git git, String content) throws Exception {
+    Path file = git.getRepository().getWorkTree().toPath().resolve("file.txt");
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    git.add().addFilepattern("file.txt").call();
+    return git.commit().setMessage(content).call();
+  }
+}
@@ -36,6 +36,7 @@ import com.fasterxml.jackson.annotation.JsonProperty
 import com.fasterxml.jackson.core.type.TypeReference
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.netflix.frigga.Names
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.agent.AccountAware
@@ -49,6 +50,7 @@ import com.netflix.spinnaker.clouddriver.aws.data.ArnUtils
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonClientProvider
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
+import com.netflix.spinnaker.clouddriver.aws.security.sdkclient.EddaCollectionState
 import com.netflix.spinnaker.clouddriver.cache.OnDemandAgent
 import com.netflix.spinnaker.clouddriver.cache.OnDemandMetricsSupport
 import com.netflix.spinnaker.clouddriver.aws.data.Keys
@@ -56,6 +58,12 @@ import com.netflix.spinnaker.clouddriver.cache.OnDemandType
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.function.Supplier
+
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.*
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.*
 import com.netflix.spinnaker.cats.agent.CacheResult
@@ -68,6 +76,30 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
 
   private static final TypeReference<Map<String, Object>> ATTRIBUTES = new TypeReference<Map<String, Object>>() {}
 
+  private static final int MAX_ALARM_NAMES_PER_REQUEST = 100
+
+  private static final int DESCRIBE_THREADS = 32
+  private static final int ALARM_DESCRIBE_THREADS = 16
+
+  // Independent describe calls of all agents run concurrently on this pool. Every call still
+  // acquires the rate limiter of its client, so this shortens the agent without raising the
+  // request rate beyond the configured limits.
+  private static final ExecutorService describeExecutor = Executors.newFixedThreadPool(
+    DESCRIBE_THREADS,
+    new ThreadFactoryBuilder()
+      .setNameFormat(ClusterCachingAgent.simpleName + "-describe-%d")
+      .setDaemon(true)
+      .build())
+
+  // Alarm batches are awaited by scaling policy loads already running on describeExecutor, so they
+  // get a pool of their own rather than waiting behind the tasks that wait on them.
+  private static final ExecutorService alarmDescribeExecutor = Executors.newFixedThreadPool(
+    ALARM_DESCRIBE_THREADS,
+    new ThreadFactoryBuilder()
+      .setNameFormat(ClusterCachingAgent.simpleName + "-describe-alarms-%d")
+      .setDaemon(true)
+      .build())
+
   static final Set<AgentDataType> types = Collections.unmodifiableSet([
     AUTHORITATIVE.forType(CLUSTERS.ns),
     AUTHORITATIVE.forType(SERVER_GROUPS.ns),
@@ -90,6 +122,10 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
 
   final OnDemandMetricsSupport metricsSupport
 
+  // the result built from the collections edda last returned, reused while they are unchanged and
+  // no onDemand data is pending
+  private volatile CacheResult lastCacheResult
+
   ClusterCachingAgent(AmazonCloudProvider amazonCloudProvider,
                       AmazonClientProvider amazonClientProvider,
                       NetflixAmazonCredentials account,
@@ -145,8 +181,10 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     final AmazonAutoScaling autoScaling
     final AmazonEC2 amazonEC2
     final AmazonCloudWatch amazonCloudWatch
+    final boolean skipEdda
 
     public AmazonClients(AmazonClientProvider amazonClientProvider, NetflixAmazonCredentials account, String region, boolean skipEdda) {
+      this.skipEdda = skipEdda
       autoScaling = amazonClientProvider.getAutoScaling(account, region, skipEdda)
       amazonEC2 = amazonClientProvider.getAmazonEC2(account, region, skipEdda)
       amazonCloudWatch = amazonClientProvider.getAmazonCloudWatch(account, region, skipEdda)
@@ -344,14 +382,13 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
         break
       }
     }
-    def alarmNames = []
-    if (asgName) {
-      alarmNames = scalingPolicies.findResults { it.alarms.findResults { it.alarmName } }.flatten().unique()
-    }
-
-    Map<String, Map> alarms = [:]
-    if (!asgName || alarmNames) {
-      alarms = loadAlarms(clients, alarmNames)
+    Map<String, Map> alarms
+    if (!asgName && isEddaEnabled(clients)) {
+      // edda serves every alarm in a single request, but would make one request per alarm name
+      alarms = loadAlarms(clients, [])
+    } else {
+      def alarmNames = scalingPolicies.findResults { it.alarms.findResults { it.alarmName } }.flatten().unique()
+      alarms = loadAlarmsByName(clients, alarmNames)
     }
 
     scalingPolicies
@@ -389,6 +426,36 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     objectMapper.convertValue(obj, Map)
   }
 
+  private Map<String, Map> loadAlarmsByName(AmazonClients clients, List alarmNames) {
+    if (alarmNames.size() <= MAX_ALARM_NAMES_PER_REQUEST) {
+      return alarmNames ? loadAlarms(clients, alarmNames) : [:]
+    }
+    def batches = alarmNames.collate(MAX_ALARM_NAMES_PER_REQUEST).collect { List batch ->
+      loadAsync(alarmDescribeExecutor) { loadAlarms(clients, batch) }
+    }
+    batches.collectEntries { await(it) }
+  }
+
+  private boolean isEddaEnabled(AmazonClients clients) {
+    !clients.skipEdda && account.eddaEnabled && !eddaTimeoutConfig.disabledRegions.contains(region)
+  }
+
+  private <T> CompletableFuture<T> loadAsync(Supplier<T> loader) {
+    loadAsync(describeExecutor, loader)
+  }
+
+  private <T> CompletableFuture<T> loadAsync(ExecutorService executor, Supplier<T> loader) {
+    CompletableFuture.supplyAsync(amazonClientProvider.withEddaCollectionTracking(loader), executor)
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      future.join()
+    } catch (CompletionException e) {
+      throw e.cause ?: e
+    }
+  }
+
   private Map<String, Map> loadAlarms(AmazonClients clients, List alarmNames) {
     log.debug("Describing alarms in ${agentType}")
 
@@ -414,10 +481,19 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     log.debug("Describing items in ${agentType}")
 
     def clients = new AmazonClients(amazonClientProvider, account, region, false)
+    amazonClientProvider.startEddaCollectionTracking()
 
-    def autoScalingGroupsResult = loadAutoScalingGroups(clients)
-    def scalingPolicies = loadScalingPolicies(clients)
-    def scheduledActions = loadScheduledActions(clients)
+    // each chain of pages is fetched on its own, so the slowest of them bounds the agent
+    def autoScalingGroupsFuture = loadAsync { loadAutoScalingGroups(clients) }
+    def scalingPoliciesFuture = loadAsync { loadScalingPolicies(clients) }
+    def scheduledActionsFuture = loadAsync { loadScheduledActions(clients) }
+    def subnetMapFuture = loadAsync { getSubnetToVpcIdMap(clients) }
+
+    def autoScalingGroupsResult = await(autoScalingGroupsFuture)
+    def scalingPolicies = await(scalingPoliciesFuture)
+    def scheduledActions = await(scheduledActionsFuture)
+    def subnetMap = await(subnetMapFuture)
+    def collectionState = amazonClientProvider.getEddaCollectionState()
 
     Long start = autoScalingGroupsResult.start
     List<AutoScalingGroup> asgs = autoScalingGroupsResult.asgs
@@ -430,6 +506,13 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
       .filterIdentifiers(ON_DEMAND.ns, Keys.getServerGroupKey("*", "*", account.name, region))
       .findAll { serverGroupKeys.contains(it) }
 
+    def lastCacheResult = this.lastCacheResult
+    if (collectionState == EddaCollectionState.NOT_MODIFIED && lastCacheResult && !pendingOnDemandRequestKeys) {
+      recordDrift(start)
+      log.debug("Server groups unchanged since they were last cached in ${agentType}")
+      return lastCacheResult
+    }
+
     def pendingOnDemandRequestsForServerGroups = providerCache.getAll(ON_DEMAND.ns, pendingOnDemandRequestKeys)
     pendingOnDemandRequestsForServerGroups.each {
       if (it.attributes.cacheTime < start && it.attributes.processedCount > 0) {
@@ -452,7 +535,9 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
       }
     }
 
-    CacheResult result = buildCacheResult(asgs, scalingPolicies, scheduledActions, getSubnetToVpcIdMap(clients), usableOnDemandCacheDatas.collectEntries { [it.id, it] }, evictableOnDemandCacheDatas*.id)
+    CacheResult result = buildCacheResult(asgs, scalingPolicies, scheduledActions, subnetMap, usableOnDemandCacheDatas.collectEntries { [it.id, it] }, evictableOnDemandCacheDatas*.id)
+    boolean reusable = collectionState != null && collectionState != EddaCollectionState.UNTRACKED && !pendingOnDemandRequestKeys
+    this.lastCacheResult = reusable ? result : null
     recordDrift(start)
     def cacheResults = result.cacheResults
     log.debug("Caching ${cacheResults[APPLICATIONS.ns]?.size()} applications in ${agentType}")
@@ -35,6 +35,7 @@ import com.netflix.spinnaker.cats.cache.CacheData
 import com.netflix.spinnaker.cats.provider.ProviderCache
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonClientProvider
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
+import com.netflix.spinnaker.clouddriver.aws.security.sdkclient.EddaCollectionState
 import com.netflix.spinnaker.clouddriver.model.HealthState
 import com.netflix.spinnaker.clouddriver.aws.data.Keys
 import com.netflix.spinnaker.clouddriver.aws.provider.AwsProvider
@@ -64,6 +65,9 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
   final ObjectMapper objectMapper
   final Registry registry
 
+  // the result built from the instances edda last returned, reused while they are unchanged
+  private volatile CacheResult lastCacheResult
+
   InstanceCachingAgent(AmazonClientProvider amazonClientProvider, NetflixAmazonCredentials account, String region, ObjectMapper objectMapper, Registry registry) {
     this.amazonClientProvider = amazonClientProvider
     this.account = account
@@ -107,6 +111,7 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
     log.info("Describing items in ${agentType}")
 
     def amazonEC2 = amazonClientProvider.getAmazonEC2(account, region)
+    amazonClientProvider.startEddaCollectionTracking()
 
     Long start = null
     def request = new DescribeInstancesRequest().withMaxResults(500)
@@ -124,6 +129,14 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
       }
     }
 
+    def collectionState = amazonClientProvider.getEddaCollectionState()
+    def lastCacheResult = this.lastCacheResult
+    if (collectionState == EddaCollectionState.NOT_MODIFIED && lastCacheResult) {
+      recordDrift(start)
+      log.info("Instances unchanged since they were last cached in ${agentType}")
+      return lastCacheResult
+    }
+
     Closure<Map<String, CacheData>> cache = {
       [:].withDefault { String id -> new MutableCacheData(id) }
     }
@@ -165,10 +178,16 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
     log.info("Skipping ${skipIds.size()} non-running instances in ${agentType}")
     log.debug("Skipped instanceIds in ${agentType}: ${skipIds}")
 
-    new DefaultCacheResult(
+    CacheResult result = new DefaultCacheResult(
       (SERVER_GROUPS.ns): serverGroups.values(),
       (INSTANCES.ns): instances.values(),
       (IMAGES.ns): images.values())
+    this.lastCacheResult = isTracked(collectionState) ? result : null
+    result
+  }
+
+  private static boolean isTracked(EddaCollectionState collectionState) {
+    collectionState != null && collectionState != EddaCollectionState.UNTRACKED
   }
 
   private void cacheImage(InstanceData data, Map<String, CacheData> images) {
@@ -38,6 +38,8 @@ import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.*
 @Component
 class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGroupProvider {
 
+  private static final int CLUSTERS_PAGE_SIZE = 1000
+
   private final AmazonCloudProvider amazonCloudProvider
   private final Cache cacheView
   private final AwsProvider awsProvider
@@ -60,8 +62,12 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
 
   @Override
   Map<String, Set<AmazonCluster>> getClusters() {
-    Collection<CacheData> clusterData = cacheView.getAll(CLUSTERS.ns)
-    Collection<AmazonCluster> clusters = translateClusters(clusterData, false)
+    // clusters are translated a page at a time so that every cluster never has to be held at once
+    Collection<AmazonCluster> clusters = []
+    cacheView.streamAll(CLUSTERS.ns, null, CLUSTERS_PAGE_SIZE) { Collection<CacheData> page ->
+      clusters.addAll(translateClusters(page, false))
+      return true
+    }
     mapResponse(clusters)
   }
 
@@ -70,6 +70,7 @@ import com.netflix.spinnaker.clouddriver.core.limits.ServiceLimitConfigurationBu
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
@@ -310,6 +311,33 @@ public class AmazonClientProvider {
     return AmazonClientInvocationHandler.lastModified.get();
   }
 
+  /**
+   * Starts tracking whether the collections the current thread fetches from edda have changed since
+   * they were last fetched, see {@link #getEddaCollectionState()}.
+   */
+  public void startEddaCollectionTracking() {
+    AmazonClientInvocationHandler.startCollectionTracking();
+  }
+
+  /**
+   * Only conditional requests for full collections are tracked, see {@link
+   * EddaTimeoutConfig#getConditionalRequests()}; any other request since tracking started makes the
+   * state {@link EddaCollectionState#UNTRACKED}.
+   *
+   * @return whether the collections fetched from edda since tracking started have changed
+   */
+  public EddaCollectionState getEddaCollectionState() {
+    return AmazonClientInvocationHandler.getCollectionState();
+  }
+
+  /**
+   * @return task, made to track the collections it fetches from edda along with those of the
+   *     current thread, so that it can run on another thread
+   */
+  public <T> Supplier<T> withEddaCollectionTracking(Supplier<T> task) {
+    return AmazonClientInvocationHandler.withCollectionTracking(task);
+  }
+
   public AmazonEC2 getAmazonEC2(NetflixAmazonCredentials amazonCredentials, String region) {
     return getAmazonEC2(amazonCredentials, region, false);
   }
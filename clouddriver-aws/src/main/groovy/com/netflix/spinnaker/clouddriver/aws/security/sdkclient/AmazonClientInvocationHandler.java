@@ -33,21 +33,31 @@ import com.amazonaws.services.elasticloadbalancingv2.model.*;
 import com.amazonaws.services.elasticloadbalancingv2.model.TargetGroup;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
@@ -64,6 +74,31 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
 
   public static final ThreadLocal<Long> lastModified = new ThreadLocal<>();
 
+  private static final ThreadLocal<CollectionTracking> collectionTracking = new ThreadLocal<>();
+
+  /**
+   * The method of this handler that serves each method of a client interface, computed once per
+   * interface. Methods without one are delegated to the SDK client.
+   */
+  private static final ClassValue<Map<Method, Method>> eddaMethods =
+      new ClassValue<Map<Method, Method>>() {
+        @Override
+        protected Map<Method, Method> computeValue(Class<?> type) {
+          Map<Method, Method> methods = new HashMap<>();
+          for (Method method : type.getMethods()) {
+            try {
+              methods.put(
+                  method,
+                  AmazonClientInvocationHandler.class.getMethod(
+                      method.getName(), method.getParameterTypes()));
+            } catch (NoSuchMethodException e) {
+              // served by the SDK client
+            }
+          }
+          return methods;
+        }
+      };
+
   private final String edda;
   private final HttpClient httpClient;
   private final Object delegate;
@@ -72,6 +107,8 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
   private final Map<String, String> metricTags;
+  private final EddaCollectionCache collectionCache;
+  private final InvokeTimerIds invokeTimerIds;
 
   public AmazonClientInvocationHandler(
       Object delegate,
@@ -81,7 +118,32 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       ObjectMapper objectMapper,
       EddaTimeoutConfig eddaTimeoutConfig,
       Registry registry,
-      Map<String, String> metricTags) {
+      Map<String, String> metricTags,
+      EddaCollectionCache collectionCache) {
+    this(
+        delegate,
+        serviceName,
+        edda,
+        httpClient,
+        objectMapper,
+        eddaTimeoutConfig,
+        registry,
+        metricTags,
+        collectionCache,
+        new InvokeTimerIds(registry, metricTags));
+  }
+
+  AmazonClientInvocationHandler(
+      Object delegate,
+      String serviceName,
+      String edda,
+      HttpClient httpClient,
+      ObjectMapper objectMapper,
+      EddaTimeoutConfig eddaTimeoutConfig,
+      Registry registry,
+      Map<String, String> metricTags,
+      EddaCollectionCache collectionCache,
+      InvokeTimerIds invokeTimerIds) {
     this.edda = edda;
     this.httpClient = httpClient;
     this.objectMapper = objectMapper;
@@ -91,28 +153,84 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
         eddaTimeoutConfig == null ? EddaTimeoutConfig.DEFAULT : eddaTimeoutConfig;
     this.registry = registry;
     this.metricTags = ImmutableMap.copyOf(metricTags);
+    this.collectionCache = collectionCache;
+    this.invokeTimerIds = invokeTimerIds;
+  }
+
+  /**
+   * Starts tracking whether the collections fetched by the current thread have changed since they
+   * were last fetched, see {@link #getCollectionState()}.
+   */
+  public static void startCollectionTracking() {
+    collectionTracking.set(new CollectionTracking());
+  }
+
+  /**
+   * @return whether the collections fetched by the current thread since tracking started have
+   *     changed
+   */
+  public static EddaCollectionState getCollectionState() {
+    CollectionTracking tracking = collectionTracking.get();
+    if (tracking == null) {
+      return EddaCollectionState.UNTRACKED;
+    }
+    synchronized (tracking) {
+      if (tracking.untracked || tracking.fetched == 0) {
+        return EddaCollectionState.UNTRACKED;
+      }
+      return tracking.modified ? EddaCollectionState.MODIFIED : EddaCollectionState.NOT_MODIFIED;
+    }
+  }
+
+  /**
+   * @return task, made to track the collections it fetches as part of the collection tracking of
+   *     the current thread, whichever thread it then runs on
+   */
+  public static <T> Supplier<T> withCollectionTracking(Supplier<T> task) {
+    final CollectionTracking tracking = collectionTracking.get();
+    if (tracking == null) {
+      return task;
+    }
+    return () -> {
+      final CollectionTracking previous = collectionTracking.get();
+      collectionTracking.set(tracking);
+      try {
+        return task.get();
+      } finally {
+        collectionTracking.set(previous);
+      }
+    };
+  }
+
+  private static void trackCollection(boolean conditional, boolean modified) {
+    CollectionTracking tracking = collectionTracking.get();
+    if (tracking == null) {
+      return;
+    }
+    synchronized (tracking) {
+      if (conditional) {
+        tracking.fetched++;
+        tracking.modified |= modified;
+      } else {
+        tracking.untracked = true;
+      }
+    }
   }
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-    final Id id =
-        registry.createId("awsClientProxy.invoke", metricTags).withTag("method", method.getName());
     final long startTime = System.nanoTime();
-    boolean wasDelegated = false;
+    final Class<?> declaringClass = method.getDeclaringClass();
+    final Method thisMethod =
+        !eddaTimeoutConfig.getAlbEnabled() && declaringClass == AmazonElasticLoadBalancing.class
+            ? null
+            : eddaMethods.get(declaringClass).get(method);
 
     try {
-      if (!eddaTimeoutConfig.getAlbEnabled()
-          && method.getDeclaringClass().equals(AmazonElasticLoadBalancing.class)) {
-        throw new NoSuchMethodException();
+      if (thisMethod != null) {
+        return thisMethod.invoke(this, args);
       }
-      Method thisMethod =
-          this.getClass()
-              .getMethod(
-                  method.getName(),
-                  args != null && args.length > 0 ? getClassArgs(args) : new Class[0]);
-      return thisMethod.invoke(this, args);
-    } catch (NoSuchMethodException e) {
-      wasDelegated = true;
+      trackCollection(false, true);
       try {
         return method.invoke(delegate, args);
       } catch (InvocationTargetException ite) {
@@ -120,19 +238,11 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       }
     } finally {
       registry
-          .timer(id.withTag("requestMode", wasDelegated ? "sdkClient" : "edda"))
+          .timer(invokeTimerIds.get(method, thisMethod == null))
           .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
     }
   }
 
-  static Class[] getClassArgs(Object[] args) {
-    List<Class> classes = new ArrayList<>();
-    for (Object object : args) {
-      classes.add(object.getClass());
-    }
-    return classes.toArray(new Class[classes.size()]);
-  }
-
   ////////////////////////////////////
   //
   // AmazonAutoScaling
@@ -409,26 +519,18 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       final Id deserializeJsonTimer = registry.createId("edda.deserializeJson", metricTags);
       final Id resultSizeCounter = registry.createId("edda.resultSize", metricTags);
       if (ids.isEmpty()) {
-        HttpEntity entity = getHttpEntity(metricTags, object, null);
-        try {
-          final JavaType listMeta =
-              objectMapper
-                  .getTypeFactory()
-                  .constructParametrizedType(List.class, List.class, singleMeta);
-          final List<Metadata<T>> metadataResults =
-              registry
-                  .timer(deserializeJsonTimer)
-                  .record(() -> objectMapper.readValue(entity.getContent(), listMeta));
-          for (Metadata<T> meta : metadataResults) {
-            mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
-            results.add(meta.data);
-          }
-        } finally {
-          EntityUtils.consume(entity);
-        }
+        final JavaType listMeta =
+            objectMapper
+                .getTypeFactory()
+                .constructParametrizedType(List.class, List.class, singleMeta);
+        EddaCollectionCache.Version collection =
+            fetchCollection(metricTags, object, listMeta, deserializeJsonTimer);
+        results.addAll((List<T>) collection.items);
+        mtime = collection.mtime;
       } else {
+        trackCollection(false, true);
         for (String id : ids) {
-          HttpEntity entity = getHttpEntity(metricTags, object, id);
+          HttpEntity entity = getHttpResponse(metricTags, object, id, null).getEntity();
           try {
             final Metadata<T> result =
                 registry
@@ -461,6 +563,100 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     }
   }
 
+  /**
+   * Fetches the full collection object. If edda reports the collection unchanged since the version
+   * in the collection cache was fetched, that version is returned without reading a body. If edda
+   * returns the same body, which is hashed as it is deserialized, that version is returned in place
+   * of the new items so that callers can recognize the collection as unchanged.
+   */
+  private EddaCollectionCache.Version fetchCollection(
+      Map<String, String> metricTags, String object, JavaType listMeta, Id deserializeJsonTimer)
+      throws Exception {
+    final String cacheKey = metricTags.get("account") + ":" + edda + ":" + object;
+    final EddaCollectionCache.Version previous =
+        collectionCache == null ? null : collectionCache.get(cacheKey);
+    final HttpResponse response = getHttpResponse(metricTags, object, null, previous);
+    final HttpEntity entity = response.getEntity();
+    try {
+      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+        return notModified(metricTags, previous);
+      }
+      if (collectionCache == null) {
+        trackCollection(false, true);
+        return deserializeCollection(
+            entity.getContent(), listMeta, deserializeJsonTimer, null, null, false);
+      }
+
+      final EddaCollectionCache.Version version =
+          deserializeCollection(
+              entity.getContent(),
+              listMeta,
+              deserializeJsonTimer,
+              headerValue(response, HttpHeaders.ETAG),
+              headerValue(response, HttpHeaders.LAST_MODIFIED),
+              true);
+      if (previous != null && previous.bodyHash.equals(version.bodyHash)) {
+        return notModified(metricTags, previous);
+      }
+      trackCollection(true, true);
+      collectionCache.put(cacheKey, version);
+      return version;
+    } finally {
+      EntityUtils.consume(entity);
+    }
+  }
+
+  private EddaCollectionCache.Version notModified(
+      Map<String, String> metricTags, EddaCollectionCache.Version previous) {
+    trackCollection(true, false);
+    registry.counter(registry.createId("edda.notModified", metricTags)).increment();
+    return previous;
+  }
+
+  /**
+   * @param hashBody whether to hash the body as it is read, in which case it is read to the end so
+   *     that the hash covers the whole body
+   */
+  private EddaCollectionCache.Version deserializeCollection(
+      InputStream body,
+      JavaType listMeta,
+      Id deserializeJsonTimer,
+      String etag,
+      String lastModified,
+      boolean hashBody)
+      throws Exception {
+    final HashingInputStream hashing =
+        hashBody ? new HashingInputStream(Hashing.murmur3_128(), body) : null;
+    final InputStream content = hashing != null ? hashing : body;
+    final List<Metadata<Object>> metadataResults =
+        registry
+            .timer(deserializeJsonTimer)
+            .record(
+                () -> {
+                  try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+                    parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                    return objectMapper.readValue(parser, listMeta);
+                  }
+                });
+    HashCode bodyHash = null;
+    if (hashing != null) {
+      ByteStreams.exhaust(hashing);
+      bodyHash = hashing.hash();
+    }
+    Long mtime = null;
+    final List<Object> items = new ArrayList<>(metadataResults.size());
+    for (Metadata<Object> meta : metadataResults) {
+      mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
+      items.add(meta.data);
+    }
+    return new EddaCollectionCache.Version(etag, lastModified, bodyHash, items, mtime);
+  }
+
+  private static String headerValue(HttpResponse response, String name) {
+    final Header header = response.getFirstHeader(name);
+    return header == null ? null : header.getValue();
+  }
+
   private static Collection<String> getRequestIds(
       AmazonWebServiceRequest request, String idFieldName) {
     if (request == null) {
@@ -476,7 +672,15 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     }
   }
 
-  private HttpEntity getHttpEntity(Map<String, String> metricTags, String objectName, String key)
+  /**
+   * @param previous the cached version of the requested collection, which makes the request
+   *     conditional on the collection having changed since, and a 304 response acceptable
+   */
+  private HttpResponse getHttpResponse(
+      Map<String, String> metricTags,
+      String objectName,
+      String key,
+      EddaCollectionCache.Version previous)
       throws EddaException {
     final String url =
         edda + "/REST/v2/aws/" + objectName + (key == null ? ";_expand" : "/" + key) + ";_meta";
@@ -487,6 +691,12 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
             .setConnectionRequestTimeout(eddaTimeoutConfig.getConnectionRequestTimeout())
             .setSocketTimeout(eddaTimeoutConfig.getSocketTimeout())
             .build());
+    if (previous != null && previous.etag != null) {
+      get.setHeader(HttpHeaders.IF_NONE_MATCH, previous.etag);
+    }
+    if (previous != null && previous.lastModified != null) {
+      get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified);
+    }
 
     long retryDelay = eddaTimeoutConfig.getRetryBase();
     int retryAttempts = 0;
@@ -509,7 +719,8 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
             registry.timer(httpExecuteTime).record(() -> httpClient.execute(get));
         final int statusCode = response.getStatusLine().getStatusCode();
         entity = response.getEntity();
-        if (statusCode != HttpStatus.SC_OK) {
+        if (statusCode != HttpStatus.SC_OK
+            && !(previous != null && statusCode == HttpStatus.SC_NOT_MODIFIED)) {
           lastExceptionMessage =
               response.getProtocolVersion().toString()
                   + " "
@@ -524,7 +735,7 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
           throw new HttpClientErrorException(
               org.springframework.http.HttpStatus.valueOf(statusCode), lastExceptionMessage);
         } else {
-          return entity;
+          return response;
         }
       } catch (Exception e) {
         lastExceptionMessage = e.getClass().getSimpleName() + ": " + e.getMessage();
@@ -555,6 +766,40 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     throw new EddaException("Edda request " + lastUrl + " failed with " + lastExceptionMessage, ex);
   }
 
+  /**
+   * The ids of the timers of proxied calls, by method and by whether edda or the SDK client served
+   * them, which can be shared by every handler created with the same metric tags.
+   */
+  static final class InvokeTimerIds {
+    private final Id invokeId;
+    private final Map<Method, Id> eddaIds = new ConcurrentHashMap<>();
+    private final Map<Method, Id> sdkClientIds = new ConcurrentHashMap<>();
+
+    InvokeTimerIds(Registry registry, Map<String, String> metricTags) {
+      this.invokeId = registry.createId("awsClientProxy.invoke", metricTags);
+    }
+
+    Id get(Method method, boolean delegated) {
+      final Map<Method, Id> ids = delegated ? sdkClientIds : eddaIds;
+      final Id id = ids.get(method);
+      if (id != null) {
+        return id;
+      }
+      return ids.computeIfAbsent(
+          method,
+          m ->
+              invokeId
+                  .withTag("method", m.getName())
+                  .withTag("requestMode", delegated ? "sdkClient" : "edda"));
+    }
+  }
+
+  private static class CollectionTracking {
+    private boolean untracked;
+    private boolean modified;
+    private int fetched;
+  }
+
   private static class Metadata<T> {
     final Long mtime;
     final T data;
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.security.sdkclient;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The last version of each full collection fetched from edda, by account, region and collection.
+ *
+ * <p>A version keeps the validators edda returned with it, so the next fetch can be made
+ * conditional, and a hash of its body, so that an unchanged body from an edda that ignores the
+ * validators is still recognized and the same items handed out again. The deserialized items of a
+ * version are shared by every caller that is handed them, and must not be modified.
+ *
+ * <p>Versions hold whole collections, so they are dropped once no longer fetched, and the number
+ * kept is bounded.
+ */
+public class EddaCollectionCache {
+  static final long DEFAULT_MAXIMUM_SIZE = 5000;
+  static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofMinutes(15);
+
+  private final Cache<String, Version> versions;
+
+  public EddaCollectionCache() {
+    this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_ACCESS, Ticker.systemTicker());
+  }
+
+  EddaCollectionCache(long maximumSize, Duration expireAfterAccess, Ticker ticker) {
+    this.versions =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(expireAfterAccess.toMillis(), TimeUnit.MILLISECONDS)
+            .ticker(ticker)
+            .build();
+  }
+
+  Version get(String key) {
+    return versions.getIfPresent(key);
+  }
+
+  void put(String key, Version version) {
+    versions.put(key, version);
+  }
+
+  static final class Version {
+    final String etag;
+    final String lastModified;
+    final HashCode bodyHash;
+    final List<?> items;
+    final Long mtime;
+
+    Version(String etag, String lastModified, HashCode bodyHash, List<?> items, Long mtime) {
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.bodyHash = bodyHash;
+      this.items = items;
+      this.mtime = mtime;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.security.sdkclient;
+
+/** Whether the collections a thread fetched since it started tracking them have changed. */
+public enum EddaCollectionState {
+  /**
+   * Some request was not a conditional fetch of a full collection from edda (or none was made), so
+   * it is unknown whether anything changed.
+   */
+  UNTRACKED,
+  /** At least one collection changed since it was last fetched. */
+  MODIFIED,
+  /** Every collection was unchanged since it was last fetched. */
+  NOT_MODIFIED
+}
@@ -27,6 +27,7 @@ import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig;
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials;
 import java.lang.reflect.Proxy;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.http.client.HttpClient;
 
 /**
@@ -40,6 +41,10 @@ public class ProxyHandlerBuilder {
   private final EddaTemplater eddaTemplater;
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
+  private final EddaCollectionCache collectionCache;
+  // clients are proxied again on every lookup, so timer ids are kept per account, region, service
+  private final Map<Map<String, String>, AmazonClientInvocationHandler.InvokeTimerIds>
+      invokeTimerIds = new ConcurrentHashMap<>();
 
   public ProxyHandlerBuilder(
       AwsSdkClientSupplier awsSdkClientSupplier,
@@ -54,6 +59,10 @@ public class ProxyHandlerBuilder {
     this.eddaTemplater = requireNonNull(eddaTemplater);
     this.eddaTimeoutConfig = eddaTimeoutConfig;
     this.registry = requireNonNull(registry);
+    this.collectionCache =
+        eddaTimeoutConfig != null && eddaTimeoutConfig.getConditionalRequests()
+            ? new EddaCollectionCache()
+            : null;
   }
 
   public <T extends AwsClientBuilder<T, U>, U> U getProxyHandler(
@@ -115,6 +124,9 @@ public class ProxyHandlerBuilder {
         objectMapper,
         eddaTimeoutConfig,
         registry,
-        baseTags);
+        baseTags,
+        collectionCache,
+        invokeTimerIds.computeIfAbsent(
+            baseTags, tags -> new AmazonClientInvocationHandler.InvokeTimerIds(registry, tags)));
   }
 }
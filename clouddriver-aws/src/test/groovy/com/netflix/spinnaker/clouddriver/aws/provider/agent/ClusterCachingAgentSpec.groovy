@@ -17,17 +17,26 @@
 
 package com.netflix.spinnaker.clouddriver.aws.provider.agent
 
+import com.amazonaws.AmazonServiceException
 import com.amazonaws.services.autoscaling.AmazonAutoScaling
 import com.amazonaws.services.autoscaling.model.AutoScalingGroup
 import com.amazonaws.services.autoscaling.model.DescribeAutoScalingGroupsRequest
 import com.amazonaws.services.autoscaling.model.DescribeAutoScalingGroupsResult
+import com.amazonaws.services.autoscaling.model.DescribePoliciesResult
+import com.amazonaws.services.autoscaling.model.DescribeScheduledActionsResult
 import com.amazonaws.services.autoscaling.model.SuspendedProcess
 import com.amazonaws.services.autoscaling.model.TagDescription
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch
+import com.amazonaws.services.cloudwatch.model.DescribeAlarmsRequest
+import com.amazonaws.services.cloudwatch.model.DescribeAlarmsResult
+import com.amazonaws.services.cloudwatch.model.MetricAlarm
 import com.amazonaws.services.ec2.AmazonEC2
+import com.amazonaws.services.ec2.model.DescribeSubnetsResult
 import com.netflix.awsobjectmapper.AmazonObjectMapperConfigurer
 import com.netflix.spectator.api.Spectator
 import com.netflix.spinnaker.cats.provider.ProviderCache
 import com.netflix.spinnaker.clouddriver.aws.AmazonCloudProvider
+import com.netflix.spinnaker.clouddriver.aws.data.Keys
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonClientProvider
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
@@ -35,6 +44,11 @@ import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.function.Supplier
+
+import static com.netflix.spinnaker.clouddriver.aws.security.sdkclient.EddaCollectionState.*
+import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.SERVER_GROUPS
+
 class ClusterCachingAgentSpec extends Specification {
   static String region = 'region'
   static String accountName = 'accountName'
@@ -144,6 +158,98 @@ class ClusterCachingAgentSpec extends Specification {
     result.authoritativeTypes as Set == ["clusters", "serverGroups", "applications"] as Set
   }
 
+  @Unroll
+  void "should reuse the last result only while edda reports the collections #state and no onDemand data is pending"() {
+    given:
+    def creds = Stub(NetflixAmazonCredentials) {
+      getName() >> accountName
+      it.getAccountId() >> accountId
+    }
+    def autoScaling = Mock(AmazonAutoScaling)
+    def client = Stub(AmazonClientProvider) {
+      getAutoScaling(creds, region, false) >> autoScaling
+      getAmazonEC2(creds, region, false) >> Stub(AmazonEC2) {
+        describeSubnets(_) >> new DescribeSubnetsResult()
+      }
+      withEddaCollectionTracking(_) >> { Supplier loader -> loader }
+      getEddaCollectionState() >>> [previousState, state]
+    }
+    def agent = new ClusterCachingAgent(
+      Stub(AmazonCloudProvider), client, creds, region, AmazonObjectMapperConfigurer.createConfigured(), Spectator.globalRegistry(), edda, filter)
+    def serverGroupKey = Keys.getServerGroupKey("test-v001", accountName, region)
+    def cache = Stub(ProviderCache) {
+      filterIdentifiers(_, _) >> (pendingOnDemand ? [serverGroupKey] : [])
+    }
+
+    when:
+    def first = agent.loadData(cache)
+    def second = agent.loadData(cache)
+
+    then:
+    2 * autoScaling.describeAutoScalingGroups(_) >> new DescribeAutoScalingGroupsResult().withAutoScalingGroups(
+      new AutoScalingGroup().withAutoScalingGroupName("test-v001").withLaunchConfigurationName("test-lc"))
+    2 * autoScaling.describePolicies(_) >> new DescribePoliciesResult()
+    2 * autoScaling.describeScheduledActions(_) >> new DescribeScheduledActionsResult()
+    first.cacheResults[SERVER_GROUPS.ns]*.id == [serverGroupKey]
+    second.is(first) == reused
+
+    where:
+    previousState | state        | pendingOnDemand || reused
+    MODIFIED      | NOT_MODIFIED | false           || true
+    MODIFIED      | MODIFIED     | false           || false
+    UNTRACKED     | NOT_MODIFIED | false           || false
+    MODIFIED      | NOT_MODIFIED | true            || false
+  }
+
+  @Unroll
+  void "should describe alarms by name in batches of at most 100 (#count names)"() {
+    given:
+    def cloudWatch = Mock(AmazonCloudWatch)
+    def (agent, clients) = alarmsAgent(cloudWatch)
+    def alarmNames = (1..count).collect { "alarm-$it".toString() }
+    def batchSizes = Collections.synchronizedList([])
+
+    when:
+    def alarms = agent.loadAlarmsByName(clients, alarmNames)
+
+    then:
+    expectedBatchSizes.size() * cloudWatch.describeAlarms(_) >> { DescribeAlarmsRequest request ->
+      batchSizes << request.alarmNames.size()
+      new DescribeAlarmsResult().withMetricAlarms(request.alarmNames.collect {
+        new MetricAlarm().withAlarmName(it).withAlarmArn("arn:$it")
+      })
+    }
+    batchSizes.sort() == expectedBatchSizes
+    alarms.keySet() == alarmNames.collect { "arn:$it".toString() } as Set
+
+    where:
+    count || expectedBatchSizes
+    1     || [1]
+    100   || [100]
+    101   || [1, 100]
+    250   || [50, 100, 100]
+  }
+
+  void "should propagate a failure describing any batch of alarms"() {
+    given:
+    def cloudWatch = Stub(AmazonCloudWatch) {
+      describeAlarms(_) >> { DescribeAlarmsRequest request ->
+        if (request.alarmNames.contains('alarm-150')) {
+          throw new AmazonServiceException('throttled')
+        }
+        new DescribeAlarmsResult()
+      }
+    }
+    def (agent, clients) = alarmsAgent(cloudWatch)
+
+    when:
+    agent.loadAlarmsByName(clients, (1..250).collect { "alarm-$it".toString() })
+
+    then:
+    def e = thrown(AmazonServiceException)
+    e.errorMessage == 'throttled'
+  }
+
   void "asg should filter excluded tags"() {
     given:
     def agent = getAgent()
@@ -198,6 +304,20 @@ class ClusterCachingAgentSpec extends Specification {
       .withAutoScalingGroupName("test-no-tags"),
   ]
 
+  private List alarmsAgent(AmazonCloudWatch cloudWatch) {
+    def creds = Stub(NetflixAmazonCredentials) {
+      getName() >> accountName
+      it.getAccountId() >> accountId
+    }
+    def client = Stub(AmazonClientProvider) {
+      getAmazonCloudWatch(creds, region, false) >> cloudWatch
+      withEddaCollectionTracking(_) >> { Supplier loader -> loader }
+    }
+    def agent = new ClusterCachingAgent(
+      Stub(AmazonCloudProvider), client, creds, region, AmazonObjectMapperConfigurer.createConfigured(), Spectator.globalRegistry(), edda, filter)
+    [agent, new ClusterCachingAgent.AmazonClients(client, creds, region, false)]
+  }
+
   private static def taggify(String name = null, String value = null) {
     return new AmazonCachingAgentFilter.TagFilterOption(name, value)
   }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.provider.agent
+
+import com.amazonaws.services.ec2.AmazonEC2
+import com.amazonaws.services.ec2.model.DescribeInstancesResult
+import com.amazonaws.services.ec2.model.Instance
+import com.amazonaws.services.ec2.model.InstanceState
+import com.amazonaws.services.ec2.model.Reservation
+import com.netflix.awsobjectmapper.AmazonObjectMapperConfigurer
+import com.netflix.spectator.api.Spectator
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.clouddriver.aws.data.Keys
+import com.netflix.spinnaker.clouddriver.aws.security.AmazonClientProvider
+import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.netflix.spinnaker.clouddriver.aws.security.sdkclient.EddaCollectionState.*
+import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.INSTANCES
+
+class InstanceCachingAgentSpec extends Specification {
+  static String region = 'us-east-1'
+  static String accountName = 'test'
+
+  def ec2 = Mock(AmazonEC2)
+  def creds = Stub(NetflixAmazonCredentials) {
+    getName() >> accountName
+  }
+
+  @Unroll
+  void "should reuse the last result only while edda reports instances #state"() {
+    given:
+    def client = Stub(AmazonClientProvider) {
+      getAmazonEC2(creds, region) >> ec2
+      getEddaCollectionState() >>> [previousState, state]
+    }
+    def agent = new InstanceCachingAgent(
+      client, creds, region, AmazonObjectMapperConfigurer.createConfigured(), Spectator.globalRegistry())
+
+    when:
+    def first = agent.loadData(Stub(ProviderCache))
+    def second = agent.loadData(Stub(ProviderCache))
+
+    then:
+    2 * ec2.describeInstances(_) >> new DescribeInstancesResult().withReservations(
+      new Reservation().withInstances(
+        new Instance()
+          .withInstanceId('i-1234')
+          .withImageId('ami-1234')
+          .withState(new InstanceState().withName('running'))))
+    first.cacheResults[INSTANCES.ns]*.id == [Keys.getInstanceKey('i-1234', accountName, region)]
+    second.is(first) == reused
+
+    where:
+    previousState | state        || reused
+    MODIFIED      | NOT_MODIFIED || true
+    MODIFIED      | MODIFIED     || false
+    UNTRACKED     | NOT_MODIFIED || false
+    UNTRACKED     | UNTRACKED    || false
+  }
+}
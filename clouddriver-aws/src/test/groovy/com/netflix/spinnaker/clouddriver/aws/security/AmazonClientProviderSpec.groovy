@@ -22,6 +22,7 @@ import com.amazonaws.services.autoscaling.AmazonAutoScaling
 import com.amazonaws.services.autoscaling.model.DescribeAutoScalingGroupsRequest
 import com.amazonaws.services.ec2.AmazonEC2
 import com.netflix.spinnaker.clouddriver.aws.TestCredential
+import com.netflix.spinnaker.clouddriver.aws.security.sdkclient.EddaCollectionState
 import org.apache.http.Header
 import org.apache.http.HttpEntity
 import org.apache.http.HttpResponse
@@ -148,15 +149,84 @@ class AmazonClientProviderSpec extends Specification {
     1 * ec2.describeSecurityGroups()
   }
 
+  void "unchanged collections are reused when conditional edda requests are enabled"() {
+    setup:
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider.Builder()
+      .httpClient(mockHttp)
+      .eddaTimeoutConfig(new EddaTimeoutConfig.Builder(conditionalRequests: true).build())
+      .build()
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+
+    when:
+    provider.startEddaCollectionTracking()
+    def groups = client.describeAutoScalingGroups().autoScalingGroups
+
+    then:
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert !get.getFirstHeader("If-None-Match")
+      getMockResponse(ARRAY_ASG_CONTENT, 200, '"v1"')
+    }
+    groups*.autoScalingGroupName == ["my-app-v000"]
+    provider.eddaCollectionState == EddaCollectionState.MODIFIED
+
+    when: "edda reports the collection unchanged"
+    provider.startEddaCollectionTracking()
+    groups = client.describeAutoScalingGroups().autoScalingGroups
+
+    then:
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert get.getFirstHeader("If-None-Match").value == '"v1"'
+      getMockResponse(null, 304)
+    }
+    groups*.autoScalingGroupName == ["my-app-v000"]
+    provider.lastModified == MTIME
+    provider.eddaCollectionState == EddaCollectionState.NOT_MODIFIED
+
+    when: "edda ignores the validators but returns the same body"
+    provider.startEddaCollectionTracking()
+    groups = client.describeAutoScalingGroups().autoScalingGroups
+
+    then:
+    1 * mockHttp.execute(_) >> getMockResponse(ARRAY_ASG_CONTENT, 200, '"v1"')
+    groups*.autoScalingGroupName == ["my-app-v000"]
+    provider.eddaCollectionState == EddaCollectionState.NOT_MODIFIED
+
+    when: "a lookup by id is not tracked"
+    provider.startEddaCollectionTracking()
+    client.describeAutoScalingGroups(new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames("my-app-v000"))
+
+    then:
+    1 * mockHttp.execute(_) >> getMockResponse(OBJECT_ASG_CONTENT)
+    provider.eddaCollectionState == EddaCollectionState.UNTRACKED
+
+    when: "the collection changes"
+    provider.startEddaCollectionTracking()
+    groups = client.describeAutoScalingGroups().autoScalingGroups
+
+    then:
+    1 * mockHttp.execute(_) >> getMockResponse(ARRAY_ASG_CONTENT.replace("my-app-v000", "my-app-v001"), 200, '"v2"')
+    groups*.autoScalingGroupName == ["my-app-v001"]
+    provider.eddaCollectionState == EddaCollectionState.MODIFIED
+  }
+
   static def MTIME = 1446701217475L
   static def OBJECT_ASG_CONTENT = '{"mtime": ' + MTIME + ', "data": { "autoScalingGroupName": "my-app-v000" }}'
   static def ARRAY_ASG_CONTENT = "[$OBJECT_ASG_CONTENT]"
 
-  def getMockResponse(String content = ARRAY_ASG_CONTENT) {
+  def getMockResponse(String content = ARRAY_ASG_CONTENT, int statusCode = 200, String etag = null) {
     def mock = Mock(HttpResponse)
     def statusLine = Mock(StatusLine)
-    statusLine.getStatusCode() >> 200
+    statusLine.getStatusCode() >> statusCode
     mock.getStatusLine() >> statusLine
+    if (etag) {
+      def etagHeader = Mock(Header)
+      etagHeader.getValue() >> etag
+      mock.getFirstHeader("ETag") >> etagHeader
+    }
+    if (content == null) {
+      return mock
+    }
     def entity = Mock(HttpEntity)
     entity.getContent() >> { new ByteArrayInputStream(content.bytes) }
     def header = Mock(Header)
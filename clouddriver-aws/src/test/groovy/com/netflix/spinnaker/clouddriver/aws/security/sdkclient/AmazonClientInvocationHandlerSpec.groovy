@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.security.sdkclient
+
+import com.amazonaws.AmazonServiceException
+import com.amazonaws.services.ec2.AmazonEC2
+import com.amazonaws.services.ec2.model.DescribeAccountAttributesResult
+import com.amazonaws.services.elasticloadbalancingv2.AmazonElasticLoadBalancing
+import com.amazonaws.services.elasticloadbalancingv2.model.DescribeLoadBalancersRequest
+import com.amazonaws.services.elasticloadbalancingv2.model.DescribeLoadBalancersResult
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig
+import org.apache.http.client.HttpClient
+import spock.lang.Specification
+
+import java.lang.reflect.Proxy
+
+class AmazonClientInvocationHandlerSpec extends Specification {
+
+  def registry = new DefaultRegistry()
+  def httpClient = Mock(HttpClient)
+  def timerIds = new AmazonClientInvocationHandler.InvokeTimerIds(registry, [account: "test", region: "us-east-1"])
+
+  void "calls without an edda equivalent are delegated and timed"() {
+    setup:
+    def ec2 = Mock(AmazonEC2)
+    def client = proxy(AmazonEC2, ec2, false)
+    def result = new DescribeAccountAttributesResult()
+
+    when:
+    def first = client.describeAccountAttributes()
+    def second = client.describeAccountAttributes()
+
+    then:
+    2 * ec2.describeAccountAttributes() >> result
+    0 * httpClient._
+    first.is(result)
+    second.is(result)
+    timer("describeAccountAttributes", "sdkClient").count() == 2
+  }
+
+  void "exceptions from delegated calls are rethrown unwrapped"() {
+    setup:
+    def ec2 = Mock(AmazonEC2)
+    def client = proxy(AmazonEC2, ec2, false)
+
+    when:
+    client.describeAccountAttributes()
+
+    then:
+    1 * ec2.describeAccountAttributes() >> { throw new AmazonServiceException("denied") }
+    AmazonServiceException e = thrown()
+    e.errorMessage == "denied"
+  }
+
+  void "load balancer calls are only served by edda when alb support is enabled"() {
+    setup:
+    def loadBalancing = Mock(AmazonElasticLoadBalancing)
+    def client = proxy(AmazonElasticLoadBalancing, loadBalancing, albEnabled)
+
+    when:
+    try {
+      client.describeLoadBalancers(new DescribeLoadBalancersRequest())
+    } catch (ignored) {
+      // the mocked edda has no response
+    }
+
+    then:
+    delegated * loadBalancing.describeLoadBalancers(_) >> new DescribeLoadBalancersResult()
+    (delegated ? 0 : 1) * httpClient.execute(_) >> { throw new IOException("unavailable") }
+
+    where:
+    albEnabled || delegated
+    false      || 1
+    true       || 0
+  }
+
+  private <T> T proxy(Class<T> type, T delegate, boolean albEnabled) {
+    def handler = new AmazonClientInvocationHandler(
+      delegate,
+      type.simpleName,
+      "http://edda",
+      httpClient,
+      new ObjectMapper(),
+      new EddaTimeoutConfig.Builder(
+        albEnabled: albEnabled,
+        maxAttempts: 1,
+        retryBase: 0
+      ).build(),
+      registry,
+      [account: "test", region: "us-east-1"],
+      null,
+      timerIds)
+    type.cast(Proxy.newProxyInstance(getClass().classLoader, [type] as Class[], handler))
+  }
+
+  private def timer(String method, String requestMode) {
+    registry.timer(registry.createId("awsClientProxy.invoke", [account: "test", region: "us-east-1"])
+      .withTag("method", method)
+      .withTag("requestMode", requestMode))
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.security.sdkclient
+
+import com.google.common.base.Ticker
+import com.google.common.hash.HashCode
+import spock.lang.Specification
+
+import java.time.Duration
+
+class EddaCollectionCacheSpec extends Specification {
+
+  long nanos = 0
+  def ticker = new Ticker() {
+    @Override
+    long read() {
+      nanos
+    }
+  }
+
+  void "versions are dropped once they have not been fetched for a while"() {
+    given:
+    def cache = new EddaCollectionCache(10, Duration.ofMinutes(1), ticker)
+    def version = version()
+    cache.put('test:edda:instances', version)
+
+    when:
+    nanos += Duration.ofSeconds(59).toNanos()
+
+    then:
+    cache.get('test:edda:instances').is(version)
+
+    when:
+    nanos += Duration.ofSeconds(61).toNanos()
+
+    then:
+    cache.get('test:edda:instances') == null
+  }
+
+  void "the number of versions kept is bounded"() {
+    given:
+    def cache = new EddaCollectionCache(2, Duration.ofMinutes(1), ticker)
+
+    when:
+    (1..3).each { cache.put("test:edda:collection-$it", version()) }
+
+    then:
+    (1..3).count { cache.get("test:edda:collection-$it") != null } == 2
+  }
+
+  private static EddaCollectionCache.Version version() {
+    new EddaCollectionCache.Version(null, null, HashCode.fromInt(1), [], null)
+  }
+}
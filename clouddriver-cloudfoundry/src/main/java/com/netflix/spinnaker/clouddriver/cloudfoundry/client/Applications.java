@@ -66,6 +66,7 @@ public class Applications {
   private final Integer resultsPerPage;
 
   private final ForkJoinPool forkJoinPool;
+  private final PageCollector pages;
   private final LoadingCache<String, CloudFoundryServerGroup> serverGroupCache;
 
   public Applications(
@@ -75,7 +76,8 @@ public class Applications {
       ApplicationService api,
       Spaces spaces,
       Integer resultsPerPage,
-      ForkJoinPool forkJoinPool) {
+      ForkJoinPool forkJoinPool,
+      PageCollector pages) {
     this.account = account;
     this.appsManagerUri = appsManagerUri;
     this.metricsUri = metricsUri;
@@ -84,6 +86,7 @@ public class Applications {
     this.resultsPerPage = resultsPerPage;
 
     this.forkJoinPool = forkJoinPool;
+    this.pages = pages;
     this.serverGroupCache =
         CacheBuilder.newBuilder()
             .build(
@@ -122,7 +125,8 @@ public class Applications {
         spaceGuids == null || spaceGuids.isEmpty() ? null : String.join(",", spaceGuids);
 
     List<Application> newCloudFoundryAppList =
-        collectPages("applications", page -> api.all(page, resultsPerPage, null, spaceGuidsQ));
+        pages.collectPages(
+            "applications", page -> api.all(page, resultsPerPage, null, spaceGuidsQ));
 
     log.debug(
         "Fetched {} total apps from foundation account {}",
@@ -708,7 +712,8 @@ public class Applications {
     String finalName = buildFinalAsgName(clusterName);
     List<String> filter =
         asList("name<" + finalName, "name>=" + clusterName, "space_guid:" + spaceId);
-    return collectPageResources("applications", page -> api.listAppsFiltered(page, filter, 10))
+    return pages
+        .collectPageResources("applications", page -> api.listAppsFiltered(page, filter, 10))
         .stream()
         .filter(
             app -> {
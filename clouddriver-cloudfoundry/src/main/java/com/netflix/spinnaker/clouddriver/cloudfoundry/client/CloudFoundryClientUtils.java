@@ -20,7 +20,6 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.ErrorDescript
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -60,45 +59,13 @@ final class CloudFoundryClientUtils {
   static <R> List<R> collectPages(
       String resourceNamePluralized, Function<Integer, Pagination<R>> fetchPage)
       throws CloudFoundryApiException {
-    Pagination<R> firstPage =
-        safelyCall(() -> fetchPage.apply(null))
-            .orElseThrow(
-                () -> new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
-
-    List<R> allResources = new ArrayList<>(firstPage.getResources());
-    for (int page = 2; page <= firstPage.getPagination().getTotalPages(); page++) {
-      final int p = page;
-      allResources.addAll(
-          safelyCall(() -> fetchPage.apply(p))
-              .orElseThrow(
-                  () ->
-                      new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized))
-              .getResources());
-    }
-
-    return allResources;
+    return PageCollector.SEQUENTIAL.collectPages(resourceNamePluralized, fetchPage);
   }
 
   static <R> List<Resource<R>> collectPageResources(
       String resourceNamePluralized, Function<Integer, Page<R>> fetchPage)
       throws CloudFoundryApiException {
-    Page<R> firstPage =
-        safelyCall(() -> fetchPage.apply(null))
-            .orElseThrow(
-                () -> new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
-
-    List<Resource<R>> allResources = new ArrayList<>(firstPage.getResources());
-    for (int page = 2; page <= firstPage.getTotalPages(); page++) {
-      final int p = page;
-      allResources.addAll(
-          safelyCall(() -> fetchPage.apply(p))
-              .orElseThrow(
-                  () ->
-                      new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized))
-              .getResources());
-    }
-
-    return allResources;
+    return PageCollector.SEQUENTIAL.collectPageResources(resourceNamePluralized, fetchPage);
   }
 
   interface RetrofitCallable<T> {
@@ -21,6 +21,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ApplicationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.AuthenticationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ConfigService;
@@ -183,6 +185,30 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
       boolean skipSslValidation,
       Integer resultsPerPage,
       ForkJoinPool forkJoinPool) {
+    this(
+        account,
+        appsManagerUri,
+        metricsUri,
+        apiHost,
+        user,
+        password,
+        skipSslValidation,
+        resultsPerPage,
+        forkJoinPool,
+        new NoopRegistry());
+  }
+
+  public HttpCloudFoundryClient(
+      String account,
+      String appsManagerUri,
+      String metricsUri,
+      String apiHost,
+      String user,
+      String password,
+      boolean skipSslValidation,
+      Integer resultsPerPage,
+      ForkJoinPool forkJoinPool,
+      Registry registry) {
     this.apiHost = apiHost;
     this.user = user;
     this.password = password;
@@ -208,8 +234,9 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             .build()
             .create(AuthenticationService.class);
 
+    PageCollector pages = new PageCollector(forkJoinPool, registry);
     this.organizations = new Organizations(createService(OrganizationService.class));
-    this.spaces = new Spaces(createService(SpaceService.class), organizations);
+    this.spaces = new Spaces(createService(SpaceService.class), organizations, pages);
     this.applications =
         new Applications(
             account,
@@ -218,14 +245,16 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             createService(ApplicationService.class),
             spaces,
             resultsPerPage,
-            forkJoinPool);
+            forkJoinPool,
+            pages);
     this.domains = new Domains(createService(DomainService.class), organizations);
     this.serviceInstances =
         new ServiceInstances(
             createService(ServiceInstanceService.class),
             createService(ConfigService.class),
             organizations,
-            spaces);
+            spaces,
+            pages);
     this.routes =
         new Routes(
             account,
@@ -234,7 +263,8 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             domains,
             spaces,
             resultsPerPage,
-            forkJoinPool);
+            forkJoinPool,
+            pages);
     this.serviceKeys = new ServiceKeys(createService(ServiceKeyService.class), spaces);
     this.tasks = new Tasks(createService(TaskService.class));
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
+import static java.util.stream.Collectors.toList;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+
+/**
+ * Collects every page of a paginated Cloud Foundry listing.
+ *
+ * <p>The first page is fetched to learn how many pages there are, after which the remaining pages
+ * are fetched concurrently on a {@link ForkJoinPool}, so no more of them are in flight at once than
+ * the pool's parallelism. Resources are returned in page order, and the first page that fails
+ * cancels the fetches that have not started yet. The latency of every page is recorded by resource.
+ */
+final class PageCollector {
+  static final PageCollector SEQUENTIAL = new PageCollector(null, new NoopRegistry());
+
+  @Nullable private final ForkJoinPool forkJoinPool;
+  private final Registry registry;
+  private final Id pageLatencyId;
+
+  /**
+   * @param forkJoinPool the pool to fetch pages on, or null to fetch them one after another on the
+   *     calling thread
+   */
+  PageCollector(@Nullable ForkJoinPool forkJoinPool, Registry registry) {
+    this.forkJoinPool = forkJoinPool;
+    this.registry = registry;
+    this.pageLatencyId = registry.createId("cloudFoundry.api.pageLatency");
+  }
+
+  <R> List<R> collectPages(
+      String resourceNamePluralized, Function<Integer, Pagination<R>> fetchPage)
+      throws CloudFoundryApiException {
+    Pagination<R> firstPage = fetch(resourceNamePluralized, null, fetchPage);
+    return collect(
+        firstPage.getResources(),
+        firstPage.getPagination().getTotalPages(),
+        page -> fetch(resourceNamePluralized, page, fetchPage).getResources());
+  }
+
+  <R> List<Resource<R>> collectPageResources(
+      String resourceNamePluralized, Function<Integer, Page<R>> fetchPage)
+      throws CloudFoundryApiException {
+    Page<R> firstPage = fetch(resourceNamePluralized, null, fetchPage);
+    return collect(
+        firstPage.getResources(),
+        firstPage.getTotalPages(),
+        page -> fetch(resourceNamePluralized, page, fetchPage).getResources());
+  }
+
+  private <R> List<R> collect(
+      List<R> firstPageResources, int totalPages, IntFunction<List<R>> fetchPage) {
+    List<R> allResources = new ArrayList<>(firstPageResources);
+    if (forkJoinPool == null || totalPages <= 2) {
+      for (int page = 2; page <= totalPages; page++) {
+        allResources.addAll(fetchPage.apply(page));
+      }
+      return allResources;
+    }
+
+    List<ForkJoinTask<List<R>>> pages =
+        IntStream.rangeClosed(2, totalPages)
+            .mapToObj(page -> ForkJoinTask.adapt(() -> fetchPage.apply(page)))
+            .collect(toList());
+    // invokeAll cancels the pages still queued as soon as one of them fails. A caller that is
+    // already running on the pool (like a parallel stream submitted to it) forks the pages into
+    // its own queue and helps to fetch them, rather than blocking a worker while they are fetched
+    if (ForkJoinTask.getPool() == forkJoinPool) {
+      ForkJoinTask.invokeAll(pages);
+    } else {
+      forkJoinPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(pages)));
+    }
+    pages.forEach(page -> allResources.addAll(page.join()));
+    return allResources;
+  }
+
+  private <T> T fetch(
+      String resourceNamePluralized, @Nullable Integer page, Function<Integer, T> fetchPage) {
+    long startTime = registry.clock().monotonicTime();
+    boolean success = false;
+    try {
+      T result =
+          safelyCall(() -> fetchPage.apply(page))
+              .orElseThrow(
+                  () ->
+                      new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
+      success = true;
+      return result;
+    } finally {
+      registry
+          .timer(
+              pageLatencyId
+                  .withTag("resource", resourceNamePluralized)
+                  .withTag("success", Boolean.toString(success)))
+          .record(registry.clock().monotonicTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -16,7 +16,6 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
 
-import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.collectPageResources;
 import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
@@ -59,6 +58,7 @@ public class Routes {
   private final Integer resultsPerPage;
 
   private final ForkJoinPool forkJoinPool;
+  private final PageCollector pages;
   private LoadingCache<String, List<RouteMapping>> routeMappings;
 
   public Routes(
@@ -68,7 +68,8 @@ public class Routes {
       Domains domains,
       Spaces spaces,
       Integer resultsPerPage,
-      ForkJoinPool forkJoinPool) {
+      ForkJoinPool forkJoinPool,
+      PageCollector pages) {
     this.account = account;
     this.api = api;
     this.applications = applications;
@@ -77,6 +78,7 @@ public class Routes {
     this.resultsPerPage = resultsPerPage;
 
     this.forkJoinPool = forkJoinPool;
+    this.pages = pages;
     this.routeMappings =
         CacheBuilder.newBuilder()
             .expireAfterWrite(3, TimeUnit.MINUTES)
@@ -85,7 +87,8 @@ public class Routes {
                   @Override
                   public List<RouteMapping> load(@Nonnull String guid)
                       throws CloudFoundryApiException, ResourceNotFoundException {
-                    return collectPageResources("route mappings", pg -> api.routeMappings(guid, pg))
+                    return pages
+                        .collectPageResources("route mappings", pg -> api.routeMappings(guid, pg))
                         .stream()
                         .map(Resource::getEntity)
                         .collect(Collectors.toList());
@@ -132,7 +135,7 @@ public class Routes {
     if (routeId.getPath() != null) queryParams.add("path:" + routeId.getPath());
     if (routeId.getPort() != null) queryParams.add("port:" + routeId.getPort().toString());
 
-    return collectPageResources("route mappings", pg -> api.all(pg, 1, queryParams)).stream()
+    return pages.collectPageResources("route mappings", pg -> api.all(pg, 1, queryParams)).stream()
         .filter(
             routeResource ->
                 (routeId.getPath() != null || routeResource.getEntity().getPath().isEmpty())
@@ -175,7 +178,7 @@ public class Routes {
         return forkJoinPool
             .submit(
                 () ->
-                    collectPageResources(
+                    pages.collectPageResources(
                             "routes", pg -> api.all(pg, resultsPerPage, singletonList(orgFilter)))
                         .parallelStream()
                         .map(this::map)
@@ -186,7 +189,7 @@ public class Routes {
         return forkJoinPool
             .submit(
                 () ->
-                    collectPageResources("routes", pg -> api.all(pg, resultsPerPage, null))
+                    pages.collectPageResources("routes", pg -> api.all(pg, resultsPerPage, null))
                         .parallelStream()
                         .map(this::map)
                         .collect(Collectors.toList()))
@@ -16,7 +16,6 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
 
-import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.collectPageResources;
 import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
 import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.ConfigFeatureFlag.ConfigFlag.SERVICE_INSTANCE_SHARING;
 import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.LastOperation.State.*;
@@ -52,6 +51,7 @@ public class ServiceInstances {
   private final ConfigService configApi;
   private final Organizations orgs;
   private final Spaces spaces;
+  private final PageCollector pages;
 
   public Void createServiceBindingsByName(
       CloudFoundryServerGroup cloudFoundryServerGroup,
@@ -61,9 +61,9 @@ public class ServiceInstances {
           getServiceQueryParams(serviceInstanceNames, cloudFoundryServerGroup.getSpace());
       List<Resource<? extends AbstractServiceInstance>> serviceInstances = new ArrayList<>();
       serviceInstances.addAll(
-          collectPageResources("service instances", pg -> api.all(pg, serviceInstanceQuery)));
+          pages.collectPageResources("service instances", pg -> api.all(pg, serviceInstanceQuery)));
       serviceInstances.addAll(
-          collectPageResources(
+          pages.collectPageResources(
               "service instances", pg -> api.allUserProvided(pg, serviceInstanceQuery)));
 
       if (serviceInstances.size() != serviceInstanceNames.size()) {
@@ -82,7 +82,7 @@ public class ServiceInstances {
 
   private Resource<Service> findServiceByServiceName(String serviceName) {
     List<Resource<Service>> services =
-        collectPageResources(
+        pages.collectPageResources(
             "services by name", pg -> api.findService(pg, singletonList("label:" + serviceName)));
     return Optional.ofNullable(services.get(0)).orElse(null);
   }
@@ -90,7 +90,7 @@ public class ServiceInstances {
   private List<CloudFoundryServicePlan> findAllServicePlansByServiceName(String serviceName) {
     Resource<Service> service = findServiceByServiceName(serviceName);
     List<Resource<ServicePlan>> services =
-        collectPageResources(
+        pages.collectPageResources(
             "service plans by id",
             pg ->
                 api.findServicePlans(
@@ -112,7 +112,7 @@ public class ServiceInstances {
         .map(
             space -> {
               List<Resource<Service>> services =
-                  collectPageResources(
+                  pages.collectPageResources(
                       "all service", pg -> api.findServiceBySpaceId(space.getId(), pg, null));
               return services.stream()
                   .map(
@@ -376,7 +376,7 @@ public class ServiceInstances {
     }
 
     List<Resource<T>> serviceInstances =
-        collectPageResources(
+        pages.collectPageResources(
             "service instances by space and name",
             pg ->
                 func.apply(
@@ -436,7 +436,7 @@ public class ServiceInstances {
   private void destroyServiceInstance(
       Function<Integer, Page<ServiceBinding>> fetchPage, Runnable delete) {
     List<Resource<ServiceBinding>> serviceBindings =
-        collectPageResources("service bindings", fetchPage);
+        pages.collectPageResources("service bindings", fetchPage);
     if (!serviceBindings.isEmpty()) {
       throw new CloudFoundryApiException(
           "Unable to destroy service instance while "
@@ -548,7 +548,7 @@ public class ServiceInstances {
         getServiceQueryParams(Collections.singletonList(command.getName()), space);
     List<Resource<? extends AbstractServiceInstance>> serviceInstances = new ArrayList<>();
     serviceInstances.addAll(
-        collectPageResources(
+        pages.collectPageResources(
             "service instances", pg -> getAllServices.apply(pg, serviceInstanceQuery)));
 
     operationType = CREATE;
@@ -16,7 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
 
-import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.*;
+import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
 import static java.util.stream.Collectors.toList;
 
 import com.google.common.cache.CacheBuilder;
@@ -38,6 +38,7 @@ import lombok.RequiredArgsConstructor;
 public class Spaces {
   private final SpaceService api;
   private final Organizations organizations;
+  private final PageCollector pages;
 
   private final LoadingCache<String, CloudFoundrySpace> spaceCache =
       CacheBuilder.newBuilder()
@@ -63,7 +64,7 @@ public class Spaces {
   }
 
   public List<CloudFoundrySpace> all() throws CloudFoundryApiException {
-    return collectPages("spaces", page -> api.all(page, null, null)).stream()
+    return pages.collectPages("spaces", page -> api.all(page, null, null)).stream()
         .map(this::map)
         .collect(toList());
   }
@@ -71,7 +72,8 @@ public class Spaces {
   @Nullable
   public CloudFoundryServiceInstance getServiceInstanceById(
       String spaceId, String serviceInstanceName) {
-    return collectPageResources(
+    return pages
+        .collectPageResources(
             "get service instances by id",
             pg ->
                 api.getServiceInstancesById(
@@ -90,7 +92,7 @@ public class Spaces {
   @Nullable
   public CloudFoundrySpace findByName(String orgId, String spaceName)
       throws CloudFoundryApiException {
-    return collectPages("spaces", page -> api.all(page, spaceName, orgId)).stream()
+    return pages.collectPages("spaces", page -> api.all(page, spaceName, orgId)).stream()
         .findAny()
         .map(this::map)
         .orElse(null);
@@ -125,7 +127,8 @@ public class Spaces {
                         "Unable to find organization: " + space.getOrganization().getName()));
 
     Optional<CloudFoundrySpace> spaceOptional =
-        collectPages("spaces", page -> api.all(page, space.getName(), organization.getId()))
+        pages
+            .collectPages("spaces", page -> api.all(page, space.getName(), organization.getId()))
             .stream()
             .findAny()
             .map(
@@ -157,7 +160,7 @@ public class Spaces {
     String orgGuidsQ =
         allOrgsByGuids.keySet().isEmpty() ? null : String.join(",", allOrgsByGuids.keySet());
 
-    return collectPages("spaces", page -> api.all(page, spaceNamesQ, orgGuidsQ)).stream()
+    return pages.collectPages("spaces", page -> api.all(page, spaceNamesQ, orgGuidsQ)).stream()
         .map(
             s ->
                 CloudFoundrySpace.builder()
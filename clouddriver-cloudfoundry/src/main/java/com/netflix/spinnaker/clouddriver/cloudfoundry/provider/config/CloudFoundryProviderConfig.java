@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.provider.config;
 
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.cache.CacheRepository;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.CloudFoundryProvider;
@@ -59,7 +60,8 @@ public class CloudFoundryProviderConfig {
       CloudFoundryConfigurationProperties configurationProperties,
       CacheRepository cacheRepository,
       CredentialsRepository<CloudFoundryCredentials> cloudFoundryCredentialsRepository,
-      ForkJoinPool cloudFoundryThreadPool) {
+      ForkJoinPool cloudFoundryThreadPool,
+      Registry registry) {
 
     if (cloudFoundryCredentialSource == null) {
       cloudFoundryCredentialSource = configurationProperties::getAccounts;
@@ -80,7 +82,8 @@ public class CloudFoundryProviderConfig {
                 cacheRepository,
                 a.getPermissions().build(),
                 cloudFoundryThreadPool,
-                a.getSpaceFilter()),
+                a.getSpaceFilter(),
+                registry),
         cloudFoundryCredentialsRepository);
   }
 
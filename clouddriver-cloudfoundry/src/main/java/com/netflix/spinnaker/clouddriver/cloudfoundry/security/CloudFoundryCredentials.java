@@ -23,6 +23,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.cache.CacheRepository;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryApiException;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClient;
@@ -48,6 +50,7 @@ import lombok.extern.slf4j.Slf4j;
   "spaceSupplier",
   "cacheRepository",
   "forkJoinPool",
+  "registry",
   "filteredSpaces",
   "spacesLive"
 })
@@ -83,6 +86,8 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
 
   private final ForkJoinPool forkJoinPool;
 
+  private final Registry registry;
+
   private final List<CloudFoundrySpace> filteredSpaces;
 
   public CloudFoundryCredentials(
@@ -99,6 +104,38 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
       Permissions permissions,
       ForkJoinPool forkJoinPool,
       Map<String, Set<String>> spaceFilter) {
+    this(
+        name,
+        appsManagerUri,
+        metricsUri,
+        apiHost,
+        userName,
+        password,
+        environment,
+        skipSslValidation,
+        resultsPerPage,
+        cacheRepository,
+        permissions,
+        forkJoinPool,
+        spaceFilter,
+        new NoopRegistry());
+  }
+
+  public CloudFoundryCredentials(
+      String name,
+      String appsManagerUri,
+      String metricsUri,
+      String apiHost,
+      String userName,
+      String password,
+      String environment,
+      boolean skipSslValidation,
+      Integer resultsPerPage,
+      CacheRepository cacheRepository,
+      Permissions permissions,
+      ForkJoinPool forkJoinPool,
+      Map<String, Set<String>> spaceFilter,
+      Registry registry) {
     this.name = name;
     this.appsManagerUri = appsManagerUri;
     this.metricsUri = metricsUri;
@@ -111,6 +148,7 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
     this.cacheRepository = cacheRepository;
     this.permissions = permissions == null ? Permissions.EMPTY : permissions;
     this.forkJoinPool = forkJoinPool;
+    this.registry = registry;
     this.filteredSpaces = createFilteredSpaces(spaceFilter);
   }
 
@@ -126,7 +164,8 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
               password,
               skipSslValidation,
               resultsPerPage,
-              forkJoinPool);
+              forkJoinPool,
+              registry);
     }
     return credentials;
   }
@@ -55,7 +55,8 @@ class ApplicationsTest {
           applicationService,
           spaces,
           500,
-          ForkJoinPool.commonPool());
+          ForkJoinPool.commonPool(),
+          PageCollector.SEQUENTIAL);
   private String spaceId = "space-guid";
   private CloudFoundrySpace cloudFoundrySpace =
       CloudFoundrySpace.builder()
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Domain;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PageCollectorTest {
+  private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+  private final Registry registry = new DefaultRegistry();
+  private final PageCollector pages = new PageCollector(forkJoinPool, registry);
+
+  @AfterEach
+  void shutdown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  @Test
+  void collectPagesReturnsResourcesOfAllPagesInOrder() {
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    List<Integer> results =
+        pages.collectPages(
+            "numbers",
+            page -> {
+              threads.add(Thread.currentThread().getName());
+              return pagination(page == null ? 1 : page, 10);
+            });
+
+    assertThat(results)
+        .containsExactlyElementsOf(
+            IntStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()));
+    assertThat(threads).anyMatch(thread -> thread.contains("ForkJoinPool"));
+    assertThat(
+            registry
+                .timer(
+                    registry
+                        .createId("cloudFoundry.api.pageLatency")
+                        .withTag("resource", "numbers")
+                        .withTag("success", "true"))
+                .count())
+        .isEqualTo(10);
+  }
+
+  @Test
+  void collectPageResourcesReturnsResourcesOfAllPagesInOrder() {
+    List<Resource<Domain>> results =
+        pages.collectPageResources("domains", page -> domains(page == null ? 1 : page, 5));
+
+    assertThat(results.stream().map(r -> r.getEntity().getName()).collect(Collectors.toList()))
+        .containsExactly("domain-1", "domain-2", "domain-3", "domain-4", "domain-5");
+  }
+
+  @Test
+  void collectPagesFailsWhenAnyPageFails() {
+    assertThatThrownBy(
+            () ->
+                pages.collectPages(
+                    "numbers",
+                    page -> {
+                      if (page != null && page == 3) {
+                        throw new CloudFoundryApiException("page 3 is unavailable");
+                      }
+                      return pagination(page == null ? 1 : page, 10);
+                    }))
+        .isInstanceOf(CloudFoundryApiException.class)
+        .hasMessageContaining("page 3 is unavailable");
+    assertThat(
+            registry
+                .timer(
+                    registry
+                        .createId("cloudFoundry.api.pageLatency")
+                        .withTag("resource", "numbers")
+                        .withTag("success", "false"))
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void collectPagesFetchesConcurrentlyFromWithinThePool() throws Exception {
+    List<Integer> results =
+        forkJoinPool
+            .submit(
+                () ->
+                    pages.collectPages(
+                        "numbers", page -> pagination(page == null ? 1 : page, 20)))
+            .get();
+
+    assertThat(results)
+        .containsExactlyElementsOf(
+            IntStream.rangeClosed(1, 20).boxed().collect(Collectors.toList()));
+  }
+
+  private static Pagination<Integer> pagination(int page, int totalPages) {
+    Pagination<Integer> pagination = new Pagination<>();
+    pagination.setPagination(new Pagination.Details().setTotalPages(totalPages));
+    pagination.setResources(singletonList(page));
+    return pagination;
+  }
+
+  private static Page<Domain> domains(int page, int totalPages) {
+    return Page.singleton(new Domain().setName("domain-" + page), "domain-" + page + "-guid")
+        .setTotalPages(totalPages)
+        .setTotalResults(totalPages);
+  }
+}
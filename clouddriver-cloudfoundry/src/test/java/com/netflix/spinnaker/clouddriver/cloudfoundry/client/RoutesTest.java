@@ -59,7 +59,15 @@ class RoutesTest {
     when(routeService.routeMappings(any(), any())).thenReturn(new Page<>());
 
     Routes routes =
-        new Routes("pws", routeService, null, domains, spaces, 500, ForkJoinPool.commonPool());
+        new Routes(
+            "pws",
+            routeService,
+            null,
+            domains,
+            spaces,
+            500,
+            ForkJoinPool.commonPool(),
+            PageCollector.SEQUENTIAL);
     RouteId routeId = routes.toRouteId("demo1-prod.apps.calabasas.cf-app.com/path");
     assertThat(routeId).isNotNull();
     assertThat(routeId.getHost()).isEqualTo("demo1-prod");
@@ -69,7 +77,9 @@ class RoutesTest {
 
   @Test
   void toRouteIdReturnsNullForInvalidRoute() {
-    Routes routes = new Routes(null, null, null, null, null, 500, ForkJoinPool.commonPool());
+    Routes routes =
+        new Routes(
+            null, null, null, null, null, 500, ForkJoinPool.commonPool(), PageCollector.SEQUENTIAL);
     assertNull(routes.toRouteId("demo1-pro cf-app.com/path"));
   }
 
@@ -130,7 +140,15 @@ class RoutesTest {
     when(routeService.routeMappings(any(), any())).thenReturn(routeMappingPage);
 
     Routes routes =
-        new Routes("pws", routeService, null, domains, spaces, 500, ForkJoinPool.commonPool());
+        new Routes(
+            "pws",
+            routeService,
+            null,
+            domains,
+            spaces,
+            500,
+            ForkJoinPool.commonPool(),
+            PageCollector.SEQUENTIAL);
 
     CloudFoundryLoadBalancer loadBalancer =
         routes.find(new RouteId().setHost("somehost").setDomainGuid("domain-guid"), "space-guid");
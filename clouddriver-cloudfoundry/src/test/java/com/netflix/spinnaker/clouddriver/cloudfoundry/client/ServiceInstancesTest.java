@@ -57,7 +57,8 @@ class ServiceInstancesTest {
   private Organizations orgs = mock(Organizations.class);
   private Spaces spaces = mock(Spaces.class);
   private ServiceInstances serviceInstances =
-      new ServiceInstances(serviceInstanceService, configService, orgs, spaces);
+      new ServiceInstances(
+          serviceInstanceService, configService, orgs, spaces, PageCollector.SEQUENTIAL);
 
   {
     when(serviceInstanceService.findService(any(), any()))
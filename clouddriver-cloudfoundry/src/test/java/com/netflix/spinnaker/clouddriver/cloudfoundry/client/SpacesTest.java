@@ -20,7 +20,7 @@ import org.junit.jupiter.api.Test;
 class SpacesTest {
   private SpaceService spaceService = mock(SpaceService.class);
   private Organizations orgs = mock(Organizations.class);
-  private Spaces spaces = new Spaces(spaceService, orgs);
+  private Spaces spaces = new Spaces(spaceService, orgs, PageCollector.SEQUENTIAL);
   private String spaceId = "space-guid";
   private CloudFoundrySpace cloudFoundrySpace =
       CloudFoundrySpace.builder().name("space").id(spaceId).build();
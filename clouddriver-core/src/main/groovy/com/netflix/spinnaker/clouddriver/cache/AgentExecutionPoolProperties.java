@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Runs caching agents scheduled by the default (non-clustered) agent scheduler on a dedicated pool
+ * sized for blocking I/O, rather than on the scheduling threads.
+ */
+@ConfigurationProperties("caching.agent-execution-pool")
+public class AgentExecutionPoolProperties {
+  private boolean enabled = false;
+
+  /** Threads that only decide when agents are due. */
+  private int schedulerThreads = 2;
+
+  /** Threads that run agents, bounding how many agents run at once across all providers. */
+  private int poolSize = 64;
+
+  /** The number of agents of a provider that may run at once, unless overridden below. */
+  private int defaultProviderConcurrency = 16;
+
+  /** Per-provider overrides, keyed by provider name or its simple name (e.g. AwsProvider). */
+  private Map<String, Integer> providerConcurrency = new HashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getSchedulerThreads() {
+    return schedulerThreads;
+  }
+
+  public void setSchedulerThreads(int schedulerThreads) {
+    this.schedulerThreads = schedulerThreads;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  public int getDefaultProviderConcurrency() {
+    return defaultProviderConcurrency;
+  }
+
+  public void setDefaultProviderConcurrency(int defaultProviderConcurrency) {
+    this.defaultProviderConcurrency = defaultProviderConcurrency;
+  }
+
+  public Map<String, Integer> getProviderConcurrency() {
+    return providerConcurrency;
+  }
+
+  public void setProviderConcurrency(Map<String, Integer> providerConcurrency) {
+    this.providerConcurrency = providerConcurrency;
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.cache
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.agent.Agent
 import com.netflix.spinnaker.cats.agent.AgentExecution
@@ -31,6 +32,7 @@ import com.netflix.spinnaker.cats.provider.Provider
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.clouddriver.search.SearchProvider
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -38,25 +40,43 @@ import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.ComponentScan
 import org.springframework.context.annotation.Configuration
 
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 
 @Configuration
 @ComponentScan([
   'com.netflix.spinnaker.clouddriver.cache',
 ])
-@EnableConfigurationProperties(CatsInMemorySearchProperties)
+@EnableConfigurationProperties([CatsInMemorySearchProperties, AgentExecutionPoolProperties])
 class CacheConfig {
   @Bean
   @ConditionalOnMissingBean(NamedCacheFactory)
-  NamedCacheFactory namedCacheFactory() {
-    new InMemoryNamedCacheFactory()
+  NamedCacheFactory namedCacheFactory(@Value('${caching.in-memory.snapshot-enabled:false}') boolean snapshotEnabled) {
+    new InMemoryNamedCacheFactory(snapshotEnabled)
   }
 
   @Bean
   @ConditionalOnMissingBean(AgentScheduler)
   @ConditionalOnProperty(value = 'caching.write-enabled', matchIfMissing = true)
-  AgentScheduler agentScheduler() {
-    new DefaultAgentScheduler(60, TimeUnit.SECONDS)
+  AgentScheduler agentScheduler(AgentExecutionPoolProperties agentExecutionPoolProperties) {
+    if (!agentExecutionPoolProperties.enabled) {
+      return new DefaultAgentScheduler(60, TimeUnit.SECONDS)
+    }
+
+    new DefaultAgentScheduler(
+      Executors.newScheduledThreadPool(
+        agentExecutionPoolProperties.schedulerThreads,
+        new ThreadFactoryBuilder().setNameFormat(DefaultAgentScheduler.simpleName + "-%d").build()
+      ),
+      Executors.newFixedThreadPool(
+        agentExecutionPoolProperties.poolSize,
+        new ThreadFactoryBuilder().setNameFormat("AgentExecution-%d").build()
+      ),
+      60,
+      TimeUnit.SECONDS,
+      agentExecutionPoolProperties.providerConcurrency,
+      agentExecutionPoolProperties.defaultProviderConcurrency
+    )
   }
 
   @Bean
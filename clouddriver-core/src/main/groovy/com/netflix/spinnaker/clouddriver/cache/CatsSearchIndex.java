@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cache;
+
+import com.netflix.spinnaker.cats.mem.InMemoryCache.Glob;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index of cache identifiers by provider and type, answering the substring
+ * queries of {@link CatsSearchProvider} without scanning every identifier.
+ *
+ * <p>The searchable part of an identifier is whatever follows {@code :<type>:}, matching the glob
+ * built by {@link SearchableProvider#buildSearchTerm}. It is split into lower-cased tokens on any
+ * character that is not a letter or digit, and each distinct token is indexed by its trigrams. A
+ * query looks up the tokens containing its longest literal token through the rarest of that
+ * token's trigrams, then keeps the identifiers of those tokens whose searchable part matches the
+ * whole query. Like the glob it replaces, a query may use {@code *}, {@code ?} and {@code [...]}
+ * wildcards.
+ */
+public class CatsSearchIndex {
+  private static final int TRIGRAM = 3;
+  private static final String GLOB_CHARACTERS = "*?[]\\";
+
+  private final Map<String, Map<String, TypeIndex>> indexes = new ConcurrentHashMap<>();
+
+  /**
+   * Makes identifiers the indexed identifiers of type for provider, only tokenizing those that
+   * were added or removed since the last update.
+   */
+  public void update(String provider, String type, Collection<String> identifiers) {
+    indexes
+        .computeIfAbsent(provider, p -> new ConcurrentHashMap<>())
+        .computeIfAbsent(type, TypeIndex::new)
+        .update(identifiers);
+  }
+
+  /** @return true if type has been indexed for provider, even if it had no identifiers */
+  public boolean isIndexed(String provider, String type) {
+    return getIndex(provider, type) != null;
+  }
+
+  /** @return the identifiers of type for provider whose searchable part contains the term glob */
+  public Set<String> find(String provider, String type, String term) {
+    TypeIndex index = getIndex(provider, type);
+    return index == null ? Collections.emptySet() : index.find(term.toLowerCase());
+  }
+
+  /** @return all the indexed identifiers of type for provider */
+  public Set<String> getIdentifiers(String provider, String type) {
+    TypeIndex index = getIndex(provider, type);
+    return index == null ? Collections.emptySet() : index.getIdentifiers();
+  }
+
+  private TypeIndex getIndex(String provider, String type) {
+    Map<String, TypeIndex> types = indexes.get(provider);
+    return types == null ? null : types.get(type);
+  }
+
+  static String searchablePart(String type, String identifier) {
+    String normalized = identifier.toLowerCase();
+    String marker = ":" + type.toLowerCase() + ":";
+    int start = normalized.indexOf(marker);
+    return start < 0 ? normalized : normalized.substring(start + marker.length());
+  }
+
+  static List<String> tokenize(String value) {
+    List<String> tokens = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= value.length(); i++) {
+      boolean tokenChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+      if (tokenChar && start < 0) {
+        start = i;
+      } else if (!tokenChar && start >= 0) {
+        tokens.add(value.substring(start, i));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  /** @return the term without the glob character classes, which match no literal text */
+  private static String literalPart(String term) {
+    return term.replaceAll("\\[[^\\]]*\\]", " ");
+  }
+
+  private static boolean isGlob(String term) {
+    for (int i = 0; i < term.length(); i++) {
+      if (GLOB_CHARACTERS.indexOf(term.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> trigrams(String token) {
+    List<String> trigrams = new ArrayList<>();
+    for (int i = 0; i + TRIGRAM <= token.length(); i++) {
+      trigrams.add(token.substring(i, i + TRIGRAM));
+    }
+    return trigrams;
+  }
+
+  private static class TypeIndex {
+    private final String type;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<String> identifiers = new HashSet<>();
+    private final Map<String, Set<String>> identifiersByToken = new HashMap<>();
+    private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+
+    TypeIndex(String type) {
+      this.type = type;
+    }
+
+    void update(Collection<String> current) {
+      Set<String> latest = new HashSet<>(current);
+      lock.writeLock().lock();
+      try {
+        List<String> removed = new ArrayList<>();
+        for (String identifier : identifiers) {
+          if (!latest.contains(identifier)) {
+            removed.add(identifier);
+          }
+        }
+        for (String identifier : removed) {
+          identifiers.remove(identifier);
+          for (String token : tokenize(searchablePart(type, identifier))) {
+            Set<String> posting = identifiersByToken.get(token);
+            if (posting != null && posting.remove(identifier) && posting.isEmpty()) {
+              identifiersByToken.remove(token);
+              removeTrigrams(token);
+            }
+          }
+        }
+
+        for (String identifier : latest) {
+          if (identifiers.add(identifier)) {
+            for (String token : tokenize(searchablePart(type, identifier))) {
+              Set<String> posting = identifiersByToken.get(token);
+              if (posting == null) {
+                posting = new HashSet<>();
+                identifiersByToken.put(token, posting);
+                addTrigrams(token);
+              }
+              posting.add(identifier);
+            }
+          }
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    Set<String> find(String term) {
+      String longest = null;
+      for (String token : tokenize(literalPart(term))) {
+        if (longest == null || token.length() > longest.length()) {
+          longest = token;
+        }
+      }
+      Pattern glob = isGlob(term) ? new Glob("*" + term + "*").toPattern() : null;
+
+      lock.readLock().lock();
+      try {
+        Collection<String> candidates;
+        if (longest == null) {
+          candidates = identifiers;
+        } else {
+          candidates = new HashSet<>();
+          for (String token : tokensContaining(longest)) {
+            candidates.addAll(identifiersByToken.get(token));
+          }
+        }
+
+        Set<String> matches = new HashSet<>();
+        for (String identifier : candidates) {
+          String searchable = searchablePart(type, identifier);
+          if (glob == null ? searchable.contains(term) : glob.matcher(searchable).matches()) {
+            matches.add(identifier);
+          }
+        }
+        return matches;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    /** Looks literal up through its rarest trigram, or every token if it is too short for one. */
+    private Collection<String> tokensContaining(String literal) {
+      Collection<String> tokens = identifiersByToken.keySet();
+      for (String trigram : trigrams(literal)) {
+        Set<String> trigramTokens = tokensByTrigram.getOrDefault(trigram, Collections.emptySet());
+        if (trigramTokens.size() < tokens.size()) {
+          tokens = trigramTokens;
+        }
+      }
+
+      List<String> matching = new ArrayList<>();
+      for (String token : tokens) {
+        if (token.contains(literal)) {
+          matching.add(token);
+        }
+      }
+      return matching;
+    }
+
+    private void addTrigrams(String token) {
+      for (String trigram : trigrams(token)) {
+        tokensByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(token);
+      }
+    }
+
+    private void removeTrigrams(String token) {
+      for (String trigram : trigrams(token)) {
+        Set<String> tokens = tokensByTrigram.get(trigram);
+        if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+          tokensByTrigram.remove(trigram);
+        }
+      }
+    }
+
+    Set<String> getIdentifiers() {
+      lock.readLock().lock();
+      try {
+        return new HashSet<>(identifiers);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+}
@@ -33,7 +33,6 @@ import javax.annotation.PostConstruct
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
-import java.util.concurrent.atomic.AtomicReference
 
 import static com.netflix.spinnaker.clouddriver.cache.SearchableProvider.SearchableResource
 
@@ -50,11 +49,7 @@ class CatsSearchProvider implements SearchProvider, Runnable {
   private final Map<String, Template> urlMappings
   private final ProviderRegistry providerRegistry
 
-
-
-  private final AtomicReference<Map<String, Collection<String>>> cachedIdentifiersByType = new AtomicReference(
-    [:]
-  )
+  private final CatsSearchIndex searchIndex = new CatsSearchIndex()
 
   private final FiatPermissionEvaluator permissionEvaluator
   private final List<KeyParser> keyParsers
@@ -113,33 +108,33 @@ class CatsSearchProvider implements SearchProvider, Runnable {
   }
 
   /**
-   * Periodically refresh cache identifiers that can then be searched over in-memory vs. in-redis.
+   * Periodically refresh the in-memory search index for every searchable type, which can then be searched over
+   * in-memory vs. in-redis.
    *
    * This is beneficial for sets (like instances) that may have hundreds of thousands of keys.
    */
   @Override
   void run() {
-    try {
-      log.info("Refreshing Cached Identifiers (instances)")
-      def instanceIdentifiers = providers.findAll { provider ->
-        provider.supportsSearch('instances', Collections.emptyMap())
-      }.collect { provider ->
-        def cache = providerRegistry.getProviderCache(provider.getProviderName())
-        return cache.getIdentifiers("instances").findResults { key ->
-          // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
-          if (provider.parseKey(key))
-            return key?.toLowerCase()
+    log.info("Refreshing search index (${defaultCaches.unique(false)})")
+    int indexed = 0
+    defaultCaches.unique(false).each { String type ->
+      providers.findAll { provider ->
+        provider.supportsSearch(type, Collections.emptyMap())
+      }.each { provider ->
+        try {
+          def cache = providerRegistry.getProviderCache(provider.getProviderName())
+          def identifiers = cache.getIdentifiers(type).findAll { key ->
+            // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
+            key && provider.parseKey(key)
+          }
+          searchIndex.update(provider.getProviderName(), type, identifiers)
+          indexed += identifiers.size()
+        } catch (Exception e) {
+          log.error("Unable to refresh search index (provider: ${provider.getProviderName()}, type: ${type})", e)
         }
-      }.flatten()
-
-      if (instanceIdentifiers) {
-        cachedIdentifiersByType.set(["instances": instanceIdentifiers])
       }
-
-      log.info("Refreshed Cached Identifiers (found ${instanceIdentifiers.size()} instances)")
-    } catch (Exception e) {
-      log.error("Unable to refresh cached identifiers (instances)", e)
     }
+    log.info("Refreshed search index (found ${indexed} identifiers)")
   }
 
   @Override
@@ -283,28 +278,21 @@ class CatsSearchProvider implements SearchProvider, Runnable {
         }
       }
 
-      def identifiers
-      def cached = cachedIdentifiersByType.get()
-      if (cached.containsKey(cache)) {
-        /**
-         * Attempt an exact match of the query against any attribute of an instance key (account, region, etc.).
-         *
-         * This is not 100% consistent with doing `*:${cache}:*${normalizedWord}*` in redis _but_ for instances it
-         * should be sufficient.
-         */
-        def identifiersForCache = cached.get(cache)
-        identifiers = identifiersForCache.findAll { it.contains(normalizedWord) }
-      } else {
-        List<SearchableProvider> validProviders = providers.findAll { it.supportsSearch(cache, filters) }
-        identifiers = new HashSet<>()
-        for (SearchableProvider sp : validProviders) {
-          def providerCache = providerRegistry.getProviderCache(sp.getProviderName())
+      List<SearchableProvider> validProviders = providers.findAll { it.supportsSearch(cache, filters) }
+      def identifiers = new HashSet<>()
+      for (SearchableProvider sp : validProviders) {
+        def providerCache = providerRegistry.getProviderCache(sp.getProviderName())
+        def filteredIds
+        if (searchIndex.isIndexed(sp.getProviderName(), cache)) {
+          // the index is only as fresh as its last refresh, so hits are still checked against the cache
+          filteredIds = searchIndex.find(sp.getProviderName(), cache, normalizedWord)
+        } else {
           def searchGlob = sp.buildSearchTerm(cache, normalizedWord)
-          def filteredIds = providerCache.filterIdentifiers(cache, searchGlob)
-          filteredIds.removeAll(identifiers)
-          def existingIds = providerCache.existingIdentifiers(cache, filteredIds)
-          identifiers.addAll(existingIds)
+          filteredIds = providerCache.filterIdentifiers(cache, searchGlob)
         }
+        filteredIds.removeAll(identifiers)
+        def existingIds = providerCache.existingIdentifiers(cache, filteredIds)
+        identifiers.addAll(existingIds)
       }
 
       return identifiers
@@ -20,6 +20,9 @@ import static java.lang.String.format;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spinnaker.clouddriver.core.ClouddriverHostname;
 import com.netflix.spinnaker.clouddriver.data.task.DefaultTaskStatus;
 import com.netflix.spinnaker.clouddriver.data.task.SagaId;
@@ -31,7 +34,11 @@ import com.netflix.spinnaker.clouddriver.data.task.TaskState;
 import com.netflix.spinnaker.kork.exceptions.SystemException;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -40,9 +47,30 @@ import net.jodah.failsafe.RetryPolicy;
 import net.jodah.failsafe.function.CheckedConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.exceptions.JedisException;
 
-public class RedisTaskRepository implements TaskRepository {
+/**
+ * Stores tasks in redis.
+ *
+ * <p>Status updates are written behind. The current state of each task owned by this instance is
+ * kept in memory, so an update does not read it back from redis, and history entries are queued
+ * and appended in pipelined batches every {@link #DEFAULT_HISTORY_FLUSH_INTERVAL}.
+ *
+ * <ul>
+ *   <li>The history of a task is appended in the order its updates were made.
+ *   <li>The initial and the completed status of a task are written before {@link #create} and the
+ *       completing update return. A task leaves the running set only once its history is written.
+ *   <li>Reading the history of a task from this instance includes every update made to it so far.
+ *       Other instances see updates once they are flushed.
+ *   <li>Updates that are not yet flushed are lost if the instance dies. A batch that keeps failing
+ *       is retried on the next flush, and may then be appended more than once.
+ * </ul>
+ *
+ * <p>A task is expected to be updated by the instance that owns it. Other instances read its state
+ * from redis.
+ */
+public class RedisTaskRepository implements TaskRepository, AutoCloseable {
   private static final Logger log = LoggerFactory.getLogger(RedisTaskRepository.class);
 
   private static final String RUNNING_TASK_KEY = "kato:tasks";
@@ -54,6 +82,8 @@ public class RedisTaskRepository implements TaskRepository {
 
   private static final int TASK_TTL = (int) TimeUnit.HOURS.toSeconds(12);
 
+  static final Duration DEFAULT_HISTORY_FLUSH_INTERVAL = Duration.ofMillis(250);
+
   private static final RetryPolicy REDIS_RETRY_POLICY =
       new RetryPolicy()
           .retryOn(Collections.singletonList(JedisException.class))
@@ -64,11 +94,50 @@ public class RedisTaskRepository implements TaskRepository {
   private final Optional<RedisClientDelegate> redisClientDelegatePrevious;
   private final ObjectMapper mapper = new ObjectMapper();
 
+  private final Cache<String, DefaultTaskStatus> currentStates =
+      CacheBuilder.newBuilder().expireAfterAccess(TASK_TTL, TimeUnit.SECONDS).build();
+  // Only the flush removes entries, so the entries it reads are always the head of the queue
+  private final Queue<PendingHistory> pendingHistory = new ConcurrentLinkedQueue<>();
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService historyFlusher;
+
   public RedisTaskRepository(
       RedisClientDelegate redisClientDelegate,
       Optional<RedisClientDelegate> redisClientDelegatePrevious) {
+    this(redisClientDelegate, redisClientDelegatePrevious, DEFAULT_HISTORY_FLUSH_INTERVAL);
+  }
+
+  RedisTaskRepository(
+      RedisClientDelegate redisClientDelegate,
+      Optional<RedisClientDelegate> redisClientDelegatePrevious,
+      Duration historyFlushInterval) {
     this.redisClientDelegate = redisClientDelegate;
     this.redisClientDelegatePrevious = redisClientDelegatePrevious;
+
+    this.historyFlusher =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat(RedisTaskRepository.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+    historyFlusher.scheduleWithFixedDelay(
+        () -> {
+          try {
+            flushHistory();
+          } catch (Exception e) {
+            log.warn("Failed to flush task history, will retry", e);
+          }
+        },
+        historyFlushInterval.toMillis(),
+        historyFlushInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops flushing on an interval and writes the history that is still pending. */
+  @Override
+  public void close() {
+    historyFlusher.shutdown();
+    flushHistory();
   }
 
   @Override
@@ -92,6 +161,8 @@ public class RedisTaskRepository implements TaskRepository {
             new HashSet<>(),
             false);
     addToHistory(DefaultTaskStatus.create(phase, status, TaskState.STARTED), task);
+    // Other instances can see the task once it is set, so it must have a status by then
+    flushHistory();
     set(taskId, task);
     Long newTask =
         retry(
@@ -138,6 +209,10 @@ public class RedisTaskRepository implements TaskRepository {
         return null;
       }
     }
+    return toTask(taskMap, oldTask);
+  }
+
+  private Task toTask(Map<String, String> taskMap, boolean oldTask) {
     if (taskMap.containsKey("id") && taskMap.containsKey("startTimeMs")) {
       Set<SagaId> sagaIds;
       if (taskMap.containsKey("sagaIds")) {
@@ -197,15 +272,46 @@ public class RedisTaskRepository implements TaskRepository {
 
   @Override
   public List<Task> list() {
-    return retry(
-        () ->
-            redisClientDelegate.withCommandsClient(
-                client -> {
-                  return client.smembers(RUNNING_TASK_KEY).stream()
-                      .map(this::get)
-                      .collect(Collectors.toList());
-                }),
-        "Getting all running tasks");
+    Map<String, Map<String, String>> taskMaps =
+        retry(this::getRunningTaskMaps, "Getting all running tasks");
+
+    List<Task> tasks = new ArrayList<>(taskMaps.size());
+    taskMaps.forEach(
+        (id, taskMap) -> {
+          if (taskMap == null || taskMap.isEmpty()) {
+            // Looked up on its own, so that it can be found in the previous redis
+            tasks.add(get(id));
+          } else {
+            tasks.add(toTask(taskMap, false));
+          }
+        });
+    return tasks;
+  }
+
+  /** Reads the hash of every running task, in a single pipeline where redis supports it. */
+  private Map<String, Map<String, String>> getRunningTaskMaps() {
+    Set<String> ids =
+        redisClientDelegate.withCommandsClient(
+            client -> {
+              return client.smembers(RUNNING_TASK_KEY);
+            });
+    Map<String, Map<String, String>> taskMaps = new LinkedHashMap<>();
+    if (!redisClientDelegate.supportsMultiKeyPipelines()) {
+      redisClientDelegate.withCommandsClient(
+          client -> {
+            ids.forEach(id -> taskMaps.put(id, client.hgetAll("task:" + id)));
+          });
+      return taskMaps;
+    }
+
+    Map<String, Response<Map<String, String>>> responses = new LinkedHashMap<>();
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          ids.forEach(id -> responses.put(id, pipeline.hgetAll("task:" + id)));
+          pipeline.sync();
+        });
+    responses.forEach((id, response) -> taskMaps.put(id, response.get()));
+    return taskMaps;
   }
 
   @Override
@@ -237,9 +343,12 @@ public class RedisTaskRepository implements TaskRepository {
         format("Writing task %s", id));
   }
 
+  /**
+   * Queues a status of the task to be appended to its history. The status becomes the current state
+   * of the task right away. It is written to redis by the next flush, or before this returns if it
+   * completes the task.
+   */
   public void addToHistory(DefaultTaskStatus status, JedisTask task) {
-    String historyId = "taskHistory:" + task.getId();
-
     Map<String, String> data = new HashMap<>();
     data.put("phase", status.getPhase());
     data.put("status", status.getStatus());
@@ -252,22 +361,82 @@ public class RedisTaskRepository implements TaskRepository {
       throw new RuntimeException("Failed converting task history to json", e);
     }
 
-    retry(
-        () ->
-            redisClientDelegate.withCommandsClient(
-                client -> {
-                  client.rpush(historyId, hist);
+    synchronized (pendingHistory) {
+      currentStates.put(task.getId(), status);
+      pendingHistory.add(new PendingHistory(task.getId(), hist, status.isCompleted()));
+    }
+
+    if (status.isCompleted()) {
+      flushHistory();
+      currentStates.invalidate(task.getId());
+    }
+  }
+
+  /** Appends the queued history entries to redis, in the order they were queued. */
+  void flushHistory() {
+    synchronized (flushLock) {
+      List<PendingHistory> batch = new ArrayList<>(pendingHistory);
+      if (batch.isEmpty()) {
+        return;
+      }
+
+      Map<String, List<String>> histories = new LinkedHashMap<>();
+      Set<String> completedTaskIds = new LinkedHashSet<>();
+      for (PendingHistory entry : batch) {
+        histories
+            .computeIfAbsent("taskHistory:" + entry.taskId, k -> new ArrayList<>())
+            .add(entry.history);
+        if (entry.completed) {
+          completedTaskIds.add(entry.taskId);
+        }
+      }
+
+      retry(
+          () -> writeHistory(histories, completedTaskIds),
+          format("Adding %d status history entries to %d tasks", batch.size(), histories.size()));
+      for (int i = 0; i < batch.size(); i++) {
+        pendingHistory.poll();
+      }
+    }
+  }
+
+  private void writeHistory(Map<String, List<String>> histories, Set<String> completedTaskIds) {
+    String[] completed = completedTaskIds.toArray(new String[0]);
+    if (redisClientDelegate.supportsMultiKeyPipelines()) {
+      redisClientDelegate.withMultiKeyPipeline(
+          pipeline -> {
+            histories.forEach(
+                (historyId, entries) -> {
+                  pipeline.rpush(historyId, entries.toArray(new String[0]));
+                  pipeline.expire(historyId, TASK_TTL);
+                });
+            if (completed.length > 0) {
+              pipeline.srem(RUNNING_TASK_KEY, completed);
+            }
+            pipeline.sync();
+          });
+    } else {
+      redisClientDelegate.withCommandsClient(
+          client -> {
+            histories.forEach(
+                (historyId, entries) -> {
+                  client.rpush(historyId, entries.toArray(new String[0]));
                   client.expire(historyId, TASK_TTL);
-                  if (status.isCompleted()) {
-                    client.srem(RUNNING_TASK_KEY, task.getId());
-                  }
-                }),
-        format("Adding status history to task %s: %s", task.getId(), status));
+                });
+            if (completed.length > 0) {
+              client.srem(RUNNING_TASK_KEY, completed);
+            }
+          });
+    }
   }
 
   public List<Status> getHistory(JedisTask task) {
     String historyId = "taskHistory:" + task.getId();
 
+    if (!pendingHistory.isEmpty()) {
+      flushHistory();
+    }
+
     RedisClientDelegate client = clientForTask(task);
     return retry(
             () ->
@@ -295,6 +464,13 @@ public class RedisTaskRepository implements TaskRepository {
   }
 
   public DefaultTaskStatus currentState(JedisTask task) {
+    if (!task.getPreviousRedis() && ClouddriverHostname.ID.equals(task.getOwnerId())) {
+      DefaultTaskStatus state = currentStates.getIfPresent(task.getId());
+      if (state != null) {
+        return state;
+      }
+    }
+
     String historyId = "taskHistory:" + task.getId();
 
     RedisClientDelegate client = clientForTask(task);
@@ -401,6 +577,18 @@ public class RedisTaskRepository implements TaskRepository {
     Failsafe.with(REDIS_RETRY_POLICY).onRetriesExceeded(retryExceededListener).run(f::run);
   }
 
+  private static class PendingHistory {
+    private final String taskId;
+    private final String history;
+    private final boolean completed;
+
+    PendingHistory(String taskId, String history, boolean completed) {
+      this.taskId = taskId;
+      this.history = history;
+      this.completed = completed;
+    }
+  }
+
   private static class ExcessiveRedisFailureRetries extends RuntimeException {
     ExcessiveRedisFailureRetries(String message, Throwable cause) {
       super(message, cause);
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cache
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+class CatsSearchIndexSpec extends Specification {
+
+  @Subject
+  def index = new CatsSearchIndex()
+
+  def identifiers = [
+    "aws:serverGroups:myapp-prod:prod:us-west-2:myapp-prod-v001",
+    "aws:serverGroups:myapp-test:test:us-west-2:myapp-test-v003",
+    "aws:serverGroups:other:prod:eu-west-1:other-v000",
+  ]
+
+  def setup() {
+    index.update("aws", "serverGroups", identifiers)
+  }
+
+  @Unroll
+  def "should find identifiers whose searchable part contains '#term'"() {
+    expect:
+    index.find("aws", "serverGroups", term) == expected as Set
+
+    where:
+    term             || expected
+    "myapp"          || [identifiers[0], identifiers[1]]
+    "yap"            || [identifiers[0], identifiers[1]]
+    "est"            || identifiers
+    "00"             || identifiers
+    "PROD-V0"        || [identifiers[0]]
+    "app-prod"       || [identifiers[0]]
+    "west-"          || identifiers
+    "v000"           || [identifiers[2]]
+    ":"              || identifiers
+    "aws"            || []
+    "servergroups"   || []
+    "missing"        || []
+  }
+
+  @Unroll
+  def "should match '#term' as a glob like the cache filter it replaces"() {
+    expect:
+    index.find("aws", "serverGroups", term) == expected as Set
+
+    where:
+    term             || expected
+    "*"              || identifiers
+    "my*prod"        || [identifiers[0]]
+    "myapp*v003"     || [identifiers[1]]
+    "eu-w*-1"        || [identifiers[2]]
+    "other-v00?"     || [identifiers[2]]
+    "v00[13]"        || [identifiers[0], identifiers[1]]
+    "prod*test"      || []
+  }
+
+  def "should only apply identifiers that changed"() {
+    when:
+    index.update("aws", "serverGroups", [identifiers[1], "aws:serverGroups:new:prod:us-east-1:new-v000"])
+
+    then:
+    index.getIdentifiers("aws", "serverGroups") == [identifiers[1], "aws:serverGroups:new:prod:us-east-1:new-v000"] as Set
+    index.find("aws", "serverGroups", "prod") == ["aws:serverGroups:new:prod:us-east-1:new-v000"] as Set
+    index.find("aws", "serverGroups", "other").isEmpty()
+    index.find("aws", "serverGroups", "ther").isEmpty()
+    index.find("aws", "serverGroups", "est") == ["aws:serverGroups:new:prod:us-east-1:new-v000", identifiers[1]] as Set
+  }
+
+  def "should keep providers and types separate"() {
+    expect:
+    index.isIndexed("aws", "serverGroups")
+    !index.isIndexed("aws", "instances")
+    !index.isIndexed("gce", "serverGroups")
+    index.find("gce", "serverGroups", "myapp").isEmpty()
+  }
+}
@@ -33,11 +33,15 @@ class CatsSearchProviderSpec extends Specification {
 
   def providers = [
     Stub(SearchableProvider) {
+      getProviderName() >> "unparseable"
+      getDefaultCaches() >> ["instances"]
       supportsSearch('instances', _) >> true
       getAgents() >> [ instanceAgent ]
       parseKey(_) >> { String k -> return null }
     },
     Stub(SearchableProvider) {
+      getProviderName() >> "parseable"
+      getDefaultCaches() >> ["instances"]
       supportsSearch('instances', _) >> true
       getAgents() >> [ instanceAgent ]
       parseKey(_) >> { String k -> return ["originalKey": k] }
@@ -70,9 +74,71 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [
-      "instances": instanceIdentifiers.collect { it.toLowerCase() }
-    ]
+    catsSearchProvider.searchIndex.getIdentifiers("parseable", "instances") == instanceIdentifiers as Set
+    catsSearchProvider.searchIndex.isIndexed("unparseable", "instances")
+    catsSearchProvider.searchIndex.getIdentifiers("unparseable", "instances").isEmpty()
+  }
+
+  def "should search indexed identifiers without scanning the cache"() {
+    given:
+    cache.getIdentifiers("instances") >> { return instanceIdentifiers }
+    cache.existingIdentifiers("instances", _ as Collection<String>) >> { t, i -> return i }
+    catsSearchProvider.run()
+
+    when:
+    def resultSet = catsSearchProvider.search("i-56", 1, 10)
+
+    then:
+    0 * cache.filterIdentifiers(_, _)
+    resultSet.totalMatches == 1
+    resultSet.results*.originalKey == ["aws:instances:prod:us-west-2:I-5678"]
+  }
+
+  def "should treat '*' in an indexed search as a wildcard"() {
+    given:
+    cache.getIdentifiers("instances") >> { return instanceIdentifiers }
+    cache.existingIdentifiers("instances", _ as Collection<String>) >> { t, i -> return i }
+    catsSearchProvider.run()
+
+    when:
+    def resultSet = catsSearchProvider.search("us-*-5", 1, 10)
+
+    then:
+    0 * cache.filterIdentifiers(_, _)
+    resultSet.totalMatches == 1
+    resultSet.results*.originalKey == ["aws:instances:prod:us-west-2:I-5678"]
+  }
+
+  def "should not return indexed identifiers that were evicted since the last refresh"() {
+    given:
+    cache.getIdentifiers("instances") >> { return instanceIdentifiers }
+    cache.existingIdentifiers("instances", _ as Collection<String>) >> { t, i ->
+      return i - "aws:instances:prod:us-west-2:I-5678"
+    }
+    catsSearchProvider.run()
+
+    when:
+    def resultSet = catsSearchProvider.search("i-", 1, 10)
+
+    then:
+    resultSet.totalMatches == 4
+    !resultSet.results*.originalKey.contains("aws:instances:prod:us-west-2:I-5678")
+  }
+
+  def "should track identifiers added and removed between refreshes"() {
+    given:
+    def identifiers = new ArrayList(instanceIdentifiers)
+    cache.getIdentifiers("instances") >> { return identifiers }
+    catsSearchProvider.run()
+
+    when:
+    identifiers.remove("aws:instances:prod:us-west-2:I-1234")
+    identifiers.add("aws:instances:test:us-east-1:I-4321")
+    catsSearchProvider.run()
+
+    then:
+    catsSearchProvider.searchIndex.find("parseable", "instances", "i-1234").isEmpty()
+    catsSearchProvider.searchIndex.find("parseable", "instances", "test:us-east") == ["aws:instances:test:us-east-1:I-4321"] as Set
   }
 
   def "should handle unparseable instance identifiers"() {
@@ -83,7 +149,7 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    !catsSearchProvider.searchIndex.isIndexed("parseable", "instances")
 
     when:
     providers.add(
@@ -93,6 +159,6 @@ class CatsSearchProviderSpec extends Specification {
     )
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    !catsSearchProvider.searchIndex.isIndexed("parseable", "instances")
   }
 }
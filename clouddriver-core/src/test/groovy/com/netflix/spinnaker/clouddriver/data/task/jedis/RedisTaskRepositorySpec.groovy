@@ -16,6 +16,7 @@
 package com.netflix.spinnaker.clouddriver.data.task.jedis
 
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
 import redis.clients.jedis.Jedis
@@ -24,6 +25,8 @@ import spock.lang.AutoCleanup
 import spock.lang.Shared
 import spock.lang.Specification
 
+import java.time.Duration
+
 class RedisTaskRepositorySpec extends Specification {
 
   @Shared
@@ -76,4 +79,54 @@ class RedisTaskRepositorySpec extends Specification {
     embeddedRedis1.destroy()
     embeddedRedis2.destroy()
   }
+
+  void "writes status history behind, in the order it was updated"() {
+    given:
+    def repository = new RedisTaskRepository(new JedisClientDelegate(jedisPool), Optional.empty(), Duration.ofHours(1))
+    def task = repository.create("starting", "foo")
+
+    when:
+    task.updateStatus("deploy", "one")
+    task.updateStatus("deploy", "two")
+
+    then:
+    history(task.id)*.status == ["foo"]
+    task.status.status == "two"
+
+    when:
+    repository.flushHistory()
+
+    then:
+    history(task.id)*.status == ["foo", "one", "two"]
+
+    cleanup:
+    repository.close()
+  }
+
+  void "writes the completed status before the task leaves the running tasks"() {
+    given:
+    def repository = new RedisTaskRepository(new JedisClientDelegate(jedisPool), Optional.empty(), Duration.ofHours(1))
+    def task = repository.create("starting", "foo")
+    task.updateStatus("deploy", "one")
+
+    expect:
+    repository.list()*.id == [task.id]
+
+    when:
+    task.complete()
+
+    then:
+    history(task.id)*.status == ["foo", "one", "one"]
+    history(task.id).last().state == "COMPLETED"
+    repository.list().isEmpty()
+
+    cleanup:
+    repository.close()
+  }
+
+  private List<Map> history(String taskId) {
+    jedisPool.resource.withCloseable {
+      ((Jedis) it).lrange("taskHistory:" + taskId, 0, -1).collect { new ObjectMapper().readValue(it, Map) }
+    }
+  }
 }
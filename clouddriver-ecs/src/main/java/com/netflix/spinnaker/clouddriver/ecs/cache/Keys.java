@@ -29,6 +29,7 @@ public class Keys implements KeyParser {
     IAM_ROLE,
     SERVICES,
     ECS_CLUSTERS,
+    ECS_APPLICATIONS,
     TASKS,
     CONTAINER_INSTANCES,
     TASK_DEFINITIONS,
@@ -107,6 +108,9 @@ public class Keys implements KeyParser {
       case ECS_CLUSTERS:
         result.put("clusterName", parts[4]);
         break;
+      case ECS_APPLICATIONS:
+        result.put("application", parts[4]);
+        break;
       case TASKS:
         result.put("taskId", parts[4]);
         break;
@@ -154,6 +158,10 @@ public class Keys implements KeyParser {
     return buildKey(Namespace.ECS_CLUSTERS.ns, account, region, clusterName);
   }
 
+  public static String getApplicationKey(String account, String region, String application) {
+    return buildKey(Namespace.ECS_APPLICATIONS.ns, account, region, application);
+  }
+
   public static String getTaskKey(String account, String region, String taskId) {
     return buildKey(Namespace.TASKS.ns, account, region, taskId);
   }
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.ecs.cache.client;
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -62,6 +63,48 @@ abstract class AbstractCacheClient<T> {
     return convertAll(data);
   }
 
+  /**
+   * @param keys Keys within the key namespace that will be used to retrieve the objects.
+   * @return A list of the generic type objects associated to the keys that are cached.
+   */
+  public Collection<T> getAll(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Collection<CacheData> data = cacheView.getAll(keyNamespace, keys);
+    if (data == null) {
+      return Collections.emptyList();
+    }
+    return convertAll(data);
+  }
+
+  /**
+   * Looks up objects through the application index kept by the caching agents, rather than by
+   * scanning every key of the account and region.
+   *
+   * @param account name of the AWS account, as defined in clouddriver.yml
+   * @param region region of the AWS account, as defined in clouddriver.yml
+   * @param application name of the Spinnaker application
+   * @return A list of the generic type objects in the key namespace that belong to the
+   *     application in the account and region.
+   */
+  public Collection<T> getAllForApplication(String account, String region, String application) {
+    CacheData applicationData =
+        cacheView.get(
+            Namespace.ECS_APPLICATIONS.toString(),
+            Keys.getApplicationKey(account, region, application));
+    if (applicationData == null) {
+      return Collections.emptyList();
+    }
+
+    Collection<String> keys = applicationData.getRelationships().get(keyNamespace);
+    if (keys == null) {
+      return Collections.emptyList();
+    }
+    return getAll(keys);
+  }
+
   /**
    * @param key A key within the key namespace that will be used to retrieve the object.
    * @return An object of the generic type that is associated to the key.
@@ -137,7 +137,8 @@ abstract class AbstractEcsCachingAgent<T> implements CachingAgent, AccountAware
 
   /**
    * Provides the key namespace that the caching agent is authoritative of. Currently only supports
-   * the caching agent being authoritative over one key namespace.
+   * the caching agent being authoritative over one key namespace, agents that are authoritative
+   * over more than one override this to name the namespace of the items they fetch.
    *
    * @return Key namespace.
    */
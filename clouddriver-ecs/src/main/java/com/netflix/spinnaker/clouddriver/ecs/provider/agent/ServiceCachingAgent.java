@@ -18,6 +18,7 @@ package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.INFORMATIVE;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_APPLICATIONS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES;
 
@@ -39,6 +40,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -52,7 +54,8 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
       Collections.unmodifiableCollection(
           Arrays.asList(
               AUTHORITATIVE.forType(SERVICES.toString()),
-              INFORMATIVE.forType(ECS_CLUSTERS.toString())));
+              INFORMATIVE.forType(ECS_CLUSTERS.toString()),
+              AUTHORITATIVE.forType(ECS_APPLICATIONS.toString())));
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   public ServiceCachingAgent(
@@ -67,10 +70,7 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
   public static Map<String, Object> convertServiceToAttributes(
       String accountName, String region, Service service) {
     Map<String, Object> attributes = new HashMap<>();
-    String applicationName =
-        service.getServiceName().contains("-")
-            ? StringUtils.substringBefore(service.getServiceName(), "-")
-            : service.getServiceName();
+    String applicationName = getApplicationName(service.getServiceName());
     String clusterName = StringUtils.substringAfterLast(service.getClusterArn(), "/");
 
     attributes.put("account", accountName);
@@ -102,6 +102,11 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
     return attributes;
   }
 
+  /** Infers the Spinnaker application of an ECS service from the service name. */
+  static String getApplicationName(String serviceName) {
+    return serviceName.contains("-") ? StringUtils.substringBefore(serviceName, "-") : serviceName;
+  }
+
   @Override
   public String getAgentType() {
     return accountName + "/" + region + "/" + getClass().getSimpleName();
@@ -112,6 +117,12 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
     return types;
   }
 
+  /** Services are the items fetched, the application index is derived from them. */
+  @Override
+  String getAuthoritativeKeyName() {
+    return SERVICES.toString();
+  }
+
   @Override
   protected List<Service> getItems(AmazonECS ecs, ProviderCache providerCache) {
     List<Service> serviceList = new LinkedList<>();
@@ -146,6 +157,7 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
   protected Map<String, Collection<CacheData>> generateFreshData(Collection<Service> services) {
     Collection<CacheData> dataPoints = new LinkedList<>();
     Map<String, CacheData> clusterDataPoints = new HashMap<>();
+    Map<String, Collection<String>> applicationServices = new HashMap<>();
 
     for (Service service : services) {
       Map<String, Object> attributes = convertServiceToAttributes(accountName, region, service);
@@ -153,6 +165,10 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
       String key = Keys.getServiceKey(accountName, region, service.getServiceName());
       dataPoints.add(new DefaultCacheData(key, attributes, Collections.emptyMap()));
 
+      applicationServices
+          .computeIfAbsent((String) attributes.get("applicationName"), k -> new HashSet<>())
+          .add(key);
+
       Map<String, Object> clusterAttributes =
           EcsClusterCachingAgent.convertClusterArnToAttributes(
               accountName, region, service.getClusterArn());
@@ -169,6 +185,31 @@ public class ServiceCachingAgent extends AbstractEcsOnDemandAgent<Service> {
     log.info("Caching " + clusterDataPoints.size() + " ECS clusters in " + getAgentType());
     dataMap.put(ECS_CLUSTERS.toString(), clusterDataPoints.values());
 
+    // Indexes the services of each application, so that they can be looked up without scanning
+    // every service of the account and region. This agent is authoritative for the entries, so
+    // they are stored with their attributes by every cache and are evicted with their last service.
+    Collection<CacheData> applicationDataPoints = new LinkedList<>();
+    for (Map.Entry<String, Collection<String>> entry : applicationServices.entrySet()) {
+      String key = Keys.getApplicationKey(accountName, region, entry.getKey());
+      applicationDataPoints.add(
+          new DefaultCacheData(
+              key,
+              convertApplicationToAttributes(accountName, region, entry.getKey()),
+              Collections.singletonMap(SERVICES.toString(), entry.getValue())));
+    }
+
+    log.info("Caching " + applicationDataPoints.size() + " applications in " + getAgentType());
+    dataMap.put(ECS_APPLICATIONS.toString(), applicationDataPoints);
+
     return dataMap;
   }
+
+  static Map<String, Object> convertApplicationToAttributes(
+      String accountName, String region, String applicationName) {
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put("account", accountName);
+    attributes.put("region", region);
+    attributes.put("applicationName", applicationName);
+    return attributes;
+  }
 }
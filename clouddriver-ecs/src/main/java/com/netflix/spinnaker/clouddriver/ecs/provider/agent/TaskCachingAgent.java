@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.INFORMATIVE;
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.ON_DEMAND;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_APPLICATIONS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
@@ -29,6 +30,8 @@ import com.amazonaws.services.ecs.model.DescribeTasksRequest;
 import com.amazonaws.services.ecs.model.ListTasksRequest;
 import com.amazonaws.services.ecs.model.ListTasksResult;
 import com.amazonaws.services.ecs.model.Task;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.AgentDataType;
 import com.netflix.spinnaker.cats.cache.CacheData;
@@ -42,10 +45,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,7 +66,23 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
       Collections.unmodifiableCollection(
           Arrays.asList(
               AUTHORITATIVE.forType(TASKS.toString()),
-              INFORMATIVE.forType(ECS_CLUSTERS.toString())));
+              INFORMATIVE.forType(ECS_CLUSTERS.toString()),
+              INFORMATIVE.forType(ECS_APPLICATIONS.toString())));
+  private static final String SERVICE_GROUP_PREFIX = "service:";
+  private static final int MAX_CONCURRENT_CLUSTERS = 8;
+  private static final int MAX_TASKS_PER_DESCRIBE = 100;
+
+  // The clusters of all task agents are listed and described on this pool, at most
+  // MAX_CONCURRENT_CLUSTERS at a time per agent. Every request still acquires the rate limiter of
+  // the ECS client, so the agent takes about as long as its largest cluster without raising the
+  // request rate beyond the configured limits.
+  private static final ExecutorService clusterExecutor =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat(TaskCachingAgent.class.getSimpleName() + "-cluster-%d")
+              .setDaemon(true)
+              .build());
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   public TaskCachingAgent(
@@ -79,28 +106,54 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
 
   @Override
   protected List<Task> getItems(AmazonECS ecs, ProviderCache providerCache) {
+    Queue<String> clusters = new ConcurrentLinkedQueue<>(getClusters(ecs, providerCache));
+    Queue<Task> taskList = new ConcurrentLinkedQueue<>();
+
+    List<CompletableFuture<Void>> workers =
+        IntStream.range(0, Math.min(MAX_CONCURRENT_CLUSTERS, clusters.size()))
+            .mapToObj(
+                i ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          try {
+                            String cluster;
+                            while ((cluster = clusters.poll()) != null) {
+                              taskList.addAll(getClusterTasks(ecs, cluster));
+                            }
+                          } catch (RuntimeException e) {
+                            // The agent fails as a whole, so the other workers stop early
+                            clusters.clear();
+                            throw e;
+                          }
+                        },
+                        clusterExecutor))
+            .collect(Collectors.toList());
+
+    try {
+      workers.forEach(CompletableFuture::join);
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+    return new LinkedList<>(taskList);
+  }
+
+  private List<Task> getClusterTasks(AmazonECS ecs, String cluster) {
     List<Task> taskList = new LinkedList<>();
-    Set<String> clusters = getClusters(ecs, providerCache);
-
-    for (String cluster : clusters) {
-      String nextToken = null;
-      do {
-        ListTasksRequest listTasksRequest = new ListTasksRequest().withCluster(cluster);
-        if (nextToken != null) {
-          listTasksRequest.setNextToken(nextToken);
-        }
-        ListTasksResult listTasksResult = ecs.listTasks(listTasksRequest);
-        List<String> taskArns = listTasksResult.getTaskArns();
-        if (taskArns.size() == 0) {
-          continue;
-        }
+    String nextToken = null;
+    do {
+      ListTasksResult listTasksResult =
+          ecs.listTasks(new ListTasksRequest().withCluster(cluster).withNextToken(nextToken));
+      for (List<String> taskArns :
+          Lists.partition(listTasksResult.getTaskArns(), MAX_TASKS_PER_DESCRIBE)) {
         List<Task> tasks =
             ecs.describeTasks(new DescribeTasksRequest().withCluster(cluster).withTasks(taskArns))
                 .getTasks();
         taskList.addAll(tasks);
-        nextToken = listTasksResult.getNextToken();
-      } while (nextToken != null && nextToken.length() != 0);
-    }
+      }
+      nextToken = listTasksResult.getNextToken();
+    } while (nextToken != null && nextToken.length() != 0);
+
+    log.debug("Found {} tasks in cluster {} in {}", taskList.size(), cluster, getAgentType());
     return taskList;
   }
 
@@ -161,6 +214,7 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
   protected Map<String, Collection<CacheData>> generateFreshData(Collection<Task> tasks) {
     Collection<CacheData> dataPoints = new LinkedList<>();
     Map<String, CacheData> clusterDataPoints = new HashMap<>();
+    Map<String, Collection<String>> applicationTasks = new HashMap<>();
 
     for (Task task : tasks) {
       String taskId = StringUtils.substringAfterLast(task.getTaskArn(), "/");
@@ -169,6 +223,14 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
       String key = Keys.getTaskKey(accountName, region, taskId);
       dataPoints.add(new DefaultCacheData(key, attributes, Collections.emptyMap()));
 
+      if (task.getGroup() != null && task.getGroup().startsWith(SERVICE_GROUP_PREFIX)) {
+        String serviceName = StringUtils.removeStart(task.getGroup(), SERVICE_GROUP_PREFIX);
+        applicationTasks
+            .computeIfAbsent(
+                ServiceCachingAgent.getApplicationName(serviceName), k -> new HashSet<>())
+            .add(key);
+      }
+
       String clusterName = StringUtils.substringAfterLast(task.getClusterArn(), "/");
       Map<String, Object> clusterAttributes =
           EcsClusterCachingAgent.convertClusterArnToAttributes(
@@ -185,6 +247,20 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
     log.info("Caching " + clusterDataPoints.size() + " ECS clusters in " + getAgentType());
     dataMap.put(ECS_CLUSTERS.toString(), clusterDataPoints.values());
 
+    // Adds the tasks of each application to the index the ServiceCachingAgent is authoritative
+    // for. Applications that have tasks but no services have no entry, so they are not visible.
+    Collection<CacheData> applicationDataPoints = new LinkedList<>();
+    for (Map.Entry<String, Collection<String>> entry : applicationTasks.entrySet()) {
+      applicationDataPoints.add(
+          new DefaultCacheData(
+              Keys.getApplicationKey(accountName, region, entry.getKey()),
+              Collections.emptyMap(),
+              Collections.singletonMap(TASKS.toString(), entry.getValue())));
+    }
+
+    log.info("Caching " + applicationDataPoints.size() + " applications in " + getAgentType());
+    dataMap.put(ECS_APPLICATIONS.toString(), applicationDataPoints);
+
     return dataMap;
   }
 
@@ -49,6 +49,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,6 +100,13 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     ContainerInstanceCacheClient containerInstanceCacheClient =
         new ContainerInstanceCacheClient(providerCache);
 
+    // Tasks share services, container instances, task definitions and target groups, so each of
+    // them is read from the cache once and joined to the tasks by key.
+    Map<String, Optional<ContainerInstance>> containerInstances = new HashMap<>();
+    Map<String, Optional<Service>> services = new HashMap<>();
+    Map<String, Optional<TaskDefinition>> taskDefinitions = new HashMap<>();
+    TargetHealthIndex targetHealthIndex = new TargetHealthIndex(targetHealthCacheClient);
+
     List<TaskHealth> taskHealthList = new LinkedList<>();
     taskEvictions = new LinkedList<>();
 
@@ -109,11 +117,12 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
         String containerInstanceCacheKey =
             Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn());
         ContainerInstance containerInstance =
-            containerInstanceCacheClient.get(containerInstanceCacheKey);
+            getCached(
+                containerInstances, containerInstanceCacheKey, containerInstanceCacheClient::get);
 
         String serviceName = StringUtils.substringAfter(task.getGroup(), "service:");
         String serviceKey = Keys.getServiceKey(accountName, region, serviceName);
-        Service service = serviceCacheClient.get(serviceKey);
+        Service service = getCached(services, serviceKey, serviceCacheClient::get);
 
         if (service == null) {
           String taskEvictionKey = Keys.getTaskKey(accountName, region, task.getTaskId());
@@ -127,7 +136,8 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
         String taskDefinitionCacheKey =
             Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition());
-        TaskDefinition taskDefinition = taskDefinitionCacheClient.get(taskDefinitionCacheKey);
+        TaskDefinition taskDefinition =
+            getCached(taskDefinitions, taskDefinitionCacheKey, taskDefinitionCacheClient::get);
 
         boolean lacksNetworkInterfaces = isTaskMissingNetworkInterfaces(task);
         if (task.getContainers().isEmpty()
@@ -145,11 +155,11 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
           // if network interfaces are present, assume awsvpc mode
           taskHealth =
               inferHealthNetworkInterfacedContainer(
-                  targetHealthCacheClient, task, serviceName, service, taskDefinition);
+                  targetHealthIndex, task, serviceName, service, taskDefinition);
         } else {
           taskHealth =
               inferHealthNetworkBindedContainer(
-                  targetHealthCacheClient, task, containerInstance, serviceName, service);
+                  targetHealthIndex, task, containerInstance, serviceName, service);
         }
         log.debug("Task Health contains the following elements: {}", taskHealth);
 
@@ -165,8 +175,13 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return taskHealthList;
   }
 
+  private static <T> T getCached(
+      Map<String, Optional<T>> cached, String key, Function<String, T> lookup) {
+    return cached.computeIfAbsent(key, k -> Optional.ofNullable(lookup.apply(k))).orElse(null);
+  }
+
   private TaskHealth inferHealthNetworkInterfacedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      TargetHealthIndex targetHealthIndex,
       Task task,
       String serviceName,
       Service loadBalancerService,
@@ -210,7 +225,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealthIndex,
               task,
               serviceName,
               loadBalancer.getTargetGroupArn(),
@@ -243,7 +258,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   }
 
   private TaskHealth inferHealthNetworkBindedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      TargetHealthIndex targetHealthIndex,
       Task task,
       ContainerInstance containerInstance,
       String serviceName,
@@ -275,7 +290,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealthIndex,
               task,
               serviceName,
               loadBalancer.getTargetGroupArn(),
@@ -287,20 +302,12 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return overallTaskHealth;
   }
 
-  private TargetHealthDescription findHealthDescription(
-      List<TargetHealthDescription> targetHealths, String targetId, Integer targetPort) {
-
-    return targetHealths.stream()
-        .filter(
-            h ->
-                h.getTarget().getId().equals(targetId)
-                    && h.getTarget().getPort().equals(targetPort))
-        .findFirst()
-        .orElse(null);
+  private static String getTargetKey(String targetId, Integer targetPort) {
+    return targetId + ":" + targetPort;
   }
 
   private TaskHealth describeTargetHealth(
-      TargetHealthCacheClient targetHealthCacheClient,
+      TargetHealthIndex targetHealthIndex,
       Task task,
       String serviceName,
       String targetGroupArn,
@@ -309,14 +316,14 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
       TaskHealth overallTaskHealth) {
 
     String targetHealthKey = Keys.getTargetHealthKey(accountName, region, targetGroupArn);
-    EcsTargetHealth targetHealth = targetHealthCacheClient.get(targetHealthKey);
+    Map<String, TargetHealthDescription> targetHealths = targetHealthIndex.get(targetHealthKey);
 
-    if (targetHealth == null) {
+    if (targetHealths == null) {
       log.debug("Cached EcsTargetHealth is empty for targetGroup {}", targetGroupArn);
       return makeTaskHealth(task, serviceName, null);
     }
     TargetHealthDescription targetHealthDescription =
-        findHealthDescription(targetHealth.getTargetHealthDescriptions(), targetId, targetPort);
+        targetHealths.get(getTargetKey(targetId, targetPort));
 
     if (targetHealthDescription == null) {
       log.debug(
@@ -440,4 +447,35 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   public String getHealthId() {
     return HEALTH_ID;
   }
+
+  /** The cached health descriptions of each target group, indexed by target id and port. */
+  private static class TargetHealthIndex {
+    private final TargetHealthCacheClient targetHealthCacheClient;
+    private final Map<String, Optional<Map<String, TargetHealthDescription>>> targetGroups =
+        new HashMap<>();
+
+    TargetHealthIndex(TargetHealthCacheClient targetHealthCacheClient) {
+      this.targetHealthCacheClient = targetHealthCacheClient;
+    }
+
+    /** Returns null when the health of the target group is not cached. */
+    Map<String, TargetHealthDescription> get(String targetHealthKey) {
+      return getCached(targetGroups, targetHealthKey, this::load);
+    }
+
+    private Map<String, TargetHealthDescription> load(String targetHealthKey) {
+      EcsTargetHealth targetHealth = targetHealthCacheClient.get(targetHealthKey);
+      if (targetHealth == null) {
+        return null;
+      }
+
+      Map<String, TargetHealthDescription> targetHealths = new HashMap<>();
+      for (TargetHealthDescription description : targetHealth.getTargetHealthDescriptions()) {
+        targetHealths.putIfAbsent(
+            getTargetKey(description.getTarget().getId(), description.getTarget().getPort()),
+            description);
+      }
+      return targetHealths;
+    }
+  }
 }
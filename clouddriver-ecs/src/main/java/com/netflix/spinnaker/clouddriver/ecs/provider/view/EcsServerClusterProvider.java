@@ -46,6 +46,7 @@ import com.netflix.spinnaker.clouddriver.model.LoadBalancer;
 import com.netflix.spinnaker.clouddriver.model.ServerGroup;
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -118,9 +119,30 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       AmazonCredentials.AWSRegion awsRegion,
       String application) {
 
-    Collection<Service> services =
-        serviceCacheClient.getAll(credentials.getName(), awsRegion.getName());
-    Collection<Task> allTasks = taskCacheClient.getAll(credentials.getName(), awsRegion.getName());
+    Collection<Service> services;
+    Collection<Task> allTasks;
+    if (application == null) {
+      services = serviceCacheClient.getAll(credentials.getName(), awsRegion.getName());
+      allTasks = taskCacheClient.getAll(credentials.getName(), awsRegion.getName());
+    } else {
+      services =
+          serviceCacheClient.getAllForApplication(
+              credentials.getName(), awsRegion.getName(), application);
+      allTasks =
+          taskCacheClient.getAllForApplication(
+              credentials.getName(), awsRegion.getName(), application);
+    }
+
+    if (services.isEmpty()) {
+      return clusterMap;
+    }
+
+    Map<String, List<Task>> tasksByGroup =
+        allTasks.stream()
+            .filter(task -> task.getGroup() != null)
+            .collect(Collectors.groupingBy(Task::getGroup));
+    List<? extends LoadBalancer> loadBalancers =
+        ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName());
 
     for (Service service : services) {
       String applicationName = service.getApplicationName();
@@ -130,13 +152,8 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
         continue;
       }
 
-      Set<LoadBalancer> loadBalancers =
-          new HashSet<>(
-              ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName()));
-
       Set<Instance> instances =
-          allTasks.stream()
-              .filter(task -> task.getGroup().equals("service:" + serviceName))
+          tasksByGroup.getOrDefault("service:" + serviceName, Collections.emptyList()).stream()
               .map(
                   task ->
                       convertToEcsTask(
@@ -284,12 +301,12 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
 
   private EcsServerCluster buildSpinnakerServerCluster(
       AmazonCredentials credentials,
-      Set<LoadBalancer> loadBalancers,
+      Collection<? extends LoadBalancer> loadBalancers,
       EcsServerGroup ecsServerGroup) {
     return new EcsServerCluster()
         .setAccountName(credentials.getName())
         .setName(StringUtils.substringBeforeLast(ecsServerGroup.getName(), "-"))
-        .setLoadBalancers(loadBalancers)
+        .setLoadBalancers(new HashSet<>(loadBalancers))
         .setServerGroups(Sets.newHashSet(ecsServerGroup));
   }
 
@@ -42,6 +42,7 @@ class KeysSpec extends Specification {
     'test-account-1' | 'us-west-1' | TASKS.ns               | '1dc5c17a-422b-4dc4-b493-371970c6c4d6'                                                            | buildParsedKey(account, region, namespace, [taskId: identifier])
     'test-account-2' | 'us-west-2' | SERVICES.ns            | 'test-stack-detail-v001'                                                                          | buildParsedKey(account, region, namespace, [serviceName: identifier])
     'test-account-3' | 'us-west-3' | ECS_CLUSTERS.ns        | 'test-cluster-1'                                                                                  | buildParsedKey(account, region, namespace, [clusterName: identifier])
+    'test-account-3' | 'us-west-3' | ECS_APPLICATIONS.ns    | 'test'                                                                                            | buildParsedKey(account, region, namespace, [application: identifier])
     'test-account-4' | 'us-west-4' | CONTAINER_INSTANCES.ns | 'arn:aws:ecs:' + region + ':012345678910:container-instance/14e8cce9-0b16-4af4-bfac-a85f7587aa98' | buildParsedKey(account, region, namespace, [containerInstanceArn: identifier])
     'test-account-5' | 'us-west-5' | TASK_DEFINITIONS.ns    | 'arn:aws:ecs:' + region + ':012345678910:task-definition/hello_world:10'                          | buildParsedKey(account, region, namespace, [taskDefinitionArn: identifier])
     'test-account-6' | 'us-west-6' | ALARMS.ns    | 'arn:aws:ecs:' + region + ':012345678910:alarms/14e8cce9-0b16-4af4-bfac-a85f7587aa98'                          | buildParsedKey(account, region, namespace, [alarmArn: identifier])
@@ -101,6 +102,16 @@ class KeysSpec extends Specification {
     'us-west-2' | 'test-account-2' | 'test-cluster-2'
   }
 
+  def 'should generate the proper application key'() {
+    expect:
+    Keys.getApplicationKey(account, region, application) == buildKey(ECS_APPLICATIONS.ns, account, region, application)
+
+    where:
+    region      | account          | application
+    'us-west-1' | 'test-account-1' | 'test-app-1'
+    'us-west-2' | 'test-account-2' | 'test-app-2'
+  }
+
   def 'should generate the proper container instance key'() {
     expect:
     Keys.getContainerInstanceKey(account, region, containerArn) == buildKey(CONTAINER_INSTANCES.ns, account, region, containerArn)
@@ -50,6 +50,8 @@ class TaskHealthCachingAgentSpec extends Specification {
   def credentialsProvider = Mock(AWSCredentialsProvider)
   def targetGroupArn = 'arn:aws:elasticloadbalancing:' + CommonCachingAgent.REGION + ':' + CommonCachingAgent.ACCOUNT_ID + ':targetgroup/test-target-group/9e8997b7cff00c62'
   ObjectMapper mapper = new ObjectMapper()
+  def serviceCacheData
+  def targetHealthCache
 
 
   @Subject
@@ -82,7 +84,7 @@ class TaskHealthCachingAgentSpec extends Specification {
       minimumHealthyPercent: 1,
       createdAt            : new Date().getTime()
     ]
-    def serviceCacheData = new DefaultCacheData(serviceKey, serviceAttributes, Collections.emptyMap())
+    serviceCacheData = new DefaultCacheData(serviceKey, serviceAttributes, Collections.emptyMap())
     providerCache.get(Keys.Namespace.SERVICES.toString(), serviceKey) >> serviceCacheData
 
     def containerInstanceAttributes = [
@@ -96,7 +98,7 @@ class TaskHealthCachingAgentSpec extends Specification {
       targetHealthDescriptions : targetHealths
     ]
 
-    def targetHealthCache = new DefaultCacheData(targetHealthKey, targetHealthAttributes, Collections.emptyMap())
+    targetHealthCache = new DefaultCacheData(targetHealthKey, targetHealthAttributes, Collections.emptyMap())
     providerCache.get(TARGET_HEALTHS.toString(), targetHealthKey) >> targetHealthCache
   }
 
@@ -459,6 +461,41 @@ class TaskHealthCachingAgentSpec extends Specification {
     taskHealth.getTaskId() == CommonCachingAgent.TASK_ID_1
   }
 
+  def 'should read shared services and target healths from the cache once'() {
+    given:
+    ObjectMapper mapper = new ObjectMapper()
+    Map<String, Object> containerMap = mapper.convertValue(new Container().withNetworkBindings(new NetworkBinding().withContainerPort(1338).withHostPort(1338)), Map.class)
+    def tasks = [
+      (CommonCachingAgent.TASK_ID_1): CommonCachingAgent.TASK_ARN_1,
+      (CommonCachingAgent.TASK_ID_2): CommonCachingAgent.TASK_ARN_2
+    ]
+    def taskCacheData = tasks.collect { taskId, taskArn ->
+      def taskAttributes = [
+        taskId               : taskId,
+        taskArn              : taskArn,
+        startedAt            : new Date().getTime(),
+        containerInstanceArn : CommonCachingAgent.CONTAINER_INSTANCE_ARN_1,
+        group                : 'service:' + CommonCachingAgent.SERVICE_NAME_1,
+        containers           : Collections.singletonList(containerMap)
+      ]
+      def taskKey = Keys.getTaskKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, taskId)
+      new DefaultCacheData(taskKey, taskAttributes, Collections.emptyMap())
+    }
+    providerCache.getAll(TASKS.toString(), _) >> taskCacheData
+
+    def serviceKey = Keys.getServiceKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.SERVICE_NAME_1)
+    def targetHealthKey = Keys.getTargetHealthKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, targetGroupArn)
+
+    when:
+    def taskHealthList = agent.getItems(ecs, providerCache)
+
+    then:
+    1 * providerCache.get(Keys.Namespace.SERVICES.toString(), serviceKey) >> serviceCacheData
+    1 * providerCache.get(TARGET_HEALTHS.toString(), targetHealthKey) >> targetHealthCache
+    taskHealthList*.taskId == [CommonCachingAgent.TASK_ID_1, CommonCachingAgent.TASK_ID_2]
+    taskHealthList*.state == ['Up', 'Up']
+  }
+
   def 'should generate fresh data'() {
     given:
     def taskIds = [CommonCachingAgent.TASK_ID_1, CommonCachingAgent.TASK_ID_2]
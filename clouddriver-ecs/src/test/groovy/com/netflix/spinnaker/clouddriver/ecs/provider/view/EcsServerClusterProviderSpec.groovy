@@ -190,6 +190,8 @@ class EcsServerClusterProviderSpec extends Specification {
     subnetSelector.getSubnetVpcIds(_, _, _) >> ['vpc-1234']
 
     cacheView.filterIdentifiers(_, _) >> ['key']
+    cacheView.get(Keys.Namespace.ECS_APPLICATIONS.ns, _) >> new DefaultCacheData('', [applicationName: 'myapp'],
+      [(Keys.Namespace.SERVICES.ns): ['key'], (Keys.Namespace.TASKS.ns): ['key']])
     cacheView.getAll(Keys.Namespace.SERVICES.ns, _) >> [serviceCacheData, serviceCacheData2]
     cacheView.getAll(Keys.Namespace.TASKS.ns, _) >> [taskCacheData]
     cacheView.get(Keys.Namespace.TASKS.ns, _) >> taskCacheData
@@ -356,6 +358,14 @@ class EcsServerClusterProviderSpec extends Specification {
     retrievedCluster == expectedCluster
   }
 
+  def 'should look up the services and tasks of a single application through the application index'() {
+    when:
+    provider.getCluster("myapp", CREDS_NAME, FAMILY_NAME)
+
+    then:
+    0 * cacheView.filterIdentifiers(_, _)
+  }
+
   def 'should produce ecs clusters'() {
     when:
     def retrievedClusters = provider.getClusterDetails("myapp").values().flatten()
@@ -16,20 +16,31 @@
 
 package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 
+import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_APPLICATIONS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.ecs.model.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spinnaker.cats.agent.AgentDataType;
 import com.netflix.spinnaker.cats.agent.CacheResult;
+import com.netflix.spinnaker.cats.agent.CachingAgent;
 import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.mem.InMemoryCache;
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache;
+import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.ServiceCacheClient;
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.TaskCacheClient;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Test;
 import spock.lang.Subject;
@@ -46,24 +57,7 @@ public class ServiceCacheTest extends CommonCachingAgent {
   public void shouldRetrieveFromWrittenCache() {
     // Given
     String key = Keys.getServiceKey(ACCOUNT, REGION, SERVICE_NAME_1);
-
-    Service service = new Service();
-    service.setServiceName(SERVICE_NAME_1);
-    service.setServiceArn(SERVICE_ARN_1);
-    service.setClusterArn(CLUSTER_ARN_1);
-    service.setTaskDefinition(TASK_DEFINITION_ARN_1);
-    service.setRoleArn(ROLE_ARN);
-    service.setDeploymentConfiguration(
-        new DeploymentConfiguration().withMinimumHealthyPercent(50).withMaximumPercent(100));
-    service.setLoadBalancers(Collections.emptyList());
-    service.setNetworkConfiguration(
-        new NetworkConfiguration()
-            .withAwsvpcConfiguration(
-                new AwsVpcConfiguration()
-                    .withSecurityGroups(SECURITY_GROUP_1)
-                    .withSubnets(SUBNET_ID_1)));
-    service.setDesiredCount(1);
-    service.setCreatedAt(new Date());
+    Service service = service();
 
     when(ecs.listClusters(any(ListClustersRequest.class)))
         .thenReturn(new ListClustersResult().withClusterArns(CLUSTER_ARN_1));
@@ -173,4 +167,103 @@ public class ServiceCacheTest extends CommonCachingAgent {
             + ecsService.getSecurityGroups().get(0),
         SECURITY_GROUP_1.equals(ecsService.getSecurityGroups().get(0)));
   }
+
+  @Test
+  public void shouldIndexApplicationsInWrittenCache() {
+    // Given
+    ProviderCache cache = new DefaultProviderCache(new InMemoryCache());
+    TaskCachingAgent taskAgent =
+        new TaskCachingAgent(
+            netflixAmazonCredentials, REGION, clientProvider, credentialsProvider, registry);
+    ServiceCacheClient serviceClient = new ServiceCacheClient(cache, mapper);
+    TaskCacheClient taskClient = new TaskCacheClient(cache, mapper);
+
+    Task task = new Task();
+    task.setTaskArn(TASK_ARN_1);
+    task.setClusterArn(CLUSTER_ARN_1);
+    task.setContainerInstanceArn(CONTAINER_INSTANCE_ARN_1);
+    task.setGroup("service:" + SERVICE_NAME_1);
+    task.setContainers(Collections.emptyList());
+    task.setLastStatus(STATUS);
+    task.setDesiredStatus(STATUS);
+    task.setStartedAt(new Date());
+
+    // When
+    store(
+        cache,
+        agent,
+        agent.buildCacheResult(SERVICES.toString(), Collections.singletonList(service()), cache));
+    store(
+        cache,
+        taskAgent,
+        taskAgent.buildCacheResult(TASKS.toString(), Collections.singletonList(task), cache));
+
+    // Then
+    CacheData application =
+        cache.get(ECS_APPLICATIONS.toString(), Keys.getApplicationKey(ACCOUNT, REGION, APP_NAME));
+    assertTrue("Expected the application to be cached but it was not", application != null);
+    assertTrue(
+        "Expected the application to have attributes but got " + application.getAttributes(),
+        APP_NAME.equals(application.getAttributes().get("applicationName")));
+
+    Collection<com.netflix.spinnaker.clouddriver.ecs.cache.model.Service> services =
+        serviceClient.getAllForApplication(ACCOUNT, REGION, APP_NAME);
+    assertTrue("Expected 1 service but got " + services.size(), services.size() == 1);
+    assertTrue(
+        "Expected the service name to be " + SERVICE_NAME_1,
+        SERVICE_NAME_1.equals(services.iterator().next().getServiceName()));
+
+    Collection<com.netflix.spinnaker.clouddriver.ecs.cache.model.Task> tasks =
+        taskClient.getAllForApplication(ACCOUNT, REGION, APP_NAME);
+    assertTrue("Expected 1 task but got " + tasks.size(), tasks.size() == 1);
+    assertTrue(
+        "Expected the task ARN to be " + TASK_ARN_1,
+        TASK_ARN_1.equals(tasks.iterator().next().getTaskArn()));
+
+    // When the last service of the application is deleted
+    store(
+        cache,
+        agent,
+        agent.buildCacheResult(SERVICES.toString(), Collections.emptyList(), cache));
+
+    // Then
+    assertTrue(
+        "Expected the application to be evicted but it was not",
+        cache.get(ECS_APPLICATIONS.toString(), Keys.getApplicationKey(ACCOUNT, REGION, APP_NAME))
+            == null);
+    assertTrue(
+        "Expected no services for the application",
+        serviceClient.getAllForApplication(ACCOUNT, REGION, APP_NAME).isEmpty());
+  }
+
+  private static Service service() {
+    Service service = new Service();
+    service.setServiceName(SERVICE_NAME_1);
+    service.setServiceArn(SERVICE_ARN_1);
+    service.setClusterArn(CLUSTER_ARN_1);
+    service.setTaskDefinition(TASK_DEFINITION_ARN_1);
+    service.setRoleArn(ROLE_ARN);
+    service.setDeploymentConfiguration(
+        new DeploymentConfiguration().withMinimumHealthyPercent(50).withMaximumPercent(100));
+    service.setLoadBalancers(Collections.emptyList());
+    service.setNetworkConfiguration(
+        new NetworkConfiguration()
+            .withAwsvpcConfiguration(
+                new AwsVpcConfiguration()
+                    .withSecurityGroups(SECURITY_GROUP_1)
+                    .withSubnets(SUBNET_ID_1)));
+    service.setDesiredCount(1);
+    service.setCreatedAt(new Date());
+    return service;
+  }
+
+  /** Stores the result the way the agent scheduler does, with the agent's authoritative types. */
+  private static void store(ProviderCache cache, CachingAgent agent, CacheResult result) {
+    Set<String> authoritativeTypes =
+        agent.getProvidedDataTypes().stream()
+            .filter(type -> type.getAuthority() == AUTHORITATIVE)
+            .map(AgentDataType::getTypeName)
+            .collect(Collectors.toSet());
+    cache.putCacheResult(agent.getAgentType(), authoritativeTypes, result);
+  }
 }
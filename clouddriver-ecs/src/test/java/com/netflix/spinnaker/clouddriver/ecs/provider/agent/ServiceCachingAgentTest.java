@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_APPLICATIONS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES;
 import static junit.framework.TestCase.assertTrue;
@@ -122,10 +123,10 @@ public class ServiceCachingAgentTest extends CommonCachingAgent {
 
     // Then
     assertTrue(
-        "Expected the data map to contain 2 namespaces, but it contains "
+        "Expected the data map to contain 3 namespaces, but it contains "
             + dataMap.keySet().size()
             + " namespaces.",
-        dataMap.keySet().size() == 2);
+        dataMap.keySet().size() == 3);
     assertTrue(
         "Expected the data map to contain "
             + SERVICES.toString()
@@ -140,6 +141,13 @@ public class ServiceCachingAgentTest extends CommonCachingAgent {
             + dataMap.keySet()
             + " namespaces.",
         dataMap.containsKey(ECS_CLUSTERS.toString()));
+    assertTrue(
+        "Expected the data map to contain "
+            + ECS_APPLICATIONS.toString()
+            + " namespace, but it contains "
+            + dataMap.keySet()
+            + " namespaces.",
+        dataMap.containsKey(ECS_APPLICATIONS.toString()));
     assertTrue(
         "Expected there to be 2 CacheData, instead there is  "
             + dataMap.get(SERVICES.toString()).size(),
@@ -161,5 +169,25 @@ public class ServiceCachingAgentTest extends CommonCachingAgent {
               + ".",
           serviceArns.contains(cacheData.getAttributes().get("serviceArn")));
     }
+
+    Collection<CacheData> applications = dataMap.get(ECS_APPLICATIONS.toString());
+    assertTrue(
+        "Expected there to be 1 application CacheData, instead there is " + applications.size(),
+        applications.size() == 1);
+    CacheData application = applications.iterator().next();
+    assertTrue(
+        "Expected the application key to be "
+            + Keys.getApplicationKey(ACCOUNT, REGION, APP_NAME)
+            + ". The key is: "
+            + application.getId()
+            + ".",
+        application.getId().equals(Keys.getApplicationKey(ACCOUNT, REGION, APP_NAME)));
+    assertTrue(
+        "Expected the application to be related to the services "
+            + keys
+            + ". It is related to: "
+            + application.getRelationships().get(SERVICES.toString())
+            + ".",
+        keys.equals(new HashSet<>(application.getRelationships().get(SERVICES.toString()))));
   }
 }
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_APPLICATIONS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
 import static junit.framework.TestCase.assertTrue;
@@ -81,6 +82,56 @@ public class TaskCachingAgentTest extends CommonCachingAgent {
     }
   }
 
+  @Test
+  public void shouldGetTasksOfAllClusters() {
+    // Given
+    when(ecs.listClusters(any(ListClustersRequest.class)))
+        .thenReturn(new ListClustersResult().withClusterArns(CLUSTER_ARN_1, CLUSTER_ARN_2));
+
+    List<String> cluster1TaskArns = new LinkedList<>();
+    List<Task> cluster1Tasks = new LinkedList<>();
+    for (int x = 0; x < 150; x++) {
+      String taskArn = TASK_ARN_1 + "-" + x;
+      cluster1TaskArns.add(taskArn);
+      cluster1Tasks.add(new Task().withTaskArn(taskArn).withClusterArn(CLUSTER_ARN_1));
+    }
+    when(ecs.listTasks(new ListTasksRequest().withCluster(CLUSTER_ARN_1)))
+        .thenReturn(new ListTasksResult().withTaskArns(cluster1TaskArns));
+    when(ecs.describeTasks(
+            new DescribeTasksRequest()
+                .withCluster(CLUSTER_ARN_1)
+                .withTasks(cluster1TaskArns.subList(0, 100))))
+        .thenReturn(new DescribeTasksResult().withTasks(cluster1Tasks.subList(0, 100)));
+    when(ecs.describeTasks(
+            new DescribeTasksRequest()
+                .withCluster(CLUSTER_ARN_1)
+                .withTasks(cluster1TaskArns.subList(100, 150))))
+        .thenReturn(new DescribeTasksResult().withTasks(cluster1Tasks.subList(100, 150)));
+
+    Task cluster2Task = new Task().withTaskArn(TASK_ARN_2).withClusterArn(CLUSTER_ARN_2);
+    when(ecs.listTasks(new ListTasksRequest().withCluster(CLUSTER_ARN_2)))
+        .thenReturn(new ListTasksResult().withTaskArns(TASK_ARN_2).withNextToken("next"));
+    when(ecs.listTasks(new ListTasksRequest().withCluster(CLUSTER_ARN_2).withNextToken("next")))
+        .thenReturn(new ListTasksResult().withTaskArns(Collections.emptyList()));
+    when(ecs.describeTasks(
+            new DescribeTasksRequest().withCluster(CLUSTER_ARN_2).withTasks(TASK_ARN_2)))
+        .thenReturn(new DescribeTasksResult().withTasks(cluster2Task));
+
+    // When
+    List<Task> returnedTasks = agent.getItems(ecs, providerCache);
+
+    // Then
+    Set<Task> expectedTasks = new HashSet<>(cluster1Tasks);
+    expectedTasks.add(cluster2Task);
+    assertTrue(
+        "Expected the tasks of both clusters, "
+            + expectedTasks.size()
+            + " ECS tasks, but got "
+            + returnedTasks.size(),
+        returnedTasks.size() == expectedTasks.size()
+            && expectedTasks.equals(new HashSet<>(returnedTasks)));
+  }
+
   @Test
   public void shouldGenerateFreshData() {
     // Given
@@ -114,10 +165,10 @@ public class TaskCachingAgentTest extends CommonCachingAgent {
 
     // Then
     assertTrue(
-        "Expected the data map to contain 2 namespaces, but it contains "
+        "Expected the data map to contain 3 namespaces, but it contains "
             + dataMap.keySet().size()
             + " namespaces.",
-        dataMap.keySet().size() == 2);
+        dataMap.keySet().size() == 3);
     assertTrue(
         "Expected the data map to contain "
             + TASKS.toString()
@@ -132,6 +183,13 @@ public class TaskCachingAgentTest extends CommonCachingAgent {
             + dataMap.keySet()
             + " namespaces.",
         dataMap.containsKey(ECS_CLUSTERS.toString()));
+    assertTrue(
+        "Expected the data map to contain "
+            + ECS_APPLICATIONS.toString()
+            + " namespace, but it contains "
+            + dataMap.keySet()
+            + " namespaces.",
+        dataMap.containsKey(ECS_APPLICATIONS.toString()));
     assertTrue(
         "Expected there to be 2 CacheData, instead there is  "
             + dataMap.get(TASKS.toString()).size(),
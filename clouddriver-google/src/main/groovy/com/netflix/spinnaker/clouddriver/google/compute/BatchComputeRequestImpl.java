@@ -20,6 +20,8 @@ import static com.google.common.collect.Lists.partition;
 
 import com.google.api.client.googleapis.batch.BatchRequest;
 import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.Throwables;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.ComputeRequest;
@@ -41,6 +43,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
@@ -59,14 +62,30 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
   private final Registry registry;
   private final String userAgent;
   private final ListeningExecutorService executor;
+  private final BatchLimiter limiter;
   private final List<QueuedRequest<RequestT, ResponseT>> queuedRequests;
 
   BatchComputeRequestImpl(
       Compute compute, Registry registry, String userAgent, ListeningExecutorService executor) {
+    this(
+        compute,
+        registry,
+        userAgent,
+        executor,
+        new BatchLimiter(MAX_BATCH_SIZE, /* maxConcurrentBatches= */ Integer.MAX_VALUE));
+  }
+
+  BatchComputeRequestImpl(
+      Compute compute,
+      Registry registry,
+      String userAgent,
+      ListeningExecutorService executor,
+      BatchLimiter limiter) {
     this.compute = compute;
     this.registry = registry;
     this.userAgent = userAgent;
     this.executor = executor;
+    this.limiter = limiter;
     this.queuedRequests = new ArrayList<>();
   }
 
@@ -83,8 +102,8 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
     }
 
     List<List<QueuedRequest<RequestT, ResponseT>>> requestPartitions =
-        partition(queuedRequests, MAX_BATCH_SIZE);
-    List<BatchRequest> queuedBatches = createBatchRequests(requestPartitions);
+        partition(queuedRequests, limiter.batchSize());
+    List<QueuedBatch> queuedBatches = createBatchRequests(requestPartitions);
 
     var statusCode = "500";
     String success = "false";
@@ -114,20 +133,20 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
     }
   }
 
-  private void executeBatches(List<BatchRequest> queuedBatches) throws IOException {
+  private void executeBatches(List<QueuedBatch> queuedBatches) throws IOException {
     if (queuedBatches.size() == 1) {
-      queuedBatches.get(0).execute();
+      executeBatch(queuedBatches.get(0));
       return;
     }
 
     List<ListenableFuture<Void>> futures =
         queuedBatches.stream()
             .map(
-                batchRequest ->
+                batch ->
                     executor.submit(
                         (Callable<Void>)
                             () -> {
-                              batchRequest.execute();
+                              executeBatch(batch);
                               return null;
                             }))
             .collect(Collectors.toList());
@@ -143,17 +162,30 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
     }
   }
 
-  private List<BatchRequest> createBatchRequests(
+  private void executeBatch(QueuedBatch batch) throws IOException {
+    limiter.acquire();
+    long start = registry.clock().monotonicTime();
+    // A batch that fails as a whole counts as overloaded too
+    boolean overloaded = true;
+    try {
+      batch.getRequest().execute();
+      overloaded = batch.getOverloaded().get();
+    } finally {
+      limiter.release();
+      limiter.recordBatch(Duration.ofNanos(registry.clock().monotonicTime() - start), overloaded);
+    }
+  }
+
+  private List<QueuedBatch> createBatchRequests(
       List<List<QueuedRequest<RequestT, ResponseT>>> requestPartitions) throws IOException {
 
-    List<BatchRequest> queuedBatches = new ArrayList<>();
+    List<QueuedBatch> queuedBatches = new ArrayList<>();
 
     try {
       requestPartitions.forEach(
           partition -> {
-            BatchRequest batch = newBatch();
-            partition.forEach(
-                qr -> wrapIOException(() -> qr.getRequest().queue(batch, qr.getCallback())));
+            QueuedBatch batch = new QueuedBatch(newBatch(), new AtomicBoolean());
+            partition.forEach(qr -> wrapIOException(() -> queue(batch, qr)));
             queuedBatches.add(batch);
           });
       return queuedBatches;
@@ -162,6 +194,14 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
     }
   }
 
+  private static <RequestT extends ComputeRequest<ResponseT>, ResponseT> void queue(
+      QueuedBatch batch, QueuedRequest<RequestT, ResponseT> qr) throws IOException {
+    qr.getRequest()
+        .queue(
+            batch.getRequest(),
+            new OverloadObservingCallback<>(qr.getCallback(), batch.getOverloaded()));
+  }
+
   private BatchRequest newBatch() {
     return compute.batch(
         request -> {
@@ -191,6 +231,38 @@ final class BatchComputeRequestImpl<RequestT extends ComputeRequest<ResponseT>,
     private JsonBatchCallback<ResponseT> callback;
   }
 
+  @Value
+  @AllArgsConstructor
+  private static class QueuedBatch {
+    private BatchRequest request;
+    private AtomicBoolean overloaded;
+  }
+
+  /** Notes throttled and server-failed responses so the batch size can adapt to them. */
+  private static class OverloadObservingCallback<ResponseT> extends JsonBatchCallback<ResponseT> {
+
+    private final JsonBatchCallback<ResponseT> delegate;
+    private final AtomicBoolean overloaded;
+
+    OverloadObservingCallback(JsonBatchCallback<ResponseT> delegate, AtomicBoolean overloaded) {
+      this.delegate = delegate;
+      this.overloaded = overloaded;
+    }
+
+    @Override
+    public void onSuccess(ResponseT response, HttpHeaders responseHeaders) throws IOException {
+      delegate.onSuccess(response, responseHeaders);
+    }
+
+    @Override
+    public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) throws IOException {
+      if (e != null && BatchLimiter.isOverloaded(e.getCode())) {
+        overloaded.set(true);
+      }
+      delegate.onFailure(e, responseHeaders);
+    }
+  }
+
   private static class FailFastFuture extends AbstractFuture<Void> {
 
     private final AtomicInteger remainingFutures;
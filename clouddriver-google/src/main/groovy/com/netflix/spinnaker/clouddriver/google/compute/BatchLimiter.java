@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.compute;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the batches sent to a single project: how many requests go in each batch, and how many
+ * batches are in flight at once.
+ *
+ * <p>The batch size starts at the maximum. It is halved whenever a batch is throttled, fails with a
+ * server error or takes longer than {@link #SLOW_BATCH}, and grows back by {@link
+ * #BATCH_SIZE_STEP} after every batch that does not.
+ */
+final class BatchLimiter {
+
+  static final int MIN_BATCH_SIZE = 10;
+  private static final int BATCH_SIZE_STEP = 10;
+  private static final Duration SLOW_BATCH = Duration.ofSeconds(30);
+
+  private final int maxBatchSize;
+  private final Semaphore batchPermits;
+  private final AtomicInteger batchSize;
+
+  BatchLimiter(int maxBatchSize, int maxConcurrentBatches) {
+    this.maxBatchSize = maxBatchSize;
+    this.batchPermits = new Semaphore(maxConcurrentBatches);
+    this.batchSize = new AtomicInteger(maxBatchSize);
+  }
+
+  int batchSize() {
+    return batchSize.get();
+  }
+
+  /** Waits until fewer than the maximum number of batches are in flight. */
+  void acquire() throws InterruptedIOException {
+    try {
+      batchPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  void release() {
+    batchPermits.release();
+  }
+
+  /**
+   * @param overloaded whether the batch, or any request in it, was throttled or failed with a
+   *     server error
+   */
+  void recordBatch(Duration latency, boolean overloaded) {
+    if (overloaded || latency.compareTo(SLOW_BATCH) > 0) {
+      batchSize.updateAndGet(size -> Math.max(MIN_BATCH_SIZE, size / 2));
+    } else {
+      batchSize.updateAndGet(size -> Math.min(maxBatchSize, size + BATCH_SIZE_STEP));
+    }
+  }
+
+  static boolean isOverloaded(int statusCode) {
+    return statusCode == 429 || statusCode >= 500;
+  }
+}
@@ -22,80 +22,157 @@ import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.util.Throwables;
 import com.google.api.services.compute.ComputeRequest;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
+/**
+ * Pages through a set of paginated requests in batches.
+ *
+ * <p>Rather than fetching the pages in rounds, the next page of a request is sent as soon as the
+ * batch holding the previous one completes, alongside the batches that are still in flight.
+ */
 final class BatchPaginatedComputeRequestImpl<
         ComputeRequestT extends ComputeRequest<ResponseT>, ResponseT, ItemT>
     implements BatchPaginatedComputeRequest<ComputeRequestT, ItemT> {
 
   private final Supplier<BatchComputeRequest<ComputeRequestT, ResponseT>> batchRequestSupplier;
-  private final Map<PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT>, String>
-      nextPageTokens = new HashMap<>();
-  private IOException exception;
+  private final ListeningExecutorService executor;
+  private final Queue<PendingPage> pendingPages = new ConcurrentLinkedQueue<>();
+  private volatile IOException exception;
 
   BatchPaginatedComputeRequestImpl(
       Supplier<BatchComputeRequest<ComputeRequestT, ResponseT>> batchRequestSupplier) {
+    this(batchRequestSupplier, MoreExecutors.newDirectExecutorService());
+  }
+
+  BatchPaginatedComputeRequestImpl(
+      Supplier<BatchComputeRequest<ComputeRequestT, ResponseT>> batchRequestSupplier,
+      ListeningExecutorService executor) {
     this.batchRequestSupplier = batchRequestSupplier;
+    this.executor = executor;
   }
 
   @Override
   public void queue(PaginatedComputeRequest<ComputeRequestT, ItemT> request) {
-    nextPageTokens.put(
-        (PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT>) request, "");
+    pendingPages.add(
+        new PendingPage(
+            (PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT>) request, ""));
   }
 
   @Override
   public ImmutableSet<ItemT> execute(String batchContext) throws IOException {
-    ImmutableSet.Builder<ItemT> results = ImmutableSet.builder();
-
-    while (!nextPageTokens.isEmpty() && exception == null) {
-      BatchComputeRequest<ComputeRequestT, ResponseT> pageRequest = batchRequestSupplier.get();
-      for (Map.Entry<PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT>, String> entry :
-          nextPageTokens.entrySet()) {
-        GoogleComputeRequest<ComputeRequestT, ResponseT> request =
-            entry.getKey().requestGenerator.createRequest(entry.getValue());
-        entry.getKey().requestModifier.accept(request.getRequest());
-        pageRequest.queue(request, new PageCallback(entry.getKey(), results));
+    Set<ItemT> results = ConcurrentHashMap.newKeySet();
+    ExecutorCompletionService<Void> completedBatches = new ExecutorCompletionService<>(executor);
+    List<Future<Void>> batches = new ArrayList<>();
+    int runningBatches = 0;
+
+    try {
+      while (exception == null) {
+        while (!pendingPages.isEmpty()) {
+          BatchComputeRequest<ComputeRequestT, ResponseT> pageRequest = createPageRequest(results);
+          batches.add(
+              completedBatches.submit(
+                  () -> {
+                    pageRequest.execute(batchContext);
+                    return null;
+                  }));
+          runningBatches++;
+        }
+        if (runningBatches == 0) {
+          break;
+        }
+
+        // The callbacks of a batch queue its next pages before it completes
+        Future<Void> completedBatch = completedBatches.take();
+        runningBatches--;
+        completedBatch.get();
       }
-      pageRequest.execute(batchContext);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, IOException.class);
+      throw new RuntimeException(cause);
+    } finally {
+      batches.forEach(batch -> batch.cancel(true));
     }
 
     if (exception != null) {
       throw exception;
     }
 
-    return results.build();
+    return ImmutableSet.copyOf(results);
+  }
+
+  private BatchComputeRequest<ComputeRequestT, ResponseT> createPageRequest(Set<ItemT> results)
+      throws IOException {
+    BatchComputeRequest<ComputeRequestT, ResponseT> pageRequest = batchRequestSupplier.get();
+    for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE; i++) {
+      PendingPage page = pendingPages.poll();
+      if (page == null) {
+        break;
+      }
+      GoogleComputeRequest<ComputeRequestT, ResponseT> request =
+          page.request.requestGenerator.createRequest(page.pageToken);
+      page.request.requestModifier.accept(request.getRequest());
+      pageRequest.queue(request, new PageCallback(page.request, results));
+    }
+    return pageRequest;
+  }
+
+  private final class PendingPage {
+
+    private final PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT> request;
+    private final String pageToken;
+
+    private PendingPage(
+        PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT> request, String pageToken) {
+      this.request = request;
+      this.pageToken = pageToken;
+    }
   }
 
   private class PageCallback extends JsonBatchCallback<ResponseT> {
 
     private final PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT> request;
-    private final ImmutableSet.Builder<ItemT> results;
+    private final Set<ItemT> results;
 
     private PageCallback(
         PaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT> request,
-        ImmutableSet.Builder<ItemT> results) {
+        Set<ItemT> results) {
       this.request = request;
       this.results = results;
     }
 
     @Override
     public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) {
-      nextPageTokens.remove(request);
       HttpResponseException newException =
           new HttpResponseException.Builder(e.getCode(), e.getMessage(), responseHeaders)
               .setMessage(e.getMessage())
               .build();
-      if (exception == null) {
-        exception = newException;
-      } else {
-        exception.addSuppressed(newException);
+      synchronized (BatchPaginatedComputeRequestImpl.this) {
+        if (exception == null) {
+          exception = newException;
+        } else {
+          exception.addSuppressed(newException);
+        }
       }
     }
 
@@ -103,10 +180,8 @@ final class BatchPaginatedComputeRequestImpl<
     public void onSuccess(ResponseT response, HttpHeaders responseHeaders) {
       Optional.ofNullable(request.itemRetriever.getItems(response)).ifPresent(results::addAll);
       String nextPageToken = request.nextPageTokenRetriever.getNextPageToken(response);
-      if (isNullOrEmpty(nextPageToken)) {
-        nextPageTokens.remove(request);
-      } else {
-        nextPageTokens.put(request, nextPageToken);
+      if (!isNullOrEmpty(nextPageToken)) {
+        pendingPages.add(new PendingPage(request, nextPageToken));
       }
     }
   }
@@ -22,6 +22,8 @@ import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.google.deploy.GoogleOperationPoller;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup;
 import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -29,10 +31,14 @@ import org.springframework.stereotype.Service;
 @Service
 public class GoogleComputeApiFactory {
 
+  private static final int MAX_CONCURRENT_BATCHES_PER_PROJECT = 8;
+
   private final GoogleOperationPoller operationPoller;
   private final Registry registry;
   private String clouddriverUserAgentApplicationName;
   private ListeningExecutorService batchExecutor;
+  // Batch sizes adapt to, and concurrency is capped by, each project's quota
+  private final Map<String, BatchLimiter> batchLimiters = new ConcurrentHashMap<>();
 
   @Autowired
   public GoogleComputeApiFactory(
@@ -90,13 +96,21 @@ public class GoogleComputeApiFactory {
       BatchComputeRequest<RequestT, ResponseT> createBatchRequest(
           GoogleNamedAccountCredentials credentials) {
     return new BatchComputeRequestImpl<>(
-        credentials.getCompute(), registry, clouddriverUserAgentApplicationName, batchExecutor);
+        credentials.getCompute(),
+        registry,
+        clouddriverUserAgentApplicationName,
+        batchExecutor,
+        batchLimiters.computeIfAbsent(
+            credentials.getProject(),
+            project ->
+                new BatchLimiter(
+                    BatchComputeRequestImpl.MAX_BATCH_SIZE, MAX_CONCURRENT_BATCHES_PER_PROJECT)));
   }
 
   public <ComputeRequestT extends ComputeRequest<ResponseT>, ResponseT, ItemT>
       BatchPaginatedComputeRequest<ComputeRequestT, ItemT> createPaginatedBatchRequest(
           GoogleNamedAccountCredentials credentials) {
     return new BatchPaginatedComputeRequestImpl<ComputeRequestT, ResponseT, ItemT>(
-        () -> createBatchRequest(credentials));
+        () -> createBatchRequest(credentials), batchExecutor);
   }
 }
@@ -166,6 +166,46 @@ public class BatchComputeRequestImplTest {
     assertThat(responses.failures).hasValue(1);
   }
 
+  @Test
+  public void shrinksBatchesAfterServerErrors() throws IOException {
+
+    StringBuilder responseContent = new StringBuilder();
+    appendSuccessResponse(responseContent);
+    appendUnavailableResponse(responseContent);
+    responseContent.append(MIME_END);
+
+    Compute compute =
+        computeWithResponses(
+            () -> batchResponse(responseContent.toString()),
+            () -> successBatchResponse(BatchComputeRequestImpl.MAX_BATCH_SIZE / 2),
+            () -> successBatchResponse(BatchComputeRequestImpl.MAX_BATCH_SIZE / 2));
+
+    BatchLimiter limiter =
+        new BatchLimiter(BatchComputeRequestImpl.MAX_BATCH_SIZE, /* maxConcurrentBatches= */ 1);
+
+    BatchComputeRequest<Get, Image> failingRequest =
+        new BatchComputeRequestImpl<>(
+            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService(), limiter);
+    CountResponses failingResponses = new CountResponses();
+    failingRequest.queue(request(compute), failingResponses);
+    failingRequest.queue(request(compute), failingResponses);
+    failingRequest.execute("batchContext");
+
+    assertThat(limiter.batchSize()).isEqualTo(BatchComputeRequestImpl.MAX_BATCH_SIZE / 2);
+
+    BatchComputeRequest<Get, Image> batchRequest =
+        new BatchComputeRequestImpl<>(
+            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService(), limiter);
+    CountResponses responses = new CountResponses();
+    for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE; ++i) {
+      batchRequest.queue(request(compute), responses);
+    }
+    batchRequest.execute("batchContext");
+
+    assertThat(responses.successes).hasValue(BatchComputeRequestImpl.MAX_BATCH_SIZE);
+    assertThat(limiter.batchSize()).isEqualTo(BatchComputeRequestImpl.MAX_BATCH_SIZE / 2 + 20);
+  }
+
   @Test
   public void propagatesFirstException() throws IOException {
 
@@ -418,6 +458,16 @@ public class BatchComputeRequestImplTest {
         .append("{}\n\n");
   }
 
+  private static void appendUnavailableResponse(StringBuilder sb) {
+    sb.append(MIME_PART_START)
+        .append("Content-Type: application/http\n")
+        .append('\n')
+        .append("HTTP/1.1 503 Service Unavailable\n")
+        .append("Content-Type: application/json\n")
+        .append("\n")
+        .append("{\"error\":{\"code\":503,\"message\":\"backend error\"}}\n\n");
+  }
+
   private static class CountResponses extends JsonBatchCallback<Image> {
     AtomicInteger successes = new AtomicInteger();
     AtomicInteger failures = new AtomicInteger();
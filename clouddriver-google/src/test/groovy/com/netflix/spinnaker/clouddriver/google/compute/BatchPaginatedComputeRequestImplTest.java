@@ -25,10 +25,16 @@ import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.Image;
 import com.google.api.services.compute.model.ImageList;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
@@ -71,6 +77,76 @@ final class BatchPaginatedComputeRequestImplTest {
             "set3-3", "set3-4");
   }
 
+  @Test
+  void requestsNextPagesWithoutWaitingForOtherBatches() throws Exception {
+
+    ListeningExecutorService executor =
+        MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+    CountDownLatch lastPageRequested = new CountDownLatch(1);
+    try {
+      BatchPaginatedComputeRequestImpl<Compute.Images.List, ImageList, Image> batchRequest =
+          new BatchPaginatedComputeRequestImpl<>(FakeBatchComputeRequest::new, executor);
+
+      ImageListRequestGenerator paged =
+          new ImageListRequestGenerator() {
+            @Override
+            public GoogleComputeRequest<Compute.Images.List, ImageList> createRequest(
+                String pageToken) {
+              if (pageToken.equals("2")) {
+                lastPageRequested.countDown();
+              }
+              return super.createRequest(pageToken);
+            }
+          };
+      paged.itemPrefix = "paged-";
+      paged.itemsPerPage = 1;
+      paged.pages = 3;
+      ImageListRequestGenerator noPages = new ImageListRequestGenerator();
+      noPages.itemPrefix = "noPages-";
+      noPages.pages = 0;
+
+      // The batch with this request is held back until every page of the paged request, which is
+      // in the next batch, has been requested
+      batchRequest.queue(
+          new PaginatedComputeRequestImpl<>(
+              pageToken ->
+                  new FakeGoogleComputeRequest<Compute.Images.List, ImageList>(
+                      new ImageList().setItems(ImmutableList.of(new Image().setName("slow"))),
+                      mock(Compute.Images.List.class)) {
+                    @Override
+                    public ImageList execute() throws IOException {
+                      try {
+                        if (!lastPageRequested.await(10, TimeUnit.SECONDS)) {
+                          throw new IOException("the paged request was not pipelined");
+                        }
+                      } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                      }
+                      return super.execute();
+                    }
+                  },
+              ImageList::getNextPageToken,
+              ImageList::getItems));
+      for (int i = 1; i < BatchComputeRequestImpl.MAX_BATCH_SIZE; ++i) {
+        batchRequest.queue(
+            new PaginatedComputeRequestImpl<>(
+                noPages, ImageList::getNextPageToken, ImageList::getItems));
+      }
+      batchRequest.queue(
+          new PaginatedComputeRequestImpl<>(
+              paged, ImageList::getNextPageToken, ImageList::getItems));
+
+      ImmutableSet<Image> result = batchRequest.execute("batchContext");
+
+      assertThat(result)
+          .extracting(Image::getName)
+          .containsExactlyInAnyOrder("paged-1", "paged-2", "paged-3", "slow");
+    } finally {
+      lastPageRequested.countDown();
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void nullItems() throws IOException {
 
@@ -69,6 +69,20 @@ public class KubernetesCacheData {
     b.forEach(k -> items.computeIfAbsent(k, CacheItem::new).getRelationships().add(a));
   }
 
+  /**
+   * Add every item of other, merging its attributes and relationships into those of any item that
+   * already has the same key. The relationships of other are already bidirectional, so they remain
+   * so.
+   */
+  public void addAll(KubernetesCacheData other) {
+    other.items.forEach(
+        (key, item) -> {
+          CacheItem existing = items.computeIfAbsent(key, CacheItem::new);
+          existing.getAttributes().putAll(item.getAttributes());
+          existing.getRelationships().addAll(item.getRelationships());
+        });
+  }
+
   /** Return a List of CacheData entries representing the current items in the cache. */
   public List<CacheData> toCacheData() {
     return items.values().stream()
@@ -18,9 +18,12 @@
 package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.AccountAware;
 import com.netflix.spinnaker.cats.agent.AgentIntervalAware;
@@ -30,27 +33,43 @@ import com.netflix.spinnaker.cats.agent.DefaultCacheResult;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.CacheKey;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureCacheKey;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesCachingPolicy;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesCachingProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
-import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKindProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKindProperties.ResourceScope;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifestAnnotater;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.handler.KubernetesHandler;
 import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +77,14 @@ import org.slf4j.LoggerFactory;
 public abstract class KubernetesCachingAgent
     implements AgentIntervalAware, CachingAgent, AccountAware {
   private static final Logger log = LoggerFactory.getLogger(KubernetesCachingAgent.class);
+  // Threads only wait on kubectl, whose processes KubectlProcessScheduler bounds per account and
+  // in total, so the pool itself is left unbounded.
+  private static final ExecutorService kubectlExecutor =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat(KubernetesCachingAgent.class.getSimpleName() + "-%d")
+              .setDaemon(true)
+              .build());
 
   @Getter @Nonnull protected final String accountName;
   protected final Registry registry;
@@ -72,6 +99,11 @@ public abstract class KubernetesCachingAgent
 
   @Getter protected final Long agentInterval;
 
+  private final Map<String, KubernetesResourceInformer> informers = new ConcurrentHashMap<>();
+  // The conversion of each watched resource as of its resourceVersion, reused until it changes
+  private Map<KubernetesCoordinates, ConvertedResource> convertedResources = new HashMap<>();
+  @Nullable private CacheResult lastWatchedResult;
+
   protected KubernetesCachingAgent(
       KubernetesNamedAccountCredentials namedAccountCredentials,
       ObjectMapper objectMapper,
@@ -97,29 +129,19 @@ public abstract class KubernetesCachingAgent
 
   protected abstract List<KubernetesKind> primaryKinds();
 
-  private ImmutableList<KubernetesManifest> loadResources(
-      @Nonnull Iterable<KubernetesKind> kubernetesKinds, Optional<String> optionalNamespace) {
-    String namespace = optionalNamespace.orElse(null);
-    return credentials.list(ImmutableList.copyOf(kubernetesKinds), namespace);
-  }
-
-  @Nonnull
-  private ImmutableList<KubernetesManifest> loadNamespaceScopedResources(
-      @Nonnull Iterable<KubernetesKind> kubernetesKinds) {
-    return getNamespaces().parallelStream()
-        .map(n -> loadResources(kubernetesKinds, Optional.of(n)))
-        .flatMap(Collection::stream)
-        .collect(ImmutableList.toImmutableList());
-  }
-
-  @Nonnull
-  private ImmutableList<KubernetesManifest> loadClusterScopedResources(
-      @Nonnull Iterable<KubernetesKind> kubernetesKinds) {
+  /**
+   * Lists every primary resource handled by this agent, handing each manifest to consumer as it is
+   * read from kubectl. Namespaces are listed concurrently, so consumer must be thread-safe.
+   */
+  private void streamPrimaryResources(Consumer<KubernetesManifest> consumer) {
+    ImmutableSetMultimap<ResourceScope, KubernetesKind> kindsByScope = primaryKindsByScope();
     if (handleClusterScopedResources()) {
-      return loadResources(kubernetesKinds, Optional.empty());
-    } else {
-      return ImmutableList.of();
+      credentials.list(
+          ImmutableList.copyOf(kindsByScope.get(ResourceScope.CLUSTER)), null, consumer);
     }
+    ImmutableList<KubernetesKind> namespacedKinds =
+        ImmutableList.copyOf(kindsByScope.get(ResourceScope.NAMESPACE));
+    forEachConcurrently(getNamespaces(), n -> credentials.list(namespacedKinds, n, consumer));
   }
 
   private ImmutableSetMultimap<ResourceScope, KubernetesKind> primaryKindsByScope() {
@@ -129,19 +151,114 @@ public abstract class KubernetesCachingAgent
                 k -> credentials.getKindProperties(k).getResourceScope(), Function.identity()));
   }
 
-  protected Map<KubernetesKind, List<KubernetesManifest>> loadPrimaryResourceList() {
+  /**
+   * Brings the informer of every primary kind and namespace handled by this agent up to date,
+   * creating informers for newly handled namespaces and dropping those no longer handled.
+   *
+   * @return true if the set of informers changed or any of them saw a change since the last sync
+   */
+  private boolean syncInformers() {
     ImmutableSetMultimap<ResourceScope, KubernetesKind> kindsByScope = primaryKindsByScope();
+    Map<String, KubernetesResourceInformer> current = new HashMap<>();
+    if (handleClusterScopedResources()) {
+      for (KubernetesKind kind : kindsByScope.get(ResourceScope.CLUSTER)) {
+        current.put(informerKey(kind, null), informer(kind, null));
+      }
+    }
+    for (String namespace : getNamespaces()) {
+      for (KubernetesKind kind : kindsByScope.get(ResourceScope.NAMESPACE)) {
+        current.put(informerKey(kind, namespace), informer(kind, namespace));
+      }
+    }
+    boolean informersChanged = false;
+    for (Iterator<Map.Entry<String, KubernetesResourceInformer>> it =
+            informers.entrySet().iterator();
+        it.hasNext(); ) {
+      Map.Entry<String, KubernetesResourceInformer> informer = it.next();
+      if (!current.containsKey(informer.getKey())) {
+        informer.getValue().close();
+        it.remove();
+        informersChanged = true;
+      }
+    }
 
+    AtomicBoolean changed = new AtomicBoolean(informersChanged);
+    forEachConcurrently(
+        current.values(),
+        informer -> {
+          if (informer.sync()) {
+            changed.set(true);
+          }
+        });
+    return changed.get();
+  }
+
+  /**
+   * Runs action on each of items on a pool dedicated to caching agents rather than the common
+   * fork-join pool, with no more of them at once than the account may run kubectl processes.
+   * Once any action has failed no further actions are started, and its exception is rethrown.
+   */
+  private <T> void forEachConcurrently(Collection<T> items, Consumer<T> action) {
+    int limit = credentials.getKubectlMaxConcurrentProcesses();
+    int parallelism = limit > 0 ? Math.min(items.size(), limit) : items.size();
+    if (parallelism <= 1) {
+      items.forEach(action);
+      return;
+    }
+
+    Queue<T> pending = new ConcurrentLinkedQueue<>(items);
+    List<Future<?>> workers = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      workers.add(
+          kubectlExecutor.submit(
+              () -> {
+                T item;
+                while ((item = pending.poll()) != null) {
+                  try {
+                    action.accept(item);
+                  } catch (RuntimeException | Error e) {
+                    pending.clear();
+                    throw e;
+                  }
+                }
+              }));
+    }
+
+    try {
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } catch (InterruptedException e) {
+      pending.clear();
+      Thread.currentThread().interrupt();
+      throw new KubectlException(getAgentType() + ": interrupted while running kubectl", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private KubernetesResourceInformer informer(KubernetesKind kind, @Nullable String namespace) {
+    return informers.computeIfAbsent(
+        informerKey(kind, namespace),
+        k -> new KubernetesResourceInformer(credentials, kind, namespace));
+  }
+
+  private static String informerKey(KubernetesKind kind, @Nullable String namespace) {
+    return kind + ":" + Strings.nullToEmpty(namespace);
+  }
+
+  /** @return the primary resources kept by the informers, with caching policies applied */
+  private Map<KubernetesKind, List<KubernetesManifest>> loadWatchedPrimaryResources() {
     Map<KubernetesKind, List<KubernetesManifest>> result =
-        Stream.concat(
-                loadClusterScopedResources(
-                    kindsByScope.get(KubernetesKindProperties.ResourceScope.CLUSTER))
-                    .stream(),
-                loadNamespaceScopedResources(
-                    kindsByScope.get(KubernetesKindProperties.ResourceScope.NAMESPACE))
-                    .stream())
+        informers.values().stream()
+            .flatMap(informer -> informer.list().stream())
             .collect(Collectors.groupingBy(KubernetesManifest::getKind));
+    return applyCachingPolicies(result);
+  }
 
+  private Map<KubernetesKind, List<KubernetesManifest>> applyCachingPolicies(
+      Map<KubernetesKind, List<KubernetesManifest>> result) {
     for (KubernetesCachingPolicy policy : credentials.getCachingPolicies()) {
       KubernetesKind policyKind = KubernetesKind.fromString(policy.getKubernetesKind());
       if (!result.containsKey(policyKind)) {
@@ -159,8 +276,7 @@ public abstract class KubernetesCachingAgent
             getAgentType(),
             entries.size() - policy.getMaxEntriesPerAgent(),
             policyKind);
-        entries = entries.subList(0, policy.getMaxEntriesPerAgent());
-        result.put(policyKind, entries);
+        result.put(policyKind, keptByPolicy(entries, policy.getMaxEntriesPerAgent()));
       }
     }
 
@@ -187,9 +303,49 @@ public abstract class KubernetesCachingAgent
     Map<String, Object> details = defaultIntrospectionDetails();
 
     long start = System.currentTimeMillis();
-    Map<KubernetesKind, List<KubernetesManifest>> primaryResourceList = loadPrimaryResourceList();
+    if (credentials.isWatchResources()) {
+      boolean changed = syncInformers();
+      details.put("timeSpentInKubectlMs", System.currentTimeMillis() - start);
+      if (!changed && lastWatchedResult != null) {
+        log.info("{}: no resources changed since the previous run", getAgentType());
+        return lastWatchedResult;
+      }
+      lastWatchedResult = buildWatchedCacheResult();
+      return lastWatchedResult;
+    }
+
+    // Manifests are converted as they are read, so this includes the time spent converting them
+    ResourceConverter converter = new ResourceConverter(cachingPolicyLimits());
+    streamPrimaryResources(converter);
     details.put("timeSpentInKubectlMs", System.currentTimeMillis() - start);
-    return buildCacheResult(primaryResourceList);
+    return converter.toCacheResult();
+  }
+
+  /**
+   * Entries are kept in order of namespace and name rather than in the order they were read, so
+   * that the same entries are kept on every run instead of churning in and out of the cache.
+   *
+   * @return the first limit of entries by namespace and name
+   */
+  private static List<KubernetesManifest> keptByPolicy(
+      Collection<KubernetesManifest> entries, int limit) {
+    return entries.stream()
+        .sorted(
+            Comparator.comparing(
+                    KubernetesManifest::getNamespace,
+                    Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(KubernetesManifest::getName))
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  private Map<KubernetesKind, Integer> cachingPolicyLimits() {
+    Map<KubernetesKind, Integer> limits = new HashMap<>();
+    for (KubernetesCachingPolicy policy : credentials.getCachingPolicies()) {
+      limits.put(
+          KubernetesKind.fromString(policy.getKubernetesKind()), policy.getMaxEntriesPerAgent());
+    }
+    return limits;
   }
 
   protected CacheResult buildCacheResult(KubernetesManifest resource) {
@@ -204,60 +360,192 @@ public abstract class KubernetesCachingAgent
   }
 
   protected CacheResult buildCacheResult(Map<KubernetesKind, List<KubernetesManifest>> resources) {
-    KubernetesCacheData kubernetesCacheData = new KubernetesCacheData();
-    Map<KubernetesManifest, List<KubernetesManifest>> relationships =
-        loadSecondaryResourceRelationships(resources);
-
-    resources.values().stream()
-        .flatMap(Collection::stream)
-        .peek(
-            m ->
-                credentials
-                    .getResourcePropertyRegistry()
-                    .get(m.getKind())
-                    .getHandler()
-                    .removeSensitiveKeys(m))
-        .filter(removeIgnored(credentials.isOnlySpinnakerManaged()))
-        .forEach(
-            rs -> {
-              try {
-                KubernetesCacheDataConverter.convertAsResource(
-                    kubernetesCacheData,
-                    accountName,
-                    credentials.getKubernetesSpinnakerKindMap(),
-                    credentials.getNamer(),
-                    rs,
-                    relationships.getOrDefault(rs, ImmutableList.of()),
-                    credentials.isCacheAllApplicationRelationships());
-              } catch (RuntimeException e) {
-                log.warn("{}: Failure converting {}", getAgentType(), rs, e);
-              }
-            });
+    ResourceConverter converter = new ResourceConverter(ImmutableMap.of());
+    resources.values().stream().flatMap(Collection::stream).forEach(converter);
+    return converter.toCacheResult();
+  }
+
+  /**
+   * Builds the cache result from the resources kept by the informers, only converting those that
+   * were added or changed since the previous run. The conversions of unchanged resources are
+   * reused, and only their implicit relationships are resolved again.
+   */
+  private CacheResult buildWatchedCacheResult() {
+    Map<KubernetesCoordinates, ConvertedResource> previous = convertedResources;
+    Map<KubernetesCoordinates, ConvertedResource> current = new HashMap<>();
+    ResourceConverter converter = new ResourceConverter(ImmutableMap.of());
+    Predicate<KubernetesManifest> removeIgnored =
+        removeIgnored(credentials.isOnlySpinnakerManaged());
+    int changed = 0;
+    for (List<KubernetesManifest> manifests : loadWatchedPrimaryResources().values()) {
+      for (KubernetesManifest manifest : manifests) {
+        KubernetesCoordinates coordinates = KubernetesCoordinates.fromManifest(manifest);
+        ConvertedResource resource = previous.get(coordinates);
+        if (resource == null || !resource.isConversionOf(manifest)) {
+          resource = new ConvertedResource(coordinates, manifest.getResourceVersion());
+          resource.cached =
+              convert(manifest, resource.cacheData, resource.relationships, removeIgnored);
+          changed++;
+        }
+        current.put(coordinates, resource);
+        converter.add(resource);
+      }
+    }
+    convertedResources = current;
+
+    log.info(
+        "{}: converted {} of {} resources, the others were unchanged since the previous run",
+        getAgentType(),
+        changed,
+        current.size());
+    return converter.toCacheResult();
+  }
+
+  /**
+   * Converts manifest into cacheData, recording its relationships to other resources in
+   * relationshipIndex.
+   *
+   * @return whether manifest was converted, rather than being ignored or failing to convert
+   */
+  private boolean convert(
+      KubernetesManifest manifest,
+      KubernetesCacheData cacheData,
+      KubernetesRelationshipIndex relationshipIndex,
+      Predicate<KubernetesManifest> removeIgnored) {
+    KubernetesHandler handler =
+        credentials.getResourcePropertyRegistry().get(manifest.getKind()).getHandler();
+    KubernetesCoordinates coordinates = KubernetesCoordinates.fromManifest(manifest);
+    relationshipIndex.addResource(coordinates);
+    try {
+      handler.indexRelationships(manifest, relationshipIndex);
+    } catch (RuntimeException e) {
+      log.warn("{}: Failure adding relationships for {}", getAgentType(), coordinates, e);
+    }
+
+    handler.removeSensitiveKeys(manifest);
+    if (!removeIgnored.test(manifest)) {
+      return false;
+    }
+
+    try {
+      KubernetesCacheDataConverter.convertAsResource(
+          cacheData,
+          accountName,
+          credentials.getKubernetesSpinnakerKindMap(),
+          credentials.getNamer(),
+          manifest,
+          ImmutableList.of(),
+          credentials.isCacheAllApplicationRelationships());
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("{}: Failure converting {}", getAgentType(), manifest, e);
+      return false;
+    }
+  }
 
-    Map<String, Collection<CacheData>> entries = kubernetesCacheData.toStratifiedCacheData();
-    KubernetesCacheDataConverter.logStratifiedCacheData(getAgentType(), entries);
+  /** The part of the cache result and relationship index contributed by a single manifest. */
+  private static final class ConvertedResource {
+    private final KubernetesCoordinates coordinates;
+    @Nullable private final String resourceVersion;
+    private final KubernetesCacheData cacheData = new KubernetesCacheData();
+    private final KubernetesRelationshipIndex relationships = new KubernetesRelationshipIndex();
+    private boolean cached;
+
+    ConvertedResource(KubernetesCoordinates coordinates, @Nullable String resourceVersion) {
+      this.coordinates = coordinates;
+      this.resourceVersion = resourceVersion;
+    }
 
-    return new DefaultCacheResult(entries);
+    boolean isConversionOf(KubernetesManifest manifest) {
+      return resourceVersion != null && resourceVersion.equals(manifest.getResourceVersion());
+    }
   }
 
-  protected Map<KubernetesManifest, List<KubernetesManifest>> loadSecondaryResourceRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources) {
-    Map<KubernetesManifest, List<KubernetesManifest>> result = new HashMap<>();
-    allResources
-        .keySet()
-        .forEach(
-            k -> {
-              try {
-                credentials
-                    .getResourcePropertyRegistry()
-                    .get(k)
-                    .getHandler()
-                    .addRelationships(allResources, result);
-              } catch (RuntimeException e) {
-                log.warn("{}: Failure adding relationships for {}", getAgentType(), k, e);
+  /**
+   * Converts manifests into cache data one at a time as they are read, so that only the converted
+   * cache data and a compact {@link KubernetesRelationshipIndex} are retained rather than every
+   * manifest read by the agent. Implicit relationships between resources are resolved from the
+   * index once every manifest has been accepted.
+   *
+   * <p>Manifests of kinds limited by a caching policy are held until then instead, as namespaces
+   * are read concurrently and the entries that are kept must not depend on the order they arrive
+   * in.
+   */
+  private class ResourceConverter implements Consumer<KubernetesManifest> {
+    private final KubernetesCacheData kubernetesCacheData = new KubernetesCacheData();
+    private final KubernetesRelationshipIndex relationshipIndex = new KubernetesRelationshipIndex();
+    private final Set<KubernetesCoordinates> converted = new HashSet<>();
+    private final Map<KubernetesKind, Integer> limits;
+    private final Map<KubernetesKind, List<KubernetesManifest>> limited = new HashMap<>();
+    private final Predicate<KubernetesManifest> removeIgnored =
+        removeIgnored(credentials.isOnlySpinnakerManaged());
+
+    /** @param limits the maximum number of entries of each kind to cache */
+    ResourceConverter(Map<KubernetesKind, Integer> limits) {
+      this.limits = limits;
+    }
+
+    @Override
+    public synchronized void accept(KubernetesManifest manifest) {
+      KubernetesKind kind = manifest.getKind();
+      if (limits.containsKey(kind)) {
+        limited.computeIfAbsent(kind, k -> new ArrayList<>()).add(manifest);
+        return;
+      }
+
+      if (convert(manifest, kubernetesCacheData, relationshipIndex, removeIgnored)) {
+        converted.add(KubernetesCoordinates.fromManifest(manifest));
+      }
+    }
+
+    /** Adds a manifest that was converted on its own, possibly by a previous run. */
+    synchronized void add(ConvertedResource resource) {
+      relationshipIndex.addAll(resource.relationships);
+      if (resource.cached) {
+        kubernetesCacheData.addAll(resource.cacheData);
+        converted.add(resource.coordinates);
+      }
+    }
+
+    synchronized CacheResult toCacheResult() {
+      limited.forEach(
+          (kind, manifests) -> {
+            int limit = limits.get(kind);
+            if (manifests.size() > limit) {
+              log.warn(
+                  "{}: Pruning {} entries from kind {}",
+                  getAgentType(),
+                  manifests.size() - limit,
+                  kind);
+            }
+            for (KubernetesManifest manifest : keptByPolicy(manifests, limit)) {
+              if (convert(manifest, kubernetesCacheData, relationshipIndex, removeIgnored)) {
+                converted.add(KubernetesCoordinates.fromManifest(manifest));
               }
-            });
-    return result;
+            }
+          });
+      limited.clear();
+
+      relationshipIndex
+          .resolve(converted::contains)
+          .forEach(
+              (source, targets) ->
+                  kubernetesCacheData.addRelationships(
+                      cacheKey(source),
+                      targets.stream()
+                          .map(ResourceConverter.this::cacheKey)
+                          .collect(Collectors.toSet())));
+
+      Map<String, Collection<CacheData>> entries = kubernetesCacheData.toStratifiedCacheData();
+      KubernetesCacheDataConverter.logStratifiedCacheData(getAgentType(), entries);
+
+      return new DefaultCacheResult(entries);
+    }
+
+    private CacheKey cacheKey(KubernetesCoordinates coordinates) {
+      return new InfrastructureCacheKey(
+          coordinates.getKind(), accountName, coordinates.getNamespace(), coordinates.getName());
+    }
   }
 
   protected ImmutableList<String> getNamespaces() {
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Compact per-kind indexes from which the implicit relationships between resources are resolved
+ * once every resource has been read, so that handlers do not need every manifest to be retained
+ * until then.
+ *
+ * <p>Resources are only recorded by their coordinates and the few values relationships are
+ * resolved from: the pod template labels of workloads, the selectors of services, and the
+ * coordinates of explicitly referenced resources.
+ */
+public class KubernetesRelationshipIndex {
+  private final Set<KubernetesCoordinates> resources = new HashSet<>();
+  private final Map<String, Set<KubernetesCoordinates>> podTemplateLabels = new HashMap<>();
+  private final Map<KubernetesCoordinates, Map<String, String>> selectors = new HashMap<>();
+  private final Map<KubernetesCoordinates, Set<KubernetesCoordinates>> references =
+      new HashMap<>();
+  private final Map<KubernetesCoordinates, Set<KubernetesCoordinates>> referencesIfPresent =
+      new HashMap<>();
+
+  /** Records that resource was read, whether or not it is cached. */
+  public void addResource(KubernetesCoordinates resource) {
+    resources.add(resource);
+  }
+
+  /** Records the labels of the pods templated by workload, which selectors are matched against. */
+  public void addPodTemplateLabels(KubernetesCoordinates workload, Map<String, String> labels) {
+    for (Map.Entry<String, String> label : labels.entrySet()) {
+      podTemplateLabels
+          .computeIfAbsent(labelKey(workload.getNamespace(), label), k -> new HashSet<>())
+          .add(workload);
+    }
+  }
+
+  /**
+   * Relates source to every workload in its namespace whose pod template has all of the labels in
+   * selector. An empty selector relates source to nothing.
+   */
+  public void addSelector(KubernetesCoordinates source, Map<String, String> selector) {
+    if (!selector.isEmpty()) {
+      selectors.put(source, selector);
+    }
+  }
+
+  /** Relates source to target, whether or not target was read. */
+  public void addReference(KubernetesCoordinates source, KubernetesCoordinates target) {
+    references.computeIfAbsent(source, k -> new HashSet<>()).add(target);
+  }
+
+  /** Relates source to target only if target was read. */
+  public void addReferenceIfPresent(KubernetesCoordinates source, KubernetesCoordinates target) {
+    referencesIfPresent.computeIfAbsent(source, k -> new HashSet<>()).add(target);
+  }
+
+  /** Records everything that was recorded in other. */
+  public void addAll(KubernetesRelationshipIndex other) {
+    resources.addAll(other.resources);
+    merge(podTemplateLabels, other.podTemplateLabels);
+    selectors.putAll(other.selectors);
+    merge(references, other.references);
+    merge(referencesIfPresent, other.referencesIfPresent);
+  }
+
+  /**
+   * @param includeSource whether the relationships of a source should be resolved
+   * @return the resources each source is related to
+   */
+  public Map<KubernetesCoordinates, Set<KubernetesCoordinates>> resolve(
+      Predicate<KubernetesCoordinates> includeSource) {
+    Map<KubernetesCoordinates, Set<KubernetesCoordinates>> result = new HashMap<>();
+
+    references.forEach(
+        (source, targets) -> {
+          if (includeSource.test(source)) {
+            result.computeIfAbsent(source, k -> new HashSet<>()).addAll(targets);
+          }
+        });
+
+    referencesIfPresent.forEach(
+        (source, targets) -> {
+          if (includeSource.test(source)) {
+            for (KubernetesCoordinates target : targets) {
+              if (resources.contains(target)) {
+                result.computeIfAbsent(source, k -> new HashSet<>()).add(target);
+              }
+            }
+          }
+        });
+
+    selectors.forEach(
+        (source, selector) -> {
+          if (includeSource.test(source)) {
+            Set<KubernetesCoordinates> selected = select(source.getNamespace(), selector);
+            if (!selected.isEmpty()) {
+              result.computeIfAbsent(source, k -> new HashSet<>()).addAll(selected);
+            }
+          }
+        });
+
+    return result;
+  }
+
+  private Set<KubernetesCoordinates> select(String namespace, Map<String, String> selector) {
+    Set<KubernetesCoordinates> result = null;
+    for (Map.Entry<String, String> label : selector.entrySet()) {
+      Set<KubernetesCoordinates> labelled =
+          podTemplateLabels.getOrDefault(labelKey(namespace, label), Collections.emptySet());
+      if (result == null) {
+        result = new HashSet<>(labelled);
+      } else {
+        result.retainAll(labelled);
+      }
+      if (result.isEmpty()) {
+        break;
+      }
+    }
+    return result == null ? Collections.emptySet() : result;
+  }
+
+  private static <K, V> void merge(Map<K, Set<V>> target, Map<K, Set<V>> source) {
+    source.forEach(
+        (key, values) -> target.computeIfAbsent(key, k -> new HashSet<>()).addAll(values));
+  }
+
+  private static String labelKey(String namespace, Map.Entry<String, String> label) {
+    // Space can't be used in any of the values, so it's a safe separator.
+    return namespace + " " + label.getKey() + " " + label.getValue();
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifestList;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlResourceVersionExpiredException;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds a local copy of the resources of a single kind in a single namespace (or across the
+ * cluster for cluster-scoped kinds), kept current from the changes reported by a watch.
+ *
+ * <p>The first {@link #sync()} lists the collection and starts a watch from the resourceVersion of
+ * the list on a background thread. The watch is held open for the account's watch timeout, then
+ * resumed from the last seen resourceVersion, applying events to the local copy as they arrive,
+ * so later syncs only report whether anything changed. The collection is listed again when the
+ * API server reports that the resourceVersion has expired, and by the next sync after the watch
+ * failed for any other reason. Kinds that cannot be watched are listed on every sync, as they are
+ * when watching is disabled.
+ */
+final class KubernetesResourceInformer {
+  private static final Logger log = LoggerFactory.getLogger(KubernetesResourceInformer.class);
+  // Each watch holds a thread for as long as it is open, so the pool is left unbounded.
+  private static final Executor defaultWatchExecutor =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat(KubernetesResourceInformer.class.getSimpleName() + "-%d")
+              .setDaemon(true)
+              .build());
+
+  private final KubernetesCredentials credentials;
+  @Getter private final KubernetesKind kind;
+  @Getter @Nullable private final String namespace;
+  private final Executor watchExecutor;
+
+  private final Map<String, KubernetesManifest> store = new LinkedHashMap<>();
+  @Nullable private String resourceVersion;
+  private boolean changed;
+  private boolean watching;
+  private volatile boolean closed;
+
+  KubernetesResourceInformer(
+      KubernetesCredentials credentials, KubernetesKind kind, @Nullable String namespace) {
+    this(credentials, kind, namespace, defaultWatchExecutor);
+  }
+
+  KubernetesResourceInformer(
+      KubernetesCredentials credentials,
+      KubernetesKind kind,
+      @Nullable String namespace,
+      Executor watchExecutor) {
+    this.credentials = credentials;
+    this.kind = kind;
+    this.namespace = namespace;
+    this.watchExecutor = watchExecutor;
+  }
+
+  /**
+   * Brings the local copy up to date, listing the collection and starting a watch if none is
+   * running.
+   *
+   * @return true if any resource was added, modified or deleted since the previous sync
+   */
+  boolean sync() {
+    Optional<KubernetesApiResource> apiResource = credentials.getApiResource(kind);
+    if (!apiResource.isPresent()) {
+      ImmutableList<KubernetesManifest> manifests = credentials.list(kind, namespace);
+      synchronized (this) {
+        replace(manifests, null);
+        changed = false;
+      }
+      return true;
+    }
+
+    synchronized (this) {
+      if (watching) {
+        boolean result = changed;
+        changed = false;
+        return result;
+      }
+    }
+
+    KubernetesManifestList list = credentials.listWithResourceVersion(apiResource.get(), namespace);
+    synchronized (this) {
+      replace(list.getItems(), list.getResourceVersion());
+      changed = false;
+      watching = true;
+    }
+    watchExecutor.execute(() -> watch(apiResource.get()));
+    return true;
+  }
+
+  /** @return the resources as of the last event applied */
+  synchronized ImmutableList<KubernetesManifest> list() {
+    return ImmutableList.copyOf(store.values());
+  }
+
+  /**
+   * Stops watching once the watch that is open is closed by the API server, ignoring any events it
+   * reports until then.
+   */
+  void close() {
+    closed = true;
+  }
+
+  private void watch(KubernetesApiResource apiResource) {
+    try {
+      while (!closed) {
+        String from;
+        synchronized (this) {
+          from = resourceVersion;
+        }
+
+        WatchHandler handler = new WatchHandler();
+        try {
+          credentials.watch(apiResource, namespace, from, handler::handle);
+        } catch (KubectlResourceVersionExpiredException e) {
+          handler.expired = true;
+        }
+
+        if (handler.error != null) {
+          throw new KubectlException(
+              "Watch of " + kind + " in " + namespace + " failed: " + handler.error);
+        }
+        if (handler.expired && !closed) {
+          log.info(
+              "{}: resourceVersion {} of {} in {} has expired, listing again",
+              credentials.getAccountName(),
+              from,
+              kind,
+              namespace);
+          KubernetesManifestList list = credentials.listWithResourceVersion(apiResource, namespace);
+          synchronized (this) {
+            replace(list.getItems(), list.getResourceVersion());
+            changed = true;
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn(
+          "{}: watch of {} in {} failed, it will be listed again by the next sync",
+          credentials.getAccountName(),
+          kind,
+          namespace,
+          e);
+    } finally {
+      synchronized (this) {
+        watching = false;
+      }
+    }
+  }
+
+  private void replace(Iterable<KubernetesManifest> manifests, @Nullable String version) {
+    store.clear();
+    for (KubernetesManifest manifest : manifests) {
+      store.put(manifest.getName(), manifest);
+    }
+    resourceVersion = version;
+  }
+
+  /** Applies watch events to the store as they are read, remembering how the watch ended. */
+  private class WatchHandler {
+    private boolean expired;
+    @Nullable private String error;
+
+    void handle(KubernetesWatchEvent event) {
+      if (closed || expired || error != null || event.getType() == null) {
+        return;
+      }
+
+      synchronized (KubernetesResourceInformer.this) {
+        KubernetesManifest object = event.getObject();
+        switch (event.getType()) {
+          case ADDED:
+          case MODIFIED:
+            store.put(object.getName(), object);
+            changed = true;
+            break;
+          case DELETED:
+            changed |= store.remove(object.getName()) != null;
+            break;
+          case BOOKMARK:
+            break;
+          case ERROR:
+            if (event.isExpired()) {
+              expired = true;
+            } else {
+              error = event.getErrorMessage();
+            }
+            return;
+          default:
+            return;
+        }
+        resourceVersion = object.getResourceVersion();
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.config;
+
+/** How the operations of an account reach its API server. */
+public enum KubernetesApiBackend {
+  /** Every operation forks a kubectl process. */
+  KUBECTL,
+  /**
+   * Reads, deletes, scales and patches call the API server in process over pooled connections;
+   * everything else still forks kubectl.
+   */
+  NATIVE
+}
@@ -26,6 +26,8 @@ import lombok.Data;
 @Data
 public class KubernetesConfigurationProperties {
   private static final int DEFAULT_CACHE_THREADS = 1;
+  private static final int DEFAULT_WATCH_TIMEOUT_SECONDS = 300;
+  private static final int DEFAULT_KUBECTL_MAX_CONCURRENT_PROCESSES = 16;
   private List<ManagedAccount> accounts = new ArrayList<>();
   private RawResourcesEndpointConfig rawResourcesEndpointConfig = new RawResourcesEndpointConfig();
 
@@ -41,6 +43,12 @@ public class KubernetesConfigurationProperties {
     private String kubeconfigContents;
     private String kubectlExecutable;
     private Integer kubectlRequestTimeoutSeconds;
+    // The most kubectl processes that may run at once for this account, zero or less for no limit
+    // beyond the global kubernetes.kubectl.max-concurrent-processes
+    private int kubectlMaxConcurrentProcesses = DEFAULT_KUBECTL_MAX_CONCURRENT_PROCESSES;
+    // NATIVE calls the API server in process for the operations it supports; accounts
+    // authenticating with an OAuth service account always use kubectl
+    private KubernetesApiBackend apiBackend = KubernetesApiBackend.KUBECTL;
     private boolean serviceAccount = false;
     private List<String> namespaces = new ArrayList<>();
     private List<String> omitNamespaces = new ArrayList<>();
@@ -58,6 +66,13 @@ public class KubernetesConfigurationProperties {
     private boolean onlySpinnakerManaged = false;
     private Long cacheIntervalSeconds;
     private boolean cacheAllApplicationRelationships = false;
+    // When enabled, caching agents keep a local copy of each kind and namespace that is updated by
+    // a watch held open in the background, rather than listing it on every cycle. The API server
+    // closes each watch after watchTimeoutSeconds, and it is then resumed from the last seen
+    // resourceVersion. Only supported with the NATIVE api backend, as each watch would otherwise
+    // hold a kubectl process open; other accounts keep listing on every cycle.
+    private boolean watchResources = false;
+    private int watchTimeoutSeconds = DEFAULT_WATCH_TIMEOUT_SECONDS;
 
     public void validate() {
       if (Strings.isNullOrEmpty(name)) {
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.description;
+
+import com.google.common.base.Strings;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/** How the API server serves a kind, as reported by its discovery endpoints. */
+@NonnullByDefault
+@Value
+public class KubernetesApiResource {
+  private final KubernetesKind kind;
+  /** The kind as named by the API server, e.g. {@code Deployment}. */
+  private final String kindName;
+  /** The group and version the kind is served at, e.g. {@code apps/v1} or {@code v1}. */
+  private final String groupVersion;
+  /** The plural resource name, e.g. {@code deployments}. */
+  private final String pluralName;
+  private final boolean namespaced;
+
+  /**
+   * @return the path of the collection of this resource in namespace, or across all namespaces if
+   *     namespace is empty
+   */
+  public String collectionPath(@Nullable String namespace) {
+    StringBuilder path = new StringBuilder();
+    path.append(groupVersion.contains("/") ? "/apis/" : "/api/").append(groupVersion);
+    if (namespaced && !Strings.isNullOrEmpty(namespace)) {
+      path.append("/namespaces/").append(namespace);
+    }
+    return path.append('/').append(pluralName).toString();
+  }
+
+  /** @return the path of the resource called name in namespace */
+  public String resourcePath(@Nullable String namespace, String name) {
+    return collectionPath(namespace) + "/" + name;
+  }
+}
@@ -18,9 +18,13 @@
 package com.netflix.spinnaker.clouddriver.kubernetes.description.manifest;
 
 import java.util.List;
+import javax.annotation.Nullable;
 import lombok.Data;
 
 @Data
 public class KubernetesManifestList {
   private List<KubernetesManifest> items;
+
+  /** The resourceVersion of the list, from which a watch of its items can be started. */
+  @Nullable private String resourceVersion;
 }
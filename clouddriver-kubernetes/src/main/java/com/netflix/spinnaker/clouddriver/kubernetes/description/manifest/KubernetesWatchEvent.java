@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.description.manifest;
+
+import javax.annotation.Nullable;
+import lombok.Data;
+
+/** A single event from a watch of a Kubernetes collection. */
+@Data
+public class KubernetesWatchEvent {
+  private static final int HTTP_GONE = 410;
+
+  public enum Type {
+    ADDED,
+    MODIFIED,
+    DELETED,
+    BOOKMARK,
+    ERROR
+  }
+
+  private Type type;
+
+  /** The changed resource, or a Status object for ERROR events. */
+  private KubernetesManifest object;
+
+  /**
+   * @return true if the watch failed because the resourceVersion it was started from is no longer
+   *     available, in which case the collection needs to be listed again
+   */
+  public boolean isExpired() {
+    return type == Type.ERROR && getErrorCode() == HTTP_GONE;
+  }
+
+  @Nullable
+  public String getErrorMessage() {
+    return object == null ? null : (String) object.get("message");
+  }
+
+  private int getErrorCode() {
+    Object code = object == null ? null : object.get("code");
+    return code instanceof Number ? ((Number) code).intValue() : 0;
+  }
+}
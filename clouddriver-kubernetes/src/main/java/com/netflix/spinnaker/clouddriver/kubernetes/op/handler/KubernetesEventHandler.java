@@ -20,10 +20,11 @@ package com.netflix.spinnaker.clouddriver.kubernetes.op.handler;
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind.EVENT;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableList;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCoreCachingAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
@@ -32,13 +33,8 @@ import com.netflix.spinnaker.clouddriver.kubernetes.model.Manifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.model.Manifest.Status;
 import io.kubernetes.client.openapi.models.V1Event;
 import io.kubernetes.client.openapi.models.V1ObjectReference;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -76,20 +72,19 @@ public class KubernetesEventHandler extends KubernetesHandler {
   }
 
   @Override
-  public void addRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources,
-      Map<KubernetesManifest, List<KubernetesManifest>> relationshipMap) {
-    relationshipMap.putAll(
-        allResources.getOrDefault(EVENT, new ArrayList<>()).stream()
-            .map(
-                m ->
-                    ImmutablePair.of(
-                        m,
-                        involvedManifest(
-                            KubernetesCacheDataConverter.getResource(m, V1Event.class))))
-            .filter(p -> p.getRight() != null)
-            .collect(
-                Collectors.toMap(ImmutablePair::getLeft, p -> ImmutableList.of(p.getRight()))));
+  public void indexRelationships(KubernetesManifest event, KubernetesRelationshipIndex index) {
+    KubernetesManifest involvedManifest =
+        involvedManifest(KubernetesCacheDataConverter.getResource(event, V1Event.class));
+    if (involvedManifest != null) {
+      // The involved object is related in the event's namespace, as it always has been
+      index.addReference(
+          KubernetesCoordinates.fromManifest(event),
+          KubernetesCoordinates.builder()
+              .kind(involvedManifest.getKind())
+              .namespace(event.getNamespace())
+              .name(involvedManifest.getName())
+              .build());
+    }
   }
 
   private KubernetesManifest involvedManifest(V1Event event) {
@@ -28,6 +28,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.artifact.Replacer;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureCacheKey;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgent;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.view.provider.KubernetesManifestProvider;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
@@ -121,9 +122,11 @@ public abstract class KubernetesHandler implements CanDeploy, CanDelete, CanPatc
     return result;
   }
 
-  public void addRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources,
-      Map<KubernetesManifest, List<KubernetesManifest>> relationshipMap) {}
+  /**
+   * Called for every manifest of this handler's kind as it is read by a caching agent, to record in
+   * index whatever the implicit relationships of manifest are later resolved from.
+   */
+  public void indexRelationships(KubernetesManifest manifest, KubernetesRelationshipIndex index) {}
 
   // lower "value" is deployed before higher "value"
   public enum DeployPriority {
@@ -19,7 +19,6 @@ package com.netflix.spinnaker.clouddriver.kubernetes.op.handler;
 
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion.EXTENSIONS_V1BETA1;
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion.NETWORKING_K8S_IO_V1BETA1;
-import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind.INGRESS;
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind.SERVICE;
 import static com.netflix.spinnaker.clouddriver.kubernetes.op.handler.KubernetesHandler.DeployPriority.NETWORK_RESOURCE_PRIORITY;
 
@@ -28,6 +27,8 @@ import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureC
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCoreCachingAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
@@ -42,10 +43,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,30 +88,20 @@ public class KubernetesIngressHandler extends KubernetesHandler {
   }
 
   @Override
-  public void addRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources,
-      Map<KubernetesManifest, List<KubernetesManifest>> relationshipMap) {
-    BiFunction<String, String, String> manifestName = (namespace, name) -> namespace + ":" + name;
-
-    Map<String, KubernetesManifest> services =
-        allResources.getOrDefault(SERVICE, new ArrayList<>()).stream()
-            .collect(
-                Collectors.toMap(
-                    (m) -> manifestName.apply(m.getNamespace(), m.getName()), (m) -> m));
-
-    for (KubernetesManifest ingress : allResources.getOrDefault(INGRESS, new ArrayList<>())) {
-      List<KubernetesManifest> attachedServices = new ArrayList<>();
-      try {
-        attachedServices =
-            KubernetesIngressHandler.attachedServices(ingress).stream()
-                .map(s -> services.get(manifestName.apply(ingress.getNamespace(), s)))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-      } catch (Exception e) {
-        log.warn("Failure getting services attached to {}", ingress.getName(), e);
+  public void indexRelationships(KubernetesManifest ingress, KubernetesRelationshipIndex index) {
+    KubernetesCoordinates source = KubernetesCoordinates.fromManifest(ingress);
+    try {
+      for (String service : attachedServices(ingress)) {
+        index.addReferenceIfPresent(
+            source,
+            KubernetesCoordinates.builder()
+                .kind(SERVICE)
+                .namespace(ingress.getNamespace())
+                .name(service)
+                .build());
       }
-
-      relationshipMap.put(ingress, attachedServices);
+    } catch (Exception e) {
+      log.warn("Failure getting services attached to {}", ingress.getName(), e);
     }
   }
 
@@ -29,6 +29,8 @@ import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureC
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCoreCachingAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
@@ -162,6 +164,14 @@ public class KubernetesReplicaSetHandler extends KubernetesHandler
     return statusGeneration.isPresent() && statusGeneration.equals(metadataGeneration);
   }
 
+  @Override
+  public void indexRelationships(KubernetesManifest replicaSet, KubernetesRelationshipIndex index) {
+    Map<String, String> podLabels = getPodTemplateLabels(replicaSet);
+    if (podLabels != null) {
+      index.addPodTemplateLabels(KubernetesCoordinates.fromManifest(replicaSet), podLabels);
+    }
+  }
+
   public static Map<String, String> getPodTemplateLabels(KubernetesManifest manifest) {
     if (manifest.getApiVersion().equals(EXTENSIONS_V1BETA1)) {
       V1beta1ReplicaSet v1beta1ReplicaSet =
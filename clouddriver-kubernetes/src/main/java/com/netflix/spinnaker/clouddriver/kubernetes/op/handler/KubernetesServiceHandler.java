@@ -19,8 +19,6 @@ package com.netflix.spinnaker.clouddriver.kubernetes.op.handler;
 
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch.Op.remove;
 import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiVersion.V1;
-import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind.REPLICA_SET;
-import static com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind.SERVICE;
 import static com.netflix.spinnaker.clouddriver.kubernetes.op.handler.KubernetesHandler.DeployPriority.NETWORK_RESOURCE_PRIORITY;
 
 import com.google.common.collect.ImmutableMap;
@@ -28,20 +26,18 @@ import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureC
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCoreCachingAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch.Op;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.model.Manifest.Status;
 import io.kubernetes.client.openapi.models.V1Service;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -90,18 +86,8 @@ public class KubernetesServiceHandler extends KubernetesHandler implements CanLo
   }
 
   @Override
-  public void addRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources,
-      Map<KubernetesManifest, List<KubernetesManifest>> relationshipMap) {
-    Map<String, Set<KubernetesManifest>> mapLabelToManifest = new HashMap<>();
-
-    allResources
-        .getOrDefault(REPLICA_SET, new ArrayList<>())
-        .forEach(r -> addAllReplicaSetLabels(mapLabelToManifest, r));
-
-    for (KubernetesManifest service : allResources.getOrDefault(SERVICE, new ArrayList<>())) {
-      relationshipMap.put(service, getRelatedManifests(service, mapLabelToManifest));
-    }
+  public void indexRelationships(KubernetesManifest service, KubernetesRelationshipIndex index) {
+    index.addSelector(KubernetesCoordinates.fromManifest(service), getSelector(service));
   }
 
   @Nonnull
@@ -118,66 +104,6 @@ public class KubernetesServiceHandler extends KubernetesHandler implements CanLo
     }
   }
 
-  private List<KubernetesManifest> getRelatedManifests(
-      KubernetesManifest service, Map<String, Set<KubernetesManifest>> mapLabelToManifest) {
-    return new ArrayList<>(intersectLabels(service, mapLabelToManifest));
-  }
-
-  private Set<KubernetesManifest> intersectLabels(
-      KubernetesManifest service, Map<String, Set<KubernetesManifest>> mapLabelToManifest) {
-    ImmutableMap<String, String> selector = getSelector(service);
-    if (selector.isEmpty()) {
-      return new HashSet<>();
-    }
-
-    Set<KubernetesManifest> result = null;
-    String namespace = service.getNamespace();
-    for (Map.Entry<String, String> label : selector.entrySet()) {
-      String labelKey = podLabelKey(namespace, label);
-      Set<KubernetesManifest> manifests = mapLabelToManifest.get(labelKey);
-      manifests = manifests == null ? new HashSet<>() : manifests;
-
-      if (result == null) {
-        result = manifests;
-      } else {
-        result.retainAll(manifests);
-      }
-    }
-
-    return result;
-  }
-
-  private void addAllReplicaSetLabels(
-      Map<String, Set<KubernetesManifest>> entries, KubernetesManifest replicaSet) {
-    String namespace = replicaSet.getNamespace();
-    Map<String, String> podLabels = KubernetesReplicaSetHandler.getPodTemplateLabels(replicaSet);
-    if (podLabels == null) {
-      return;
-    }
-
-    for (Map.Entry<String, String> label : podLabels.entrySet()) {
-      String labelKey = podLabelKey(namespace, label);
-      enterManifest(entries, labelKey, KubernetesCacheDataConverter.convertToManifest(replicaSet));
-    }
-  }
-
-  private void enterManifest(
-      Map<String, Set<KubernetesManifest>> entries, String label, KubernetesManifest manifest) {
-    Set<KubernetesManifest> pods = entries.get(label);
-    if (pods == null) {
-      pods = new HashSet<>();
-    }
-
-    pods.add(manifest);
-
-    entries.put(label, pods);
-  }
-
-  private String podLabelKey(String namespace, Map.Entry<String, String> label) {
-    // Space can't be used in any of the values, so it's a safe separator.
-    return namespace + " " + label.getKey() + " " + label.getValue();
-  }
-
   @Override
   @ParametersAreNonnullByDefault
   public void attach(KubernetesManifest loadBalancer, KubernetesManifest target) {
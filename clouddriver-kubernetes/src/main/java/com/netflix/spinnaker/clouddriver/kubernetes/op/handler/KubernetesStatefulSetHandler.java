@@ -26,6 +26,8 @@ import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys.InfrastructureC
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCachingAgentFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCoreCachingAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesRelationshipIndex;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
@@ -34,12 +36,8 @@ import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1beta2RollingUpdateStatefulSetStrategy;
 import io.kubernetes.client.openapi.models.V1beta2StatefulSet;
 import io.kubernetes.client.openapi.models.V1beta2StatefulSetStatus;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.springframework.stereotype.Component;
@@ -185,32 +183,19 @@ public class KubernetesStatefulSetHandler extends KubernetesHandler
   }
 
   @Override
-  public void addRelationships(
-      Map<KubernetesKind, List<KubernetesManifest>> allResources,
-      Map<KubernetesManifest, List<KubernetesManifest>> relationshipMap) {
-    BiFunction<String, String, String> manifestName = (namespace, name) -> namespace + ":" + name;
-
-    Map<String, KubernetesManifest> services =
-        allResources.getOrDefault(KubernetesKind.SERVICE, new ArrayList<>()).stream()
-            .collect(
-                Collectors.toMap(
-                    (m) -> manifestName.apply(m.getNamespace(), m.getName()), (m) -> m));
-
-    for (KubernetesManifest manifest :
-        allResources.getOrDefault(KubernetesKind.STATEFUL_SET, new ArrayList<>())) {
-      String serviceName = KubernetesStatefulSetHandler.serviceName(manifest);
-      if (Strings.isNullOrEmpty(serviceName)) {
-        continue;
-      }
-
-      String key = manifestName.apply(manifest.getNamespace(), serviceName);
-
-      if (!services.containsKey(key)) {
-        continue;
-      }
-
-      KubernetesManifest service = services.get(key);
-      relationshipMap.put(manifest, ImmutableList.of(service));
+  public void indexRelationships(
+      KubernetesManifest statefulSet, KubernetesRelationshipIndex index) {
+    String serviceName = KubernetesStatefulSetHandler.serviceName(statefulSet);
+    if (Strings.isNullOrEmpty(serviceName)) {
+      return;
     }
+
+    index.addReferenceIfPresent(
+        KubernetesCoordinates.fromManifest(statefulSet),
+        KubernetesCoordinates.builder()
+            .kind(KubernetesKind.SERVICE)
+            .namespace(statefulSet.getNamespace())
+            .name(serviceName)
+            .build());
   }
 }
@@ -19,27 +19,39 @@ package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
 import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult;
 import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesApiBackend;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPatchOptions;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesApiGroup;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifestList;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesWatchEvent;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesSelectorList;
 import io.kubernetes.client.openapi.models.V1DeleteOptions;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -55,7 +67,14 @@ import org.springframework.stereotype.Component;
 public class KubectlJobExecutor {
   private static final Logger log = LoggerFactory.getLogger(KubectlJobExecutor.class);
   private static final String NOT_FOUND_STRING = "(NotFound)";
+  private static final String JSON_CONTENT_TYPE = "application/json";
+  private static final String JSON_PATCH_CONTENT_TYPE = "application/json-patch+json";
+  private static final String MERGE_PATCH_CONTENT_TYPE = "application/merge-patch+json";
+  private static final String STRATEGIC_MERGE_PATCH_CONTENT_TYPE =
+      "application/strategic-merge-patch+json";
   private final JobExecutor jobExecutor;
+  private final KubectlProcessScheduler processScheduler;
+  private final KubernetesApiClient apiClient;
   private final String executable;
   private final String oAuthExecutable;
 
@@ -64,9 +83,13 @@ public class KubectlJobExecutor {
   @Autowired
   KubectlJobExecutor(
       JobExecutor jobExecutor,
+      KubectlProcessScheduler processScheduler,
+      KubernetesApiClient apiClient,
       @Value("${kubernetes.kubectl.executable:kubectl}") String executable,
       @Value("${kubernetes.o-auth.executable:oauth2l}") String oAuthExecutable) {
     this.jobExecutor = jobExecutor;
+    this.processScheduler = processScheduler;
+    this.apiClient = apiClient;
     this.executable = executable;
     this.oAuthExecutable = oAuthExecutable;
   }
@@ -78,7 +101,7 @@ public class KubectlJobExecutor {
     command.add(podName);
     command.add("-c=" + containerName);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -102,7 +125,7 @@ public class KubectlJobExecutor {
     command.add("job/" + jobName);
     command.add("-c=" + containerName);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -119,6 +142,10 @@ public class KubectlJobExecutor {
       String name,
       KubernetesSelectorList labelSelectors,
       V1DeleteOptions deleteOptions) {
+    if (usesApiClient(credentials)) {
+      return deleteThroughApi(credentials, kind, namespace, name, labelSelectors, deleteOptions);
+    }
+
     List<String> command = kubectlNamespacedAuthPrefix(credentials, namespace);
 
     command.add("delete");
@@ -141,7 +168,7 @@ public class KubectlJobExecutor {
           "Propagation policy is not yet supported as a delete option");
     }
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       String id;
@@ -172,13 +199,26 @@ public class KubectlJobExecutor {
       String namespace,
       String name,
       int replicas) {
+    if (usesApiClient(credentials)) {
+      KubernetesApiResource resource = servedResource(credentials, kind);
+      callApi(
+          credentials,
+          "PATCH",
+          resource.resourcePath(apiClient.namespace(credentials, namespace), name) + "/scale",
+          ImmutableMap.of(),
+          MERGE_PATCH_CONTENT_TYPE,
+          gson.toJson(ImmutableMap.of("spec", ImmutableMap.of("replicas", replicas))),
+          r -> null);
+      return null;
+    }
+
     List<String> command = kubectlNamespacedAuthPrefix(credentials, namespace);
 
     command.add("scale");
     command = kubectlLookupInfo(command, kind, name, null);
     command.add("--replicas=" + replicas);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -196,7 +236,7 @@ public class KubectlJobExecutor {
     command.add("history");
     command.add(kind.toString() + "/" + name);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -250,7 +290,7 @@ public class KubectlJobExecutor {
     command.add(kind.toString() + "/" + name);
     command.add("--to-revision=" + revision);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -275,7 +315,7 @@ public class KubectlJobExecutor {
     command.add("pause");
     command.add(kind.toString() + "/" + name);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -300,7 +340,7 @@ public class KubectlJobExecutor {
     command.add("resume");
     command.add(kind.toString() + "/" + name);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -325,7 +365,7 @@ public class KubectlJobExecutor {
     command.add("restart");
     command.add(kind.toString() + "/" + name);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -345,10 +385,26 @@ public class KubectlJobExecutor {
   @Nullable
   public KubernetesManifest get(
       KubernetesCredentials credentials, KubernetesKind kind, String namespace, String name) {
+    if (usesApiClient(credentials)) {
+      KubernetesApiResource resource = servedResource(credentials, kind);
+      try {
+        return callApi(
+            credentials,
+            "GET",
+            resource.resourcePath(apiClient.namespace(credentials, namespace), name),
+            ImmutableMap.of(),
+            null,
+            null,
+            parseManifest());
+      } catch (KubectlNotFoundException e) {
+        return null;
+      }
+    }
+
     List<String> command = kubectlNamespacedGet(credentials, ImmutableList.of(kind), namespace);
     command.add(name);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       if (status.getError().contains(NOT_FOUND_STRING)) {
@@ -369,16 +425,29 @@ public class KubectlJobExecutor {
   @Nonnull
   public ImmutableList<KubernetesManifest> eventsFor(
       KubernetesCredentials credentials, KubernetesKind kind, String namespace, String name) {
+    String fieldSelector =
+        String.format(
+            "involvedObject.name=%s,involvedObject.kind=%s",
+            name, StringUtils.capitalize(kind.toString()));
+
+    if (usesApiClient(credentials)) {
+      ImmutableList.Builder<KubernetesManifest> events = new ImmutableList.Builder<>();
+      listThroughApi(
+          credentials,
+          ImmutableList.of(KubernetesKind.EVENT),
+          namespace,
+          ImmutableMap.of("fieldSelector", fieldSelector),
+          events::add);
+      return events.build();
+    }
+
     List<String> command =
         kubectlNamespacedGet(credentials, ImmutableList.of(KubernetesKind.EVENT), namespace);
     command.add("--field-selector");
-    command.add(
-        String.format(
-            "involvedObject.name=%s,involvedObject.kind=%s",
-            name, StringUtils.capitalize(kind.toString())));
+    command.add(fieldSelector);
 
     JobResult<ImmutableList<KubernetesManifest>> status =
-        jobExecutor.runJob(new JobRequest(command), parseManifestList());
+        runJob(credentials, new JobRequest(command), parseManifestList());
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
@@ -398,26 +467,220 @@ public class KubectlJobExecutor {
       List<KubernetesKind> kinds,
       String namespace,
       KubernetesSelectorList selectors) {
+    ImmutableList.Builder<KubernetesManifest> manifestList = new ImmutableList.Builder<>();
+    list(credentials, kinds, namespace, selectors, manifestList::add);
+    return manifestList.build();
+  }
+
+  /**
+   * Lists the resources of kinds, handing each manifest to consumer as soon as it has been parsed
+   * from kubectl's output rather than once the whole list has been read.
+   *
+   * <p>consumer is called from the thread reading kubectl's output; if the command fails after
+   * some manifests have been consumed, a KubectlException is still thrown.
+   */
+  public void list(
+      KubernetesCredentials credentials,
+      List<KubernetesKind> kinds,
+      String namespace,
+      KubernetesSelectorList selectors,
+      Consumer<KubernetesManifest> consumer) {
+    if (usesApiClient(credentials)) {
+      listThroughApi(
+          credentials,
+          kinds,
+          namespace,
+          selectors.isNotEmpty()
+              ? ImmutableMap.of("labelSelector", selectors.toString())
+              : ImmutableMap.of(),
+          consumer);
+      return;
+    }
+
     List<String> command = kubectlNamespacedGet(credentials, kinds, namespace);
     if (selectors.isNotEmpty()) {
       command.add("-l=" + selectors.toString());
     }
 
-    JobResult<ImmutableList<KubernetesManifest>> status =
-        jobExecutor.runJob(new JobRequest(command), parseManifestList());
+    JobResult<Void> status =
+        runJob(credentials, new JobRequest(command), parseManifestList(consumer));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException(
           "Failed to read " + kinds + " from " + namespace + ": " + status.getError());
     }
+  }
 
-    if (status.getError().contains("No resources found")) {
-      return ImmutableList.of();
+  /**
+   * Looks up the resource serving kind through the API server's discovery endpoints, using the
+   * preferred version of the kind's group.
+   *
+   * @return the resource, or empty if kind is not served or cannot be listed and watched
+   */
+  @Nonnull
+  public Optional<KubernetesApiResource> apiResource(
+      KubernetesCredentials credentials, KubernetesKind kind) {
+    return discoverResource(credentials, kind, true);
+  }
+
+  /**
+   * @param listAndWatch whether to only return the resource if it can be listed and watched
+   * @return the resource serving kind, or empty if kind is not served
+   */
+  private Optional<KubernetesApiResource> discoverResource(
+      KubernetesCredentials credentials, KubernetesKind kind, boolean listAndWatch) {
+    KubernetesApiGroup apiGroup = kind.getApiGroup();
+    String groupVersion;
+    if (apiGroup.equals(KubernetesApiGroup.NONE) || apiGroup.equals(KubernetesApiGroup.CORE)) {
+      groupVersion = "v1";
+    } else {
+      Map<String, Object> group = getRaw(credentials, "/apis/" + apiGroup);
+      Map<String, Object> preferredVersion =
+          group == null ? null : (Map<String, Object>) group.get("preferredVersion");
+      if (preferredVersion == null) {
+        return Optional.empty();
+      }
+      groupVersion = (String) preferredVersion.get("groupVersion");
+    }
+
+    Map<String, Object> resourceList =
+        getRaw(credentials, (groupVersion.contains("/") ? "/apis/" : "/api/") + groupVersion);
+    if (resourceList == null) {
+      return Optional.empty();
+    }
+    List<Map<String, Object>> resources =
+        (List<Map<String, Object>>) resourceList.getOrDefault("resources", Collections.emptyList());
+    for (Map<String, Object> resource : resources) {
+      String name = (String) resource.get("name");
+      String kindName = (String) resource.get("kind");
+      List<String> verbs = (List<String>) resource.getOrDefault("verbs", Collections.emptyList());
+      // subresources such as deployments/scale report the kind of their parent
+      if (name == null || name.contains("/") || !kind.getName().equalsIgnoreCase(kindName)) {
+        continue;
+      }
+      if (listAndWatch && (!verbs.contains("list") || !verbs.contains("watch"))) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          new KubernetesApiResource(
+              kind, kindName, groupVersion, name, Boolean.TRUE.equals(resource.get("namespaced"))));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Lists the collection of resource in namespace straight from the API server, so that the
+   * returned list carries the resourceVersion a subsequent {@link #watch} can start from.
+   */
+  @Nonnull
+  public KubernetesManifestList listWithResourceVersion(
+      KubernetesCredentials credentials, KubernetesApiResource resource, String namespace) {
+    if (usesApiClient(credentials)) {
+      return callApi(
+          credentials,
+          "GET",
+          resource.collectionPath(namespace),
+          ImmutableMap.of(),
+          null,
+          null,
+          parseVersionedManifestList(resource));
+    }
+
+    List<String> command = kubectlRawGet(credentials, resource.collectionPath(namespace));
+
+    JobResult<KubernetesManifestList> status =
+        runJob(credentials, new JobRequest(command), parseVersionedManifestList(resource));
+
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      throw new KubectlException(
+          "Failed to read " + resource.getKind() + " from " + namespace + ": " + status.getError());
     }
 
     return status.getOutput();
   }
 
+  /**
+   * Watches the collection of resource in namespace from resourceVersion, passing each event to
+   * handler as it is read. The watch is closed by the API server after timeoutSeconds.
+   *
+   * <p>A watch stays open for most of timeoutSeconds, so it is only supported by the in-process
+   * client: a kubectl process per watched kind and namespace would be held open for as long, out
+   * of reach of the limits of {@link KubectlProcessScheduler}. For the same reason it does not wait
+   * for or hold one of those permits, which would otherwise be taken from the short-lived calls of
+   * the account.
+   *
+   * @throws KubectlException if the account does not use the {@link KubernetesApiBackend#NATIVE}
+   *     backend
+   * @throws KubectlResourceVersionExpiredException if the API server rejects resourceVersion as
+   *     too old, in which case the collection has to be listed again
+   */
+  public void watch(
+      KubernetesCredentials credentials,
+      KubernetesApiResource resource,
+      String namespace,
+      String resourceVersion,
+      int timeoutSeconds,
+      Consumer<KubernetesWatchEvent> handler) {
+    if (!usesApiClient(credentials)) {
+      throw new KubectlException(
+          "Failed to watch "
+              + resource.getKind()
+              + " in "
+              + namespace
+              + ": watching requires the "
+              + KubernetesApiBackend.NATIVE
+              + " api backend");
+    }
+
+    apiClient.request(
+        credentials,
+        "GET",
+        resource.collectionPath(namespace),
+        ImmutableMap.<String, String>builder()
+            .put("watch", "true")
+            .put("allowWatchBookmarks", "true")
+            .put("resourceVersion", resourceVersion)
+            .put("timeoutSeconds", String.valueOf(timeoutSeconds))
+            .build(),
+        null,
+        null,
+        processScheduler.recordingOutput(credentials, parseWatchEvents(resource, handler)));
+  }
+
+  @Nullable
+  private Map<String, Object> getRaw(KubernetesCredentials credentials, String path) {
+    if (usesApiClient(credentials)) {
+      try {
+        return callApi(
+            credentials,
+            "GET",
+            path,
+            ImmutableMap.of(),
+            null,
+            null,
+            r -> parseApiResponse(r, new TypeToken<Map<String, Object>>() {}.getType()));
+      } catch (KubectlNotFoundException e) {
+        return null;
+      }
+    }
+
+    JobResult<String> status =
+        runJob(credentials, new JobRequest(kubectlRawGet(credentials, path)));
+
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      if (status.getError().contains(NOT_FOUND_STRING)) {
+        return null;
+      }
+      throw new KubectlException("Failed to read " + path + ": " + status.getError());
+    }
+
+    try {
+      return gson.fromJson(status.getOutput(), new TypeToken<Map<String, Object>>() {}.getType());
+    } catch (JsonSyntaxException e) {
+      throw new KubectlException("Failed to parse kubectl output: " + e.getMessage(), e);
+    }
+  }
+
   public KubernetesManifest deploy(KubernetesCredentials credentials, KubernetesManifest manifest) {
     List<String> command = kubectlAuthPrefix(credentials);
 
@@ -431,7 +694,8 @@ public class KubectlJobExecutor {
     command.add("-");
 
     JobResult<String> status =
-        jobExecutor.runJob(
+        runJob(
+            credentials,
             new JobRequest(
                 command,
                 new ByteArrayInputStream(manifestAsJson.getBytes(StandardCharsets.UTF_8))));
@@ -461,7 +725,8 @@ public class KubectlJobExecutor {
     command.add("-");
 
     JobResult<String> status =
-        jobExecutor.runJob(
+        runJob(
+            credentials,
             new JobRequest(
                 command,
                 new ByteArrayInputStream(manifestAsJson.getBytes(StandardCharsets.UTF_8))));
@@ -493,7 +758,8 @@ public class KubectlJobExecutor {
     command.add("-");
 
     JobResult<String> status =
-        jobExecutor.runJob(
+        runJob(
+            credentials,
             new JobRequest(
                 command,
                 new ByteArrayInputStream(manifestAsJson.getBytes(StandardCharsets.UTF_8))));
@@ -587,6 +853,15 @@ public class KubectlJobExecutor {
     return command;
   }
 
+  private List<String> kubectlRawGet(KubernetesCredentials credentials, String path) {
+    List<String> command = kubectlAuthPrefix(credentials);
+    command.add("get");
+    command.add("--raw");
+    command.add(path);
+
+    return command;
+  }
+
   private String getOAuthToken(KubernetesCredentials credentials) {
     List<String> command = new ArrayList<>();
     command.add(oAuthExecutable);
@@ -595,7 +870,7 @@ public class KubectlJobExecutor {
     command.add(credentials.getOAuthServiceAccount());
     command.addAll(credentials.getOAuthScopes());
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       throw new KubectlException("Could not fetch OAuth token: " + status.getError());
@@ -613,7 +888,7 @@ public class KubectlJobExecutor {
     }
     command.add("--containers");
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       if (status.getError().contains("not available")) {
@@ -666,6 +941,20 @@ public class KubectlJobExecutor {
       String name,
       KubernetesPatchOptions options,
       String patchBody) {
+    // --record annotates the resource with the kubectl command line, so it still needs kubectl
+    if (usesApiClient(credentials) && !options.isRecord()) {
+      KubernetesApiResource resource = servedResource(credentials, kind);
+      callApi(
+          credentials,
+          "PATCH",
+          resource.resourcePath(apiClient.namespace(credentials, namespace), name),
+          ImmutableMap.of(),
+          patchContentType(options.getMergeStrategy()),
+          patchBody,
+          r -> null);
+      return null;
+    }
+
     List<String> command = kubectlNamespacedAuthPrefix(credentials, namespace);
 
     command.add("patch");
@@ -685,7 +974,7 @@ public class KubectlJobExecutor {
     command.add("--patch");
     command.add(patchBody);
 
-    JobResult<String> status = jobExecutor.runJob(new JobRequest(command));
+    JobResult<String> status = runJob(credentials, new JobRequest(command));
 
     if (status.getResult() != JobResult.Result.SUCCESS) {
       String errMsg = status.getError();
@@ -703,22 +992,174 @@ public class KubectlJobExecutor {
     return null;
   }
 
+  private List<String> deleteThroughApi(
+      KubernetesCredentials credentials,
+      KubernetesKind kind,
+      String namespace,
+      String name,
+      KubernetesSelectorList labelSelectors,
+      V1DeleteOptions deleteOptions) {
+    if (!Strings.isNullOrEmpty(deleteOptions.getPropagationPolicy())) {
+      throw new IllegalArgumentException(
+          "Propagation policy is not yet supported as a delete option");
+    }
+
+    KubernetesApiResource resource = servedResource(credentials, kind);
+    String resourceNamespace = apiClient.namespace(credentials, namespace);
+
+    List<String> names = new ArrayList<>();
+    if (!Strings.isNullOrEmpty(name)) {
+      names.add(name);
+    } else if (labelSelectors != null && !labelSelectors.isEmpty()) {
+      callApi(
+          credentials,
+          "GET",
+          resource.collectionPath(resourceNamespace),
+          ImmutableMap.of("labelSelector", labelSelectors.toString()),
+          null,
+          null,
+          parseManifestList(m -> names.add(m.getName())));
+    } else {
+      throw new KubectlException(
+          "Failed to delete " + kind + " from " + namespace + ": no name or label selector given");
+    }
+
+    // Mirrors the options kubectl sends for --cascade and --grace-period
+    Map<String, Object> options = new LinkedHashMap<>();
+    options.put("kind", "DeleteOptions");
+    options.put("apiVersion", "v1");
+    options.put(
+        "propagationPolicy",
+        Boolean.TRUE.equals(deleteOptions.getOrphanDependents()) ? "Orphan" : "Background");
+    if (deleteOptions.getGracePeriodSeconds() != null) {
+      options.put("gracePeriodSeconds", deleteOptions.getGracePeriodSeconds());
+    }
+    String body = gson.toJson(options);
+
+    List<String> deleted = new ArrayList<>();
+    for (String resourceName : names) {
+      try {
+        callApi(
+            credentials,
+            "DELETE",
+            resource.resourcePath(resourceNamespace, resourceName),
+            ImmutableMap.of(),
+            JSON_CONTENT_TYPE,
+            body,
+            r -> null);
+        deleted.add(resourceName);
+      } catch (KubectlNotFoundException e) {
+        // spinnaker generally accepts deletes of resources that don't exist
+      }
+    }
+    return deleted;
+  }
+
+  private void listThroughApi(
+      KubernetesCredentials credentials,
+      List<KubernetesKind> kinds,
+      String namespace,
+      Map<String, String> query,
+      Consumer<KubernetesManifest> consumer) {
+    for (KubernetesKind kind : kinds) {
+      KubernetesApiResource resource = servedResource(credentials, kind);
+      callApi(
+          credentials,
+          "GET",
+          resource.collectionPath(apiClient.namespace(credentials, namespace)),
+          query,
+          null,
+          null,
+          parseManifestList(m -> consumer.accept(withTypeMeta(m, resource))));
+    }
+  }
+
+  private boolean usesApiClient(KubernetesCredentials credentials) {
+    return credentials.getApiBackend() == KubernetesApiBackend.NATIVE
+        && Strings.isNullOrEmpty(credentials.getOAuthServiceAccount());
+  }
+
+  private KubernetesApiResource servedResource(
+      KubernetesCredentials credentials, KubernetesKind kind) {
+    return apiClient.resource(credentials, kind, k -> discoverResource(credentials, k, false));
+  }
+
+  /** Calls the API server in process, bounded and measured like a kubectl process. */
+  private <T> T callApi(
+      KubernetesCredentials credentials,
+      String method,
+      String path,
+      Map<String, String> query,
+      @Nullable String contentType,
+      @Nullable String body,
+      ReaderConsumer<T> consumer) {
+    ReaderConsumer<T> recordingConsumer = processScheduler.recordingOutput(credentials, consumer);
+    return processScheduler.run(
+        credentials,
+        () ->
+            apiClient.request(
+                credentials, method, path, query, contentType, body, recordingConsumer));
+  }
+
+  private static String patchContentType(KubernetesPatchOptions.MergeStrategy mergeStrategy) {
+    switch (mergeStrategy) {
+      case json:
+        return JSON_PATCH_CONTENT_TYPE;
+      case merge:
+        return MERGE_PATCH_CONTENT_TYPE;
+      default:
+        return STRATEGIC_MERGE_PATCH_CONTENT_TYPE;
+    }
+  }
+
+  private ReaderConsumer<KubernetesManifest> parseManifest() {
+    return (@WillClose BufferedReader r) -> parseApiResponse(r, KubernetesManifest.class);
+  }
+
+  private <T> T parseApiResponse(@WillClose BufferedReader r, Type type)
+      throws IOException {
+    try (BufferedReader reader = r) {
+      return gson.fromJson(reader, type);
+    } catch (JsonParseException e) {
+      throw new KubectlException("Failed to parse API server response: " + e.getMessage(), e);
+    }
+  }
+
+  private JobResult<String> runJob(KubernetesCredentials credentials, JobRequest request) {
+    JobResult<String> status = processScheduler.run(credentials, () -> jobExecutor.runJob(request));
+    processScheduler.recordOutput(credentials, status.getOutput());
+    return status;
+  }
+
+  private <T> JobResult<T> runJob(
+      KubernetesCredentials credentials, JobRequest request, ReaderConsumer<T> readerConsumer) {
+    ReaderConsumer<T> recordingConsumer =
+        processScheduler.recordingOutput(credentials, readerConsumer);
+    return processScheduler.run(credentials, () -> jobExecutor.runJob(request, recordingConsumer));
+  }
+
   private ReaderConsumer<ImmutableList<KubernetesManifest>> parseManifestList() {
+    return (@WillClose BufferedReader r) -> {
+      ImmutableList.Builder<KubernetesManifest> manifestList = new ImmutableList.Builder<>();
+      parseManifestList(manifestList::add).consume(r);
+      return manifestList.build();
+    };
+  }
+
+  private ReaderConsumer<Void> parseManifestList(Consumer<KubernetesManifest> consumer) {
     return (@WillClose BufferedReader r) -> {
       try (JsonReader reader = new JsonReader(r)) {
         try {
           reader.beginObject();
         } catch (EOFException e) {
-          // If the stream we're parsing is empty, just return an empty list
-          return ImmutableList.of();
+          // If the stream we're parsing is empty, there are no manifests to consume
+          return null;
         }
-        ImmutableList.Builder<KubernetesManifest> manifestList = new ImmutableList.Builder<>();
         while (reader.hasNext()) {
           if (reader.nextName().equals("items")) {
             reader.beginArray();
             while (reader.hasNext()) {
-              KubernetesManifest manifest = gson.fromJson(reader, KubernetesManifest.class);
-              manifestList.add(manifest);
+              consumer.accept(gson.fromJson(reader, KubernetesManifest.class));
             }
             reader.endArray();
           } else {
@@ -726,7 +1167,7 @@ public class KubectlJobExecutor {
           }
         }
         reader.endObject();
-        return manifestList.build();
+        return null;
       } catch (IllegalStateException | JsonSyntaxException e) {
         // An IllegalStageException is thrown when we call beginObject, nextName(), etc. and the
         // next token is not what we are asserting it to be. A JsonSyntaxException is thrown when
@@ -739,6 +1180,69 @@ public class KubectlJobExecutor {
     };
   }
 
+  private ReaderConsumer<KubernetesManifestList> parseVersionedManifestList(
+      KubernetesApiResource resource) {
+    return (@WillClose BufferedReader r) -> {
+      try (JsonReader reader = new JsonReader(r)) {
+        KubernetesManifestList list = new KubernetesManifestList();
+        List<KubernetesManifest> items = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String name = reader.nextName();
+          if (name.equals("items")) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+              items.add(withTypeMeta(gson.fromJson(reader, KubernetesManifest.class), resource));
+            }
+            reader.endArray();
+          } else if (name.equals("metadata")) {
+            Map<String, Object> metadata =
+                gson.fromJson(reader, new TypeToken<Map<String, Object>>() {}.getType());
+            list.setResourceVersion((String) metadata.get("resourceVersion"));
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+        list.setItems(items);
+        return list;
+      } catch (IllegalStateException | JsonSyntaxException e) {
+        throw new KubectlException("Failed to parse kubectl output: " + e.getMessage(), e);
+      }
+    };
+  }
+
+  /** The watch endpoint streams one JSON event after another, without any enclosing array. */
+  private ReaderConsumer<Void> parseWatchEvents(
+      KubernetesApiResource resource, Consumer<KubernetesWatchEvent> handler) {
+    return (@WillClose BufferedReader r) -> {
+      try (JsonReader reader = new JsonReader(r)) {
+        reader.setLenient(true);
+        while (reader.peek() != JsonToken.END_DOCUMENT) {
+          KubernetesWatchEvent event = gson.fromJson(reader, KubernetesWatchEvent.class);
+          if (event.getType() != KubernetesWatchEvent.Type.ERROR && event.getObject() != null) {
+            withTypeMeta(event.getObject(), resource);
+          }
+          handler.accept(event);
+        }
+        return null;
+      } catch (EOFException e) {
+        // the watch was closed without sending any events
+        return null;
+      } catch (IllegalStateException | JsonSyntaxException e) {
+        throw new KubectlException("Failed to parse kubectl output: " + e.getMessage(), e);
+      }
+    };
+  }
+
+  /** Items of raw list responses omit their kind and apiVersion, which kubectl get fills in. */
+  private static KubernetesManifest withTypeMeta(
+      KubernetesManifest manifest, KubernetesApiResource resource) {
+    manifest.putIfAbsent("kind", resource.getKindName());
+    manifest.putIfAbsent("apiVersion", resource.getGroupVersion());
+    return manifest;
+  }
+
   public static class KubectlException extends RuntimeException {
     public KubectlException(String message) {
       super(message);
@@ -754,4 +1258,10 @@ public class KubectlJobExecutor {
       super(message);
     }
   }
+
+  public static class KubectlResourceVersionExpiredException extends KubectlException {
+    public KubectlResourceVersionExpiredException(String message) {
+      super(message);
+    }
+  }
 }
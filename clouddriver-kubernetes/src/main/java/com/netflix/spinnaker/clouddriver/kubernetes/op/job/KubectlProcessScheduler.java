@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
+
+import com.google.common.base.Strings;
+import com.netflix.spectator.api.Clock;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.io.BufferedReader;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.WillClose;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the number of kubectl processes that run at once, both in total and for each account,
+ * queueing any process that would exceed either limit.
+ *
+ * <p>A process first waits for a permit of its account and only then for a global permit, and both
+ * are handed out in arrival order. An account therefore never has more processes waiting for a
+ * global permit than it may run at once, so one busy account cannot crowd out the others, and the
+ * caching agents of an account take turns rather than the first of them running all its
+ * processes.
+ *
+ * <p>Accounts using the native api backend have their in-process API calls bounded and measured
+ * the same way, as each of them stands in for a kubectl process.
+ */
+@Component
+public class KubectlProcessScheduler {
+  private final Registry registry;
+  private final Clock clock;
+  private final Semaphore globalPermits;
+  private final Map<String, AccountPermits> accountPermits = new ConcurrentHashMap<>();
+
+  @Autowired
+  public KubectlProcessScheduler(
+      Registry registry,
+      @Value("${kubernetes.kubectl.max-concurrent-processes:64}") int maxConcurrentProcesses) {
+    this.registry = registry;
+    this.clock = registry.clock();
+    this.globalPermits = new Semaphore(maxConcurrentProcesses, true);
+  }
+
+  /**
+   * Runs process once both an account and a global permit are available, recording how long it
+   * waited for them and how long it then ran.
+   */
+  public <T> T run(KubernetesCredentials credentials, Supplier<T> process) {
+    String account = accountName(credentials);
+    Semaphore accountSemaphore = accountSemaphore(account, credentials);
+    long queuedAt = clock.monotonicTime();
+    acquire(accountSemaphore);
+    try {
+      acquire(globalPermits);
+      try {
+        long startedAt = clock.monotonicTime();
+        registry
+            .timer("kubernetes.kubectl.queueTime", "account", account)
+            .record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+        try {
+          return process.get();
+        } finally {
+          registry
+              .timer("kubernetes.kubectl.execTime", "account", account)
+              .record(clock.monotonicTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+      } finally {
+        globalPermits.release();
+      }
+    } finally {
+      if (accountSemaphore != null) {
+        accountSemaphore.release();
+      }
+    }
+  }
+
+  /**
+   * Records the size of a process's buffered output. kubectl's output is almost entirely ASCII, so
+   * its length in characters is used as its size in bytes.
+   */
+  public void recordOutput(KubernetesCredentials credentials, @Nullable String output) {
+    recordOutputBytes(accountName(credentials), output == null ? 0 : output.length());
+  }
+
+  /** @return consumer, recording the size of the output it reads as it is streamed */
+  public <T> ReaderConsumer<T> recordingOutput(
+      KubernetesCredentials credentials, ReaderConsumer<T> consumer) {
+    String account = accountName(credentials);
+    return (@WillClose BufferedReader r) -> {
+      CountingReader counting = new CountingReader(r);
+      try {
+        return consumer.consume(new BufferedReader(counting));
+      } finally {
+        recordOutputBytes(account, counting.count);
+      }
+    };
+  }
+
+  private void recordOutputBytes(String account, long bytes) {
+    registry
+        .distributionSummary("kubernetes.kubectl.outputBytes", "account", account)
+        .record(bytes);
+  }
+
+  /** @return the semaphore bounding the processes of account, or null if it is unbounded */
+  @Nullable
+  private Semaphore accountSemaphore(String account, KubernetesCredentials credentials) {
+    int limit = credentials.getKubectlMaxConcurrentProcesses();
+    if (limit <= 0) {
+      return null;
+    }
+    // Processes already holding a permit of a replaced semaphore release it back to that one
+    return accountPermits
+        .compute(
+            account,
+            (a, current) ->
+                current != null && current.limit == limit ? current : new AccountPermits(limit))
+        .semaphore;
+  }
+
+  private static void acquire(@Nullable Semaphore semaphore) {
+    if (semaphore == null) {
+      return;
+    }
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KubectlException("Interrupted while waiting to run kubectl", e);
+    }
+  }
+
+  private static String accountName(KubernetesCredentials credentials) {
+    return Strings.nullToEmpty(credentials.getAccountName());
+  }
+
+  private static final class AccountPermits {
+    private final int limit;
+    private final Semaphore semaphore;
+
+    AccountPermits(int limit) {
+      this.limit = limit;
+      this.semaphore = new Semaphore(limit, true);
+    }
+  }
+
+  private static final class CountingReader extends FilterReader {
+    private long count;
+
+    CountingReader(Reader in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int c = super.read();
+      if (c >= 0) {
+        count++;
+      }
+      return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlNotFoundException;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlResourceVersionExpiredException;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
+import io.kubernetes.client.util.ClientBuilder;
+import io.kubernetes.client.util.KubeConfig;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calls the API server of an account in process, for the operations {@link KubectlJobExecutor}
+ * serves without forking kubectl when the account's api backend is {@link
+ * com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesApiBackend#NATIVE}.
+ *
+ * <p>Each account gets an {@link ApiClient} built from its kubeconfig (or its service account when
+ * running in cluster), and all of them share one connection pool, so a call reuses a connection
+ * that is already open (multiplexed over HTTP/2 where the server negotiates it) instead of paying
+ * for a process, a kubeconfig parse and a TLS handshake. Response bodies are handed to the caller
+ * as they are streamed from the connection.
+ */
+@Component
+public class KubernetesApiClient {
+  private static final String SERVICE_ACCOUNT_NAMESPACE_PATH =
+      "/var/run/secrets/kubernetes.io/serviceaccount/namespace";
+  private static final String DEFAULT_NAMESPACE = "default";
+  private static final String[] AUTH_NAMES = new String[] {"BearerToken"};
+
+  private final ConnectionPool connectionPool;
+  // Tokens from exec plugins and auth providers are only resolved when a client is built, so
+  // clients are rebuilt periodically rather than kept for the lifetime of the credentials
+  private final LoadingCache<KubernetesCredentials, AccountClient> clients;
+
+  @Autowired
+  public KubernetesApiClient(
+      @Value("${kubernetes.api-client.max-idle-connections:32}") int maxIdleConnections,
+      @Value("${kubernetes.api-client.client-expiry-minutes:5}") long clientExpiryMinutes) {
+    this.connectionPool = new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES);
+    this.clients =
+        CacheBuilder.newBuilder()
+            .weakKeys()
+            .expireAfterWrite(clientExpiryMinutes, TimeUnit.MINUTES)
+            .build(CacheLoader.from(this::buildClient));
+  }
+
+  /**
+   * Sends a request to the API server of credentials, handing the body of a successful response to
+   * consumer as it is read.
+   *
+   * @throws KubectlNotFoundException if the API server responds that the path does not exist
+   * @throws KubectlResourceVersionExpiredException if the API server responds that the requested
+   *     resourceVersion is gone
+   */
+  public <T> T request(
+      KubernetesCredentials credentials,
+      String method,
+      String path,
+      Map<String, String> query,
+      @Nullable String contentType,
+      @Nullable String body,
+      ReaderConsumer<T> consumer) {
+    ApiClient apiClient = client(credentials).apiClient;
+
+    List<Pair> queryParams = new ArrayList<>();
+    query.forEach((name, value) -> queryParams.add(new Pair(name, value)));
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Accept", "application/json");
+    if (contentType != null) {
+      headers.put("Content-Type", contentType);
+    }
+
+    try {
+      Call call =
+          apiClient.buildCall(
+              path,
+              method,
+              queryParams,
+              ImmutableList.of(),
+              body == null ? null : body.getBytes(StandardCharsets.UTF_8),
+              headers,
+              new HashMap<>(),
+              new HashMap<>(),
+              AUTH_NAMES,
+              null);
+      try (Response response = call.execute()) {
+        ResponseBody responseBody = response.body();
+        if (!response.isSuccessful()) {
+          String error = method + " " + path + " failed with status " + response.code();
+          if (responseBody != null) {
+            error += ": " + responseBody.string();
+          }
+          switch (response.code()) {
+            case 404:
+              throw new KubectlNotFoundException(error);
+            case 410:
+              throw new KubectlResourceVersionExpiredException(error);
+            default:
+              throw new KubectlException(error);
+          }
+        }
+        if (responseBody == null) {
+          return null;
+        }
+        return consumer.consume(new BufferedReader(responseBody.charStream()));
+      }
+    } catch (IOException | ApiException e) {
+      throw new KubectlException(method + " " + path + " failed: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return namespace, or the namespace kubectl would use for credentials if it is empty: that of
+   *     its context or its service account, falling back to {@code default}
+   */
+  public String namespace(KubernetesCredentials credentials, @Nullable String namespace) {
+    return Strings.isNullOrEmpty(namespace) ? client(credentials).defaultNamespace : namespace;
+  }
+
+  /**
+   * @return how the API server of credentials serves kind, using discover to look it up the first
+   *     time kind is requested for the current client of credentials
+   */
+  public KubernetesApiResource resource(
+      KubernetesCredentials credentials,
+      KubernetesKind kind,
+      Function<KubernetesKind, Optional<KubernetesApiResource>> discover) {
+    Map<KubernetesKind, KubernetesApiResource> resources = client(credentials).resources;
+    KubernetesApiResource resource = resources.get(kind);
+    if (resource == null) {
+      resource =
+          discover
+              .apply(kind)
+              .orElseThrow(
+                  () ->
+                      new KubectlException(
+                          "The API server of "
+                              + credentials.getAccountName()
+                              + " does not serve "
+                              + kind));
+      resources.put(kind, resource);
+    }
+    return resource;
+  }
+
+  private AccountClient client(KubernetesCredentials credentials) {
+    try {
+      return clients.getUnchecked(credentials);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof KubectlException) {
+        throw (KubectlException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private AccountClient buildClient(KubernetesCredentials credentials) {
+    ApiClient apiClient;
+    String defaultNamespace;
+    try {
+      if (credentials.isServiceAccount()) {
+        apiClient = ClientBuilder.cluster().build();
+        Path namespaceFile = Paths.get(SERVICE_ACCOUNT_NAMESPACE_PATH);
+        defaultNamespace =
+            Files.exists(namespaceFile)
+                ? new String(Files.readAllBytes(namespaceFile), StandardCharsets.UTF_8).trim()
+                : null;
+      } else {
+        Path kubeconfigFile = kubeconfigFile(credentials);
+        KubeConfig kubeConfig;
+        try (Reader reader = Files.newBufferedReader(kubeconfigFile)) {
+          kubeConfig = KubeConfig.loadKubeConfig(reader);
+        }
+        // Relative paths to certificates and keys are resolved against the kubeconfig's directory
+        kubeConfig.setFile(kubeconfigFile.toFile());
+        if (!Strings.isNullOrEmpty(credentials.getContext())
+            && !kubeConfig.setContext(credentials.getContext())) {
+          throw new KubectlException(
+              "Context " + credentials.getContext() + " not found in " + kubeconfigFile);
+        }
+        apiClient = ClientBuilder.kubeconfig(kubeConfig).build();
+        defaultNamespace = kubeConfig.getNamespace();
+      }
+    } catch (IOException e) {
+      throw new KubectlException(
+          "Failed to configure API client for " + credentials.getAccountName(), e);
+    }
+
+    OkHttpClient.Builder httpClient =
+        apiClient
+            .getHttpClient()
+            .newBuilder()
+            .protocols(ImmutableList.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectionPool(connectionPool);
+    Integer requestTimeoutSeconds = credentials.getKubectlRequestTimeoutSeconds();
+    if (requestTimeoutSeconds != null && requestTimeoutSeconds > 0) {
+      httpClient.callTimeout(requestTimeoutSeconds, TimeUnit.SECONDS);
+    }
+    apiClient.setHttpClient(httpClient.build());
+
+    return new AccountClient(
+        apiClient, Strings.isNullOrEmpty(defaultNamespace) ? DEFAULT_NAMESPACE : defaultNamespace);
+  }
+
+  private static Path kubeconfigFile(KubernetesCredentials credentials) {
+    if (!Strings.isNullOrEmpty(credentials.getKubeconfigFile())) {
+      return Paths.get(credentials.getKubeconfigFile());
+    }
+    String kubeconfigEnv = System.getenv("KUBECONFIG");
+    if (!Strings.isNullOrEmpty(kubeconfigEnv)) {
+      return Paths.get(kubeconfigEnv.split(File.pathSeparator)[0]);
+    }
+    return Paths.get(System.getProperty("user.home"), ".kube", "config");
+  }
+
+  private static final class AccountClient {
+    private final ApiClient apiClient;
+    private final String defaultNamespace;
+    private final Map<KubernetesKind, KubernetesApiResource> resources = new ConcurrentHashMap<>();
+
+    AccountClient(ApiClient apiClient, String defaultNamespace) {
+      this.apiClient = apiClient;
+      this.defaultNamespace = defaultNamespace;
+    }
+  }
+}
@@ -35,11 +35,13 @@ import com.netflix.spectator.api.Clock;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.agent.KubernetesCacheDataConverter;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.CustomKubernetesResource;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesApiBackend;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesCachingPolicy;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.LinkedDockerRegistryConfiguration;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.AccountResourcePropertyRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPatchOptions;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
@@ -49,6 +51,8 @@ import com.netflix.spinnaker.clouddriver.kubernetes.description.ResourceProperty
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKindProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifestList;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesWatchEvent;
 import com.netflix.spinnaker.clouddriver.kubernetes.names.KubernetesNamerRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
@@ -60,6 +64,7 @@ import io.kubernetes.client.openapi.models.V1beta1CustomResourceDefinition;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -98,6 +103,9 @@ public class KubernetesCredentials {
   @Include @Getter private final String kubectlExecutable;
 
   @Include @Getter private final Integer kubectlRequestTimeoutSeconds;
+  @Include @Getter private final int kubectlMaxConcurrentProcesses;
+
+  @Include @Getter private final KubernetesApiBackend apiBackend;
 
   @Getter private final String kubeconfigFile;
 
@@ -123,6 +131,10 @@ public class KubernetesCredentials {
 
   @Include @Getter private final boolean debug;
 
+  @Include @Getter private final boolean watchResources;
+
+  @Include @Getter private final int watchTimeoutSeconds;
+
   @Getter private final ResourcePropertyRegistry resourcePropertyRegistry;
   private final KubernetesKindRegistry kindRegistry;
   @Getter private final KubernetesSpinnakerKindMap kubernetesSpinnakerKindMap;
@@ -133,6 +145,7 @@ public class KubernetesCredentials {
       Memoizer.memoizeWithExpiration(
           this::namespaceSupplier, NAMESPACE_EXPIRY_SECONDS, TimeUnit.SECONDS);
   @Getter private final Namer<KubernetesManifest> namer;
+  private final Map<KubernetesKind, KubernetesApiResource> apiResources = new ConcurrentHashMap<>();
 
   private KubernetesCredentials(
       Registry registry,
@@ -179,6 +192,8 @@ public class KubernetesCredentials {
 
     this.kubectlExecutable = managedAccount.getKubectlExecutable();
     this.kubectlRequestTimeoutSeconds = managedAccount.getKubectlRequestTimeoutSeconds();
+    this.kubectlMaxConcurrentProcesses = managedAccount.getKubectlMaxConcurrentProcesses();
+    this.apiBackend = managedAccount.getApiBackend();
     this.kubeconfigFile = kubeconfigFile;
     this.kubeconfigFileHash = KubeconfigFileHasher.hashKubeconfigFile(kubeconfigFile);
     this.serviceAccount = managedAccount.isServiceAccount();
@@ -194,10 +209,32 @@ public class KubernetesCredentials {
     this.metrics = managedAccount.isMetrics();
 
     this.debug = managedAccount.isDebug();
+    this.watchResources = watchResources(managedAccount);
+    this.watchTimeoutSeconds = managedAccount.getWatchTimeoutSeconds();
     this.namer = manifestNamer;
     this.cacheAllApplicationRelationships = managedAccount.isCacheAllApplicationRelationships();
   }
 
+  /**
+   * Resources are only watched with the in-process client, as each watch would otherwise hold a
+   * kubectl process open for every watched kind and namespace.
+   */
+  private static boolean watchResources(KubernetesConfigurationProperties.ManagedAccount account) {
+    if (!account.isWatchResources()) {
+      return false;
+    }
+    if (account.getApiBackend() != KubernetesApiBackend.NATIVE
+        || !Strings.isNullOrEmpty(account.getOAuthServiceAccount())) {
+      log.warn(
+          "Account {} sets watchResources but does not use the {} api backend, so its resources"
+              + " will be listed on every caching cycle instead",
+          account.getName(),
+          KubernetesApiBackend.NATIVE);
+      return false;
+    }
+    return true;
+  }
+
   /**
    * Thin wrapper around a Caffeine cache that handles memoizing a supplier function with expiration
    */
@@ -422,6 +459,80 @@ public class KubernetesCredentials {
     }
   }
 
+  /**
+   * Lists the resources of kinds, handing each manifest to consumer as it is read instead of
+   * collecting them into a list.
+   */
+  public void list(
+      List<KubernetesKind> kinds, String namespace, Consumer<KubernetesManifest> consumer) {
+    if (kinds.isEmpty()) {
+      return;
+    }
+    runAndRecordMetrics(
+        "list",
+        kinds,
+        namespace,
+        () -> {
+          jobExecutor.list(this, kinds, namespace, new KubernetesSelectorList(), consumer);
+          return null;
+        });
+  }
+
+  /**
+   * @return how the API server serves kind, or empty if it cannot be listed and watched; only
+   *     resources that were found are remembered, so a kind that is not served yet or whose lookup
+   *     failed is looked up again next time
+   */
+  @Nonnull
+  public Optional<KubernetesApiResource> getApiResource(KubernetesKind kind) {
+    KubernetesApiResource resource = apiResources.get(kind);
+    if (resource != null) {
+      return Optional.of(resource);
+    }
+
+    Optional<KubernetesApiResource> discovered =
+        runAndRecordMetrics("discover", kind, null, () -> jobExecutor.apiResource(this, kind));
+    discovered.ifPresent(r -> apiResources.put(kind, r));
+    return discovered;
+  }
+
+  @Nonnull
+  public KubernetesManifestList listWithResourceVersion(
+      KubernetesApiResource resource, String namespace) {
+    return runAndRecordMetrics(
+        "list",
+        resource.getKind(),
+        namespace,
+        () -> jobExecutor.listWithResourceVersion(this, resource, namespace));
+  }
+
+  public void watch(
+      KubernetesApiResource resource,
+      String namespace,
+      String resourceVersion,
+      Consumer<KubernetesWatchEvent> handler) {
+    runAndRecordMetrics(
+        "watch",
+        resource.getKind(),
+        namespace,
+        () -> {
+          jobExecutor.watch(
+              this, resource, namespace, resourceVersion, effectiveWatchTimeoutSeconds(), handler);
+          return null;
+        });
+  }
+
+  /**
+   * @return the watch timeout, shortened if need be so that the API server closes a watch before
+   *     the request timeout of the account fails it
+   */
+  private int effectiveWatchTimeoutSeconds() {
+    if (kubectlRequestTimeoutSeconds != null && kubectlRequestTimeoutSeconds > 1) {
+      return Math.min(watchTimeoutSeconds, kubectlRequestTimeoutSeconds - 1);
+    }
+    return watchTimeoutSeconds;
+  }
+
   /** Deprecated in favor of {@link KubernetesCredentials#eventsFor(KubernetesCoordinates)}. */
   @Deprecated
   @Nonnull
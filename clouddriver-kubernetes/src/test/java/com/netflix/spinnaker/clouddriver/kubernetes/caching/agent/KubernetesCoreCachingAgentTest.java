@@ -21,6 +21,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +41,7 @@ import com.netflix.spinnaker.cats.mem.InMemoryCache;
 import com.netflix.spinnaker.cats.provider.DefaultProviderCache;
 import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesCachingPolicy;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.GlobalResourcePropertyRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
@@ -52,6 +54,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAcco
 import com.netflix.spinnaker.moniker.Namer;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 import lombok.Value;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -139,33 +142,46 @@ final class KubernetesCoreCachingAgentTest {
     when(credentials.list(any(List.class), any()))
         .thenAnswer(
             (Answer<ImmutableList<KubernetesManifest>>)
-                invocation -> {
-                  Object[] args = invocation.getArguments();
-                  ImmutableSet<KubernetesKind> kinds =
-                      ImmutableSet.copyOf((List<KubernetesKind>) args[0]);
-                  String namespace = (String) args[1];
-                  ImmutableList.Builder<KubernetesManifest> result = new ImmutableList.Builder<>();
-                  if (kinds.contains(KubernetesKind.DEPLOYMENT) && NAMESPACE1.equals(namespace)) {
-                    result.add(deploymentManifest());
-                  }
-                  if (kinds.contains(KubernetesKind.STORAGE_CLASS)) {
-                    result.add(storageClassManifest());
-                  }
-                  return result.build();
-                });
+                invocation -> listManifests(invocation.getArgument(0), invocation.getArgument(1)));
+    doAnswer(
+            invocation -> {
+              Consumer<KubernetesManifest> consumer = invocation.getArgument(2);
+              listManifests(invocation.getArgument(0), invocation.getArgument(1)).forEach(consumer);
+              return null;
+            })
+        .when(credentials)
+        .list(any(List.class), any(), any(Consumer.class));
     when(credentials.getNamer()).thenReturn(NAMER);
     return credentials;
   }
 
+  /** Returns the test manifests of kinds in namespace */
+  private static ImmutableList<KubernetesManifest> listManifests(
+      List<KubernetesKind> kindList, String namespace) {
+    ImmutableSet<KubernetesKind> kinds = ImmutableSet.copyOf(kindList);
+    ImmutableList.Builder<KubernetesManifest> result = new ImmutableList.Builder<>();
+    if (kinds.contains(KubernetesKind.DEPLOYMENT) && NAMESPACE1.equals(namespace)) {
+      result.add(deploymentManifest());
+    }
+    if (kinds.contains(KubernetesKind.STORAGE_CLASS)) {
+      result.add(storageClassManifest());
+    }
+    return result.build();
+  }
+
   /**
    * Returns a KubernetesNamedAccountCredentials that contains a mock KubernetesCredentials object
    */
   private static KubernetesNamedAccountCredentials getNamedAccountCredentials() {
+    return getNamedAccountCredentials(mockKubernetesCredentials());
+  }
+
+  private static KubernetesNamedAccountCredentials getNamedAccountCredentials(
+      KubernetesCredentials mockCredentials) {
     KubernetesConfigurationProperties.ManagedAccount managedAccount =
         new KubernetesConfigurationProperties.ManagedAccount();
     managedAccount.setName(ACCOUNT);
 
-    KubernetesCredentials mockCredentials = mockKubernetesCredentials();
     KubernetesCredentials.Factory credentialFactory = mock(KubernetesCredentials.Factory.class);
     when(credentialFactory.build(managedAccount)).thenReturn(mockCredentials);
     return new KubernetesNamedAccountCredentials(managedAccount, credentialFactory);
@@ -256,6 +272,57 @@ final class KubernetesCoreCachingAgentTest {
         .containsExactly(STORAGE_CLASS_NAME);
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 10})
+  public void cachingPolicyKeepsTheSameEntriesOnEveryRun(int numAgents) {
+    KubernetesCredentials credentials = mockKubernetesCredentials();
+    KubernetesCachingPolicy policy = new KubernetesCachingPolicy();
+    policy.setKubernetesKind(DEPLOYMENT_KIND);
+    policy.setMaxEntriesPerAgent(1);
+    when(credentials.getCachingPolicies()).thenReturn(ImmutableList.of(policy));
+    // Each namespace lists its deployments in reverse order of name
+    doAnswer(
+            invocation -> {
+              List<KubernetesKind> kinds = invocation.getArgument(0);
+              String namespace = invocation.getArgument(1);
+              Consumer<KubernetesManifest> consumer = invocation.getArgument(2);
+              if (namespace != null && kinds.contains(KubernetesKind.DEPLOYMENT)) {
+                for (String name : ImmutableList.of("c", "b", "a")) {
+                  KubernetesManifest deployment = deploymentManifest();
+                  deployment.setNamespace(namespace);
+                  deployment.setName(name);
+                  consumer.accept(deployment);
+                }
+              }
+              return null;
+            })
+        .when(credentials)
+        .list(any(List.class), any(), any(Consumer.class));
+
+    ImmutableCollection<KubernetesCoreCachingAgent> cachingAgents =
+        createCachingAgents(getNamedAccountCredentials(credentials), numAgents);
+    for (int i = 0; i < 3; i++) {
+      LoadDataResult loadDataResult = processLoadData(cachingAgents, ImmutableMap.of());
+
+      // each agent keeps the first deployment by namespace and name of the namespaces it handles
+      ImmutableSet<String> expected =
+          cachingAgents.stream()
+              .map(KubernetesCachingAgent::getNamespaces)
+              .filter(namespaces -> !namespaces.isEmpty())
+              .map(
+                  namespaces ->
+                      Keys.InfrastructureCacheKey.createKey(
+                          KubernetesKind.DEPLOYMENT,
+                          ACCOUNT,
+                          namespaces.stream().sorted().findFirst().get(),
+                          "a"))
+              .collect(ImmutableSet.toImmutableSet());
+      assertThat(loadDataResult.getResults().get(DEPLOYMENT_KIND))
+          .extracting(CacheData::getId)
+          .containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
   /**
    * Given an on-demand cache request, constructs a set of caching agents and sends the on-demand
    * request to those agents, returning a collection of all non-null results of handing those
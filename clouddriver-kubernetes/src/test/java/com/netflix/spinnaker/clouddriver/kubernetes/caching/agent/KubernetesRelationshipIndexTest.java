@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesCoordinates;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesRelationshipIndexTest {
+  private static final String NAMESPACE = "test-namespace";
+  private static final String OTHER_NAMESPACE = "other-namespace";
+
+  private static KubernetesCoordinates coordinates(
+      KubernetesKind kind, String namespace, String name) {
+    return KubernetesCoordinates.builder().kind(kind).namespace(namespace).name(name).build();
+  }
+
+  @Test
+  void selectorMatchesWorkloadsWithAllLabels() {
+    KubernetesCoordinates service = coordinates(KubernetesKind.SERVICE, NAMESPACE, "service");
+    KubernetesCoordinates frontend = coordinates(KubernetesKind.REPLICA_SET, NAMESPACE, "fe");
+    KubernetesCoordinates backend = coordinates(KubernetesKind.REPLICA_SET, NAMESPACE, "be");
+    KubernetesCoordinates otherNamespace =
+        coordinates(KubernetesKind.REPLICA_SET, OTHER_NAMESPACE, "fe");
+
+    KubernetesRelationshipIndex index = new KubernetesRelationshipIndex();
+    index.addPodTemplateLabels(frontend, ImmutableMap.of("app", "web", "tier", "frontend"));
+    index.addPodTemplateLabels(backend, ImmutableMap.of("app", "web", "tier", "backend"));
+    index.addPodTemplateLabels(otherNamespace, ImmutableMap.of("app", "web", "tier", "frontend"));
+    index.addSelector(service, ImmutableMap.of("app", "web", "tier", "frontend"));
+
+    Map<KubernetesCoordinates, Set<KubernetesCoordinates>> result = index.resolve(c -> true);
+
+    assertThat(result).containsOnlyKeys(service);
+    assertThat(result.get(service)).containsExactly(frontend);
+  }
+
+  @Test
+  void emptySelectorMatchesNothing() {
+    KubernetesCoordinates service = coordinates(KubernetesKind.SERVICE, NAMESPACE, "service");
+    KubernetesCoordinates replicaSet = coordinates(KubernetesKind.REPLICA_SET, NAMESPACE, "rs");
+
+    KubernetesRelationshipIndex index = new KubernetesRelationshipIndex();
+    index.addPodTemplateLabels(replicaSet, ImmutableMap.of("app", "web"));
+    index.addSelector(service, ImmutableMap.of());
+
+    assertThat(index.resolve(c -> true)).isEmpty();
+  }
+
+  @Test
+  void referenceIfPresentRequiresTarget() {
+    KubernetesCoordinates ingress = coordinates(KubernetesKind.INGRESS, NAMESPACE, "ingress");
+    KubernetesCoordinates present = coordinates(KubernetesKind.SERVICE, NAMESPACE, "present");
+    KubernetesCoordinates missing = coordinates(KubernetesKind.SERVICE, NAMESPACE, "missing");
+
+    KubernetesRelationshipIndex index = new KubernetesRelationshipIndex();
+    index.addResource(present);
+    index.addReferenceIfPresent(ingress, present);
+    index.addReferenceIfPresent(ingress, missing);
+
+    Map<KubernetesCoordinates, Set<KubernetesCoordinates>> result = index.resolve(c -> true);
+
+    assertThat(result.get(ingress)).containsExactly(present);
+  }
+
+  @Test
+  void resolveOnlyIncludedSources() {
+    KubernetesCoordinates included = coordinates(KubernetesKind.EVENT, NAMESPACE, "included");
+    KubernetesCoordinates excluded = coordinates(KubernetesKind.EVENT, NAMESPACE, "excluded");
+    KubernetesCoordinates pod = coordinates(KubernetesKind.POD, NAMESPACE, "pod");
+
+    KubernetesRelationshipIndex index = new KubernetesRelationshipIndex();
+    index.addReference(included, pod);
+    index.addReference(excluded, pod);
+
+    Map<KubernetesCoordinates, Set<KubernetesCoordinates>> result = index.resolve(included::equals);
+
+    assertThat(result).containsOnlyKeys(included);
+    assertThat(result.get(included)).containsExactly(pod);
+  }
+
+  @Test
+  void addAllResolvesAcrossMergedIndexes() {
+    KubernetesCoordinates service = coordinates(KubernetesKind.SERVICE, NAMESPACE, "service");
+    KubernetesCoordinates replicaSet = coordinates(KubernetesKind.REPLICA_SET, NAMESPACE, "rs");
+    KubernetesCoordinates ingress = coordinates(KubernetesKind.INGRESS, NAMESPACE, "ingress");
+
+    KubernetesRelationshipIndex serviceIndex = new KubernetesRelationshipIndex();
+    serviceIndex.addResource(service);
+    serviceIndex.addSelector(service, ImmutableMap.of("app", "web"));
+    KubernetesRelationshipIndex replicaSetIndex = new KubernetesRelationshipIndex();
+    replicaSetIndex.addResource(replicaSet);
+    replicaSetIndex.addPodTemplateLabels(replicaSet, ImmutableMap.of("app", "web"));
+    KubernetesRelationshipIndex ingressIndex = new KubernetesRelationshipIndex();
+    ingressIndex.addResource(ingress);
+    ingressIndex.addReferenceIfPresent(ingress, service);
+
+    KubernetesRelationshipIndex index = new KubernetesRelationshipIndex();
+    index.addAll(serviceIndex);
+    index.addAll(replicaSetIndex);
+    index.addAll(ingressIndex);
+    Map<KubernetesCoordinates, Set<KubernetesCoordinates>> result = index.resolve(c -> true);
+
+    assertThat(result).containsOnlyKeys(service, ingress);
+    assertThat(result.get(service)).containsExactly(replicaSet);
+    assertThat(result.get(ingress)).containsExactly(service);
+  }
+}
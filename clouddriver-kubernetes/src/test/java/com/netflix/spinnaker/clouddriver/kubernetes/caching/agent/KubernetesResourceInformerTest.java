@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifestList;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlResourceVersionExpiredException;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesResourceInformerTest {
+  private static final String NAMESPACE = "test-namespace";
+  private static final KubernetesApiResource PODS =
+      new KubernetesApiResource(KubernetesKind.POD, "Pod", "v1", "pods", true);
+
+  private static KubernetesManifest pod(String name, String resourceVersion) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("name", name);
+    metadata.put("namespace", NAMESPACE);
+    metadata.put("resourceVersion", resourceVersion);
+
+    KubernetesManifest pod = new KubernetesManifest();
+    pod.put("kind", "Pod");
+    pod.put("apiVersion", "v1");
+    pod.put("metadata", metadata);
+    return pod;
+  }
+
+  private static KubernetesWatchEvent event(KubernetesWatchEvent.Type type, KubernetesManifest o) {
+    KubernetesWatchEvent event = new KubernetesWatchEvent();
+    event.setType(type);
+    event.setObject(o);
+    return event;
+  }
+
+  private static KubernetesManifestList list(String resourceVersion, KubernetesManifest... items) {
+    KubernetesManifestList list = new KubernetesManifestList();
+    list.setItems(ImmutableList.copyOf(items));
+    list.setResourceVersion(resourceVersion);
+    return list;
+  }
+
+  private final KubernetesCredentials credentials = mock(KubernetesCredentials.class);
+  private final List<Runnable> watches = new ArrayList<>();
+  private final KubernetesResourceInformer informer =
+      new KubernetesResourceInformer(credentials, KubernetesKind.POD, NAMESPACE, watches::add);
+  private final CountDownLatch idle = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  @Nullable private Thread watchThread;
+
+  @BeforeEach
+  void setUp() {
+    when(credentials.getApiResource(KubernetesKind.POD)).thenReturn(Optional.of(PODS));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    informer.close();
+    release.countDown();
+    if (watchThread != null) {
+      watchThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  private void watchReturns(String resourceVersion, KubernetesWatchEvent... events) {
+    doAnswer(
+            invocation -> {
+              Consumer<KubernetesWatchEvent> handler = invocation.getArgument(3);
+              for (KubernetesWatchEvent event : events) {
+                handler.accept(event);
+              }
+              return null;
+            })
+        .when(credentials)
+        .watch(eq(PODS), eq(NAMESPACE), eq(resourceVersion), any());
+  }
+
+  /** The watch from resourceVersion stays open until the informer is closed. */
+  private void watchIdles(String resourceVersion) {
+    doAnswer(
+            invocation -> {
+              idle.countDown();
+              release.await();
+              return null;
+            })
+        .when(credentials)
+        .watch(eq(PODS), eq(NAMESPACE), eq(resourceVersion), any());
+  }
+
+  /** Runs the watch started by the first sync in the background. */
+  private void startWatch() {
+    assertThat(watches).hasSize(1);
+    watchThread = new Thread(watches.get(0));
+    watchThread.start();
+  }
+
+  private void awaitIdle() throws InterruptedException {
+    assertThat(idle.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void listsAndStartsWatchOnFirstSync() {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5"), pod("b", "6")));
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list()).extracting(KubernetesManifest::getName).containsExactly("a", "b");
+    assertThat(watches).hasSize(1);
+    verify(credentials, never()).watch(any(), any(), any(), any());
+  }
+
+  @Test
+  void appliesWatchEventsInTheBackground() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5"), pod("b", "6")));
+    watchReturns(
+        "10",
+        event(KubernetesWatchEvent.Type.MODIFIED, pod("a", "11")),
+        event(KubernetesWatchEvent.Type.DELETED, pod("b", "12")),
+        event(KubernetesWatchEvent.Type.ADDED, pod("c", "13")));
+    watchIdles("13");
+
+    informer.sync();
+    startWatch();
+    awaitIdle();
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list())
+        .extracting(KubernetesManifest::getResourceVersion)
+        .containsExactly("11", "13");
+
+    // nothing changed since, and the watch that is open is left running
+    assertThat(informer.sync()).isFalse();
+    assertThat(watches).hasSize(1);
+    verify(credentials, times(1)).listWithResourceVersion(PODS, NAMESPACE);
+  }
+
+  @Test
+  void bookmarksAdvanceResourceVersionWithoutChanges() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5")));
+    KubernetesManifest bookmark = new KubernetesManifest();
+    bookmark.put("metadata", new HashMap<>(ImmutableMap.of("resourceVersion", "20")));
+    watchReturns("10", event(KubernetesWatchEvent.Type.BOOKMARK, bookmark));
+    watchIdles("20");
+
+    informer.sync();
+    startWatch();
+    awaitIdle();
+
+    assertThat(informer.sync()).isFalse();
+    verify(credentials).watch(eq(PODS), eq(NAMESPACE), eq("20"), any());
+  }
+
+  @Test
+  void relistsWhenResourceVersionExpires() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5")), list("30", pod("d", "25")));
+    KubernetesManifest status = new KubernetesManifest();
+    status.put("kind", "Status");
+    status.put("code", 410.0);
+    watchReturns("10", event(KubernetesWatchEvent.Type.ERROR, status));
+    watchIdles("30");
+
+    informer.sync();
+    startWatch();
+    awaitIdle();
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list()).extracting(KubernetesManifest::getName).containsExactly("d");
+    verify(credentials, times(2)).listWithResourceVersion(PODS, NAMESPACE);
+  }
+
+  @Test
+  void relistsWhenWatchIsRejectedAsExpired() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5")), list("30", pod("d", "25")));
+    doThrow(new KubectlResourceVersionExpiredException("too old resource version"))
+        .when(credentials)
+        .watch(eq(PODS), eq(NAMESPACE), eq("10"), any());
+    watchIdles("30");
+
+    informer.sync();
+    startWatch();
+    awaitIdle();
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list()).extracting(KubernetesManifest::getName).containsExactly("d");
+  }
+
+  @Test
+  void listsAgainAfterWatchFails() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5")), list("30", pod("d", "25")));
+    doThrow(new KubectlException("connection refused"))
+        .when(credentials)
+        .watch(eq(PODS), eq(NAMESPACE), eq("10"), any());
+
+    informer.sync();
+    startWatch();
+    watchThread.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list()).extracting(KubernetesManifest::getName).containsExactly("d");
+    assertThat(watches).hasSize(2);
+  }
+
+  @Test
+  void stopsWatchingOnceClosed() throws InterruptedException {
+    when(credentials.listWithResourceVersion(PODS, NAMESPACE))
+        .thenReturn(list("10", pod("a", "5")));
+    watchIdles("10");
+
+    informer.sync();
+    startWatch();
+    awaitIdle();
+    informer.close();
+    release.countDown();
+    watchThread.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertThat(watchThread.isAlive()).isFalse();
+    verify(credentials, times(1)).watch(any(), any(), any(), any());
+  }
+
+  @Test
+  void listsKindsThatCannotBeWatched() {
+    when(credentials.getApiResource(KubernetesKind.POD)).thenReturn(Optional.empty());
+    when(credentials.list(KubernetesKind.POD, NAMESPACE))
+        .thenReturn(ImmutableList.of(pod("a", "5")));
+
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.sync()).isTrue();
+    assertThat(informer.list()).extracting(KubernetesManifest::getName).containsExactly("a");
+    assertThat(watches).isEmpty();
+    verify(credentials, times(2)).list(KubernetesKind.POD, NAMESPACE);
+  }
+}
@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -83,6 +84,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.junit.jupiter.api.BeforeAll;
@@ -584,16 +586,37 @@ final class KubernetesDataProviderIntegrationTest {
             any(KubernetesSelectorList.class)))
         .thenAnswer(
             invocation ->
-                manifestsByNamespace.get(invocation.getArgument(2, String.class)).stream()
-                    .map(
-                        file ->
-                            ManifestFetcher.getManifest(
-                                KubernetesDataProviderIntegrationTest.class, file))
-                    .filter(m -> invocation.getArgument(1, List.class).contains(m.getKind()))
-                    .collect(toImmutableList()));
+                listManifests(
+                    invocation.getArgument(2, String.class),
+                    invocation.getArgument(1, List.class)));
+    doAnswer(
+            invocation -> {
+              Consumer<KubernetesManifest> consumer = invocation.getArgument(4);
+              listManifests(
+                      invocation.getArgument(2, String.class),
+                      invocation.getArgument(1, List.class))
+                  .forEach(consumer);
+              return null;
+            })
+        .when(jobExecutor)
+        .list(
+            any(KubernetesCredentials.class),
+            anyList(),
+            any(String.class),
+            any(KubernetesSelectorList.class),
+            any(Consumer.class));
     return jobExecutor;
   }
 
+  private static ImmutableList<KubernetesManifest> listManifests(
+      String namespace, List<KubernetesKind> kinds) {
+    return manifestsByNamespace.get(namespace).stream()
+        .map(
+            file -> ManifestFetcher.getManifest(KubernetesDataProviderIntegrationTest.class, file))
+        .filter(m -> kinds.contains(m.getKind()))
+        .collect(toImmutableList());
+  }
+
   private static KubernetesNamedAccountCredentials getNamedAccountCredentials() {
     KubernetesConfigurationProperties.ManagedAccount managedAccount =
         new KubernetesConfigurationProperties.ManagedAccount();
@@ -18,20 +18,26 @@
 package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.io.Resources;
+import com.netflix.spectator.api.NoopRegistry;
 import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
 import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult.Result;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric.ContainerMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.KubectlException;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
@@ -52,7 +58,7 @@ final class KubectlJobExecutorTest {
             JobResult.<String>builder().result(Result.SUCCESS).output("").error("").build());
 
     KubectlJobExecutor kubectlJobExecutor =
-        new KubectlJobExecutor(jobExecutor, "kubectl", "oauth2l");
+        new KubectlJobExecutor(jobExecutor, processScheduler(), apiClient(), "kubectl", "oauth2l");
     Collection<KubernetesPodMetric> podMetrics =
         kubectlJobExecutor.topPod(mockKubernetesCredentials(), "test", "");
     assertThat(podMetrics).isEmpty();
@@ -73,7 +79,7 @@ final class KubectlJobExecutorTest {
                 .build());
 
     KubectlJobExecutor kubectlJobExecutor =
-        new KubectlJobExecutor(jobExecutor, "kubectl", "oauth2l");
+        new KubectlJobExecutor(jobExecutor, processScheduler(), apiClient(), "kubectl", "oauth2l");
     Collection<KubernetesPodMetric> podMetrics =
         kubectlJobExecutor.topPod(mockKubernetesCredentials(), NAMESPACE, "");
     assertThat(podMetrics).hasSize(2);
@@ -116,6 +122,30 @@ final class KubectlJobExecutorTest {
     }
   }
 
+  @Test
+  void watchRequiresNativeBackend() {
+    JobExecutor jobExecutor = mock(JobExecutor.class);
+    KubectlJobExecutor kubectlJobExecutor =
+        new KubectlJobExecutor(jobExecutor, processScheduler(), apiClient(), "kubectl", "oauth2l");
+    KubernetesApiResource pods =
+        new KubernetesApiResource(KubernetesKind.POD, "Pod", "v1", "pods", true);
+
+    assertThatThrownBy(
+            () ->
+                kubectlJobExecutor.watch(
+                    mockKubernetesCredentials(), pods, NAMESPACE, "10", 300, event -> {}))
+        .isInstanceOf(KubectlException.class);
+    verifyNoInteractions(jobExecutor);
+  }
+
+  private static KubectlProcessScheduler processScheduler() {
+    return new KubectlProcessScheduler(new NoopRegistry(), 4);
+  }
+
+  private static KubernetesApiClient apiClient() {
+    return new KubernetesApiClient(4, 5);
+  }
+
   /** Returns a mock KubernetesCredentials object */
   private static KubernetesCredentials mockKubernetesCredentials() {
     KubernetesCredentials credentials = mock(KubernetesCredentials.class);
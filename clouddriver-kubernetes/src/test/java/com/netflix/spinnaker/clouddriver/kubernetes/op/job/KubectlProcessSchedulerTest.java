@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubectlProcessSchedulerTest {
+  private static KubernetesCredentials credentials(String account, int maxConcurrentProcesses) {
+    KubernetesCredentials credentials = mock(KubernetesCredentials.class);
+    when(credentials.getAccountName()).thenReturn(account);
+    when(credentials.getKubectlMaxConcurrentProcesses()).thenReturn(maxConcurrentProcesses);
+    return credentials;
+  }
+
+  /** Runs processes of credentials on separate threads, returning the most that ran at once */
+  private static int maxConcurrency(
+      KubectlProcessScheduler scheduler, int processes, KubernetesCredentials... credentials)
+      throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(processes);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < processes; i++) {
+        KubernetesCredentials account = credentials[i % credentials.length];
+        futures.add(
+            executor.submit(
+                () ->
+                    scheduler.run(
+                        account,
+                        () -> {
+                          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                          sleep();
+                          return running.decrementAndGet();
+                        })));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return maxRunning.get();
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void limitsProcessesPerAccount() throws Exception {
+    KubectlProcessScheduler scheduler = new KubectlProcessScheduler(new DefaultRegistry(), 10);
+    assertThat(maxConcurrency(scheduler, 8, credentials("account", 2))).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void limitsProcessesGlobally() throws Exception {
+    KubectlProcessScheduler scheduler = new KubectlProcessScheduler(new DefaultRegistry(), 3);
+    assertThat(maxConcurrency(scheduler, 12, credentials("a", 4), credentials("b", 4)))
+        .isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void accountWithoutLimitOnlyLimitedGlobally() throws Exception {
+    KubectlProcessScheduler scheduler = new KubectlProcessScheduler(new DefaultRegistry(), 3);
+    assertThat(maxConcurrency(scheduler, 6, credentials("account", 0))).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void recordsTimesAndStreamedOutput() throws Exception {
+    Registry registry = new DefaultRegistry();
+    KubectlProcessScheduler scheduler = new KubectlProcessScheduler(registry, 1);
+    KubernetesCredentials credentials = credentials("account", 1);
+
+    ReaderConsumer<String> consumer =
+        scheduler.recordingOutput(credentials, BufferedReader::readLine);
+    String output =
+        scheduler.run(
+            credentials, () -> consume(consumer, new BufferedReader(new StringReader("hello"))));
+
+    assertThat(output).isEqualTo("hello");
+    assertThat(registry.timer("kubernetes.kubectl.queueTime", "account", "account").count())
+        .isEqualTo(1);
+    assertThat(registry.timer("kubernetes.kubectl.execTime", "account", "account").count())
+        .isEqualTo(1);
+    assertThat(
+            registry
+                .distributionSummary("kubernetes.kubectl.outputBytes", "account", "account")
+                .totalAmount())
+        .isEqualTo(5);
+  }
+
+  private static String consume(ReaderConsumer<String> consumer, BufferedReader reader) {
+    try {
+      return consumer.consume(reader);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.op.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
+import com.netflix.spinnaker.clouddriver.jobs.local.JobExecutorLocal;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesApiBackend;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesSelectorList;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.kubernetes.client.openapi.models.V1DeleteOptions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesApiClientTest {
+  private static final String NAMESPACE = "test-namespace";
+  private static final int BENCHMARK_CALLS = 20;
+  private static final String POD =
+      "{\"kind\":\"Pod\",\"apiVersion\":\"v1\",\"metadata\":{\"name\":\"pod-a\",\"namespace\":\""
+          + NAMESPACE
+          + "\"}}";
+
+  private final Map<String, String> responses = new ConcurrentHashMap<>();
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private HttpServer server;
+  private Path kubeconfig;
+
+  @BeforeEach
+  void startServer(@TempDir Path tempDir) throws IOException {
+    responses.put("GET /api", "{\"kind\":\"APIVersions\",\"versions\":[\"v1\"]}");
+    responses.put(
+        "GET /apis",
+        "{\"kind\":\"APIGroupList\",\"groups\":[{\"name\":\"apps\",\"versions\":"
+            + "[{\"groupVersion\":\"apps/v1\",\"version\":\"v1\"}],"
+            + "\"preferredVersion\":{\"groupVersion\":\"apps/v1\",\"version\":\"v1\"}}]}");
+    responses.put(
+        "GET /api/v1",
+        "{\"kind\":\"APIResourceList\",\"groupVersion\":\"v1\",\"resources\":["
+            + "{\"name\":\"pods\",\"namespaced\":true,\"kind\":\"Pod\","
+            + "\"verbs\":[\"get\",\"list\"]},"
+            + "{\"name\":\"pods/log\",\"namespaced\":true,\"kind\":\"Pod\",\"verbs\":[\"get\"]}]}");
+    responses.put(
+        "GET /apis/apps",
+        "{\"kind\":\"APIGroup\",\"name\":\"apps\","
+            + "\"preferredVersion\":{\"groupVersion\":\"apps/v1\",\"version\":\"v1\"}}");
+    responses.put(
+        "GET /apis/apps/v1",
+        "{\"kind\":\"APIResourceList\",\"groupVersion\":\"apps/v1\",\"resources\":["
+            + "{\"name\":\"deployments\",\"namespaced\":true,\"kind\":\"Deployment\"},"
+            + "{\"name\":\"deployments/scale\",\"namespaced\":true,\"kind\":\"Scale\"}]}");
+    responses.put(
+        "GET /api/v1/namespaces/" + NAMESPACE + "/pods",
+        "{\"kind\":\"PodList\",\"apiVersion\":\"v1\",\"metadata\":{\"resourceVersion\":\"7\"},"
+            + "\"items\":[{\"metadata\":{\"name\":\"pod-a\"}},"
+            + "{\"metadata\":{\"name\":\"pod-b\"}}]}");
+    responses.put("GET /api/v1/namespaces/" + NAMESPACE + "/pods/pod-a", POD);
+
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", this::handle);
+    server.start();
+
+    kubeconfig = tempDir.resolve("kubeconfig");
+    Files.write(
+        kubeconfig,
+        String.join(
+                "\n",
+                "apiVersion: v1",
+                "kind: Config",
+                "clusters:",
+                "- name: stub",
+                "  cluster:",
+                "    server: http://127.0.0.1:" + server.getAddress().getPort(),
+                "contexts:",
+                "- name: stub",
+                "  context:",
+                "    cluster: stub",
+                "    user: stub",
+                "    namespace: " + NAMESPACE,
+                "current-context: stub",
+                "users:",
+                "- name: stub",
+                "  user:",
+                "    token: test-token")
+            .getBytes(StandardCharsets.UTF_8));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+    String body;
+    try (InputStream in = exchange.getRequestBody()) {
+      body = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+    }
+    requests.add(
+        request
+            + (exchange.getRequestURI().getQuery() == null
+                ? ""
+                : "?" + exchange.getRequestURI().getQuery())
+            + " "
+            + exchange.getRequestHeaders().getFirst("Authorization")
+            + " "
+            + exchange.getRequestHeaders().getFirst("Content-Type")
+            + " "
+            + body);
+
+    String response = responses.get(request);
+    if (response == null && !exchange.getRequestMethod().equals("GET")) {
+      response = "{}";
+    }
+    byte[] bytes =
+        (response == null ? "{\"kind\":\"Status\",\"reason\":\"NotFound\"}" : response)
+            .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(response == null ? 404 : 200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private KubernetesCredentials credentials(KubernetesApiBackend apiBackend) {
+    KubernetesCredentials credentials = mock(KubernetesCredentials.class);
+    when(credentials.getAccountName()).thenReturn("account");
+    when(credentials.getApiBackend()).thenReturn(apiBackend);
+    when(credentials.getKubectlExecutable()).thenReturn("");
+    when(credentials.getKubeconfigFile()).thenReturn(kubeconfig.toString());
+    return credentials;
+  }
+
+  private static KubectlJobExecutor executor(JobExecutor jobExecutor) {
+    return executor(jobExecutor, new KubectlProcessScheduler(new NoopRegistry(), 4));
+  }
+
+  private static KubectlJobExecutor executor(
+      JobExecutor jobExecutor, KubectlProcessScheduler processScheduler) {
+    return new KubectlJobExecutor(
+        jobExecutor,
+        processScheduler,
+        new KubernetesApiClient(4, 5),
+        "kubectl",
+        "oauth2l");
+  }
+
+  @Test
+  void listStreamsItemsWithTypeMetaFromContextNamespace() {
+    JobExecutor jobExecutor = mock(JobExecutor.class);
+    List<KubernetesManifest> manifests = new ArrayList<>();
+
+    executor(jobExecutor)
+        .list(
+            credentials(KubernetesApiBackend.NATIVE),
+            ImmutableList.of(KubernetesKind.POD),
+            null,
+            new KubernetesSelectorList(),
+            manifests::add);
+
+    assertThat(manifests).extracting(KubernetesManifest::getName).containsExactly("pod-a", "pod-b");
+    assertThat(manifests).extracting(KubernetesManifest::getKindName).containsOnly("Pod");
+    assertThat(manifests).extracting(m -> m.get("apiVersion")).containsOnly("v1");
+    assertThat(requests)
+        .anySatisfy(
+            r ->
+                assertThat(r)
+                    .startsWith("GET /api/v1/namespaces/" + NAMESPACE + "/pods Bearer test-token"));
+    verifyNoInteractions(jobExecutor);
+  }
+
+  @Test
+  void getReturnsNullForMissingResource() {
+    KubectlJobExecutor executor = executor(mock(JobExecutor.class));
+    KubernetesCredentials credentials = credentials(KubernetesApiBackend.NATIVE);
+
+    assertThat(executor.get(credentials, KubernetesKind.POD, NAMESPACE, "pod-a").getName())
+        .isEqualTo("pod-a");
+    assertThat(executor.get(credentials, KubernetesKind.POD, NAMESPACE, "missing")).isNull();
+  }
+
+  @Test
+  void deleteSendsKubectlDeleteOptions() {
+    V1DeleteOptions deleteOptions = new V1DeleteOptions();
+    deleteOptions.setOrphanDependents(true);
+    deleteOptions.setGracePeriodSeconds(5L);
+
+    List<String> deleted =
+        executor(mock(JobExecutor.class))
+            .delete(
+                credentials(KubernetesApiBackend.NATIVE),
+                KubernetesKind.POD,
+                NAMESPACE,
+                "pod-a",
+                new KubernetesSelectorList(),
+                deleteOptions);
+
+    assertThat(deleted).containsExactly("pod-a");
+    assertThat(requests)
+        .contains(
+            "DELETE /api/v1/namespaces/"
+                + NAMESPACE
+                + "/pods/pod-a Bearer test-token application/json "
+                + "{\"kind\":\"DeleteOptions\",\"apiVersion\":\"v1\","
+                + "\"propagationPolicy\":\"Orphan\",\"gracePeriodSeconds\":5}");
+  }
+
+  @Test
+  void scalePatchesScaleSubresource() {
+    executor(mock(JobExecutor.class))
+        .scale(
+            credentials(KubernetesApiBackend.NATIVE),
+            KubernetesKind.DEPLOYMENT,
+            NAMESPACE,
+            "web",
+            3);
+
+    assertThat(requests)
+        .contains(
+            "PATCH /apis/apps/v1/namespaces/"
+                + NAMESPACE
+                + "/deployments/web/scale Bearer test-token application/merge-patch+json "
+                + "{\"spec\":{\"replicas\":3}}");
+  }
+
+  @Test
+  void watchParsesConcatenatedEventsWithoutProcessPermits() {
+    responses.put(
+        "GET /api/v1/namespaces/" + NAMESPACE + "/pods",
+        "{\"type\":\"ADDED\","
+            + "\"object\":{\"metadata\":{\"name\":\"my-pod\",\"resourceVersion\":\"11\"}}}\n"
+            + "{\"type\":\"BOOKMARK\",\"object\":{\"metadata\":{\"resourceVersion\":\"12\"}}}\n"
+            + "{\"type\":\"ERROR\",\"object\":{\"kind\":\"Status\",\"code\":410}}\n");
+    JobExecutor jobExecutor = mock(JobExecutor.class);
+    // no permits at all, so a watch that waited for one would never run
+    KubectlJobExecutor executor =
+        executor(jobExecutor, new KubectlProcessScheduler(new NoopRegistry(), 0));
+    KubernetesApiResource pods =
+        new KubernetesApiResource(KubernetesKind.POD, "Pod", "v1", "pods", true);
+    List<KubernetesWatchEvent> events = new ArrayList<>();
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () ->
+            executor.watch(
+                credentials(KubernetesApiBackend.NATIVE), pods, NAMESPACE, "10", 1, events::add));
+
+    assertThat(events).hasSize(3);
+    assertThat(events.get(0).getType()).isEqualTo(KubernetesWatchEvent.Type.ADDED);
+    assertThat(events.get(0).getObject().getKind()).isEqualTo(KubernetesKind.POD);
+    assertThat(events.get(0).getObject().getName()).isEqualTo("my-pod");
+    assertThat(events.get(1).getObject().getResourceVersion()).isEqualTo("12");
+    assertThat(events.get(2).isExpired()).isTrue();
+    assertThat(requests)
+        .anySatisfy(
+            r ->
+                assertThat(r)
+                    .startsWith(
+                        "GET /api/v1/namespaces/"
+                            + NAMESPACE
+                            + "/pods?watch=true&allowWatchBookmarks=true&resourceVersion=10"));
+    verifyNoInteractions(jobExecutor);
+  }
+
+  @Test
+  void watchEmptyOutput() {
+    responses.put("GET /api/v1/namespaces/" + NAMESPACE + "/pods", "");
+    KubernetesApiResource pods =
+        new KubernetesApiResource(KubernetesKind.POD, "Pod", "v1", "pods", true);
+    List<KubernetesWatchEvent> events = new ArrayList<>();
+
+    executor(mock(JobExecutor.class))
+        .watch(credentials(KubernetesApiBackend.NATIVE), pods, NAMESPACE, "10", 1, events::add);
+
+    assertThat(events).isEmpty();
+  }
+
+  /**
+   * Checks that kubectl and the in-process client read the same resource, when a kubectl binary is
+   * available.
+   */
+  @Test
+  void nativeGetMatchesKubectl() {
+    assumeTrue(kubectlAvailable(), "kubectl is not installed");
+    KubectlJobExecutor executor = executor(new JobExecutorLocal(1));
+
+    KubernetesManifest viaKubectl =
+        executor.get(
+            credentials(KubernetesApiBackend.KUBECTL), KubernetesKind.POD, NAMESPACE, "pod-a");
+    KubernetesManifest viaNative =
+        executor.get(
+            credentials(KubernetesApiBackend.NATIVE), KubernetesKind.POD, NAMESPACE, "pod-a");
+
+    assertThat(viaNative).isEqualTo(viaKubectl);
+  }
+
+  /**
+   * Reports the per-call latency of a get through kubectl and through the in-process client
+   * against the stub server. Nothing is asserted on the timings, which depend on the host.
+   */
+  @Test
+  @Tag("benchmark")
+  void reportGetLatencyOfKubectlAndNative() {
+    assumeTrue(kubectlAvailable(), "kubectl is not installed");
+    KubectlJobExecutor executor = executor(new JobExecutorLocal(1));
+    KubernetesCredentials kubectl = credentials(KubernetesApiBackend.KUBECTL);
+    KubernetesCredentials nativeClient = credentials(KubernetesApiBackend.NATIVE);
+
+    // warm up both paths so class loading and connection setup are not measured
+    executor.get(kubectl, KubernetesKind.POD, NAMESPACE, "pod-a");
+    executor.get(nativeClient, KubernetesKind.POD, NAMESPACE, "pod-a");
+
+    Duration viaKubectl = averageGet(executor, kubectl);
+    Duration viaNative = averageGet(executor, nativeClient);
+
+    System.out.printf(
+        "get latency over %d calls: kubectl %d us, native %d us%n",
+        BENCHMARK_CALLS, viaKubectl.toNanos() / 1000, viaNative.toNanos() / 1000);
+  }
+
+  private static Duration averageGet(
+      KubectlJobExecutor executor, KubernetesCredentials credentials) {
+    long start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_CALLS; i++) {
+      assertThat(executor.get(credentials, KubernetesKind.POD, NAMESPACE, "pod-a")).isNotNull();
+    }
+    return Duration.ofNanos((System.nanoTime() - start) / BENCHMARK_CALLS);
+  }
+
+  private static boolean kubectlAvailable() {
+    try {
+      Process process = new ProcessBuilder("kubectl", "version", "--client").start();
+      return process.waitFor(30, TimeUnit.SECONDS) && process.exitValue() == 0;
+    } catch (IOException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
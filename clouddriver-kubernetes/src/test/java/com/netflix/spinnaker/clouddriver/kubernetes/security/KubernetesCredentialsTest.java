@@ -23,6 +23,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -33,9 +35,11 @@ import com.netflix.spectator.api.NoopRegistry;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
 import com.netflix.spectator.api.Timer;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesApiBackend;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties.ManagedAccount;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.AccountResourcePropertyRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.GlobalResourcePropertyRegistry;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesApiResource;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesSpinnakerKindMap;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
@@ -48,6 +52,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor.Ku
 import com.netflix.spinnaker.kork.configserver.CloudConfigResourceService;
 import com.netflix.spinnaker.kork.configserver.ConfigFileService;
 import java.util.HashMap;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
@@ -59,6 +64,17 @@ final class KubernetesCredentialsTest {
   private static final String NAMESPACE = "my-namespace";
 
   private KubernetesCredentials getCredentials(Registry registry, KubectlJobExecutor jobExecutor) {
+    return getCredentials(registry, jobExecutor, getManagedAccount());
+  }
+
+  private static ManagedAccount getManagedAccount() {
+    ManagedAccount managedAccount = new ManagedAccount();
+    managedAccount.setName("my-account");
+    return managedAccount;
+  }
+
+  private KubernetesCredentials getCredentials(
+      Registry registry, KubectlJobExecutor jobExecutor, ManagedAccount managedAccount) {
     KubernetesCredentials.Factory factory =
         new KubernetesCredentials.Factory(
             registry,
@@ -71,8 +87,6 @@ final class KubernetesCredentialsTest {
             new KubernetesKindRegistry.Factory(
                 new GlobalKubernetesKindRegistry(ImmutableList.of())),
             new KubernetesSpinnakerKindMap(ImmutableList.of()));
-    ManagedAccount managedAccount = new ManagedAccount();
-    managedAccount.setName("my-account");
     return factory.build(managedAccount);
   }
 
@@ -389,6 +403,55 @@ final class KubernetesCredentialsTest {
     assertThat(result).isEqualTo(manifest);
   }
 
+  @Test
+  void apiResourceIsLookedUpOnceFound() {
+    KubectlJobExecutor jobExecutor = mock(KubectlJobExecutor.class);
+    KubernetesCredentials credentials = getCredentials(new NoopRegistry(), jobExecutor);
+    KubernetesApiResource deployments =
+        new KubernetesApiResource(
+            KubernetesKind.DEPLOYMENT, "Deployment", "apps/v1", "deployments", true);
+    when(jobExecutor.apiResource(credentials, KubernetesKind.DEPLOYMENT))
+        .thenReturn(Optional.of(deployments));
+
+    assertThat(credentials.getApiResource(KubernetesKind.DEPLOYMENT)).contains(deployments);
+    assertThat(credentials.getApiResource(KubernetesKind.DEPLOYMENT)).contains(deployments);
+    verify(jobExecutor, times(1)).apiResource(credentials, KubernetesKind.DEPLOYMENT);
+  }
+
+  @Test
+  void apiResourceIsLookedUpAgainWhenMissingOrFailed() {
+    KubectlJobExecutor jobExecutor = mock(KubectlJobExecutor.class);
+    KubernetesCredentials credentials = getCredentials(new NoopRegistry(), jobExecutor);
+    KubernetesApiResource deployments =
+        new KubernetesApiResource(
+            KubernetesKind.DEPLOYMENT, "Deployment", "apps/v1", "deployments", true);
+    when(jobExecutor.apiResource(credentials, KubernetesKind.DEPLOYMENT))
+        .thenReturn(Optional.empty())
+        .thenThrow(new KubectlException("discovery failed"))
+        .thenReturn(Optional.of(deployments));
+
+    assertThat(credentials.getApiResource(KubernetesKind.DEPLOYMENT)).isEmpty();
+    assertThatThrownBy(() -> credentials.getApiResource(KubernetesKind.DEPLOYMENT))
+        .isInstanceOf(KubectlException.class);
+    assertThat(credentials.getApiResource(KubernetesKind.DEPLOYMENT)).contains(deployments);
+    verify(jobExecutor, times(3)).apiResource(credentials, KubernetesKind.DEPLOYMENT);
+  }
+
+  @Test
+  void watchResourcesRequiresNativeBackend() {
+    KubectlJobExecutor jobExecutor = mock(KubectlJobExecutor.class);
+    ManagedAccount kubectlAccount = getManagedAccount();
+    kubectlAccount.setWatchResources(true);
+    ManagedAccount nativeAccount = getManagedAccount();
+    nativeAccount.setWatchResources(true);
+    nativeAccount.setApiBackend(KubernetesApiBackend.NATIVE);
+
+    assertThat(getCredentials(new NoopRegistry(), jobExecutor, kubectlAccount).isWatchResources())
+        .isFalse();
+    assertThat(getCredentials(new NoopRegistry(), jobExecutor, nativeAccount).isWatchResources())
+        .isTrue();
+  }
+
   // This is an error type that will only ever be thrown by stubs in this test; that way we can
   // assert that it is thrown and be sure that we aren't accidentally passing due to an unrelated
   // exception.
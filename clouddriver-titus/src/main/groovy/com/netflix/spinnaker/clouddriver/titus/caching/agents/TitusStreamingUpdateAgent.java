@@ -26,7 +26,6 @@ import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.IMA
 import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.INSTANCES;
 import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.SERVER_GROUPS;
 import static java.util.Collections.EMPTY_LIST;
-import static java.util.Collections.EMPTY_SET;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -86,6 +85,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -98,7 +98,6 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Provider;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -240,13 +239,14 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
      * <p>After the initial snapshot persist, the agent continues to consume observeJobs events,
      * updating StreamingCacheState, including a list of jobIds we've received events for. Once
      * either titus.streaming.changeThreshold events have been consumed, or
-     * titus.streaming.timeThresholdMs ms has passed, cacheResults are built for the full resource
-     * graph of applications that have had job/task updates. This is more work than only directly
-     * updating i.e. server groups based on job updates or instance based on task updates, but
-     * avoids pitfalls in properly maintaining relationships to or deleting higher level objects. if
-     * the last server group in a cluster is deleted, the cluster object must also be deleted, and
-     * the application object updated. The later cannot currently be done incrementally in an atomic
-     * operation; safely updating an application object requires rebuilding it with full context.
+     * titus.streaming.timeThresholdMs ms has passed, cacheResults are built for the server groups
+     * and instances of the jobs that have had job/task updates only. Safely updating an application
+     * or cluster object still requires rebuilding it with full context, so StreamingCacheState
+     * indexes the server groups last cached by application and cluster: those affected by the
+     * updated jobs are rebuilt from that index, and an application or cluster whose last server
+     * group was deleted is evicted. Scaling policies and load balancers are fetched for the whole region, so they
+     * are only refreshed every titus.streaming.policy-refresh-ms, updating the jobs whose policies
+     * or load balancers changed.
      */
     @Override
     public void executeAgent(Agent agent) {
@@ -359,9 +359,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
 
     private void updateJob(StreamingCacheState state, Job job) {
       String jobId = job.getId();
-      String application = job.getJobDescriptor().getApplicationName();
 
-      state.jobIdToApp.put(jobId, application);
       if (state.snapshotComplete) {
         state.updatedJobs.add(jobId);
       }
@@ -431,6 +429,10 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
 
     private void writeToCache(StreamingCacheState state) {
       long startTime = System.currentTimeMillis();
+      boolean refreshPolicies =
+          startTime - state.lastPolicyRefresh
+              >= dynamicConfigService.getConfig(
+                  Integer.class, "titus.streaming.policy-refresh-ms", 30000);
 
       if (!state.savedSnapshot
           || state.changes.get()
@@ -439,7 +441,8 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
           || (startTime - state.lastUpdate.get()
                   > dynamicConfigService.getConfig(
                       Integer.class, "titus.streaming.time-threshold-ms", 5000)
-              && state.changes.get() > 0)) {
+              && state.changes.get() > 0)
+          || refreshPolicies) {
         if (!state.savedSnapshot) {
           log.info(
               "Storing snapshot with {} job and tasks in {}", state.changes.get(), getAgentType());
@@ -453,22 +456,14 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
               getAgentType());
         }
 
-        List<ScalingPolicyResult> scalingPolicyResults =
-            titusAutoscalingClient != null
-                ? titusAutoscalingClient.getAllScalingPolicies()
-                : emptyList();
-        PercentileTimer.get(registry, metricId.withTag("operation", "getScalingPolicies"))
-            .record(System.currentTimeMillis() - startTime, MILLISECONDS);
-
-        long startLoadBalancerTime = System.currentTimeMillis();
-        Map<String, List<String>> allLoadBalancers =
-            titusLoadBalancerClient != null
-                ? titusLoadBalancerClient.getAllLoadBalancers()
-                : emptyMap();
-        PercentileTimer.get(registry, metricId.withTag("operation", "getLoadBalancers"))
-            .record(System.currentTimeMillis() - startLoadBalancerTime, MILLISECONDS);
+        if (!state.savedSnapshot || refreshPolicies) {
+          refreshScalingPoliciesAndLoadBalancers(state);
+        }
 
-        CacheResult result = buildCacheResult(state, scalingPolicyResults, allLoadBalancers);
+        CacheResult result =
+            state.savedSnapshot
+                ? buildCacheResult(state, state.updatedJobs, false)
+                : buildCacheResult(state, state.jobs.keySet(), true);
 
         Collection<String> authoritative =
             TYPES.stream()
@@ -483,11 +478,6 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
           cache.putCacheResult(getAgentType(), authoritative, result);
         }
 
-        // prune jobIdToApp
-        Set<String> completedJobs = new HashSet<>(state.jobIdToApp.keySet());
-        completedJobs.removeAll(state.jobs.keySet());
-        completedJobs.forEach(j -> state.jobIdToApp.remove(j));
-
         state.updatedJobs = new HashSet<>();
         state.lastUpdate.set(System.currentTimeMillis());
         state.changes.set(0);
@@ -497,10 +487,58 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       }
     }
 
+    /**
+     * Fetches the scaling policies and load balancers of every job in the region, marking the jobs
+     * whose policies or load balancers changed since they were last fetched as updated.
+     */
+    private void refreshScalingPoliciesAndLoadBalancers(StreamingCacheState state) {
+      long startTime = System.currentTimeMillis();
+      List<ScalingPolicyResult> scalingPolicyResults =
+          titusAutoscalingClient != null
+              ? titusAutoscalingClient.getAllScalingPolicies()
+              : emptyList();
+      Map<String, List<ScalingPolicyResult>> scalingPolicies =
+          scalingPolicyResults.stream()
+              .filter(it -> CACHEABLE_POLICY_STATES.contains(it.getPolicyState().getState()))
+              .collect(Collectors.groupingBy(it -> it.getJobId().toLowerCase()));
+      PercentileTimer.get(registry, metricId.withTag("operation", "getScalingPolicies"))
+          .record(System.currentTimeMillis() - startTime, MILLISECONDS);
+
+      long startLoadBalancerTime = System.currentTimeMillis();
+      Map<String, List<String>> loadBalancers =
+          titusLoadBalancerClient != null
+              ? titusLoadBalancerClient.getAllLoadBalancers()
+              : emptyMap();
+      PercentileTimer.get(registry, metricId.withTag("operation", "getLoadBalancers"))
+          .record(System.currentTimeMillis() - startLoadBalancerTime, MILLISECONDS);
+
+      if (state.savedSnapshot) {
+        for (String jobId : state.jobs.keySet()) {
+          String policyJobId = jobId.toLowerCase();
+          if (!Objects.equals(
+                  state.scalingPolicies.get(policyJobId), scalingPolicies.get(policyJobId))
+              || !Objects.equals(state.loadBalancers.get(jobId), loadBalancers.get(jobId))) {
+            state.updatedJobs.add(jobId);
+          }
+        }
+      }
+
+      state.scalingPolicies = scalingPolicies;
+      state.loadBalancers = loadBalancers;
+      state.lastPolicyRefresh = System.currentTimeMillis();
+    }
+
+    /**
+     * Builds the server groups, images and instances of jobIds, and the applications and clusters
+     * those server groups were added to or removed from. Applications and clusters are built from
+     * the server groups indexed in state rather than by rebuilding all of their server groups, so
+     * the cost of an incremental update follows the number of updated jobs.
+     *
+     * @param snapshot whether jobIds are all the jobs of the account, in which case the index is
+     *     rebuilt and nothing is evicted
+     */
     private CacheResult buildCacheResult(
-        StreamingCacheState state,
-        List<ScalingPolicyResult> scalingPolicyResults,
-        Map<String, List<String>> allLoadBalancers) {
+        StreamingCacheState state, Collection<String> jobIds, boolean snapshot) {
       // INITIALIZE CACHES
       Map<String, CacheData> applicationCache = createCache();
       Map<String, CacheData> clusterCache = createCache();
@@ -509,156 +547,109 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       Map<String, CacheData> imageCache = createCache();
       Map<String, CacheData> instancesCache = createCache();
 
-      // These are used to calculate deletes when updating incrementally
-      Set<String> currentApps = new HashSet<>();
-      Set<String> currentClusters = new HashSet<>();
-      Set<String> currentServerGroups = new HashSet<>();
-
-      Map<String, Job> jobs;
+      if (snapshot) {
+        state.serverGroups.clear();
+        state.jobIdToServerGroup.clear();
+        state.appToServerGroups.clear();
+        state.clusterToServerGroups.clear();
+      }
 
-      if (state.savedSnapshot) {
-        List<String> missingJobMappings =
-            state.updatedJobs.stream()
-                .filter(j -> !state.jobIdToApp.containsKey(j))
-                .collect(Collectors.toList());
-
-        if (!missingJobMappings.isEmpty()) {
-          log.error(
-              "{} updatedJobs missing from jobIdToApp cache: {}",
-              getAgentType(),
-              missingJobMappings);
+      // These are used to rebuild or delete applications and clusters when updating incrementally
+      Set<String> changedApps = new HashSet<>();
+      Set<String> changedClusters = new HashSet<>();
+      Set<String> removedServerGroups = new HashSet<>();
+
+      for (String jobId : jobIds) {
+        String previousServerGroup = state.jobIdToServerGroup.remove(jobId);
+        ServerGroupSummary previous =
+            previousServerGroup != null ? state.serverGroups.get(previousServerGroup) : null;
+        // another job may have since been cached as the same server group
+        if (previous != null && jobId.equals(previous.jobId)) {
+          state.serverGroups.remove(previousServerGroup);
+          removeFromIndex(state.appToServerGroups, previous.appNameKey, previousServerGroup);
+          removeFromIndex(state.clusterToServerGroups, previous.clusterKey, previousServerGroup);
+          changedApps.add(previous.appNameKey);
+          changedClusters.add(previous.clusterKey);
+          removedServerGroups.add(previousServerGroup);
         }
 
-        Set<String> changedApplications =
-            state.updatedJobs.stream()
-                .map(j -> state.jobIdToApp.get(j))
-                .collect(Collectors.toSet());
-        changedApplications.remove(null);
-
-        currentApps.addAll(changedApplications);
-
-        Set<String> jobsNeeded =
-            state.jobIdToApp.entrySet().stream()
-                .filter(entry -> changedApplications.contains(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+        Job job = state.jobs.get(jobId);
+        if (job == null) {
+          continue;
+        }
 
-        jobs =
-            state.jobs.entrySet().stream()
-                .filter(e -> jobsNeeded.contains(e.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-      } else {
-        jobs = state.jobs;
+        Set<Task> tasks = state.tasks.getOrDefault(jobId, emptySet());
+        ServerGroupData data =
+            new ServerGroupData(
+                new com.netflix.spinnaker.clouddriver.titus.client.model.Job(job, EMPTY_LIST),
+                state.scalingPolicies.getOrDefault(jobId.toLowerCase(), emptyList()).stream()
+                    .map(ScalingPolicyData::new)
+                    .collect(Collectors.toList()),
+                state.loadBalancers.getOrDefault(jobId, emptyList()),
+                tasks.stream().map(Task::getId).collect(Collectors.toSet()),
+                account.getName(),
+                region.getName());
+
+        state.serverGroups.put(data.serverGroupKey, new ServerGroupSummary(jobId, data));
+        state.jobIdToServerGroup.put(jobId, data.serverGroupKey);
+        state
+            .appToServerGroups
+            .computeIfAbsent(data.appNameKey, k -> new HashSet<>())
+            .add(data.serverGroupKey);
+        state
+            .clusterToServerGroups
+            .computeIfAbsent(data.clusterKey, k -> new HashSet<>())
+            .add(data.serverGroupKey);
+        changedApps.add(data.appNameKey);
+        changedClusters.add(data.clusterKey);
+        removedServerGroups.remove(data.serverGroupKey);
+
+        cacheServerGroup(data, serverGroupCache);
+        cacheImage(data, imageCache);
+        for (Task task : tasks) {
+          InstanceData instanceData =
+              new InstanceData(
+                  new com.netflix.spinnaker.clouddriver.titus.client.model.Task(task),
+                  data.job.getName(),
+                  account.getName(),
+                  region.getName());
+          cacheInstance(instanceData, instancesCache);
+        }
       }
 
-      List<ServerGroupData> serverGroupDatas =
-          jobs.values().stream()
-              .map(
-                  job -> {
-                    List<ScalingPolicyData> jobScalingPolicies =
-                        scalingPolicyResults.stream()
-                            .filter(
-                                it ->
-                                    it.getJobId().equalsIgnoreCase(job.getId())
-                                        && CACHEABLE_POLICY_STATES.contains(
-                                            it.getPolicyState().getState()))
-                            .map(
-                                it ->
-                                    new ScalingPolicyData(
-                                        it.getId().getId(),
-                                        it.getScalingPolicy(),
-                                        it.getPolicyState()))
-                            .collect(Collectors.toList());
-
-                    List<String> jobLoadBalancers =
-                        allLoadBalancers.getOrDefault(job.getId(), emptyList());
-                    return new ServerGroupData(
-                        new com.netflix.spinnaker.clouddriver.titus.client.model.Job(
-                            job, EMPTY_LIST),
-                        jobScalingPolicies,
-                        jobLoadBalancers,
-                        state.tasks.getOrDefault(job.getId(), emptySet()).stream()
-                            .map(Task::getId)
-                            .collect(Collectors.toSet()),
-                        account.getName(),
-                        region.getName());
-                  })
-              .collect(Collectors.toList());
-
-      serverGroupDatas.forEach(
-          data -> {
-            String app = StringUtils.substringAfterLast(data.appNameKey, ":");
-
-            if (StringUtils.isNotEmpty(app)) {
-              state.appToClusters.computeIfAbsent(app, c -> new HashSet<>()).add(data.clusterKey);
-              state
-                  .appsToServerGroups
-                  .computeIfAbsent(app, c -> new HashSet<>())
-                  .add(data.serverGroupKey);
-              state.clusterKeyToApp.put(data.clusterKey, app);
-              state.sgKeyToApp.put(data.serverGroupKey, app);
-            }
-
-            if (state.savedSnapshot) {
-              currentApps.add(app);
-              currentClusters.add(data.clusterKey);
-              currentServerGroups.add(data.serverGroupKey);
+      List<String> removedApps = new ArrayList<>();
+      changedApps.forEach(
+          app -> {
+            if (state.appToServerGroups.containsKey(app)) {
+              cacheApplication(state, app, applicationCache);
+            } else {
+              removedApps.add(app);
             }
-
-            cacheApplication(data, applicationCache);
-            cacheCluster(data, clusterCache);
-            cacheServerGroup(data, serverGroupCache);
-            cacheImage(data, imageCache);
-            for (Task task : (Set<Task>) state.tasks.getOrDefault(data.job.getId(), EMPTY_SET)) {
-              InstanceData instanceData =
-                  new InstanceData(
-                      new com.netflix.spinnaker.clouddriver.titus.client.model.Task(task),
-                      data.job.getName(),
-                      account.getName(),
-                      region.getName());
-              cacheInstance(instanceData, instancesCache);
+          });
+      List<String> removedClusters = new ArrayList<>();
+      changedClusters.forEach(
+          cluster -> {
+            if (state.clusterToServerGroups.containsKey(cluster)) {
+              cacheCluster(state, cluster, clusterCache);
+            } else {
+              removedClusters.add(cluster);
             }
           });
 
-      if (state.savedSnapshot) {
-        List<String> missingClusters =
-            state.appToClusters.entrySet().stream()
-                .filter(e -> currentApps.contains(e.getKey()))
-                .flatMap(e -> e.getValue().stream())
-                .filter(c -> !currentClusters.contains(c))
-                .collect(Collectors.toList());
-
-        List<String> missingServerGroups =
-            state.appsToServerGroups.entrySet().stream()
-                .filter(e -> currentApps.contains(e.getKey()))
-                .flatMap(e -> e.getValue().stream())
-                .filter(c -> !currentServerGroups.contains(c))
-                .collect(Collectors.toList());
-
-        if (!missingClusters.isEmpty()) {
-          log.info("Evicting {} clusters in {}", missingClusters.size(), getAgentType());
-          cache.evictDeletedItems(CLUSTERS.ns, missingClusters);
-          missingClusters.forEach(
-              cluster -> {
-                state
-                    .appToClusters
-                    .getOrDefault(state.clusterKeyToApp.get(cluster), emptySet())
-                    .remove(cluster);
-                state.clusterKeyToApp.remove(cluster);
-              });
+      if (!snapshot) {
+        if (!removedApps.isEmpty()) {
+          log.info("Evicting {} applications in {}", removedApps.size(), getAgentType());
+          cache.evictDeletedItems(APPLICATIONS.ns, removedApps);
         }
 
-        if (!missingServerGroups.isEmpty()) {
-          log.info("Evicting {} server groups in {}", missingServerGroups.size(), getAgentType());
-          cache.evictDeletedItems(SERVER_GROUPS.ns, missingServerGroups);
-          missingServerGroups.forEach(
-              sg -> {
-                state
-                    .appsToServerGroups
-                    .getOrDefault(state.sgKeyToApp.get(sg), emptySet())
-                    .remove(sg);
-                state.sgKeyToApp.remove(sg);
-              });
+        if (!removedClusters.isEmpty()) {
+          log.info("Evicting {} clusters in {}", removedClusters.size(), getAgentType());
+          cache.evictDeletedItems(CLUSTERS.ns, removedClusters);
+        }
+
+        if (!removedServerGroups.isEmpty()) {
+          log.info("Evicting {} server groups in {}", removedServerGroups.size(), getAgentType());
+          cache.evictDeletedItems(SERVER_GROUPS.ns, removedServerGroups);
         }
 
         if (!state.completedInstanceIds.isEmpty()) {
@@ -677,7 +668,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       cacheResults.put(IMAGES.ns, imageCache.values());
       cacheResults.put(INSTANCES.ns, instancesCache.values());
 
-      String action = state.savedSnapshot ? "Incrementally updating" : "Snapshot caching";
+      String action = snapshot ? "Snapshot caching" : "Incrementally updating";
 
       log.info("{} {} applications in {}", action, applicationCache.size(), getAgentType());
       log.info("{} {} server groups in {}", action, serverGroupCache.size(), getAgentType());
@@ -689,36 +680,55 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       return new DefaultCacheResult(cacheResults);
     }
 
-    /** Build authoritative cache object for applications based on server group data */
-    private void cacheApplication(ServerGroupData data, Map<String, CacheData> applications) {
-      CacheData applicationCache =
-          applications.getOrDefault(data.appNameKey, new MutableCacheData(data.appNameKey));
-      applicationCache.getAttributes().put("name", data.name.getApp());
+    private void removeFromIndex(
+        Map<String, Set<String>> index, String key, String serverGroupKey) {
+      Set<String> serverGroupKeys = index.get(key);
+      if (serverGroupKeys != null) {
+        serverGroupKeys.remove(serverGroupKey);
+        if (serverGroupKeys.isEmpty()) {
+          index.remove(key);
+        }
+      }
+    }
+
+    /** Build authoritative cache object for applications based on the indexed server groups */
+    private void cacheApplication(
+        StreamingCacheState state, String appNameKey, Map<String, CacheData> applications) {
+      Set<String> serverGroupKeys = state.appToServerGroups.get(appNameKey);
+      CacheData applicationCache = new MutableCacheData(appNameKey);
+      Set<String> clusterKeys = new HashSet<>();
+      Set<String> targetGroupKeys = new HashSet<>();
+      for (String serverGroupKey : serverGroupKeys) {
+        ServerGroupSummary serverGroup = state.serverGroups.get(serverGroupKey);
+        applicationCache.getAttributes().put("name", serverGroup.appName);
+        clusterKeys.add(serverGroup.clusterKey);
+        targetGroupKeys.addAll(serverGroup.targetGroupKeys);
+      }
       Map<String, Collection<String>> relationships = applicationCache.getRelationships();
-      relationships.computeIfAbsent(CLUSTERS.ns, key -> new HashSet<>()).add(data.clusterKey);
-      relationships
-          .computeIfAbsent(SERVER_GROUPS.ns, key -> new HashSet<>())
-          .add(data.serverGroupKey);
-      relationships
-          .computeIfAbsent(TARGET_GROUPS.ns, key -> new HashSet<>())
-          .addAll(data.targetGroupKeys);
-      applications.put(data.appNameKey, applicationCache);
+      relationships.put(CLUSTERS.ns, clusterKeys);
+      relationships.put(SERVER_GROUPS.ns, new HashSet<>(serverGroupKeys));
+      relationships.put(TARGET_GROUPS.ns, targetGroupKeys);
+      applications.put(appNameKey, applicationCache);
     }
 
-    /** Build informative cache object for clusters based on server group data */
-    private void cacheCluster(ServerGroupData data, Map<String, CacheData> clusters) {
-      CacheData clusterCache =
-          clusters.getOrDefault(data.clusterKey, new MutableCacheData(data.clusterKey));
-      clusterCache.getAttributes().put("name", data.name.getCluster());
+    /** Build informative cache object for clusters based on the indexed server groups */
+    private void cacheCluster(
+        StreamingCacheState state, String clusterKey, Map<String, CacheData> clusters) {
+      Set<String> serverGroupKeys = state.clusterToServerGroups.get(clusterKey);
+      CacheData clusterCache = new MutableCacheData(clusterKey);
+      Set<String> appNameKeys = new HashSet<>();
+      Set<String> targetGroupKeys = new HashSet<>();
+      for (String serverGroupKey : serverGroupKeys) {
+        ServerGroupSummary serverGroup = state.serverGroups.get(serverGroupKey);
+        clusterCache.getAttributes().put("name", serverGroup.clusterName);
+        appNameKeys.add(serverGroup.appNameKey);
+        targetGroupKeys.addAll(serverGroup.targetGroupKeys);
+      }
       Map<String, Collection<String>> relationships = clusterCache.getRelationships();
-      relationships.computeIfAbsent(APPLICATIONS.ns, key -> new HashSet<>()).add(data.appNameKey);
-      relationships
-          .computeIfAbsent(SERVER_GROUPS.ns, key -> new HashSet<>())
-          .add(data.serverGroupKey);
-      relationships
-          .computeIfAbsent(TARGET_GROUPS.ns, key -> new HashSet<>())
-          .addAll(data.targetGroupKeys);
-      clusters.put(data.clusterKey, clusterCache);
+      relationships.put(APPLICATIONS.ns, appNameKeys);
+      relationships.put(SERVER_GROUPS.ns, new HashSet<>(serverGroupKeys));
+      relationships.put(TARGET_GROUPS.ns, targetGroupKeys);
+      clusters.put(clusterKey, clusterCache);
     }
 
     private void cacheServerGroup(ServerGroupData data, Map<String, CacheData> serverGroups) {
@@ -788,11 +798,16 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       Map<String, Job> jobs = new HashMap<>();
       Map<String, Set<Task>> tasks = new HashMap<>();
 
-      Map<String, String> jobIdToApp = new HashMap<>();
-      Map<String, Set<String>> appToClusters = new HashMap<>();
-      Map<String, Set<String>> appsToServerGroups = new HashMap<>();
-      Map<String, String> clusterKeyToApp = new HashMap<>();
-      Map<String, String> sgKeyToApp = new HashMap<>();
+      // The server groups last cached, indexed to rebuild their applications and clusters
+      Map<String, ServerGroupSummary> serverGroups = new HashMap<>();
+      Map<String, String> jobIdToServerGroup = new HashMap<>();
+      Map<String, Set<String>> appToServerGroups = new HashMap<>();
+      Map<String, Set<String>> clusterToServerGroups = new HashMap<>();
+
+      // Refreshed every titus.streaming.policy-refresh-ms rather than on every update
+      Map<String, List<ScalingPolicyResult>> scalingPolicies = emptyMap();
+      Map<String, List<String>> loadBalancers = emptyMap();
+      long lastPolicyRefresh = 0;
 
       Set<String> completedInstanceIds = new HashSet<>();
       Set<String> updatedJobs = new HashSet<>();
@@ -1003,6 +1018,25 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     }
   }
 
+  /** What rebuilding the application and cluster of a cached server group needs to know of it. */
+  private static class ServerGroupSummary {
+    final String jobId;
+    final String appName;
+    final String appNameKey;
+    final String clusterName;
+    final String clusterKey;
+    final Set<String> targetGroupKeys;
+
+    ServerGroupSummary(String jobId, ServerGroupData data) {
+      this.jobId = jobId;
+      this.appName = data.name.getApp();
+      this.appNameKey = data.appNameKey;
+      this.clusterName = data.name.getCluster();
+      this.clusterKey = data.clusterKey;
+      this.targetGroupKeys = data.targetGroupKeys;
+    }
+  }
+
   private class InstanceData {
     // The instance key, not the task id
     private final String instanceId;
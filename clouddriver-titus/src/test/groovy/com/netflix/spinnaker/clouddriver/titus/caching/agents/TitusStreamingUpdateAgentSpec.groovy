@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.caching.agents
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.cats.agent.CacheResult
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderRegistry
+import com.netflix.spinnaker.clouddriver.titus.TitusClientProvider
+import com.netflix.spinnaker.clouddriver.titus.caching.Keys
+import com.netflix.spinnaker.clouddriver.titus.caching.utils.AwsLookupUtil
+import com.netflix.spinnaker.clouddriver.titus.client.TitusAutoscalingClient
+import com.netflix.spinnaker.clouddriver.titus.client.TitusClient
+import com.netflix.spinnaker.clouddriver.titus.client.TitusRegion
+import com.netflix.spinnaker.clouddriver.titus.credentials.NetflixTitusCredentials
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.titus.grpc.protogen.Job
+import com.netflix.titus.grpc.protogen.JobChangeNotification
+import com.netflix.titus.grpc.protogen.JobDescriptor
+import com.netflix.titus.grpc.protogen.JobStatus
+import com.netflix.titus.grpc.protogen.ScalingPolicyID
+import com.netflix.titus.grpc.protogen.ScalingPolicyResult
+import com.netflix.titus.grpc.protogen.ScalingPolicyStatus
+import com.netflix.titus.grpc.protogen.Task
+import com.netflix.titus.grpc.protogen.TaskStatus
+import io.grpc.Status
+import io.grpc.StatusRuntimeException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Provider
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.APPLICATIONS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.CLUSTERS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.INSTANCES
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.SERVER_GROUPS
+
+class TitusStreamingUpdateAgentSpec extends Specification {
+  static final String ACCOUNT = 'test'
+  static final String REGION = 'us-east-1'
+
+  TitusClient titusClient = Stub()
+  TitusAutoscalingClient autoscalingClient = Stub()
+  ProviderCache providerCache = Stub()
+  DynamicConfigService dynamicConfigService = Stub()
+
+  List<JobChangeNotification> notifications = []
+  CountDownLatch streamed = new CountDownLatch(1)
+  int policyRefreshMs = 60000
+  List<List<ScalingPolicyResult>> scalingPolicies = [[]]
+  int scalingPolicyFetches = 0
+
+  List<CacheResult> snapshots = []
+  List<CacheResult> updates = []
+  Map<String, Set<String>> evicted = [:].withDefault { [] as Set }
+
+  TitusStreamingUpdateAgent agent
+
+  def setup() {
+    def credentials = Stub(NetflixTitusCredentials) {
+      getName() >> ACCOUNT
+    }
+    def region = new TitusRegion(REGION, ACCOUNT, 'https://titus.example.com', null, null, null, null, null, null)
+    def clientProvider = Stub(TitusClientProvider) {
+      getTitusClient(credentials, REGION) >> titusClient
+      getTitusAutoscalingClient(credentials, REGION) >> autoscalingClient
+    }
+
+    def awsLookupUtil = Stub(AwsLookupUtil)
+
+    titusClient.observeJobs(_) >> { stream() }
+    autoscalingClient.getAllScalingPolicies() >> {
+      scalingPolicies[Math.min(scalingPolicyFetches++, scalingPolicies.size() - 1)]
+    }
+    dynamicConfigService.getConfig(Integer, 'titus.streaming.change-threshold', _) >> 1
+    dynamicConfigService.getConfig(Integer, 'titus.streaming.policy-refresh-ms', _) >> { policyRefreshMs }
+    dynamicConfigService.getConfig(Integer, _, _) >> { Class type, String name, Integer defaultValue -> defaultValue }
+    providerCache.putCacheResult(_, _, _) >> { String agentType, Collection types, CacheResult result -> snapshots << result }
+    providerCache.addCacheResult(_, _, _) >> { String agentType, Collection types, CacheResult result -> updates << result }
+    providerCache.evictDeletedItems(_, _) >> { String type, Collection ids -> evicted[type].addAll(ids) }
+
+    agent = new TitusStreamingUpdateAgent(
+      clientProvider,
+      credentials,
+      region,
+      new ObjectMapper(),
+      new NoopRegistry(),
+      { awsLookupUtil } as Provider<AwsLookupUtil>,
+      dynamicConfigService)
+  }
+
+  void "caches the snapshot and then only the jobs added, updated or finished since"() {
+    given:
+    notifications = [
+      jobUpdate('job-1', 'app-stack-v001'),
+      taskUpdate('task-1', 'job-1', TaskStatus.TaskState.Started),
+      snapshotEnd(),
+      jobUpdate('job-2', 'app-stack-v002'),
+      jobUpdate('job-1', 'app-stack-v001', JobStatus.JobState.Finished)
+    ]
+
+    when:
+    runAgent()
+
+    then:
+    snapshots.size() == 1
+    ids(snapshots[0], SERVER_GROUPS.ns) == [serverGroupKey('app-stack-v001')] as Set
+    ids(snapshots[0], INSTANCES.ns) == [instanceKey('task-1')] as Set
+
+    updates.size() == 2
+    ids(updates[0], SERVER_GROUPS.ns) == [serverGroupKey('app-stack-v002')] as Set
+    updates[0].cacheResults[CLUSTERS.ns]*.relationships*.get(SERVER_GROUPS.ns) ==
+      [[serverGroupKey('app-stack-v001'), serverGroupKey('app-stack-v002')] as Set]
+
+    ids(updates[1], SERVER_GROUPS.ns).isEmpty()
+    updates[1].cacheResults[CLUSTERS.ns]*.relationships*.get(SERVER_GROUPS.ns) ==
+      [[serverGroupKey('app-stack-v002')] as Set]
+    updates[1].cacheResults[APPLICATIONS.ns]*.relationships*.get(SERVER_GROUPS.ns) ==
+      [[serverGroupKey('app-stack-v002')] as Set]
+    evicted[SERVER_GROUPS.ns] == [serverGroupKey('app-stack-v001')] as Set
+    evicted[INSTANCES.ns] == [instanceKey('task-1')] as Set
+    !evicted.containsKey(CLUSTERS.ns)
+    !evicted.containsKey(APPLICATIONS.ns)
+  }
+
+  void "evicts the clusters and applications whose last server group finished"() {
+    given:
+    notifications = [
+      jobUpdate('job-1', 'app-stack-v001'),
+      jobUpdate('job-2', 'other-v001'),
+      snapshotEnd(),
+      jobUpdate('job-2', 'other-v001', JobStatus.JobState.Finished)
+    ]
+
+    when:
+    runAgent()
+
+    then:
+    updates.size() == 1
+    updates[0].cacheResults[CLUSTERS.ns].isEmpty()
+    updates[0].cacheResults[APPLICATIONS.ns].isEmpty()
+    evicted[SERVER_GROUPS.ns] == [serverGroupKey('other-v001')] as Set
+    evicted[CLUSTERS.ns] == [Keys.getClusterV2Key('other', 'other', ACCOUNT)] as Set
+    evicted[APPLICATIONS.ns] == [Keys.getApplicationKey('other')] as Set
+  }
+
+  @Unroll
+  void "tolerates a job whose server group was last cached from job #finished"() {
+    given: 'two jobs cached as the same server group'
+    notifications = [
+      jobUpdate('job-1', 'app-stack-v001'),
+      jobUpdate('job-3', 'app-stack-v001'),
+      snapshotEnd(),
+      jobUpdate(finished, 'app-stack-v001', JobStatus.JobState.Finished),
+      taskUpdate('task-1', updated, TaskStatus.TaskState.Started)
+    ]
+
+    when:
+    runAgent()
+
+    then:
+    updates.size() == 2
+    ids(updates[1], SERVER_GROUPS.ns) == [serverGroupKey('app-stack-v001')] as Set
+    ids(updates[1], INSTANCES.ns) == [instanceKey('task-1')] as Set
+
+    where:
+    finished | updated
+    'job-1'  | 'job-3'
+    'job-3'  | 'job-1'
+  }
+
+  @Unroll
+  void "refreshes scaling policies every #refreshMs ms"() {
+    given:
+    policyRefreshMs = refreshMs
+    scalingPolicies = [[], [scalingPolicy('job-2')]]
+    notifications = [
+      jobUpdate('job-1', 'app-stack-v001'),
+      jobUpdate('job-2', 'other-v001'),
+      snapshotEnd(),
+      jobUpdate('job-1', 'app-stack-v001')
+    ]
+
+    when:
+    runAgent()
+
+    then:
+    scalingPolicyFetches == fetches
+    ids(updates[0], SERVER_GROUPS.ns) == updatedServerGroups.collect { serverGroupKey(it) } as Set
+    updates[0].cacheResults[SERVER_GROUPS.ns].find {
+      it.id == serverGroupKey('other-v001')
+    }?.attributes?.scalingPolicies?.size() == otherPolicies
+
+    where:
+    refreshMs || fetches | updatedServerGroups                 | otherPolicies
+    0         || 2       | ['app-stack-v001', 'other-v001']    | 1
+    60000     || 1       | ['app-stack-v001']                  | null
+  }
+
+  private void runAgent() {
+    agent.getAgentExecution(Stub(ProviderRegistry) {
+      getProviderCache(_) >> providerCache
+    }).executeAgent(agent)
+    assert streamed.await(30, TimeUnit.SECONDS)
+  }
+
+  /**
+   * Streams notifications and then ends the agent's execution: the agent gives up streaming when
+   * it is interrupted while backing off from a failed stream.
+   */
+  private Iterator<JobChangeNotification> stream() {
+    Iterator<JobChangeNotification> remaining = notifications.iterator()
+    new Iterator<JobChangeNotification>() {
+      @Override
+      boolean hasNext() {
+        if (remaining.hasNext()) {
+          return true
+        }
+        Thread.currentThread().interrupt()
+        streamed.countDown()
+        throw new StatusRuntimeException(Status.UNAVAILABLE)
+      }
+
+      @Override
+      JobChangeNotification next() {
+        remaining.next()
+      }
+    }
+  }
+
+  private static JobChangeNotification jobUpdate(
+    String id, String name, JobStatus.JobState state = JobStatus.JobState.Accepted) {
+    JobChangeNotification.newBuilder()
+      .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder().setJob(
+        Job.newBuilder()
+          .setId(id)
+          .setStatus(JobStatus.newBuilder().setState(state))
+          .setJobDescriptor(JobDescriptor.newBuilder().putAttributes('name', name))))
+      .build()
+  }
+
+  private static JobChangeNotification taskUpdate(String id, String jobId, TaskStatus.TaskState state) {
+    JobChangeNotification.newBuilder()
+      .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(
+        Task.newBuilder().setId(id).setJobId(jobId).setStatus(TaskStatus.newBuilder().setState(state))))
+      .build()
+  }
+
+  private static JobChangeNotification snapshotEnd() {
+    JobChangeNotification.newBuilder()
+      .setSnapshotEnd(JobChangeNotification.SnapshotEnd.newBuilder())
+      .build()
+  }
+
+  private static ScalingPolicyResult scalingPolicy(String jobId) {
+    ScalingPolicyResult.newBuilder()
+      .setId(ScalingPolicyID.newBuilder().setId("$jobId-policy".toString()))
+      .setJobId(jobId)
+      .setPolicyState(ScalingPolicyStatus.newBuilder().setState(ScalingPolicyStatus.ScalingPolicyState.Applied))
+      .build()
+  }
+
+  private static Set<String> ids(CacheResult result, String type) {
+    result.cacheResults[type]*.id as Set
+  }
+
+  private static String serverGroupKey(String name) {
+    Keys.getServerGroupV2Key(name, ACCOUNT, REGION)
+  }
+
+  private static String instanceKey(String taskId) {
+    Keys.getInstanceV2Key(taskId, ACCOUNT, REGION)
+  }
+}